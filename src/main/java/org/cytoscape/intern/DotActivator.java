@@ -20,6 +20,7 @@ package org.cytoscape.intern;
 
 import java.util.Properties;
 
+import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.intern.read.DotReaderFactory;
 import org.cytoscape.intern.write.DotWriterFactory;
 import org.cytoscape.io.BasicCyFileFilter;
@@ -32,6 +33,9 @@ import org.cytoscape.service.util.AbstractCyActivator;
 import org.cytoscape.view.model.CyNetworkViewFactory;
 import org.cytoscape.view.presentation.RenderingEngineManager;
 import org.cytoscape.view.presentation.customgraphics.CyCustomGraphics2Factory;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
+import org.cytoscape.view.vizmap.VisualMappingFunctionFactory;
 import org.cytoscape.view.vizmap.VisualMappingManager;
 import org.cytoscape.view.vizmap.VisualStyleFactory;
 import org.cytoscape.work.ServiceProperties;
@@ -75,6 +79,11 @@ public class DotActivator extends AbstractCyActivator {
 		CyRootNetworkManager rootNetMgr = getService(context, CyRootNetworkManager.class);
 		VisualMappingManager vizMapMgr = getService(context, VisualMappingManager.class);
 		VisualStyleFactory vizStyleFact = getService(context, VisualStyleFactory.class);
+		CyEventHelper eventHelper = getService(context, CyEventHelper.class);
+		VisualMappingFunctionFactory passthroughFact = getService(context, VisualMappingFunctionFactory.class,
+				"(mapping.type=passthrough)");
+		BendFactory bendFact = getService(context, BendFactory.class);
+		HandleFactory handleFact = getService(context, HandleFactory.class);
 		
 		// create properties for TaskFactories
 		Properties dotWriterFactProps = new Properties();
@@ -93,7 +102,8 @@ public class DotActivator extends AbstractCyActivator {
 		// initialize the DotReaderFactory for later use
 		LOGGER.info("Constructing Reader Factory...");
 		DotReaderFactory dotReadFact = new DotReaderFactory(fileFilter, netViewFact,
-				netFact, netMgr, rootNetMgr, vizMapMgr, vizStyleFact, gradientListener, rendEngMgr);
+				netFact, netMgr, rootNetMgr, vizMapMgr, vizStyleFact, gradientListener, rendEngMgr, eventHelper,
+				passthroughFact, bendFact, handleFact);
 		
 		
 		LOGGER.info("Registering Writer Factory as OSGI service...");
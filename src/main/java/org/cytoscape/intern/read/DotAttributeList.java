@@ -0,0 +1,148 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reusable list of DOT attribute name/value pairs. The parser fills one
+ * instance per statement and hands it to the DotGraphHandler, so a handler
+ * must copy anything it wants to keep before returning from the callback.
+ */
+public class DotAttributeList {
+
+	// attribute names and values, stored in parallel
+	private String[] names = new String[8];
+	private String[] values = new String[8];
+
+	// number of attributes in the list
+	private int size = 0;
+
+	/**
+	 * Appends an attribute to the list. If the attribute is already in the
+	 * list its value is replaced, as DOT uses the last assignment.
+	 *
+	 * @param name name of the attribute
+	 * @param value value of the attribute
+	 */
+	public void add(String name, String value) {
+		for (int i = 0; i < size; i++) {
+			if (names[i].equals(name)) {
+				values[i] = value;
+				return;
+			}
+		}
+		if (size == names.length) {
+			names = Arrays.copyOf(names, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		names[size] = name;
+		values[size] = value;
+		size++;
+	}
+
+	/**
+	 * Empties the list so it can be reused for the next statement
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			names[i] = null;
+			values[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns the value of an attribute
+	 *
+	 * @param name name of the attribute
+	 * @return value of the attribute or null if it is not in the list
+	 */
+	public String get(String name) {
+		for (int i = 0; i < size; i++) {
+			if (names[i].equals(name)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the name of the attribute at an index
+	 *
+	 * @param index index of the attribute, 0 <= index < size()
+	 * @return attribute name
+	 */
+	public String getName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Returns the value of the attribute at an index
+	 *
+	 * @param index index of the attribute, 0 <= index < size()
+	 * @return attribute value
+	 */
+	public String getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns true if the list has no attributes
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of attributes in the list
+	 *
+	 * @return number of attributes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Copies the attributes into a new Map
+	 *
+	 * @return Map where key is attribute name and value is attribute value
+	 */
+	public Map<String, String> toMap() {
+		Map<String, String> output = new HashMap<String, String>();
+		putAllInto(output);
+		return output;
+	}
+
+	/**
+	 * Copies the attributes into an existing Map, replacing values of
+	 * attributes already in it
+	 *
+	 * @param output Map the attributes are copied into
+	 */
+	public void putAllInto(Map<String, String> output) {
+		for (int i = 0; i < size; i++) {
+			output.put(names[i], values[i]);
+		}
+	}
+}
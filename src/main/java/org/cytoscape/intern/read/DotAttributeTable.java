@@ -0,0 +1,244 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.util.Arrays;
+
+/**
+ * Attributes of all nodes or all edges of a graph, stored by column. Each
+ * attribute name that appears in the graph gets one int column indexed by
+ * element index, holding a code into a StringTable of attribute values, so
+ * a value repeated on thousands of elements is stored once.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotAttributeTable {
+
+	// distinct attribute values, may be shared with other tables
+	private final StringTable values;
+
+	// attribute names, one per column
+	private final StringTable names = new StringTable();
+
+	// value index + 1 for each element, 0 if the element does not set it
+	private int[][] columns = new int[4][];
+
+	// number of elements each column has room for
+	private int capacity;
+
+	/**
+	 * Constructs an empty DotAttributeTable
+	 *
+	 * @param values StringTable the attribute values are stored in
+	 * @param expectedRows number of elements expected to be added
+	 */
+	public DotAttributeTable(StringTable values, int expectedRows) {
+		this.values = values;
+		this.capacity = Math.max(expectedRows, 16);
+	}
+
+	/**
+	 * Sets the value of an attribute for an element, replacing any previous
+	 * value
+	 *
+	 * @param row index of the element
+	 * @param name name of the attribute
+	 * @param value value of the attribute
+	 */
+	public void set(int row, String name, String value) {
+		if (row >= capacity) {
+			grow(row + 1);
+		}
+		int column = names.intern(name);
+		if (column == columns.length) {
+			columns = Arrays.copyOf(columns, column * 2);
+		}
+		if (columns[column] == null) {
+			columns[column] = new int[capacity];
+		}
+		columns[column][row] = values.intern(value) + 1;
+	}
+
+	/**
+	 * Sets every attribute in a DotAttributeList for an element
+	 *
+	 * @param row index of the element
+	 * @param attrs attributes to set
+	 */
+	public void setAll(int row, DotAttributeList attrs) {
+		for (int i = 0; i < attrs.size(); i++) {
+			set(row, attrs.getName(i), attrs.getValue(i));
+		}
+	}
+
+	/**
+	 * Returns the number of distinct attribute names in the table
+	 *
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return names.size();
+	}
+
+	/**
+	 * Returns the attribute name of a column
+	 *
+	 * @param column index of the column
+	 * @return attribute name
+	 */
+	public String getColumnName(int column) {
+		return names.get(column);
+	}
+
+	/**
+	 * Returns the column index of an attribute name
+	 *
+	 * @param name attribute name
+	 * @return column index or -1 if no element sets the attribute
+	 */
+	public int getColumnIndex(String name) {
+		return names.indexOf(name);
+	}
+
+	/**
+	 * Returns the value of an attribute for an element
+	 *
+	 * @param row index of the element
+	 * @param column index of the column, may be -1
+	 * @return attribute value or null if the element does not set it
+	 */
+	public String get(int row, int column) {
+		if (column < 0 || row >= capacity) {
+			return null;
+		}
+		int code = columns[column][row];
+		return code == 0 ? null : values.get(code - 1);
+	}
+
+	/**
+	 * Returns the value of an attribute for an element
+	 *
+	 * @param row index of the element
+	 * @param name attribute name
+	 * @return attribute value or null if the element does not set it
+	 */
+	public String get(int row, String name) {
+		return get(row, getColumnIndex(name));
+	}
+
+	/**
+	 * Removes the value of an attribute for an element
+	 *
+	 * @param row index of the element
+	 * @param column index of the column
+	 */
+	public void remove(int row, int column) {
+		if (row < capacity) {
+			columns[column][row] = 0;
+		}
+	}
+
+	/**
+	 * Returns the index of the value of an attribute for an element in the
+	 * table of distinct values
+	 *
+	 * @param row index of the element
+	 * @param column index of the column
+	 * @return index of the value or -1 if the element does not set it
+	 */
+	public int getValueIndex(int row, int column) {
+		if (row >= capacity) {
+			return -1;
+		}
+		return columns[column][row] - 1;
+	}
+
+	/**
+	 * Returns the index of a value in the table of distinct values
+	 *
+	 * @param value attribute value
+	 * @return index of the value or -1 if no element has it
+	 */
+	public int indexOfValue(String value) {
+		return values.indexOf(value);
+	}
+
+	/**
+	 * Returns a value from the table of distinct values
+	 *
+	 * @param valueIndex index of the value
+	 * @return attribute value
+	 */
+	public String getValue(int valueIndex) {
+		return values.get(valueIndex);
+	}
+
+	/**
+	 * Returns the number of distinct values, which bounds the value indices
+	 *
+	 * @return number of distinct values
+	 */
+	public int getValueCount() {
+		return values.size();
+	}
+
+	/**
+	 * Returns whether an element sets any attribute
+	 *
+	 * @param row index of the element
+	 * @return true if at least one attribute is set
+	 */
+	public boolean hasAttributes(int row) {
+		if (row >= capacity) {
+			return false;
+		}
+		for (int column = 0; column < names.size(); column++) {
+			if (columns[column][row] != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Shrinks every column to a number of elements, once all elements have
+	 * been added
+	 *
+	 * @param rows number of elements in the table
+	 */
+	public void trimToSize(int rows) {
+		for (int column = 0; column < names.size(); column++) {
+			columns[column] = Arrays.copyOf(columns[column], rows);
+		}
+		capacity = rows;
+	}
+
+	/*
+	 * Grows every column to hold at least minCapacity elements
+	 */
+	private void grow(int minCapacity) {
+		int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+		for (int column = 0; column < names.size(); column++) {
+			columns[column] = Arrays.copyOf(columns[column], newCapacity);
+		}
+		capacity = newCapacity;
+	}
+}
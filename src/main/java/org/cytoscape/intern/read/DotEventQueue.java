@@ -0,0 +1,337 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue connecting a DotParser running on one thread to a
+ * DotGraphHandler running on another. The parser side is a DotGraphHandler
+ * that copies events into fixed-size batches, and the consumer side replays
+ * them in order with drainTo(). Batches are recycled, so a steady-state
+ * import allocates nothing here beyond the strings the lexer creates.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotEventQueue implements DotGraphHandler {
+
+	// event codes stored in a batch
+	private static final byte START_GRAPH = 0;
+	private static final byte GRAPH_ATTRIBUTE = 1;
+	private static final byte DEFAULT_ATTRIBUTES = 2;
+	private static final byte START_SUBGRAPH = 3;
+	private static final byte END_SUBGRAPH = 4;
+	private static final byte NODE = 5;
+	private static final byte EDGE = 6;
+	private static final byte END_GRAPH = 7;
+
+	// flags stored with START_GRAPH and EDGE events
+	private static final int DIRECTED = 1;
+	private static final int STRICT = 2;
+
+	// how long a blocked producer waits before checking for cancellation
+	private static final long OFFER_TIMEOUT_MS = 100;
+
+	/*
+	 * Group of events handed across the queue at once. Each event has a code,
+	 * two string arguments, an int of flags and a range of attributes.
+	 */
+	private static final class EventBatch {
+		byte[] codes;
+		String[] args;
+		int[] flags;
+		int[] attrEnds;
+		String[] attrNames = new String[256];
+		String[] attrValues = new String[256];
+		int size = 0;
+		int attrSize = 0;
+
+		// set on the final batch of the input
+		boolean last = false;
+		Exception error = null;
+
+		EventBatch(int capacity) {
+			codes = new byte[capacity];
+			args = new String[capacity * 2];
+			flags = new int[capacity];
+			attrEnds = new int[capacity];
+		}
+
+		boolean isFull() {
+			return size == codes.length;
+		}
+
+		void add(byte code, String arg0, String arg1, int flag, DotAttributeList attrs) {
+			codes[size] = code;
+			args[size * 2] = arg0;
+			args[size * 2 + 1] = arg1;
+			flags[size] = flag;
+			if (attrs != null) {
+				int count = attrs.size();
+				if (attrSize + count > attrNames.length) {
+					int length = Math.max(attrNames.length * 2, attrSize + count);
+					attrNames = Arrays.copyOf(attrNames, length);
+					attrValues = Arrays.copyOf(attrValues, length);
+				}
+				for (int i = 0; i < count; i++) {
+					attrNames[attrSize] = attrs.getName(i);
+					attrValues[attrSize] = attrs.getValue(i);
+					attrSize++;
+				}
+			}
+			attrEnds[size] = attrSize;
+			size++;
+		}
+
+		void clear() {
+			Arrays.fill(args, 0, size * 2, null);
+			Arrays.fill(attrNames, 0, attrSize, null);
+			Arrays.fill(attrValues, 0, attrSize, null);
+			size = 0;
+			attrSize = 0;
+			last = false;
+			error = null;
+		}
+	}
+
+	// number of events per batch
+	private final int batchSize;
+
+	// batches waiting to be replayed, and empty batches ready for reuse
+	private final BlockingQueue<EventBatch> filled;
+	private final BlockingQueue<EventBatch> free;
+
+	// batch currently being filled by the producer
+	private EventBatch current;
+
+	// attribute list the consumer replays attributes through
+	private final DotAttributeList replayAttrs = new DotAttributeList();
+
+	// set when either side gives up so that the other side stops waiting
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Constructs a DotEventQueue
+	 *
+	 * @param capacity number of batches that can wait in the queue before
+	 * the producer blocks
+	 * @param batchSize number of events per batch
+	 */
+	public DotEventQueue(int capacity, int batchSize) {
+		this.batchSize = batchSize;
+		filled = new ArrayBlockingQueue<EventBatch>(capacity);
+		free = new ArrayBlockingQueue<EventBatch>(capacity + 2);
+		current = new EventBatch(batchSize);
+	}
+
+	/**
+	 * Stops both sides of the queue. A blocked producer returns without
+	 * queueing its batch and drainTo() returns at the next batch.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Called by the producer once the whole input has been parsed
+	 */
+	public void finish() {
+		current.last = true;
+		push();
+	}
+
+	/**
+	 * Called by the producer if parsing failed. The exception is rethrown by
+	 * drainTo() once the events before it have been replayed.
+	 *
+	 * @param error exception thrown while parsing, should be an IOException,
+	 * DotParseException or RuntimeException
+	 */
+	public void fail(Exception error) {
+		current.last = true;
+		current.error = error;
+		push();
+	}
+
+	/**
+	 * Replays queued events onto a handler in the order they were produced,
+	 * until the producer calls finish() or fail(), or the queue is cancelled
+	 *
+	 * @param handler DotGraphHandler that receives the events
+	 * @throws IOException if the producer failed with one
+	 * @throws DotParseException if the producer failed with one
+	 * @throws InterruptedException if the consuming thread is interrupted
+	 */
+	public void drainTo(DotGraphHandler handler) throws IOException, DotParseException, InterruptedException {
+		while (!cancelled) {
+			EventBatch batch = filled.poll(OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+			if (batch == null) {
+				continue;
+			}
+			replay(batch, handler);
+			if (batch.last) {
+				rethrow(batch.error);
+				return;
+			}
+			batch.clear();
+			free.offer(batch);
+		}
+	}
+
+	/*
+	 * Invokes the handler callback for every event in a batch
+	 */
+	private void replay(EventBatch batch, DotGraphHandler handler) {
+		int attrStart = 0;
+		for (int i = 0; i < batch.size && !cancelled; i++) {
+			String arg0 = batch.args[i * 2];
+			String arg1 = batch.args[i * 2 + 1];
+			int flag = batch.flags[i];
+			int attrEnd = batch.attrEnds[i];
+			replayAttrs.clear();
+			for (int j = attrStart; j < attrEnd; j++) {
+				replayAttrs.add(batch.attrNames[j], batch.attrValues[j]);
+			}
+			attrStart = attrEnd;
+
+			switch (batch.codes[i]) {
+				case START_GRAPH:
+					handler.startGraph(arg0, (flag & DIRECTED) != 0, (flag & STRICT) != 0);
+					break;
+				case GRAPH_ATTRIBUTE:
+					handler.graphAttribute(arg0, arg1);
+					break;
+				case DEFAULT_ATTRIBUTES:
+					handler.defaultAttributes(DefaultType.values()[flag], replayAttrs);
+					break;
+				case START_SUBGRAPH:
+					handler.startSubgraph(arg0);
+					break;
+				case END_SUBGRAPH:
+					handler.endSubgraph();
+					break;
+				case NODE:
+					handler.node(arg0, replayAttrs);
+					break;
+				case EDGE:
+					handler.edge(arg0, arg1, (flag & DIRECTED) != 0, replayAttrs);
+					break;
+				case END_GRAPH:
+					handler.endGraph();
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	/*
+	 * Rethrows an exception passed to fail() with its original type
+	 */
+	private static void rethrow(Exception error) throws IOException, DotParseException {
+		if (error == null) {
+			return;
+		}
+		if (error instanceof IOException) {
+			throw (IOException) error;
+		}
+		if (error instanceof DotParseException) {
+			throw (DotParseException) error;
+		}
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+		throw new RuntimeException(error);
+	}
+
+	/*
+	 * Queues the current batch and starts a new one, blocking while the
+	 * queue is full
+	 */
+	private void push() {
+		EventBatch batch = current;
+		try {
+			while (!cancelled && !filled.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				// wait for the consumer to catch up
+			}
+		}
+		catch (InterruptedException e) {
+			cancelled = true;
+			Thread.currentThread().interrupt();
+		}
+		EventBatch next = free.poll();
+		current = next != null ? next : new EventBatch(batchSize);
+	}
+
+	/*
+	 * Appends an event to the current batch, queueing it if it is full
+	 */
+	private void add(byte code, String arg0, String arg1, int flag, DotAttributeList attrs) {
+		current.add(code, arg0, arg1, flag, attrs);
+		if (current.isFull()) {
+			push();
+		}
+	}
+
+	@Override
+	public void startGraph(String id, boolean directed, boolean strict) {
+		add(START_GRAPH, id, null, (directed ? DIRECTED : 0) | (strict ? STRICT : 0), null);
+	}
+
+	@Override
+	public void graphAttribute(String name, String value) {
+		add(GRAPH_ATTRIBUTE, name, value, 0, null);
+	}
+
+	@Override
+	public void defaultAttributes(DefaultType type, DotAttributeList attrs) {
+		add(DEFAULT_ATTRIBUTES, null, null, type.ordinal(), attrs);
+	}
+
+	@Override
+	public void startSubgraph(String id) {
+		add(START_SUBGRAPH, id, null, 0, null);
+	}
+
+	@Override
+	public void endSubgraph() {
+		add(END_SUBGRAPH, null, null, 0, null);
+	}
+
+	@Override
+	public void node(String id, DotAttributeList attrs) {
+		add(NODE, id, null, 0, attrs);
+	}
+
+	@Override
+	public void edge(String sourceId, String targetId, boolean directed, DotAttributeList attrs) {
+		add(EDGE, sourceId, targetId, directed ? DIRECTED : 0, attrs);
+	}
+
+	@Override
+	public void endGraph() {
+		add(END_GRAPH, null, null, 0, null);
+	}
+}
@@ -0,0 +1,323 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+
+/**
+ * Compact representation of one top level graph of a DOT file, kept from
+ * the time the graph is parsed until its CyNetworkView is built. Nodes and
+ * edges are identified by dense indices in the order they were first seen:
+ * node IDs live in a StringTable, edge endpoints, SUIDs and Views in
+ * parallel arrays and element attributes in dictionary-coded
+ * DotAttributeTables.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotGraph {
+
+	// ID of the graph, null if anonymous
+	private final String name;
+
+	// true if the graph was declared as a digraph
+	private final boolean directed;
+
+	// attributes set with ID = ID statements in the graph body
+	private final Map<String, String> graphAttrs = new HashMap<String, String>();
+
+	// attributes set with graph [...], node [...] and edge [...] statements
+	private final Map<String, String> graphDefaults = new HashMap<String, String>();
+	private final Map<String, String> nodeDefaults = new HashMap<String, String>();
+	private final Map<String, String> edgeDefaults = new HashMap<String, String>();
+
+	// default number of nodes and edges the arrays are sized for
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	// node IDs, the index of an ID is the index of the node, null once
+	// the graph is parsed
+	private StringTable nodeIds;
+
+	// name in the node table, CyNode and SUID of each node index, the names
+	// are dropped once the graph is parsed
+	private String[] nodeNames;
+	private CyNode[] cyNodes;
+	private long[] nodeSuids;
+
+	// source and target node indices, CyEdge and SUID of each edge index
+	private int[] edgeSources;
+	private int[] edgeTargets;
+	private CyEdge[] cyEdges;
+	private long[] edgeSuids;
+	private int edgeCount = 0;
+
+	// View of each node and edge index, null until bindViews() is called
+	private View<CyNode>[] nodeViews;
+	private View<CyEdge>[] edgeViews;
+
+	// set for every edge declared with ->
+	private final BitSet directedEdges;
+
+	// attributes declared on the statements of each node and edge,
+	// sharing one table of distinct values
+	private final StringTable attrValues = new StringTable();
+	private final DotAttributeTable nodeAttrs;
+	private final DotAttributeTable edgeAttrs;
+
+	/**
+	 * Constructs a DotGraph
+	 *
+	 * @param name ID of the graph, null if anonymous
+	 * @param directed true if the graph was declared as a digraph
+	 */
+	public DotGraph(String name, boolean directed) {
+		this(name, directed, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a DotGraph sized for an expected number of nodes and edges
+	 *
+	 * @param name ID of the graph, null if anonymous
+	 * @param directed true if the graph was declared as a digraph
+	 * @param expectedNodes number of nodes expected to be added
+	 * @param expectedEdges number of edges expected to be added
+	 */
+	public DotGraph(String name, boolean directed, int expectedNodes, int expectedEdges) {
+		this.name = name;
+		this.directed = directed;
+		int nodeCapacity = Math.max(expectedNodes, 16);
+		int edgeCapacity = Math.max(expectedEdges, 16);
+		nodeIds = new StringTable(nodeCapacity);
+		nodeNames = new String[nodeCapacity];
+		cyNodes = new CyNode[nodeCapacity];
+		nodeSuids = new long[nodeCapacity];
+		edgeSources = new int[edgeCapacity];
+		edgeTargets = new int[edgeCapacity];
+		cyEdges = new CyEdge[edgeCapacity];
+		edgeSuids = new long[edgeCapacity];
+		directedEdges = new BitSet(edgeCapacity);
+		nodeAttrs = new DotAttributeTable(attrValues, nodeCapacity);
+		edgeAttrs = new DotAttributeTable(attrValues, edgeCapacity);
+	}
+
+	/**
+	 * Returns the index of a node
+	 *
+	 * @param id ID of the node in the DOT file
+	 * @return index of the node or -1 if it has not been added
+	 */
+	public int getNodeIndex(String id) {
+		return nodeIds.indexOf(id);
+	}
+
+	/**
+	 * Adds a node named after its ID
+	 *
+	 * @param id ID of the node in the DOT file
+	 * @param cyNode CyNode created for the node, null if the graph is not
+	 * backed by a CyNetwork
+	 * @return index of the node
+	 */
+	public int addNode(String id, CyNode cyNode) {
+		return addNode(id, id, cyNode);
+	}
+
+	/**
+	 * Adds a node
+	 *
+	 * @param id ID of the node in the DOT file
+	 * @param nodeName name of the node in the node table
+	 * @param cyNode CyNode created for the node, null if the graph is not
+	 * backed by a CyNetwork
+	 * @return index of the node
+	 */
+	public int addNode(String id, String nodeName, CyNode cyNode) {
+		int index = nodeIds.intern(id);
+		if (index == cyNodes.length) {
+			nodeNames = Arrays.copyOf(nodeNames, index * 2);
+			cyNodes = Arrays.copyOf(cyNodes, index * 2);
+			nodeSuids = Arrays.copyOf(nodeSuids, index * 2);
+		}
+		nodeNames[index] = nodeName;
+		cyNodes[index] = cyNode;
+		nodeSuids[index] = cyNode == null ? 0 : cyNode.getSUID();
+		return index;
+	}
+
+	/**
+	 * Adds an edge
+	 *
+	 * @param source index of the source node
+	 * @param target index of the target node
+	 * @param directedEdge true if the edge was declared with ->
+	 * @param cyEdge CyEdge created for the edge, null if the graph is not
+	 * backed by a CyNetwork
+	 * @return index of the edge
+	 */
+	public int addEdge(int source, int target, boolean directedEdge, CyEdge cyEdge) {
+		if (edgeCount == edgeSources.length) {
+			int length = edgeCount * 2;
+			edgeSources = Arrays.copyOf(edgeSources, length);
+			edgeTargets = Arrays.copyOf(edgeTargets, length);
+			cyEdges = Arrays.copyOf(cyEdges, length);
+			edgeSuids = Arrays.copyOf(edgeSuids, length);
+		}
+		edgeSources[edgeCount] = source;
+		edgeTargets[edgeCount] = target;
+		cyEdges[edgeCount] = cyEdge;
+		edgeSuids[edgeCount] = cyEdge == null ? 0 : cyEdge.getSUID();
+		if (directedEdge) {
+			directedEdges.set(edgeCount);
+		}
+		return edgeCount++;
+	}
+
+	/**
+	 * Releases what is only needed while the graph is parsed, the table of
+	 * node IDs and the node names, and trims the arrays of nodes, edges and
+	 * attributes to the number of elements. Nodes can no longer be added,
+	 * looked up by ID or asked for their ID or name afterwards.
+	 */
+	public void endParsing() {
+		int nodeCount = getNodeCount();
+		nodeIds = null;
+		nodeNames = null;
+		cyNodes = Arrays.copyOf(cyNodes, nodeCount);
+		nodeSuids = Arrays.copyOf(nodeSuids, nodeCount);
+		edgeSources = Arrays.copyOf(edgeSources, edgeCount);
+		edgeTargets = Arrays.copyOf(edgeTargets, edgeCount);
+		cyEdges = Arrays.copyOf(cyEdges, edgeCount);
+		edgeSuids = Arrays.copyOf(edgeSuids, edgeCount);
+		nodeAttrs.trimToSize(nodeCount);
+		edgeAttrs.trimToSize(edgeCount);
+	}
+
+	/**
+	 * Looks up the View of every node and edge once, so they can be read by
+	 * index afterwards
+	 *
+	 * @param networkView CyNetworkView created for the graph
+	 */
+	@SuppressWarnings("unchecked")
+	public void bindViews(CyNetworkView networkView) {
+		int nodeCount = getNodeCount();
+		nodeViews = new View[nodeCount];
+		for (int node = 0; node < nodeCount; node++) {
+			nodeViews[node] = networkView.getNodeView(cyNodes[node]);
+		}
+		edgeViews = new View[edgeCount];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			edgeViews[edge] = networkView.getEdgeView(cyEdges[edge]);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isDirected() {
+		return directed;
+	}
+
+	public Map<String, String> getGraphAttributes() {
+		return graphAttrs;
+	}
+
+	public Map<String, String> getGraphDefaults() {
+		return graphDefaults;
+	}
+
+	public Map<String, String> getNodeDefaults() {
+		return nodeDefaults;
+	}
+
+	public Map<String, String> getEdgeDefaults() {
+		return edgeDefaults;
+	}
+
+	public int getNodeCount() {
+		// the node arrays are trimmed to the node count by endParsing()
+		return nodeIds == null ? cyNodes.length : nodeIds.size();
+	}
+
+	public String getNodeId(int node) {
+		return nodeIds.get(node);
+	}
+
+	public String getNodeName(int node) {
+		return nodeNames[node];
+	}
+
+	public CyNode getCyNode(int node) {
+		return cyNodes[node];
+	}
+
+	public long getNodeSuid(int node) {
+		return nodeSuids[node];
+	}
+
+	public View<CyNode> getNodeView(int node) {
+		return nodeViews[node];
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	public int getEdgeSource(int edge) {
+		return edgeSources[edge];
+	}
+
+	public int getEdgeTarget(int edge) {
+		return edgeTargets[edge];
+	}
+
+	public boolean isEdgeDirected(int edge) {
+		return directedEdges.get(edge);
+	}
+
+	public CyEdge getCyEdge(int edge) {
+		return cyEdges[edge];
+	}
+
+	public long getEdgeSuid(int edge) {
+		return edgeSuids[edge];
+	}
+
+	public View<CyEdge> getEdgeView(int edge) {
+		return edgeViews[edge];
+	}
+
+	public DotAttributeTable getNodeAttributes() {
+		return nodeAttrs;
+	}
+
+	public DotAttributeTable getEdgeAttributes() {
+		return edgeAttrs;
+	}
+}
@@ -0,0 +1,99 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+/**
+ * Callback interface that receives the statements of a DOT file from
+ * DotParser in the order they appear in the file. Attribute lists passed to
+ * the callbacks are reused by the parser and are only valid for the duration
+ * of the call.
+ */
+public interface DotGraphHandler {
+
+	/**
+	 * Kind of element a default attribute statement applies to,
+	 * eg. node [shape = box]
+	 */
+	public static enum DefaultType {
+		GRAPH, NODE, EDGE
+	}
+
+	/**
+	 * Called when a top level graph begins
+	 *
+	 * @param id ID of the graph, null if the graph is anonymous
+	 * @param directed true if declared as a digraph
+	 * @param strict true if declared as strict
+	 */
+	void startGraph(String id, boolean directed, boolean strict);
+
+	/**
+	 * Called for an attribute statement of the form ID = ID
+	 *
+	 * @param name name of the attribute
+	 * @param value value of the attribute
+	 */
+	void graphAttribute(String name, String value);
+
+	/**
+	 * Called for a default attribute statement, eg. node [shape = box]
+	 *
+	 * @param type whether the defaults apply to graphs, nodes or edges
+	 * @param attrs attributes in the statement
+	 */
+	void defaultAttributes(DefaultType type, DotAttributeList attrs);
+
+	/**
+	 * Called when a subgraph begins, both for subgraph statements and
+	 * anonymous { ... } blocks
+	 *
+	 * @param id ID of the subgraph, null if anonymous
+	 */
+	void startSubgraph(String id);
+
+	/**
+	 * Called when the most recently started subgraph ends
+	 */
+	void endSubgraph();
+
+	/**
+	 * Called for a node statement
+	 *
+	 * @param id ID of the node
+	 * @param attrs attributes in the statement, empty if there are none
+	 */
+	void node(String id, DotAttributeList attrs);
+
+	/**
+	 * Called once for every edge of an edge statement. Edge statements with
+	 * chains (a -> b -> c) or subgraph operands (a -> {b c}) produce one call
+	 * per resulting edge, all sharing the same attributes.
+	 *
+	 * @param sourceId ID of the source node
+	 * @param targetId ID of the target node
+	 * @param directed true if the edge operator was ->
+	 * @param attrs attributes in the statement, empty if there are none
+	 */
+	void edge(String sourceId, String targetId, boolean directed, DotAttributeList attrs);
+
+	/**
+	 * Called when the current top level graph ends
+	 */
+	void endGraph();
+}
@@ -0,0 +1,607 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Tokenizer for the DOT language. Reads characters into a large buffer and
+ * scans tokens directly out of it. Token text is only turned into a String
+ * when getText() is called, and short, frequently repeated strings such as
+ * attribute names and values are shared through a small intern cache.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotLexer implements DotTokenSource {
+
+	/**
+	 * Types of tokens in the DOT language
+	 */
+	public static enum TokenType {
+		EOF, ID, QUOTED_STRING, HTML_STRING, LBRACE, RBRACE, LBRACKET, RBRACKET,
+		EQUALS, SEMICOLON, COMMA, COLON, PLUS, DIRECTED_EDGE, UNDIRECTED_EDGE,
+		STRICT, GRAPH, DIGRAPH, SUBGRAPH, NODE, EDGE
+	}
+
+	// default size of the character buffer
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	// size of the intern cache, must be a power of two
+	private static final int INTERN_CACHE_SIZE = 1 << 12;
+
+	// longest token that is kept in the intern cache
+	private static final int MAX_INTERN_LENGTH = 32;
+
+	// source of characters, null once the input is exhausted or if the lexer
+	// was constructed over an array
+	private Reader input;
+
+	// character buffer and the index one past its last valid character
+	private char[] buffer;
+	private int limit;
+
+	// index of the next character to be scanned
+	private int pos;
+
+	// current line of the input
+	private int line = 1;
+
+	// true if no characters other than whitespace have been read on this line
+	private boolean atLineStart = true;
+
+	// location of the text of the current token within the buffer
+	private int tokenStart;
+	private int tokenEnd;
+
+	// true if the current token text had escapes and is held in textBuffer
+	private boolean escaped;
+
+	// scratch space for quoted strings containing escape sequences
+	private char[] textBuffer = new char[64];
+	private int textLength;
+
+	// line on which the current token starts
+	private int tokenLine;
+
+	// type of the current token
+	private TokenType type;
+
+	// cache of previously created token strings
+	private final String[] internCache = new String[INTERN_CACHE_SIZE];
+
+	/**
+	 * Constructs a DotLexer that reads from a Reader. The Reader does not need
+	 * to be buffered.
+	 *
+	 * @param input Reader that the DOT source is read from
+	 */
+	public DotLexer(Reader input) {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructs a DotLexer that reads from a Reader with a given initial
+	 * buffer size
+	 *
+	 * @param input Reader that the DOT source is read from
+	 * @param bufferSize initial size of the character buffer
+	 */
+	public DotLexer(Reader input, int bufferSize) {
+		this.input = input;
+		this.buffer = new char[Math.max(bufferSize, 16)];
+		this.limit = 0;
+		this.pos = 0;
+	}
+
+	/**
+	 * Constructs a DotLexer that scans a region of a character array
+	 *
+	 * @param source array containing the DOT source
+	 * @param offset index of the first character of the region
+	 * @param length number of characters in the region
+	 */
+	public DotLexer(char[] source, int offset, int length) {
+		this(source, offset, length, 1, true);
+	}
+
+	/**
+	 * Constructs a DotLexer that scans a region of a character array taken
+	 * from the middle of a DOT file
+	 *
+	 * @param source array containing the DOT source
+	 * @param offset index of the first character of the region
+	 * @param length number of characters in the region
+	 * @param firstLine line of the file the region starts on
+	 * @param atLineStart true if the region starts at the beginning of a line
+	 */
+	public DotLexer(char[] source, int offset, int length, int firstLine, boolean atLineStart) {
+		this.input = null;
+		this.buffer = source;
+		this.pos = offset;
+		this.limit = offset + length;
+		this.line = firstLine;
+		this.atLineStart = atLineStart;
+	}
+
+	/**
+	 * Returns the line the current token starts on
+	 *
+	 * @return line number, starting at 1
+	 */
+	@Override
+	public int getLine() {
+		return tokenLine;
+	}
+
+	/**
+	 * Returns the type of the current token
+	 *
+	 * @return type of the current token, null before the first call to next()
+	 */
+	@Override
+	public TokenType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the text of the current token. Quoted strings are returned
+	 * without their quotes and with escaped quotes and line continuations
+	 * resolved. HTML strings are returned without the outer angle brackets.
+	 *
+	 * @return text of the current token
+	 */
+	@Override
+	public String getText() {
+		if (escaped) {
+			return intern(textBuffer, 0, textLength);
+		}
+		return intern(buffer, tokenStart, tokenEnd - tokenStart);
+	}
+
+	/**
+	 * Scans the next token of the input
+	 *
+	 * @return type of the token that was scanned
+	 * @throws IOException if the underlying Reader throws one
+	 * @throws DotParseException if the input contains an invalid token
+	 */
+	@Override
+	public TokenType next() throws IOException, DotParseException {
+		escaped = false;
+		skipWhitespaceAndComments();
+		tokenLine = line;
+		if (!ensure(1)) {
+			tokenStart = pos;
+			tokenEnd = pos;
+			return type = TokenType.EOF;
+		}
+		char c = buffer[pos];
+		switch (c) {
+			case '{':
+				return single(TokenType.LBRACE);
+			case '}':
+				return single(TokenType.RBRACE);
+			case '[':
+				return single(TokenType.LBRACKET);
+			case ']':
+				return single(TokenType.RBRACKET);
+			case '=':
+				return single(TokenType.EQUALS);
+			case ';':
+				return single(TokenType.SEMICOLON);
+			case ',':
+				return single(TokenType.COMMA);
+			case ':':
+				return single(TokenType.COLON);
+			case '+':
+				return single(TokenType.PLUS);
+			case '"':
+				return scanQuoted();
+			case '<':
+				return scanHtml();
+			case '-':
+				if (ensure(2)) {
+					char d = buffer[pos + 1];
+					if (d == '>') {
+						return edgeOp(TokenType.DIRECTED_EDGE);
+					}
+					if (d == '-') {
+						return edgeOp(TokenType.UNDIRECTED_EDGE);
+					}
+				}
+				return scanNumeral();
+			case '.':
+				return scanNumeral();
+			default:
+				if (c >= '0' && c <= '9') {
+					return scanNumeral();
+				}
+				if (isIdStart(c)) {
+					return scanId();
+				}
+				throw new DotParseException(
+					String.format("Unexpected character '%c'", c), line
+				);
+		}
+	}
+
+	/*
+	 * Returns true if c can start an unquoted ID
+	 */
+	private static boolean isIdStart(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c >= '\u0080';
+	}
+
+	/*
+	 * Returns true if c can continue an unquoted ID
+	 */
+	private static boolean isIdPart(char c) {
+		return isIdStart(c) || (c >= '0' && c <= '9');
+	}
+
+	/*
+	 * Consumes a one character token
+	 */
+	private TokenType single(TokenType tokenType) {
+		tokenStart = pos;
+		pos++;
+		tokenEnd = pos;
+		atLineStart = false;
+		return type = tokenType;
+	}
+
+	/*
+	 * Consumes a two character edge operator
+	 */
+	private TokenType edgeOp(TokenType tokenType) {
+		tokenStart = pos;
+		pos += 2;
+		tokenEnd = pos;
+		atLineStart = false;
+		return type = tokenType;
+	}
+
+	/*
+	 * Scans an alphanumeric ID, checking whether it is a keyword
+	 */
+	private TokenType scanId() throws IOException {
+		int offset = 1;
+		while (ensure(offset + 1) && isIdPart(buffer[pos + offset])) {
+			offset++;
+		}
+		tokenStart = pos;
+		pos += offset;
+		tokenEnd = pos;
+		atLineStart = false;
+		return type = keyword(buffer, tokenStart, offset);
+	}
+
+	/*
+	 * Scans a numeral of the form [-]?(.[0-9]+ | [0-9]+(.[0-9]*)?)
+	 */
+	private TokenType scanNumeral() throws IOException, DotParseException {
+		int offset = 0;
+		if (buffer[pos] == '-') {
+			offset++;
+		}
+		boolean sawDigit = false;
+		while (ensure(offset + 1) && buffer[pos + offset] >= '0' && buffer[pos + offset] <= '9') {
+			offset++;
+			sawDigit = true;
+		}
+		if (ensure(offset + 1) && buffer[pos + offset] == '.') {
+			offset++;
+			while (ensure(offset + 1) && buffer[pos + offset] >= '0' && buffer[pos + offset] <= '9') {
+				offset++;
+				sawDigit = true;
+			}
+		}
+		if (!sawDigit) {
+			throw new DotParseException("Invalid numeral", line);
+		}
+		tokenStart = pos;
+		pos += offset;
+		tokenEnd = pos;
+		atLineStart = false;
+		return type = TokenType.ID;
+	}
+
+	/*
+	 * Scans a double quoted string. The only escape sequences resolved are
+	 * \" and backslash-newline, which is how DOT defines them; all other
+	 * backslashes are left for the attribute value to interpret.
+	 */
+	private TokenType scanQuoted() throws IOException, DotParseException {
+		int startLine = line;
+		int offset = 1;
+		while (true) {
+			if (!ensure(offset + 1)) {
+				throw new DotParseException("Unterminated quoted string", startLine);
+			}
+			char c = buffer[pos + offset];
+			if (c == '"') {
+				break;
+			}
+			if (c == '\\' && ensure(offset + 2)) {
+				char d = buffer[pos + offset + 1];
+				if (d == '"' || d == '\n' || d == '\r') {
+					escaped = true;
+				}
+				if (d == '\n') {
+					line++;
+				}
+				offset += 2;
+				continue;
+			}
+			if (c == '\n') {
+				line++;
+			}
+			offset++;
+		}
+		tokenStart = pos + 1;
+		tokenEnd = pos + offset;
+		pos += offset + 1;
+		atLineStart = false;
+		if (escaped) {
+			unescape();
+		}
+		return type = TokenType.QUOTED_STRING;
+	}
+
+	/*
+	 * Copies the current quoted string into textBuffer, resolving escaped
+	 * quotes and removing line continuations
+	 */
+	private void unescape() {
+		int length = tokenEnd - tokenStart;
+		if (textBuffer.length < length) {
+			textBuffer = new char[Math.max(length, textBuffer.length * 2)];
+		}
+		textLength = 0;
+		for (int i = tokenStart; i < tokenEnd; i++) {
+			char c = buffer[i];
+			if (c == '\\' && i + 1 < tokenEnd) {
+				char d = buffer[i + 1];
+				if (d == '"') {
+					textBuffer[textLength++] = '"';
+					i++;
+					continue;
+				}
+				if (d == '\n') {
+					i++;
+					continue;
+				}
+				if (d == '\r') {
+					i++;
+					if (i + 1 < tokenEnd && buffer[i + 1] == '\n') {
+						i++;
+					}
+					continue;
+				}
+			}
+			textBuffer[textLength++] = c;
+		}
+	}
+
+	/*
+	 * Scans an HTML string delimited by matching angle brackets
+	 */
+	private TokenType scanHtml() throws IOException, DotParseException {
+		int startLine = line;
+		int depth = 1;
+		int offset = 1;
+		while (depth > 0) {
+			if (!ensure(offset + 1)) {
+				throw new DotParseException("Unterminated HTML string", startLine);
+			}
+			char c = buffer[pos + offset];
+			if (c == '<') {
+				depth++;
+			}
+			else if (c == '>') {
+				depth--;
+			}
+			else if (c == '\n') {
+				line++;
+			}
+			offset++;
+		}
+		tokenStart = pos + 1;
+		tokenEnd = pos + offset - 1;
+		pos += offset;
+		atLineStart = false;
+		return type = TokenType.HTML_STRING;
+	}
+
+	/*
+	 * Skips whitespace, C and C++ style comments, and lines starting with '#'
+	 * which DOT treats as C preprocessor output
+	 */
+	private void skipWhitespaceAndComments() throws IOException, DotParseException {
+		while (ensure(1)) {
+			char c = buffer[pos];
+			if (c == '\n') {
+				line++;
+				pos++;
+				atLineStart = true;
+			}
+			else if (c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == '\u00A0' || c == '\uFEFF') {
+				pos++;
+			}
+			else if (c == '#' && atLineStart) {
+				skipToLineEnd();
+			}
+			else if (c == '/' && ensure(2) && buffer[pos + 1] == '/') {
+				skipToLineEnd();
+			}
+			else if (c == '/' && ensure(2) && buffer[pos + 1] == '*') {
+				int startLine = line;
+				pos += 2;
+				while (true) {
+					if (!ensure(2)) {
+						throw new DotParseException("Unterminated comment", startLine);
+					}
+					if (buffer[pos] == '*' && buffer[pos + 1] == '/') {
+						pos += 2;
+						break;
+					}
+					if (buffer[pos] == '\n') {
+						line++;
+					}
+					pos++;
+				}
+			}
+			else {
+				return;
+			}
+		}
+	}
+
+	/*
+	 * Skips characters up to, but not including, the next newline
+	 */
+	private void skipToLineEnd() throws IOException {
+		while (ensure(1) && buffer[pos] != '\n') {
+			pos++;
+		}
+	}
+
+	/*
+	 * Makes sure at least count characters are available starting at pos,
+	 * reading more input if needed. Returns false if the input ends first.
+	 */
+	private boolean ensure(int count) throws IOException {
+		while (limit - pos < count) {
+			if (input == null) {
+				return false;
+			}
+			fill();
+		}
+		return true;
+	}
+
+	/*
+	 * Moves unread characters to the front of the buffer, growing it if it is
+	 * full, and reads as many characters as the Reader will give
+	 */
+	private void fill() throws IOException {
+		int remaining = limit - pos;
+		if (pos > 0) {
+			System.arraycopy(buffer, pos, buffer, 0, remaining);
+			pos = 0;
+			limit = remaining;
+		}
+		if (limit == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		int read = input.read(buffer, limit, buffer.length - limit);
+		if (read < 0) {
+			input = null;
+			return;
+		}
+		limit += read;
+	}
+
+	/*
+	 * Returns the keyword token type for a region of characters, or ID if the
+	 * region is not a keyword. DOT keywords are case-insensitive.
+	 */
+	private static TokenType keyword(char[] chars, int start, int length) {
+		switch (length) {
+			case 4:
+				if (matches(chars, start, "node")) {
+					return TokenType.NODE;
+				}
+				if (matches(chars, start, "edge")) {
+					return TokenType.EDGE;
+				}
+				break;
+			case 5:
+				if (matches(chars, start, "graph")) {
+					return TokenType.GRAPH;
+				}
+				break;
+			case 6:
+				if (matches(chars, start, "strict")) {
+					return TokenType.STRICT;
+				}
+				break;
+			case 7:
+				if (matches(chars, start, "digraph")) {
+					return TokenType.DIGRAPH;
+				}
+				break;
+			case 8:
+				if (matches(chars, start, "subgraph")) {
+					return TokenType.SUBGRAPH;
+				}
+				break;
+			default:
+				break;
+		}
+		return TokenType.ID;
+	}
+
+	/*
+	 * Compares a region of characters to a lower case keyword ignoring case
+	 */
+	private static boolean matches(char[] chars, int start, String keyword) {
+		for (int i = 0; i < keyword.length(); i++) {
+			if (Character.toLowerCase(chars[start + i]) != keyword.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Returns a String for a region of characters, reusing a cached String
+	 * with the same contents if there is one
+	 */
+	private String intern(char[] chars, int start, int length) {
+		if (length > MAX_INTERN_LENGTH) {
+			return new String(chars, start, length);
+		}
+		int hash = 0;
+		for (int i = start; i < start + length; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int slot = (hash ^ (hash >>> 16)) & (INTERN_CACHE_SIZE - 1);
+		String cached = internCache[slot];
+		if (cached != null && cached.length() == length && cached.hashCode() == hash) {
+			boolean same = true;
+			for (int i = 0; i < length; i++) {
+				if (cached.charAt(i) != chars[start + i]) {
+					same = false;
+					break;
+				}
+			}
+			if (same) {
+				return cached;
+			}
+		}
+		String created = new String(chars, start, length);
+		internCache[slot] = created;
+		return created;
+	}
+}
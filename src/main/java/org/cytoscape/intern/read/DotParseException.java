@@ -0,0 +1,51 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+/**
+ * Thrown when the DOT lexer or parser finds input that is not valid DOT
+ * syntax
+ */
+public class DotParseException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	// line of the input on which the error was found
+	private final int line;
+
+	/**
+	 * Constructs a DotParseException
+	 *
+	 * @param message description of the error
+	 * @param line line of the input on which the error was found
+	 */
+	public DotParseException(String message, int line) {
+		super(String.format("Line %d: %s", line, message));
+		this.line = line;
+	}
+
+	/**
+	 * Returns the line of the input on which the error was found
+	 *
+	 * @return line number, starting at 1
+	 */
+	public int getLine() {
+		return line;
+	}
+}
@@ -0,0 +1,462 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.cytoscape.intern.read.DotGraphHandler.DefaultType;
+import org.cytoscape.intern.read.DotLexer.TokenType;
+
+/**
+ * Recursive descent parser for the DOT language. Statements are passed to a
+ * DotGraphHandler as soon as they are parsed, so no representation of the
+ * whole file is ever built. Edge statements are expanded into one edge per
+ * source/target pair, and a node event is sent for every node reference so
+ * the handler sees nodes in the order they first appear.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotParser {
+
+	// source of tokens
+	private final DotTokenSource lexer;
+
+	// receives the parsed statements
+	private final DotGraphHandler handler;
+
+	// current, not yet consumed, token
+	private TokenType token;
+
+	// attribute list reused for every statement
+	private final DotAttributeList attrs = new DotAttributeList();
+
+	// attribute list that is always empty, used for edge endpoints
+	private final DotAttributeList noAttrs = new DotAttributeList();
+
+	/*
+	 * Node IDs of the operands of edge statements being parsed. Operand i of
+	 * a statement holds endpoints[operandBounds[i], operandBounds[i + 1]).
+	 * Nested edge statements inside subgraph operands are stacked on top of
+	 * the enclosing statement and removed when they finish.
+	 */
+	private final ArrayList<String> endpoints = new ArrayList<String>();
+	private int[] operandBounds = new int[16];
+	private int operandBoundsSize = 0;
+
+	/*
+	 * Node IDs referenced inside each open subgraph, indexed by depth - 1.
+	 * Needed because a subgraph used as an edge operand stands for all of
+	 * its nodes.
+	 */
+	private final ArrayList<ArrayList<String>> subgraphNodes = new ArrayList<ArrayList<String>>();
+
+	// number of subgraphs currently open
+	private int depth = 0;
+
+	// set from another thread to stop parsing
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Constructs a DotParser
+	 *
+	 * @param lexer DotTokenSource the tokens are read from
+	 * @param handler DotGraphHandler that receives parsed statements
+	 */
+	public DotParser(DotTokenSource lexer, DotGraphHandler handler) {
+		this.lexer = lexer;
+		this.handler = handler;
+	}
+
+	/**
+	 * Stops the parser at the next statement boundary. parse() then returns
+	 * normally without finishing the current graph.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Returns whether cancel() has been called
+	 *
+	 * @return true if parsing was cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Parses every graph in the input
+	 *
+	 * @throws IOException if reading the input fails
+	 * @throws DotParseException if the input is not valid DOT
+	 */
+	public void parse() throws IOException, DotParseException {
+		advance();
+		while (token != TokenType.EOF && !cancelled) {
+			if (token == TokenType.SEMICOLON) {
+				advance();
+				continue;
+			}
+			parseGraph();
+		}
+	}
+
+	/*
+	 * graph : [ strict ] (graph | digraph) [ ID ] '{' stmt_list '}'
+	 */
+	private void parseGraph() throws IOException, DotParseException {
+		boolean strict = false;
+		if (token == TokenType.STRICT) {
+			strict = true;
+			advance();
+		}
+		boolean directed;
+		if (token == TokenType.DIGRAPH) {
+			directed = true;
+		}
+		else if (token == TokenType.GRAPH) {
+			directed = false;
+		}
+		else {
+			throw unexpected("graph or digraph");
+		}
+		advance();
+		String id = null;
+		if (isId(token)) {
+			id = parseId();
+		}
+		expect(TokenType.LBRACE);
+		handler.startGraph(id, directed, strict);
+		parseStatementList();
+		if (cancelled) {
+			return;
+		}
+		expect(TokenType.RBRACE);
+		handler.endGraph();
+	}
+
+	/*
+	 * stmt_list : [ stmt [ ';' ] stmt_list ]
+	 * Stops before the closing brace
+	 */
+	private void parseStatementList() throws IOException, DotParseException {
+		while (token != TokenType.RBRACE) {
+			if (cancelled) {
+				return;
+			}
+			if (token == TokenType.EOF) {
+				throw unexpected("}");
+			}
+			parseStatement();
+			if (token == TokenType.SEMICOLON) {
+				advance();
+			}
+		}
+	}
+
+	/*
+	 * stmt : node_stmt | edge_stmt | attr_stmt | ID '=' ID | subgraph
+	 */
+	private void parseStatement() throws IOException, DotParseException {
+		switch (token) {
+			case GRAPH:
+				advance();
+				parseDefaults(DefaultType.GRAPH);
+				return;
+			case NODE:
+				advance();
+				parseDefaults(DefaultType.NODE);
+				return;
+			case EDGE:
+				advance();
+				parseDefaults(DefaultType.EDGE);
+				return;
+			case SUBGRAPH:
+			case LBRACE: {
+				int start = endpoints.size();
+				parseSubgraph(true);
+				if (isEdgeOp(token)) {
+					parseEdgeStatement(start);
+				}
+				else {
+					truncateEndpoints(start);
+				}
+				return;
+			}
+			case ID:
+			case QUOTED_STRING:
+			case HTML_STRING: {
+				String id = parseId();
+				if (token == TokenType.EQUALS) {
+					advance();
+					handler.graphAttribute(id, parseId());
+					return;
+				}
+				skipPort();
+				if (isEdgeOp(token)) {
+					int start = endpoints.size();
+					addEndpoint(id);
+					parseEdgeStatement(start);
+				}
+				else {
+					attrs.clear();
+					parseAttributeLists();
+					nodeReference(id, attrs);
+				}
+				return;
+			}
+			default:
+				throw unexpected("statement");
+		}
+	}
+
+	/*
+	 * attr_stmt : (graph | node | edge) attr_list
+	 */
+	private void parseDefaults(DefaultType type) throws IOException, DotParseException {
+		if (token != TokenType.LBRACKET) {
+			throw unexpected("[");
+		}
+		attrs.clear();
+		parseAttributeLists();
+		handler.defaultAttributes(type, attrs);
+	}
+
+	/*
+	 * subgraph : [ subgraph [ ID ] ] '{' stmt_list '}'
+	 * If asOperand is true, the IDs of all nodes in the subgraph are appended
+	 * to endpoints
+	 */
+	private void parseSubgraph(boolean asOperand) throws IOException, DotParseException {
+		String id = null;
+		if (token == TokenType.SUBGRAPH) {
+			advance();
+			if (isId(token)) {
+				id = parseId();
+			}
+		}
+		expect(TokenType.LBRACE);
+
+		depth++;
+		if (subgraphNodes.size() < depth) {
+			subgraphNodes.add(new ArrayList<String>());
+		}
+		ArrayList<String> nodes = subgraphNodes.get(depth - 1);
+		nodes.clear();
+
+		handler.startSubgraph(id);
+		parseStatementList();
+		if (cancelled) {
+			return;
+		}
+		expect(TokenType.RBRACE);
+		handler.endSubgraph();
+
+		depth--;
+		if (depth > 0) {
+			subgraphNodes.get(depth - 1).addAll(nodes);
+		}
+		if (asOperand) {
+			endpoints.addAll(nodes);
+		}
+		nodes.clear();
+	}
+
+	/*
+	 * edge_stmt : (node_id | subgraph) edgeRHS [ attr_list ]
+	 * edgeRHS : edgeop (node_id | subgraph) [ edgeRHS ]
+	 * The first operand has already been added to endpoints starting at
+	 * index start.
+	 */
+	private void parseEdgeStatement(int start) throws IOException, DotParseException {
+		int boundsBase = operandBoundsSize;
+		pushBound(start);
+		boolean directed = token == TokenType.DIRECTED_EDGE;
+		while (isEdgeOp(token)) {
+			advance();
+			pushBound(endpoints.size());
+			if (token == TokenType.SUBGRAPH || token == TokenType.LBRACE) {
+				parseSubgraph(true);
+				if (cancelled) {
+					return;
+				}
+			}
+			else {
+				addEndpoint(parseId());
+				skipPort();
+			}
+		}
+		pushBound(endpoints.size());
+
+		attrs.clear();
+		parseAttributeLists();
+
+		// connect every node of each operand to every node of the next one
+		for (int i = boundsBase; i < operandBoundsSize - 2; i++) {
+			int sourceEnd = operandBounds[i + 1];
+			int targetEnd = operandBounds[i + 2];
+			for (int s = operandBounds[i]; s < sourceEnd; s++) {
+				String sourceId = endpoints.get(s);
+				for (int t = sourceEnd; t < targetEnd; t++) {
+					handler.edge(sourceId, endpoints.get(t), directed, attrs);
+				}
+			}
+		}
+
+		operandBoundsSize = boundsBase;
+		truncateEndpoints(start);
+	}
+
+	/*
+	 * attr_list : '[' [ a_list ] ']' [ attr_list ]
+	 * a_list : ID [ '=' ID ] [ (';' | ',') ] [ a_list ]
+	 */
+	private void parseAttributeLists() throws IOException, DotParseException {
+		while (token == TokenType.LBRACKET) {
+			advance();
+			while (token != TokenType.RBRACKET) {
+				String name = parseId();
+				String value = "true";
+				if (token == TokenType.EQUALS) {
+					advance();
+					value = parseId();
+				}
+				attrs.add(name, value);
+				if (token == TokenType.COMMA || token == TokenType.SEMICOLON) {
+					advance();
+				}
+			}
+			advance();
+		}
+	}
+
+	/*
+	 * ID : unquoted ID | numeral | quoted string [ '+' quoted string ]* | HTML string
+	 */
+	private String parseId() throws IOException, DotParseException {
+		if (!isId(token)) {
+			throw unexpected("ID");
+		}
+		TokenType idType = token;
+		String text = lexer.getText();
+		advance();
+		if (idType != TokenType.QUOTED_STRING || token != TokenType.PLUS) {
+			return text;
+		}
+		StringBuilder builder = new StringBuilder(text);
+		while (token == TokenType.PLUS) {
+			advance();
+			if (token != TokenType.QUOTED_STRING) {
+				throw unexpected("quoted string");
+			}
+			builder.append(lexer.getText());
+			advance();
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * port : ':' ID [ ':' compass_pt ] | ':' compass_pt
+	 * Ports have no Cytoscape equivalent, so they are parsed and discarded
+	 */
+	private void skipPort() throws IOException, DotParseException {
+		while (token == TokenType.COLON) {
+			advance();
+			parseId();
+		}
+	}
+
+	/*
+	 * Adds a node ID as an operand of the current edge statement and reports
+	 * the node reference to the handler
+	 */
+	private void addEndpoint(String id) {
+		endpoints.add(id);
+		nodeReference(id, noAttrs);
+	}
+
+	/*
+	 * Reports a node reference to the handler and records it in the
+	 * innermost open subgraph
+	 */
+	private void nodeReference(String id, DotAttributeList nodeAttrs) {
+		if (depth > 0) {
+			subgraphNodes.get(depth - 1).add(id);
+		}
+		handler.node(id, nodeAttrs);
+	}
+
+	/*
+	 * Removes endpoints from index start to the end of the list
+	 */
+	private void truncateEndpoints(int start) {
+		for (int i = endpoints.size() - 1; i >= start; i--) {
+			endpoints.remove(i);
+		}
+	}
+
+	/*
+	 * Pushes an operand boundary onto operandBounds
+	 */
+	private void pushBound(int bound) {
+		if (operandBoundsSize == operandBounds.length) {
+			operandBounds = Arrays.copyOf(operandBounds, operandBoundsSize * 2);
+		}
+		operandBounds[operandBoundsSize++] = bound;
+	}
+
+	/*
+	 * Consumes the current token if it is of the expected type
+	 */
+	private void expect(TokenType expected) throws IOException, DotParseException {
+		if (token != expected) {
+			throw unexpected(expected.toString());
+		}
+		advance();
+	}
+
+	/*
+	 * Moves to the next token
+	 */
+	private void advance() throws IOException, DotParseException {
+		token = lexer.next();
+	}
+
+	/*
+	 * Creates an exception describing an unexpected token
+	 */
+	private DotParseException unexpected(String expected) {
+		String found = token == TokenType.EOF ? "end of file" : String.format("\"%s\"", lexer.getText());
+		return new DotParseException(
+			String.format("Expected %s but found %s", expected, found), lexer.getLine()
+		);
+	}
+
+	private static boolean isId(TokenType type) {
+		return type == TokenType.ID || type == TokenType.QUOTED_STRING || type == TokenType.HTML_STRING;
+	}
+
+	private static boolean isEdgeOp(TokenType type) {
+		return type == TokenType.DIRECTED_EDGE || type == TokenType.UNDIRECTED_EDGE;
+	}
+}
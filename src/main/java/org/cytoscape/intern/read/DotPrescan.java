@@ -0,0 +1,212 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.read;
+
+/**
+ * Counts of a DOT file taken by a byte level scan before it is parsed:
+ * top level graphs, statements and edge operators outside of quoted
+ * strings, HTML strings and comments. They only estimate the number of
+ * nodes and edges, but are cheap enough to size the import data structures
+ * and the progress total up front.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotPrescan {
+
+	// states of the scan
+	private static final int NORMAL = 0;
+	private static final int QUOTED = 1;
+	private static final int HTML = 2;
+	private static final int LINE_COMMENT = 3;
+	private static final int BLOCK_COMMENT = 4;
+
+	private int graphCount = 0;
+	private int statementCount = 0;
+	private int edgeOperatorCount = 0;
+
+	// state of the scan, shared with scanNormal()
+	private int state = NORMAL;
+	private int htmlDepth = 0;
+	private int braceDepth = 0;
+	private boolean atLineStart = true;
+	private boolean inStatement = false;
+	private byte previous = 0;
+
+	/**
+	 * Scans a DOT input held in memory
+	 *
+	 * @param bytes UTF-8 bytes of the DOT input
+	 * @param length number of bytes of the input at the start of bytes
+	 * @return counts of the input
+	 */
+	public static DotPrescan scan(byte[] bytes, int length) {
+		DotPrescan prescan = new DotPrescan();
+		prescan.scanBytes(bytes, length);
+		return prescan;
+	}
+
+	/**
+	 * Returns the number of top level graphs
+	 *
+	 * @return number of graphs
+	 */
+	public int getGraphCount() {
+		return graphCount;
+	}
+
+	/**
+	 * Returns the number of statements inside graphs, counting statements
+	 * that span several lines once per line
+	 *
+	 * @return number of statements
+	 */
+	public int getStatementCount() {
+		return statementCount;
+	}
+
+	/**
+	 * Returns the number of -> and -- operators, one per edge unless edge
+	 * statements have subgraph operands
+	 *
+	 * @return number of edge operators
+	 */
+	public int getEdgeOperatorCount() {
+		return edgeOperatorCount;
+	}
+
+	/*
+	 * Scans the whole input in a single pass
+	 */
+	private void scanBytes(byte[] bytes, int length) {
+		for (int i = 0; i < length; i++) {
+			byte c = bytes[i];
+			switch (state) {
+				case QUOTED:
+					if (previous == '\\') {
+						// escaped character, also hides a following backslash
+						c = 0;
+					}
+					else if (c == '"') {
+						state = NORMAL;
+					}
+					break;
+				case HTML:
+					if (c == '<') {
+						htmlDepth++;
+					}
+					else if (c == '>' && --htmlDepth == 0) {
+						state = NORMAL;
+					}
+					break;
+				case LINE_COMMENT:
+					if (c == '\n') {
+						state = NORMAL;
+						atLineStart = true;
+						endStatement();
+					}
+					break;
+				case BLOCK_COMMENT:
+					if (previous == '*' && c == '/') {
+						state = NORMAL;
+						c = 0;
+					}
+					break;
+				default:
+					c = scanNormal(c);
+					break;
+			}
+			previous = c;
+		}
+		endStatement();
+	}
+
+	/*
+	 * Handles a byte outside of strings and comments, returns the byte to
+	 * remember as the previous one, 0 if it ended a two byte sequence
+	 */
+	private byte scanNormal(byte c) {
+		if (c == '\n') {
+			atLineStart = true;
+			endStatement();
+			return c;
+		}
+		if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+			return c;
+		}
+		if (c == '#' && atLineStart) {
+			state = LINE_COMMENT;
+			return c;
+		}
+		atLineStart = false;
+		if (previous == '/' && c == '/') {
+			state = LINE_COMMENT;
+			return 0;
+		}
+		if (previous == '/' && c == '*') {
+			state = BLOCK_COMMENT;
+			return 0;
+		}
+		if (previous == '-' && (c == '>' || c == '-')) {
+			edgeOperatorCount++;
+			return 0;
+		}
+		switch (c) {
+			case '"':
+				state = QUOTED;
+				break;
+			case '<':
+				state = HTML;
+				htmlDepth = 1;
+				break;
+			case '{':
+				if (braceDepth == 0) {
+					graphCount++;
+				}
+				braceDepth++;
+				endStatement();
+				return c;
+			case '}':
+				braceDepth = Math.max(braceDepth - 1, 0);
+				endStatement();
+				return c;
+			case ';':
+				endStatement();
+				return c;
+			default:
+				break;
+		}
+		if (braceDepth > 0) {
+			inStatement = true;
+		}
+		return c;
+	}
+
+	/*
+	 * Counts the statement being scanned, if any
+	 */
+	private void endStatement() {
+		if (inStatement) {
+			statementCount++;
+			inStatement = false;
+		}
+	}
+}
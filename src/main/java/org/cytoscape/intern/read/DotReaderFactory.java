@@ -22,6 +22,7 @@ import java.io.InputStream;
 
 import javax.swing.SwingUtilities;
 
+import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.intern.GradientListener;
 import org.cytoscape.io.CyFileFilter;
 import org.cytoscape.io.read.InputStreamTaskFactory;
@@ -35,6 +36,9 @@ import org.cytoscape.view.model.CyNetworkViewFactory;
 import org.cytoscape.view.model.events.NetworkViewAddedEvent;
 import org.cytoscape.view.model.events.NetworkViewAddedListener;
 import org.cytoscape.view.presentation.RenderingEngineManager;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
+import org.cytoscape.view.vizmap.VisualMappingFunctionFactory;
 import org.cytoscape.view.vizmap.VisualMappingManager;
 import org.cytoscape.view.vizmap.VisualStyle;
 import org.cytoscape.view.vizmap.VisualStyleFactory;
@@ -69,6 +73,10 @@ public class DotReaderFactory implements InputStreamTaskFactory, NetworkViewAdde
 	private VisualStyleFactory vizStyleFact;
 	private GradientListener gradientListener;
 	private RenderingEngineManager rendEngMgr;
+	private CyEventHelper eventHelper;
+	private VisualMappingFunctionFactory passthroughFactory;
+	private BendFactory bendFactory;
+	private HandleFactory handleFactory;
 	
 	/**
 	 * Sets the DotReaderFactory with associate fileFilter
@@ -83,10 +91,17 @@ public class DotReaderFactory implements InputStreamTaskFactory, NetworkViewAdde
 	 * @param gradientListener GradientListener needed for DotReaderTask
 	 * @param rendEngMgr RenderingEngineManager that contains the default
 	 * VisualLexicon needed for gradient support
+	 * @param eventHelper CyEventHelper needed for DotReaderTask
+	 * @param passthroughFactory passthrough VisualMappingFunctionFactory
+	 * needed for DotReaderTask
+	 * @param bendFactory BendFactory needed for DotReaderTask
+	 * @param handleFactory HandleFactory needed for DotReaderTask
 	 */
 	public DotReaderFactory(CyFileFilter fileFilter, CyNetworkViewFactory netViewFact,
 			CyNetworkFactory netFact, CyNetworkManager netMgr, CyRootNetworkManager rootNetMgr,
-			VisualMappingManager vizMapMgr, VisualStyleFactory vizStyleFact, GradientListener gradientListener, RenderingEngineManager rendEngMgr) {
+			VisualMappingManager vizMapMgr, VisualStyleFactory vizStyleFact, GradientListener gradientListener, RenderingEngineManager rendEngMgr,
+			CyEventHelper eventHelper, VisualMappingFunctionFactory passthroughFactory,
+			BendFactory bendFactory, HandleFactory handleFactory) {
 
 		this.fileFilter = fileFilter;
 		this.netViewFact = netViewFact;
@@ -97,6 +112,10 @@ public class DotReaderFactory implements InputStreamTaskFactory, NetworkViewAdde
 		this.vizStyleFact = vizStyleFact;
 		this.gradientListener = gradientListener;
 		this.rendEngMgr = rendEngMgr;
+		this.eventHelper = eventHelper;
+		this.passthroughFactory = passthroughFactory;
+		this.bendFactory = bendFactory;
+		this.handleFactory = handleFactory;
 	}	
 	
 	private boolean isDotNetwork(CyNetwork network) {
@@ -117,7 +136,8 @@ public class DotReaderFactory implements InputStreamTaskFactory, NetworkViewAdde
 		LOGGER.trace("Create TaskIterator with params");
 		
 		return new TaskIterator(new DotReaderTask(inStream, netViewFact,
-				netFact, netMgr, rootNetMgr, vizMapMgr, vizStyleFact, gradientListener, rendEngMgr));
+				netFact, netMgr, rootNetMgr, vizMapMgr, vizStyleFact, gradientListener, rendEngMgr, eventHelper, passthroughFactory,
+				bendFactory, handleFactory));
 	}
 	
 	/**
@@ -20,39 +20,62 @@ package org.cytoscape.intern.read;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
+import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.intern.GradientListener;
+import org.cytoscape.intern.read.reader.AttributeColumns;
+import org.cytoscape.intern.read.reader.DefaultPromoter;
 import org.cytoscape.intern.read.reader.EdgeReader;
 import org.cytoscape.intern.read.reader.NetworkReader;
 import org.cytoscape.intern.read.reader.NodeReader;
+import org.cytoscape.intern.read.reader.NumberScanner;
 import org.cytoscape.io.read.AbstractCyNetworkReader;
+import org.cytoscape.model.CyColumn;
 import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNetworkFactory;
 import org.cytoscape.model.CyNetworkManager;
 import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyRow;
 import org.cytoscape.model.CyTable;
+import org.cytoscape.model.events.AddedEdgesEvent;
+import org.cytoscape.model.events.AddedNodesEvent;
+import org.cytoscape.model.events.ColumnCreatedEvent;
+import org.cytoscape.model.events.RowSetRecord;
+import org.cytoscape.model.events.RowsSetEvent;
 import org.cytoscape.model.subnetwork.CyRootNetwork;
 import org.cytoscape.model.subnetwork.CyRootNetworkManager;
 import org.cytoscape.model.subnetwork.CySubNetwork;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.model.View;
 import org.cytoscape.view.presentation.RenderingEngineManager;
 import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
 import org.cytoscape.view.presentation.property.NodeShapeVisualProperty;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
+import org.cytoscape.view.vizmap.VisualMappingFunctionFactory;
 import org.cytoscape.view.vizmap.VisualMappingManager;
 import org.cytoscape.view.vizmap.VisualPropertyDependency;
 import org.cytoscape.view.vizmap.VisualStyle;
 import org.cytoscape.view.vizmap.VisualStyleFactory;
 import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
 
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_PAINT;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_WIDTH;
@@ -63,6 +86,8 @@ import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_W
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_HEIGHT;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_FONT_FACE;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_FONT_SIZE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_X_LOCATION;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_Y_LOCATION;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_COLOR;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_FONT_FACE;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_FONT_SIZE;
@@ -72,14 +97,6 @@ import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_S
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_STROKE_UNSELECTED_PAINT;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_WIDTH;
 
-import com.alexmerz.graphviz.ParseException;
-import com.alexmerz.graphviz.Parser;
-import com.alexmerz.graphviz.TokenMgrError;
-import com.alexmerz.graphviz.objects.Edge;
-import com.alexmerz.graphviz.objects.Graph;
-import com.alexmerz.graphviz.objects.Id;
-import com.alexmerz.graphviz.objects.Node;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -92,9 +109,6 @@ import org.slf4j.LoggerFactory;
  */
 public class DotReaderTask extends AbstractCyNetworkReader {
 	
-	// JPGD way of representing directed graphs
-	private static final int DIRECTED = 2;
-
 	// list of all relevant attributes
 	private static final String[] EDGE_ATTRIBUTES = {
 		"arrowhead", "arrowtail", "dir"
@@ -111,13 +125,41 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	};
 	
 	// whether task is cancelled or not
-	private boolean cancelled = false;
+	private volatile boolean cancelled = false;
 	
 	// Logger that outputs to Cytoscape standard log file:  .../CytoscapeConfiguration/3/framework-cytoscape.log
 	private static final Logger LOGGER = LoggerFactory.getLogger(DotReaderTask.class);
 
-	// InputStreamReader used as input to the JPGD Parser 
-	private InputStreamReader inStreamReader;
+	// stream the tokens are read from, replaying the bytes buffered to
+	// size the input before the rest of the InputStream
+	private InputStream input;
+
+	// DotParser reading the input, kept so that the task can cancel it
+	private volatile DotParser parser;
+
+	// Queue passing parsed statements from the parser thread to the task
+	private volatile DotEventQueue eventQueue;
+
+	// number of statement batches the parser may get ahead of the network
+	// construction, and the number of statements per batch
+	private static final int EVENT_QUEUE_CAPACITY = 16;
+	private static final int EVENT_BATCH_SIZE = 4096;
+
+	// size from which the input is tokenized on several threads, smaller
+	// inputs are held in memory to be prescanned
+	private static final int PARALLEL_TOKENIZE_THRESHOLD = 64 << 20;
+
+	// number of threads tokenizing the input, size from which they are
+	// used and number of bytes per chunk they tokenize
+	private int tokenizerThreads = Runtime.getRuntime().availableProcessors();
+	private int parallelThreshold = PARALLEL_TOKENIZE_THRESHOLD;
+	private int tokenizerChunkSize = ParallelDotTokenizer.DEFAULT_CHUNK_SIZE;
+
+	// number of imported elements between two progress updates
+	private static final int PROGRESS_INTERVAL = 4096;
+
+	// number of iterations of the layout of graphs without positions
+	private static final int LAYOUT_ITERATIONS = 100;
 
 	// VisualMappingManager to which the new visual style will be added	
 	private VisualMappingManager vizMapMgr;
@@ -125,21 +167,77 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	// VisualStyleFactory that will create the VisualStyle for the CyNetwork
 	private VisualStyleFactory vizStyleFact;
 	
-	// Maps the Node in Graph to the CyNode in CyNetwork
-	private Map<Node, CyNode> nodeMap;
-
-	// Maps the Node in Graph to the CyNode in CyNetwork
-	private Map<Edge, CyEdge> edgeMap;
-	// Maps the created CyNetworks to their JPGD Graph object
-	private Map<Graph, CyNetwork> graphMap;
+	// Maps the created CyNetworks to the DotGraph holding their attributes
+	// until their view is built
+	private Map<CyNetwork, DotGraph> graphMap;
 	// Fetches CyCustomGraphics2Factories in order to create gradients
 	private GradientListener gradientListener;
 	// RenderingEngineManager used to get VisualLexicon
 	// Used to check compatibility with Non BVL Visual Properties
 	private RenderingEngineManager rendEngMr;
+	// CyEventHelper used to hold back events during bulk import
+	private CyEventHelper eventHelper;
+	// Creates the passthrough mappings for attributes stored in table columns
+	private VisualMappingFunctionFactory passthroughFactory;
+	// Create the edge bends of imported splines
+	private BendFactory bendFactory;
+	private HandleFactory handleFactory;
+	// Event sources currently silenced through the CyEventHelper
+	private List<Object> silencedSources = new ArrayList<Object>();
 	
 	// Value used to convert DOT's width and height values from inches to points
 	private static final int PPI = 72;
+
+	// interactions of directed and undirected edges
+	private static final String DIRECTED_INTERACTION = "interaction";
+	private static final String UNDIRECTED_INTERACTION = "undirected";
+
+	// columns filled by the importer or Cytoscape, which kept attributes
+	// must not overwrite
+	private static final Set<String> RESERVED_COLUMNS = new HashSet<String>(Arrays.asList(
+		CyIdentifiable.SUID, CyNetwork.NAME, CyNetwork.SELECTED, CyEdge.INTERACTION,
+		CyRootNetwork.SHARED_NAME, CyRootNetwork.SHARED_INTERACTION
+	));
+
+	/*
+	 * Tunable to store the visual properties of nodes and edges in "dot::"
+	 * table columns with passthrough mappings instead of view bypasses,
+	 * which uses much less memory for large networks
+	 */
+	@Tunable(description = "Store node and edge visual properties in table columns")
+	public boolean useAttributeColumns = false;
+
+	/*
+	 * Tunables to import only nodes, edges, names, interactions and weights,
+	 * skipping every visual attribute and the VisualStyle, optionally
+	 * keeping some DOT attributes as raw string columns
+	 */
+	@Tunable(description = "Import topology only")
+	public boolean topologyOnly = false;
+
+	@Tunable(description = "DOT attributes to keep as columns (comma separated)", dependsOn = "topologyOnly=true")
+	public String keptAttributes = "";
+
+	/*
+	 * Tunable to bound the number of bend handles created from the spline
+	 * of an edge's pos attribute, 0 ignores edge splines
+	 */
+	@Tunable(description = "Maximum number of bends per edge (0 to ignore edge splines)")
+	public int maxEdgeBends = 8;
+
+	/*
+	 * Tunable to skip filling the edge name column with
+	 * "source (interaction) target", which is costly for huge graphs
+	 */
+	@Tunable(description = "Name edges after their nodes and interaction")
+	public boolean createEdgeNames = true;
+
+	/*
+	 * Tunable to lay out graphs whose nodes have no pos attribute with a
+	 * force-directed layout instead of leaving every node at the origin
+	 */
+	@Tunable(description = "Lay out graphs without node positions")
+	public boolean layoutUnpositioned = false;
 	
 	/**
 	 * Constructs a DotReaderTask object for importing a dot file
@@ -155,23 +253,33 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	 * gradients
 	 * @param rendEngMgr RenderingEngineManager that contains the default
 	 * VisualLexicon needed for gradient support
+	 * @param eventHelper CyEventHelper used to silence table and view events
+	 * while the network is imported
+	 * @param passthroughFactory VisualMappingFunctionFactory for passthrough
+	 * mappings
+	 * @param bendFactory BendFactory used to create edge bends
+	 * @param handleFactory HandleFactory used to create edge bend handles
 	 */
 	public DotReaderTask(InputStream inStream, CyNetworkViewFactory netViewFact,
 			CyNetworkFactory netFact, CyNetworkManager netMgr,
-			CyRootNetworkManager rootNetMgr, VisualMappingManager vizMapMgr, VisualStyleFactory vizStyleFact, GradientListener gradientListener, RenderingEngineManager rendEngMgr) {
+			CyRootNetworkManager rootNetMgr, VisualMappingManager vizMapMgr, VisualStyleFactory vizStyleFact, GradientListener gradientListener, RenderingEngineManager rendEngMgr,
+			CyEventHelper eventHelper, VisualMappingFunctionFactory passthroughFactory,
+			BendFactory bendFactory, HandleFactory handleFactory) {
 		
 		super(inStream, netViewFact, netFact, netMgr, rootNetMgr);
 		
 		// Initialize variables
-		inStreamReader = new InputStreamReader(inStream, Charset.forName("UTF-8"));
+		input = inStream;
 		this.vizMapMgr = vizMapMgr;
 		this.vizStyleFact = vizStyleFact;
 		this.gradientListener = gradientListener;
 		this.rendEngMr = rendEngMgr;
+		this.eventHelper = eventHelper;
+		this.passthroughFactory = passthroughFactory;
+		this.bendFactory = bendFactory;
+		this.handleFactory = handleFactory;
 		
-		graphMap = new HashMap<Graph, CyNetwork>();
-		nodeMap = new HashMap<Node, CyNode>();
-		edgeMap = new HashMap<Edge, CyEdge>();
+		graphMap = new HashMap<CyNetwork, DotGraph>();
 	}
 
 	/**
@@ -181,21 +289,22 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	 * @return Map<String, String> where key is attribute name and value
 	 * is attribute value
 	 */
-	private Map<String, String> getEdgeDefaultMap(Graph graph) {
+	private Map<String, String> getEdgeDefaultMap(DotGraph graph) {
 		
 		Map<String, String> output = new HashMap<String, String>();
+		Map<String, String> edgeDefaults = graph.getEdgeDefaults();
 		
 		// add each generic Edge attribute and value to map
 		for (String commonAttr : COMMON_ATTRIBUTES) {
 			LOGGER.trace(String.format("Getting default edge attribute: %s", commonAttr));
-			String val = graph.getGenericEdgeAttribute(commonAttr);
+			String val = edgeDefaults.get(commonAttr);
 			if (val != null) {
 				output.put(commonAttr, val);
 			}
 		}
 		for (String edgeAttr : EDGE_ATTRIBUTES) {
 			LOGGER.trace(String.format("Getting default edge attribute: %s", edgeAttr));
-			String val = graph.getGenericEdgeAttribute(edgeAttr);
+			String val = edgeDefaults.get(edgeAttr);
 			if (val != null) {
 				output.put(edgeAttr, val);
 			}
@@ -204,13 +313,14 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 		return output;
 	}
 	
-	private Map<String, String> getGraphDefaultMap(Graph graph) {
+	private Map<String, String> getGraphDefaultMap(DotGraph graph) {
 		Map<String, String> output = new HashMap<String, String>();
+		Map<String, String> graphDefaults = graph.getGraphDefaults();
 		
 		// add each generic Graph attribute and value to map
 		for (String graphAttr : GRAPH_ATTRIBUTES) {
 			LOGGER.trace(String.format("Getting default graph attribute: %s", graphAttr));
-			String val = graph.getGenericGraphAttribute(graphAttr);
+			String val = graphDefaults.get(graphAttr);
 			if (val != null) {
 				output.put(graphAttr, val);
 			}
@@ -219,24 +329,6 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 		return output;
 	}
 	
-	/**
-	 * Retrieves the name of the graph from its Id Object
-	 * @param graph JPGD graph object containing the information
-	 * @return name of the graph
-	 */
-	private String getGraphName(Graph graph) {
-		Id graphId = graph.getId();
-		String idString = graphId.getId();
-		String labelString = graphId.getLabel();
-		if (!idString.equals("")) {
-			return idString;
-		}
-		else if (!labelString.equals("")) {
-			return labelString;
-		}
-		return null;
-	}
-
 	/**
 	 * Returns Map of default attributes and their values for nodes
 	 * 
@@ -244,21 +336,22 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	 * @return Map<String, String> where key is attribute name and value
 	 * is attribute value
 	 */
-	private Map<String, String> getNodeDefaultMap(Graph graph) {
+	private Map<String, String> getNodeDefaultMap(DotGraph graph) {
 		LOGGER.info("Generating the Node Defaults...");
 		
 		// add each generic Node attribute and value to map
 		Map<String, String> output = new HashMap<String, String>();
+		Map<String, String> nodeDefaults = graph.getNodeDefaults();
 		for (String commonAttr : COMMON_ATTRIBUTES) {
 			LOGGER.trace(String.format("Getting default node attribute: %s", commonAttr));
-			String val = graph.getGenericNodeAttribute(commonAttr);
+			String val = nodeDefaults.get(commonAttr);
 			if (val != null) {
 				output.put(commonAttr, val);
 			}
 		}
 		for (String nodeAttr : NODE_ATTRIBUTES) {
 			LOGGER.trace(String.format("Getting default node attribute: %s", nodeAttr));
-			String val = graph.getGenericNodeAttribute(nodeAttr);
+			String val = nodeDefaults.get(nodeAttr);
 			if (val != null) {
 				output.put(nodeAttr, val);
 			}
@@ -268,91 +361,266 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	}
 	
 	/**
-	 * Retrieves the name of the node from its Id object that will be inserted
-	 * into the CyNode table of the CyNetwork
-	 * @param node JPGD node object containing the information
+	 * Retrieves the name of the node from its DOT ID that will be inserted
+	 * into the CyNode table of the CyNetwork. IDs written by dot-app have the
+	 * form name\247SUID, of which only the name is kept.
+	 * @param nodeId ID of the node in the DOT file
 	 * @return name of the node
 	 */
-	private String getNodeName(Node node) {
-		Id nodeId = node.getId();
-		String idString = nodeId.getId();
-		String labelString = nodeId.getLabel();
-		if (!idString.equals("")) {
-			return idString;
-		}
-		else if (!labelString.equals("")) {
-			String[] parts = labelString.split("\247");
-			return parts[0];
-		}
-		return null;
+	private String getNodeName(String nodeId) {
+		int separator = nodeId.indexOf('\247');
+		if (separator >= 0) {
+			return nodeId.substring(0, separator);
+		}
+		return nodeId;
 	}
 	/**
 	 * Adds edge into given cytoscape network, sets name and interaction table data.
-	 * Also adds edge to edgeMap
 	 * 
-	 * @param edge Edge that is being added to network
+	 * @param graph DotGraph holding the endpoints of the edge
+	 * @param source index of the node the edge starts at
+	 * @param target index of the node the edge ends at
+	 * @param directed true if the edge is directed
 	 * @param network CyNetwork that edge is being added to
+	 * @param records List the RowSetRecords of the values set are added to
+	 * @return the CyEdge that was added
 	 */
-	private void importEdge(Edge edge, CyNetwork network) {
+	private CyEdge importEdge(DotGraph graph, int source, int target, boolean directed,
+			CyNetwork network, List<RowSetRecord> records) {
 
-		// get the source and target Nodes from the edge
-		Node source = edge.getSource().getNode();
-		Node target = edge.getTarget().getNode();
-		
-		// get the name of both nodes
-		String sourceName = getNodeName(source);
-		String targetName = getNodeName(target);
-		
-		// get the CyNode of the source and target node from the hashmap
-		CyNode sourceCyNode = nodeMap.get(source);
-		CyNode targetCyNode = nodeMap.get(target);
-		
-		CyEdge cyEdge = null;
-		
-		// Interaction of the edge
-		String interaction;
-		/*
-		 * if getType returns 2, it's directed, else it's undirected
-		 * set the cyEdge and add the cyEdge into the network
-		 */
-		if (edge.getType() == DIRECTED) {
-			cyEdge = network.addEdge(sourceCyNode, targetCyNode, true);
-			interaction = "interaction";
-		}
-		else {
-			cyEdge = network.addEdge(sourceCyNode, targetCyNode, false);
-			interaction = "undirected";
-		}
+		// set the cyEdge and add the cyEdge into the network
+		CyEdge cyEdge = network.addEdge(graph.getCyNode(source), graph.getCyNode(target), directed);
+		String interaction = directed ? DIRECTED_INTERACTION : UNDIRECTED_INTERACTION;
+		CyRow row = network.getRow(cyEdge);
 		
 		//set the interaction, a attribute of table, to be "interaction"
-		network.getDefaultEdgeTable().getRow(cyEdge.getSUID()).set(CyEdge.INTERACTION, interaction);
+		row.set(CyEdge.INTERACTION, interaction);
+		records.add(new RowSetRecord(row, CyEdge.INTERACTION, interaction, interaction));
 		
 		//set the edge name
-		network.getDefaultEdgeTable().getRow(cyEdge.getSUID()).set(CyNetwork.NAME, String.format("%s (%s) %s", sourceName, interaction, targetName));
+		if (createEdgeNames) {
+			String sourceName = graph.getNodeName(source);
+			String targetName = graph.getNodeName(target);
+			String name = new StringBuilder(sourceName.length() + targetName.length() + interaction.length() + 4)
+				.append(sourceName).append(" (").append(interaction).append(") ").append(targetName).toString();
+			row.set(CyNetwork.NAME, name);
+			records.add(new RowSetRecord(row, CyNetwork.NAME, name, name));
+		}
 		
-		edgeMap.put(edge, cyEdge);
+		return cyEdge;
 	}
 	
 	/**
 	 * Adds node into given cytoscape network, sets name.
-	 * Also adds node to nodeMap
 	 * 
-	 * @param node Node being added
+	 * @param nodeName name of the node being added
 	 * @param network CyNetwork it is being added to
+	 * @param records List the RowSetRecord of the name is added to
+	 * @return the CyNode that was added
 	 */
-	private void importNode(Node node, CyNetwork network) {
+	private CyNode importNode(String nodeName, CyNetwork network, List<RowSetRecord> records) {
 		// add cyNode and set name
-		if (node.isSubgraph()) {
-			return;
-		}
 		CyNode cyNode = network.addNode();
-		String nodeName = getNodeName(node);
-		network.getDefaultNodeTable().getRow(cyNode.getSUID()).set(CyNetwork.NAME, nodeName);
-
-		// add the node and the corresponding cyNode into a hashmap for later tracking
-		nodeMap.put(node, cyNode);
+		CyRow row = network.getRow(cyNode);
+		row.set(CyNetwork.NAME, nodeName);
+		records.add(new RowSetRecord(row, CyNetwork.NAME, nodeName, nodeName));
+		return cyNode;
 	}
 	
+	/**
+	 * Stops the CyEventHelper from delivering events fired by the given
+	 * sources until unsilenceEventSources() is called, so that listeners are
+	 * not invoked once for every row or view property set during import
+	 * 
+	 * @param sources event sources to silence, null values are ignored
+	 */
+	private void silenceEventSources(Object... sources) {
+		for (Object source : sources) {
+			if (source != null) {
+				eventHelper.silenceEventSource(source);
+				silencedSources.add(source);
+			}
+		}
+	}
+
+	/**
+	 * Resumes delivery of events from every source silenced with
+	 * silenceEventSources()
+	 */
+	private void unsilenceEventSources() {
+		for (Object source : silencedSources) {
+			eventHelper.unsilenceEventSource(source);
+		}
+		silencedSources.clear();
+	}
+
+	/**
+	 * Computes a force-directed layout for a graph none of whose nodes has
+	 * a pos attribute, if layoutUnpositioned is set
+	 *
+	 * @param graph DotGraph to lay out
+	 * @return computed layout or null if the graph is not laid out
+	 */
+	private ForceDirectedLayout computeLayout(DotGraph graph) {
+		if (!layoutUnpositioned || graph.getNodeCount() == 0
+				|| graph.getNodeAttributes().getColumnIndex("pos") >= 0
+				|| graph.getNodeDefaults().containsKey("pos")) {
+			return null;
+		}
+		LOGGER.info("Laying out {} nodes without positions", graph.getNodeCount());
+		ForceDirectedLayout layout = new ForceDirectedLayout(graph);
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			layout.run(pool, LAYOUT_ITERATIONS);
+		}
+		finally {
+			pool.shutdown();
+		}
+		return layout;
+	}
+
+	/**
+	 * Sets the location of every node View from a computed layout
+	 *
+	 * @param graph DotGraph whose Views are bound
+	 * @param layout layout computed for the graph
+	 */
+	private void applyLayout(DotGraph graph, ForceDirectedLayout layout) {
+		for (int node = 0; node < layout.getNodeCount(); node++) {
+			View<CyNode> nodeView = graph.getNodeView(node);
+			nodeView.setVisualProperty(NODE_X_LOCATION, layout.getX(node));
+			nodeView.setVisualProperty(NODE_Y_LOCATION, layout.getY(node));
+		}
+	}
+
+	/**
+	 * Sets the location of every node View from the pos attribute of its
+	 * node, for topology only imports that do not run the NodeReader
+	 *
+	 * @param graph DotGraph whose Views are bound
+	 */
+	private void applyPositions(DotGraph graph) {
+		DotAttributeTable nodeAttrs = graph.getNodeAttributes();
+		int posColumn = nodeAttrs.getColumnIndex("pos");
+		String defaultPos = graph.getNodeDefaults().get("pos");
+		NumberScanner numberScanner = new NumberScanner();
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			String pos = posColumn >= 0 ? nodeAttrs.get(node, posColumn) : null;
+			if (pos == null) {
+				pos = defaultPos;
+			}
+			if (pos == null) {
+				continue;
+			}
+			if (!numberScanner.scanPoint(pos)) {
+				LOGGER.warn("Ignoring invalid node position {}", pos);
+				continue;
+			}
+			// Y coordinate is different between GraphViz and Java
+			View<CyNode> nodeView = graph.getNodeView(node);
+			nodeView.setVisualProperty(NODE_X_LOCATION, numberScanner.getX());
+			nodeView.setVisualProperty(NODE_Y_LOCATION, -numberScanner.getY());
+		}
+	}
+
+	/**
+	 * Fires the events held back while a network was imported as one event
+	 * per kind: the added nodes, the added edges, and the names and
+	 * interactions set in the node and edge tables
+	 * 
+	 * @param network CyNetwork that was imported
+	 * @param nodeRecords RowSetRecords of the node names
+	 * @param edgeRecords RowSetRecords of the edge names and interactions
+	 */
+	private void fireImportEvents(CyNetwork network, List<RowSetRecord> nodeRecords,
+			List<RowSetRecord> edgeRecords) {
+		List<CyNode> nodeList = network.getNodeList();
+		List<CyEdge> edgeList = network.getEdgeList();
+		if (!nodeList.isEmpty()) {
+			eventHelper.fireEvent(new AddedNodesEvent(network, nodeList));
+			eventHelper.fireEvent(new RowsSetEvent(network.getDefaultNodeTable(), nodeRecords));
+		}
+		if (!edgeList.isEmpty()) {
+			eventHelper.fireEvent(new AddedEdgesEvent(network, edgeList));
+			eventHelper.fireEvent(new RowsSetEvent(network.getDefaultEdgeTable(), edgeRecords));
+		}
+	}
+
+	/**
+	 * Writes the attributes kept in topology only mode to the node and edge
+	 * tables: "weight" as a Double, every other attribute as a String column
+	 * named after the attribute, unless the importer fills that column
+	 * 
+	 * @param network CyNetwork that was imported
+	 * @param graph DotGraph holding the kept attributes
+	 * @param columnNames names of the attributes written to columns
+	 */
+	private void importRawAttributes(CyNetwork network, DotGraph graph, Set<String> columnNames) {
+		DotAttributeTable nodeAttrs = graph.getNodeAttributes();
+		CyTable nodeTable = network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS);
+		for (int column = 0; column < nodeAttrs.getColumnCount(); column++) {
+			String name = nodeAttrs.getColumnName(column);
+			if (!columnNames.contains(name) || !createRawColumn(nodeTable, name)) {
+				continue;
+			}
+			for (int node = 0; node < graph.getNodeCount(); node++) {
+				String value = nodeAttrs.get(node, column);
+				if (value != null) {
+					nodeTable.getRow(graph.getNodeSuid(node)).set(name, value);
+				}
+			}
+		}
+
+		DotAttributeTable edgeAttrs = graph.getEdgeAttributes();
+		CyTable edgeTable = network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS);
+		for (int column = 0; column < edgeAttrs.getColumnCount(); column++) {
+			String name = edgeAttrs.getColumnName(column);
+			boolean isWeight = name.equals("weight");
+			if (!columnNames.contains(name) || !isWeight && !createRawColumn(edgeTable, name)) {
+				continue;
+			}
+			for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+				String value = edgeAttrs.get(edge, column);
+				if (value == null) {
+					continue;
+				}
+				CyRow row = edgeTable.getRow(graph.getEdgeSuid(edge));
+				if (!isWeight) {
+					row.set(name, value);
+					continue;
+				}
+				try {
+					row.set(name, Double.parseDouble(value));
+				}
+				catch (NumberFormatException e) {
+					LOGGER.warn("Ignoring invalid edge weight {}", value);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Creates a String column for a kept attribute, returns false if the
+	 * column is filled by the importer or the table already has a column of
+	 * another type with that name
+	 */
+	private boolean createRawColumn(CyTable table, String name) {
+		if (RESERVED_COLUMNS.contains(name)) {
+			LOGGER.warn("Not importing attribute {}, column is set by the importer", name);
+			return false;
+		}
+		CyColumn column = table.getColumn(name);
+		if (column == null) {
+			table.createColumn(name, String.class, false);
+			return true;
+		}
+		if (column.getType() != String.class) {
+			LOGGER.warn("Not importing attribute {}, column already exists with type {}", name, column.getType().getSimpleName());
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * build an instance of CyNetworkView based on the passed in CyNetwork instance
 	 * 
@@ -363,28 +631,47 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 		
 		LOGGER.info("Executing buildCyNetworkView()...");
 		
-		// initialize the graph object
-		Graph graph = null;
-		
-		// get JPGD graph object from passed-in network object
-		for (Entry<Graph, CyNetwork> entry: graphMap.entrySet()){
-			if(network.equals( entry.getValue() )) {
-				graph = entry.getKey();
-				break;
-			}
-		}
+		// get DotGraph object from passed-in network object, it is released
+		// once the view is built
+		DotGraph graph = graphMap.remove(network);
 		
 		// error checking if the graph object is not found
 		if (graph == null) {
+			// topology only imports only keep the graphs they lay out
+			if (topologyOnly) {
+				return cyNetworkViewFactory.createNetworkView(network);
+			}
 			LOGGER.error("Graph is null, either it's a empty graph or is not found in HashMap");
 			return null;
 		}
+
+		// positions are computed on the DotGraph before any View exists
+		ForceDirectedLayout layout = computeLayout(graph);
+
+		// topology only imports have no visual attributes to convert
+		if (topologyOnly) {
+			CyNetworkView networkView = cyNetworkViewFactory.createNetworkView(network);
+			graph.bindViews(networkView);
+			silenceEventSources(networkView);
+			try {
+				if (layout != null) {
+					applyLayout(graph, layout);
+				}
+				else {
+					applyPositions(graph);
+				}
+			}
+			finally {
+				unsilenceEventSources();
+			}
+			return networkView;
+		}
 		
 		// Base new VisualStyle off the default style
 		VisualStyle defaultVizStyle = vizMapMgr.getDefaultVisualStyle();
 		VisualStyle vizStyle = vizStyleFact.createVisualStyle(defaultVizStyle);
 		vizStyle.setTitle(
-			String.format("%s vizStyle", getGraphName(graph))
+			String.format("%s vizStyle", graph.getName())
 		);
 		
 		// Setting the default values of the visual style to use
@@ -422,17 +709,76 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 		
 		//created a new CyNetworkView based on the cyNetworkViewFactory
 		final CyNetworkView networkView = cyNetworkViewFactory.createNetworkView(network);
+		graph.bindViews(networkView);
 		
 
-		// initialize readers and begin setting visual properties
-		NetworkReader networkReader = new NetworkReader(networkView, vizStyle, getGraphDefaultMap(graph), graph, rendEngMr);
-		networkReader.setProperties();
+		// hold back the view, edge weight and attribute column events until
+		// all properties are set
+		CyTable nodeTable = network.getDefaultNodeTable();
+		CyTable edgeTable = network.getDefaultEdgeTable();
+		silenceEventSources(networkView, nodeTable, edgeTable, network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS));
+		AttributeColumns nodeColumns = null;
+		AttributeColumns edgeColumns = null;
+		try {
+			// values shared by most elements become VisualStyle defaults
+			DefaultPromoter defaultPromoter = new DefaultPromoter();
+			defaultPromoter.promoteNodeDefaults(graph);
+			defaultPromoter.promoteEdgeDefaults(graph);
+
+			// initialize readers and begin setting visual properties
+			NetworkReader networkReader = new NetworkReader(networkView, vizStyle, getGraphDefaultMap(graph),
+					graph.getGraphAttributes(), graph.isDirected(), rendEngMr);
+			networkReader.setProperties();
 
-		NodeReader nodeReader = new NodeReader(networkView, vizStyle, getNodeDefaultMap(graph), rendEngMr, nodeMap, gradientListener);
-		nodeReader.setProperties();
+			NodeReader nodeReader = new NodeReader(networkView, vizStyle, getNodeDefaultMap(graph), rendEngMr, graph, gradientListener);
+			EdgeReader edgeReader = new EdgeReader(networkView, vizStyle, getEdgeDefaultMap(graph), rendEngMr, graph);
+			if (useAttributeColumns) {
+				nodeColumns = new AttributeColumns(nodeTable);
+				edgeColumns = new AttributeColumns(edgeTable);
+				nodeReader.setAttributeColumns(nodeColumns);
+				edgeReader.setAttributeColumns(edgeColumns);
+			}
+			edgeReader.setBendFactories(bendFactory, handleFactory, maxEdgeBends);
+			nodeReader.setProperties();
+			edgeReader.setProperties();
+			if (layout != null) {
+				applyLayout(graph, layout);
+			}
 
-		EdgeReader edgeReader = new EdgeReader(networkView, vizStyle, getEdgeDefaultMap(graph), rendEngMr, edgeMap);
-		edgeReader.setProperties();
+			if (useAttributeColumns) {
+				nodeColumns.addMappings(vizStyle, passthroughFactory);
+				edgeColumns.addMappings(vizStyle, passthroughFactory);
+			}
+		}
+		finally {
+			unsilenceEventSources();
+		}
+
+		// announce the attribute columns, their values are read by the
+		// passthrough mappings when the VisualStyle is applied
+		if (useAttributeColumns) {
+			for (AttributeColumns columns : new AttributeColumns[] {nodeColumns, edgeColumns}) {
+				for (String columnName : columns.getCreatedColumns()) {
+					eventHelper.fireEvent(new ColumnCreatedEvent(columns.getTable(), columnName));
+				}
+			}
+		}
+
+		// fire the edge weights that were set as a single event
+		List<RowSetRecord> weightRecords = new ArrayList<RowSetRecord>();
+		DotAttributeTable edgeAttrs = graph.getEdgeAttributes();
+		int weightColumn = edgeAttrs.getColumnIndex("weight");
+		for (int edge = 0; weightColumn >= 0 && edge < graph.getEdgeCount(); edge++) {
+			if (edgeAttrs.get(edge, weightColumn) != null) {
+				CyRow row = network.getRow(graph.getCyEdge(edge));
+				Double weight = row.get("weight", Double.class);
+				weightRecords.add(new RowSetRecord(row, "weight", weight, weight));
+			}
+		}
+		if (!weightRecords.isEmpty()) {
+			eventHelper.fireEvent(new RowsSetEvent(edgeTable, weightRecords));
+		}
+		eventHelper.flushPayloadEvents();
 
 		//add the created visualStyle to VisualMappingManager
 		vizMapMgr.addVisualStyle(vizStyle);
@@ -447,6 +793,14 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	@Override
 	public void cancel() {
 		cancelled = true;
+		DotParser currentParser = parser;
+		if (currentParser != null) {
+			currentParser.cancel();
+		}
+		DotEventQueue currentQueue = eventQueue;
+		if (currentQueue != null) {
+			currentQueue.cancel();
+		}
 		super.cancel();
 	}
 
@@ -460,6 +814,75 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 		return networks;
 	}
 	
+	/*
+	 * Reads the input into memory until it ends or parallelThreshold bytes
+	 * were read, and replays them before the rest of the InputStream. An
+	 * input that ended is counted by a DotPrescan, returns null for a larger
+	 * one.
+	 */
+	private DotPrescan prescanInput(TaskMonitor monitor) {
+		monitor.setStatusMessage("Scanning file...");
+		byte[] bytes = new byte[Math.min(parallelThreshold, 1 << 16)];
+		int length = 0;
+		try {
+			while (true) {
+				if (length == bytes.length) {
+					if (length >= parallelThreshold) {
+						input = new SequenceInputStream(new ByteArrayInputStream(bytes, 0, length), inputStream);
+						return null;
+					}
+					bytes = Arrays.copyOf(bytes, (int) Math.min(2L * length, parallelThreshold));
+				}
+				int read = inputStream.read(bytes, length, bytes.length - length);
+				if (read < 0) {
+					break;
+				}
+				length += read;
+			}
+		}
+		catch (IOException e) {
+			LOGGER.error(e.getMessage());
+			throw new RuntimeException("Sorry! Error occurred while reading the input file.");
+		}
+		input = new ByteArrayInputStream(bytes, 0, length);
+		DotPrescan prescan = DotPrescan.scan(bytes, length);
+		LOGGER.debug("Prescan found {} graphs, {} statements and {} edge operators",
+			prescan.getGraphCount(), prescan.getStatementCount(), prescan.getEdgeOperatorCount());
+		if (prescan.getGraphCount() > 0) {
+			graphMap = new HashMap<CyNetwork, DotGraph>(prescan.getGraphCount() * 2);
+		}
+		return prescan;
+	}
+
+	/*
+	 * Returns a ParallelDotTokenizer over the input if several threads may
+	 * tokenize it, otherwise null
+	 */
+	private ParallelDotTokenizer createParallelTokenizer() {
+		if (tokenizerThreads < 2) {
+			return null;
+		}
+		LOGGER.debug("Tokenizing input on {} threads", tokenizerThreads);
+		return new ParallelDotTokenizer(input, tokenizerThreads, tokenizerChunkSize);
+	}
+
+	/**
+	 * Sets how the input is tokenized. Inputs of at least threshold bytes
+	 * are cut into chunks of about chunkSize bytes that are tokenized on
+	 * several threads, smaller ones are held in memory, counted by a
+	 * DotPrescan and read by a single DotLexer.
+	 *
+	 * @param threads number of threads tokenizing large inputs, less than 2
+	 * to always use a single DotLexer
+	 * @param threshold size in bytes from which the input is large
+	 * @param chunkSize target number of bytes per chunk
+	 */
+	public void setTokenizing(int threads, int threshold, int chunkSize) {
+		this.tokenizerThreads = threads;
+		this.parallelThreshold = Math.max(threshold, 0);
+		this.tokenizerChunkSize = chunkSize;
+	}
+
 	/**
 	 * Causes the task to begin execution.
 	 * 
@@ -470,131 +893,405 @@ public class DotReaderTask extends AbstractCyNetworkReader {
 	public void run(TaskMonitor monitor) {
 		LOGGER.trace("Running run() function...");
 		monitor.setProgress(0);
-		//Initialize the parser
-		Parser parser = new Parser();
+		/*
+		 * The parser runs on its own thread and passes statements through a
+		 * bounded queue to the NetworkBuilder on this thread, so reading the
+		 * file overlaps with creating the CyNetwork
+		 */
+		Set<String> columnAttributeNames = null;
+		Set<String> keptAttributeNames = null;
+		if (topologyOnly) {
+			columnAttributeNames = new HashSet<String>();
+			columnAttributeNames.add("weight");
+			for (String name : keptAttributes.split(",")) {
+				if (!name.trim().isEmpty()) {
+					columnAttributeNames.add(name.trim());
+				}
+			}
+			// positions decide whether a graph is laid out, and are applied
+			// to the view if it is not
+			keptAttributeNames = new HashSet<String>(columnAttributeNames);
+			if (layoutUnpositioned) {
+				keptAttributeNames.add("pos");
+			}
+		}
+		DotPrescan prescan = prescanInput(monitor);
+		NetworkBuilder builder = new NetworkBuilder(monitor, keptAttributeNames, columnAttributeNames, prescan);
+		final DotEventQueue queue = new DotEventQueue(EVENT_QUEUE_CAPACITY, EVENT_BATCH_SIZE);
+		final ParallelDotTokenizer tokenizer = prescan == null ? createParallelTokenizer() : null;
+		DotTokenSource tokens = tokenizer;
+		if (tokens == null) {
+			tokens = new DotLexer(new InputStreamReader(input, Charset.forName("UTF-8")));
+		}
+		final DotParser dotParser = new DotParser(tokens, queue);
+		eventQueue = queue;
+		parser = dotParser;
+		if (cancelled) {
+			dotParser.cancel();
+			queue.cancel();
+		}
+		Thread parserThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					dotParser.parse();
+					queue.finish();
+				}
+				catch (IOException | DotParseException | RuntimeException e) {
+					queue.fail(e);
+				}
+			}
+		}, "DOT parser");
+		parserThread.setDaemon(true);
+		boolean completed = false;
 		
 		try {
 			
 		    LOGGER.trace("Begin parsing the input...");
 		    monitor.setStatusMessage("Retrieving graph from file...");
-			parser.parse(inStreamReader);
-			
-			// Get list of graphs
-			ArrayList<Graph> graphList = parser.getGraphs();
-			CyNetwork [] networks = new CyNetwork [graphList.size()];
+			parserThread.start();
+			queue.drainTo(builder);
 			
-			// Get the root network
-			CyRootNetwork root = getRootNetwork();
-			
-			int networkCounter = 0;
-			for (Graph graph : graphList) {
-				
-				if(!cancelled){
-					LOGGER.trace("Iterating graph in graphList...");
-					CySubNetwork network;
-					if (root != null) {
-						network = root.addSubNetwork();
-					}
-					else {
-						network = (CySubNetwork)cyNetworkFactory.createNetwork();
-					}
-				
-					// set the name for the network
-					String networkName = getGraphName(graph);
-					network.getRow(network).set(CyNetwork.NAME, networkName);
-				
-					// add DOT_network Identifier to Network Table
-					monitor.setStatusMessage("Creating table columns...");
-					LOGGER.trace("Writing DOT_network identifer to Network table...");
-					CyTable networkTable = network.getTable(CyNetwork.class, CyNetwork.HIDDEN_ATTRS);
-					CyTable edgeLocalTable = network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS);
-					edgeLocalTable.createColumn("weight", Double.class, false, null);
-					networkTable.createColumn("DOT_network", Boolean.class, true);
-					networkTable.getRow(network.getSUID()).set("DOT_network", true);
-					LOGGER.debug(
-						String.format("DOT_network identifier written. Result: %s",
-							networkTable.getRow(network.getSUID()).get("DOT_network", Boolean.class))
-					);
-					
-					ArrayList<Node> nodeList = graph.getNodes(false);
-					ArrayList<Edge> edgeList = graph.getEdges();
-	
-					
-					// import nodes
-					monitor.setStatusMessage("Importing nodes...");
-					for (Node node : nodeList) {
-						if(!cancelled) {
-							importNode(node, network);
-						}
-						else {
-							return;
-						}
-					}
-				
-					monitor.setProgress(0.5);
-					
-					// import edges
-					// Add edges that are defined in subgraphs to the import list
-					for (Graph subgraph : graph.getSubgraphs()) {
-						edgeList.addAll(subgraph.getEdges());
-					}
-					
-					monitor.setStatusMessage("Importing edges...");
-					for(Edge edge : edgeList) {
-						if(!cancelled) {
-							importEdge(edge, network);
-						}
-						else {
-							return;
-						}
-					}
-					
-					LOGGER.trace("All elements imported");
-				
-					//at the end of each graph iteration, add the created CyNetwork into the CyNetworks array
-					networks[networkCounter++] = network;
-					LOGGER.trace("Network added to array");
-				
-					//add the graph and the created CyNetwork based on that graph into the graphMap hashmap
-					graphMap.put(graph, network);
-					LOGGER.trace("Graph added to map");
-				}
-				else {
-					// cancel if needed
-					return;
-				}
-				
-				monitor.setProgress(1.0);
-				this.networks = networks;
-				LOGGER.trace("CyNetwork objects successfully created");
+			// cancel if needed, no view will be built for the graphs read
+			if (cancelled) {
+				graphMap.clear();
+				return;
 			}
+			
+			monitor.setProgress(1.0);
+			this.networks = builder.getNetworks();
+			completed = true;
+			LOGGER.trace("CyNetwork objects successfully created");
 		}
-		catch(ParseException e){
-			//Invalid sequence of tokens found in file
+		catch(DotParseException e){
+			//Invalid sequence of tokens or invalid token found in file
 			LOGGER.error(e.getMessage());
 			throw new RuntimeException("Sorry! Unable to parse input file. "
 					+ "Try running Graphviz's neato utility on the file to get a compatible file.");
 		}
-		catch (TokenMgrError e) {
-			// Cytoscape is able to continue running even if this error is thrown
-			// Invalid token found in file
+		catch (IOException e) {
 			LOGGER.error(e.getMessage());
-			throw new RuntimeException("Sorry! Unable to parse input file. "
-					+ "Try running Graphviz's neato utility on the file to get a compatible file.");
+			throw new RuntimeException("Sorry! Error occurred while reading the input file.");
+		}
+		catch (InterruptedException e) {
+			LOGGER.warn("DOT import interrupted");
+			Thread.currentThread().interrupt();
 		}
 		finally {
+			// stop the parser thread if the import ended early
+			dotParser.cancel();
+			queue.cancel();
+			try {
+				parserThread.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (tokenizer != null) {
+				tokenizer.close();
+			}
+			// an import that failed or was cancelled leaves no networks behind
+			if (!completed) {
+				graphMap.clear();
+				builder.discardNetworks();
+			}
+			// release sources still silenced by an unfinished graph
+			unsilenceEventSources();
+			parser = null;
+			eventQueue = null;
 			try {
-				inStreamReader.close();
+				inputStream.close();
 			} catch (IOException e) {
 				LOGGER.error(e.getMessage());
 				throw new RuntimeException("Sorry! Error occurred while attempting to close stream.");
 			}
 		}
-	}	
-}
+	}
+
+	/**
+	 * DotGraphHandler that creates a CyNetwork for each graph in the file and
+	 * adds nodes and edges to it as statements arrive from the parser thread.
+	 * Attributes are kept in a DotGraph until buildCyNetworkView is called.
+	 */
+	private class NetworkBuilder implements DotGraphHandler {
+
+		// TaskMonitor used to report the import status
+		private TaskMonitor monitor;
+
+		// CyNetworks created so far
+		private ArrayList<CyNetwork> networkList = new ArrayList<CyNetwork>();
 
+		// graph currently being parsed and the CyNetwork created for it
+		private DotGraph graph;
+		private CySubNetwork network;
 
+		// number of subgraphs currently open
+		private int depth = 0;
 
+		// names and interactions set in the current graph, fired as one
+		// event when it is complete
+		private List<RowSetRecord> nodeRecords;
+		private List<RowSetRecord> edgeRecords;
 
+		// names of the element attributes to keep, null to keep all of them
+		private Set<String> keptAttributeNames;
 
+		// names of the kept attributes written to table columns, null to
+		// write none
+		private Set<String> columnAttributeNames;
 
+		// expected number of nodes and edges per graph
+		private int expectedNodes = 0;
+		private int expectedEdges = 0;
+
+		// whether progress counts edges or nodes, how many of them are
+		// expected in the file and how many have been imported
+		private boolean progressByEdges = false;
+		private int progressTotal = 0;
+		private int progressCount = 0;
+
+		/**
+		 * Constructs a NetworkBuilder
+		 *
+		 * @param monitor TaskMonitor used to report the import status
+		 * @param keptAttributeNames names of the node and edge attributes to
+		 * keep, null to keep all of them
+		 * @param columnAttributeNames names of the kept attributes written to
+		 * table columns, null to write none
+		 * @param prescan counts of the input used to size the graphs and to
+		 * report progress, null if unknown
+		 */
+		public NetworkBuilder(TaskMonitor monitor, Set<String> keptAttributeNames,
+				Set<String> columnAttributeNames, DotPrescan prescan) {
+			this.monitor = monitor;
+			this.keptAttributeNames = keptAttributeNames;
+			this.columnAttributeNames = columnAttributeNames;
+			if (prescan != null && prescan.getGraphCount() > 0) {
+				int graphCount = prescan.getGraphCount();
+				networkList.ensureCapacity(graphCount);
+				expectedNodes = prescan.getStatementCount() / graphCount;
+				expectedEdges = prescan.getEdgeOperatorCount() / graphCount;
+				progressByEdges = prescan.getEdgeOperatorCount() > 0;
+				progressTotal = progressByEdges ? prescan.getEdgeOperatorCount() : prescan.getStatementCount();
+			}
+		}
+
+		/**
+		 * Returns the CyNetworks created for all completed graphs
+		 *
+		 * @return array of CyNetworks
+		 */
+		public CyNetwork[] getNetworks() {
+			return networkList.toArray(new CyNetwork[networkList.size()]);
+		}
+
+		/**
+		 * Removes the CyNetworks created so far, including the one of an
+		 * unfinished graph, and their nodes and edges from the root network
+		 * they were imported into. CyNetworks created in a new collection are
+		 * not registered anywhere and are simply dropped.
+		 */
+		public void discardNetworks() {
+			if (network != null) {
+				networkList.add(network);
+			}
+			CyRootNetwork root = getRootNetwork();
+			if (root != null) {
+				for (CyNetwork cyNetwork : networkList) {
+					List<CyEdge> edgeList = cyNetwork.getEdgeList();
+					List<CyNode> nodeList = cyNetwork.getNodeList();
+					root.removeSubNetwork((CySubNetwork) cyNetwork);
+					root.removeEdges(edgeList);
+					root.removeNodes(nodeList);
+				}
+				LOGGER.trace("Discarded {} unfinished networks", networkList.size());
+			}
+			networkList.clear();
+			graph = null;
+			network = null;
+		}
+
+		@Override
+		public void startGraph(String id, boolean directed, boolean strict) {
+			LOGGER.trace("Creating network for graph...");
+			// Get the root network
+			CyRootNetwork root = getRootNetwork();
+			if (root != null) {
+				network = root.addSubNetwork();
+			}
+			else {
+				network = (CySubNetwork)cyNetworkFactory.createNetwork();
+			}
+			
+			// set the name for the network
+			network.getRow(network).set(CyNetwork.NAME, id);
+			
+			// add DOT_network Identifier to Network Table
+			monitor.setStatusMessage("Creating table columns...");
+			LOGGER.trace("Writing DOT_network identifer to Network table...");
+			CyTable networkTable = network.getTable(CyNetwork.class, CyNetwork.HIDDEN_ATTRS);
+			CyTable edgeLocalTable = network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS);
+			edgeLocalTable.createColumn("weight", Double.class, false, null);
+			networkTable.createColumn("DOT_network", Boolean.class, true);
+			networkTable.getRow(network.getSUID()).set("DOT_network", true);
+			LOGGER.debug(
+				String.format("DOT_network identifier written. Result: %s",
+					networkTable.getRow(network.getSUID()).get("DOT_network", Boolean.class))
+			);
+			
+			// hold back node, edge and row events of the new network until the
+			// graph is complete. The root network and its shared tables may
+			// belong to an existing collection and are left alone, as their
+			// events are not fired again.
+			silenceEventSources(network,
+				network.getDefaultNodeTable(), network.getDefaultEdgeTable(),
+				network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS), edgeLocalTable);
+			
+			if (expectedNodes > 0 || expectedEdges > 0) {
+				graph = new DotGraph(id, directed, expectedNodes, expectedEdges);
+			}
+			else {
+				graph = new DotGraph(id, directed);
+			}
+			depth = 0;
+			nodeRecords = new ArrayList<RowSetRecord>(Math.max(expectedNodes, 16));
+			edgeRecords = new ArrayList<RowSetRecord>(Math.max(expectedEdges * 2, 16));
+			monitor.setStatusMessage("Importing nodes and edges...");
+		}
+
+		@Override
+		public void graphAttribute(String name, String value) {
+			// only attributes of the top level graph apply to the network
+			if (depth == 0) {
+				graph.getGraphAttributes().put(name, value);
+			}
+		}
+
+		@Override
+		public void defaultAttributes(DefaultType type, DotAttributeList attrs) {
+			// defaults declared in subgraphs are not supported
+			if (depth > 0) {
+				return;
+			}
+			switch (type) {
+				case GRAPH: {
+					attrs.putAllInto(graph.getGraphDefaults());
+					break;
+				}
+				case NODE: {
+					attrs.putAllInto(graph.getNodeDefaults());
+					break;
+				}
+				case EDGE: {
+					attrs.putAllInto(graph.getEdgeDefaults());
+					break;
+				}
+			}
+		}
+
+		@Override
+		public void startSubgraph(String id) {
+			depth++;
+		}
+
+		@Override
+		public void endSubgraph() {
+			depth--;
+		}
+
+		@Override
+		public void node(String id, DotAttributeList attrs) {
+			int node = getNodeIndex(id);
+			if (!attrs.isEmpty()) {
+				setAttributes(graph.getNodeAttributes(), node, attrs);
+			}
+			if (!progressByEdges) {
+				reportProgress();
+			}
+		}
+
+		@Override
+		public void edge(String sourceId, String targetId, boolean directed, DotAttributeList attrs) {
+			int source = getNodeIndex(sourceId);
+			int target = getNodeIndex(targetId);
+			CyEdge cyEdge = importEdge(graph, source, target, directed, network, edgeRecords);
+			int edge = graph.addEdge(source, target, directed, cyEdge);
+			if (!attrs.isEmpty()) {
+				setAttributes(graph.getEdgeAttributes(), edge, attrs);
+			}
+			if (progressByEdges) {
+				reportProgress();
+			}
+		}
+
+		@Override
+		public void endGraph() {
+			LOGGER.trace("All elements imported");
+			
+			// deliver the held back events as one event of each kind
+			unsilenceEventSources();
+			fireImportEvents(network, nodeRecords, edgeRecords);
+			if (columnAttributeNames != null) {
+				importRawAttributes(network, graph, columnAttributeNames);
+			}
+			
+			//at the end of each graph, add the created CyNetwork into the CyNetworks list
+			networkList.add(network);
+			LOGGER.trace("Network added to list");
+			
+			// release the parse state of the graph, and keep what is left
+			// only if the view needs it
+			graph.endParsing();
+			if (!topologyOnly || layoutUnpositioned) {
+				//add the created CyNetwork and the graph it is based on into the graphMap hashmap
+				graphMap.put(network, graph);
+				LOGGER.trace("Graph added to map");
+			}
+
+			graph = null;
+			network = null;
+			nodeRecords = null;
+			edgeRecords = null;
+		}
+
+		/*
+		 * Counts an imported element and periodically updates the progress
+		 * from the prescan totals
+		 */
+		private void reportProgress() {
+			progressCount++;
+			if (progressTotal > 0 && progressCount % PROGRESS_INTERVAL == 0) {
+				monitor.setProgress(Math.min((double) progressCount / progressTotal, 0.99));
+			}
+		}
+
+		/*
+		 * Stores the attributes of an element that are kept
+		 */
+		private void setAttributes(DotAttributeTable table, int row, DotAttributeList attrs) {
+			if (keptAttributeNames == null) {
+				table.setAll(row, attrs);
+				return;
+			}
+			for (int i = 0; i < attrs.size(); i++) {
+				if (keptAttributeNames.contains(attrs.getName(i))) {
+					table.set(row, attrs.getName(i), attrs.getValue(i));
+				}
+			}
+		}
+
+		/*
+		 * Returns the index of the node with an ID, creating the node the
+		 * first time the ID is seen in the current graph
+		 */
+		private int getNodeIndex(String id) {
+			int node = graph.getNodeIndex(id);
+			if (node < 0) {
+				String nodeName = getNodeName(id);
+				CyNode cyNode = importNode(nodeName, network, nodeRecords);
+				node = graph.addNode(id, nodeName, cyNode);
+			}
+			return node;
+		}
+	}
+}
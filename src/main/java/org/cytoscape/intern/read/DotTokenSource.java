@@ -0,0 +1,66 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.read;
+
+import java.io.IOException;
+
+import org.cytoscape.intern.read.DotLexer.TokenType;
+
+/**
+ * Sequence of DOT tokens consumed by a DotParser, either scanned on demand
+ * by a DotLexer or produced ahead of time by a ParallelDotTokenizer.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public interface DotTokenSource {
+
+	/**
+	 * Moves to the next token
+	 *
+	 * @return type of the new current token, EOF once the input is exhausted
+	 * @throws IOException if reading the input fails
+	 * @throws DotParseException if the input contains an invalid token
+	 */
+	public TokenType next() throws IOException, DotParseException;
+
+	/**
+	 * Returns the type of the current token
+	 *
+	 * @return type of the current token, null before the first call to next()
+	 */
+	public TokenType getType();
+
+	/**
+	 * Returns the text of the current token, without the quotes or angle
+	 * brackets of quoted and HTML strings
+	 *
+	 * @return text of the current token
+	 */
+	public String getText();
+
+	/**
+	 * Returns the line the current token starts on
+	 *
+	 * @return line number, starting at 1
+	 */
+	public int getLine();
+}
@@ -0,0 +1,380 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.read;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fruchterman-Reingold force-directed layout computed directly on the edge
+ * arrays of a DotGraph, for graphs whose DOT file has no positions. The
+ * repulsion between all nodes is approximated with a Barnes-Hut quadtree
+ * rebuilt every iteration, so an iteration costs about
+ * O(nodes log nodes + edges). The forces on the nodes are computed in
+ * parallel on a ForkJoinPool: every task only reads the tree and the
+ * positions and only writes the displacement of its own range of nodes.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class ForceDirectedLayout {
+
+	// ideal distance between adjacent nodes, in points
+	private static final double EDGE_LENGTH = 80;
+
+	// a cell of the quadtree is treated as one body when its width divided
+	// by its distance to the node is below this ratio
+	private static final double THETA = 0.9;
+
+	// depth below which coincident nodes share a cell
+	private static final int MAX_DEPTH = 48;
+
+	// largest number of nodes handled by one task
+	private static final int SPLIT_THRESHOLD = 1024;
+
+	// seed of the initial positions, fixed so layouts are reproducible
+	private static final long SEED = 42;
+
+	private final int nodeCount;
+
+	// neighbors of node i are adjacency[adjacencyStart[i], adjacencyStart[i + 1])
+	private final int[] adjacencyStart;
+	private final int[] adjacency;
+
+	// positions and displacements of the nodes
+	private final double[] x;
+	private final double[] y;
+	private final double[] dispX;
+	private final double[] dispY;
+
+	// quadtree cells: first of four children (-1 for a leaf), node held by
+	// a leaf (-1 if empty), number of nodes, sum of their positions, and
+	// lower left corner and width of the square covered
+	private int[] cellChildren;
+	private int[] cellBodies;
+	private int[] cellCounts;
+	private double[] cellSumX;
+	private double[] cellSumY;
+	private double[] cellX;
+	private double[] cellY;
+	private double[] cellWidths;
+	private int cellCount;
+
+	// largest distance a node may move in the current iteration
+	private double temperature;
+
+	/**
+	 * Constructs a ForceDirectedLayout for the nodes and edges of a graph,
+	 * with the nodes spread randomly over a square
+	 *
+	 * @param graph DotGraph to lay out
+	 */
+	public ForceDirectedLayout(DotGraph graph) {
+		nodeCount = graph.getNodeCount();
+		int edgeCount = graph.getEdgeCount();
+
+		// count the neighbors of each node, then fill them in
+		adjacencyStart = new int[nodeCount + 1];
+		for (int edge = 0; edge < edgeCount; edge++) {
+			int source = graph.getEdgeSource(edge);
+			int target = graph.getEdgeTarget(edge);
+			if (source != target) {
+				adjacencyStart[source + 1]++;
+				adjacencyStart[target + 1]++;
+			}
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			adjacencyStart[node + 1] += adjacencyStart[node];
+		}
+		adjacency = new int[adjacencyStart[nodeCount]];
+		int[] fill = Arrays.copyOf(adjacencyStart, nodeCount);
+		for (int edge = 0; edge < edgeCount; edge++) {
+			int source = graph.getEdgeSource(edge);
+			int target = graph.getEdgeTarget(edge);
+			if (source != target) {
+				adjacency[fill[source]++] = target;
+				adjacency[fill[target]++] = source;
+			}
+		}
+
+		x = new double[nodeCount];
+		y = new double[nodeCount];
+		dispX = new double[nodeCount];
+		dispY = new double[nodeCount];
+		double side = EDGE_LENGTH * Math.sqrt(Math.max(nodeCount, 1));
+		Random random = new Random(SEED);
+		for (int node = 0; node < nodeCount; node++) {
+			x[node] = random.nextDouble() * side;
+			y[node] = random.nextDouble() * side;
+		}
+		temperature = side / 10;
+
+		int capacity = Math.max(2 * nodeCount, 16);
+		cellChildren = new int[capacity];
+		cellBodies = new int[capacity];
+		cellCounts = new int[capacity];
+		cellSumX = new double[capacity];
+		cellSumY = new double[capacity];
+		cellX = new double[capacity];
+		cellY = new double[capacity];
+		cellWidths = new double[capacity];
+	}
+
+	/**
+	 * Runs the layout
+	 *
+	 * @param pool ForkJoinPool the forces are computed on
+	 * @param iterations number of iterations, the temperature drops
+	 * linearly to zero over them
+	 */
+	public void run(ForkJoinPool pool, int iterations) {
+		double startTemperature = temperature;
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			temperature = startTemperature * (iterations - iteration) / iterations;
+			buildTree();
+			pool.invoke(new ForceTask(0, nodeCount));
+			move();
+		}
+	}
+
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	public double getX(int node) {
+		return x[node];
+	}
+
+	public double getY(int node) {
+		return y[node];
+	}
+
+	/*
+	 * Builds the quadtree of the current positions
+	 */
+	private void buildTree() {
+		double minX = Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int node = 0; node < nodeCount; node++) {
+			minX = Math.min(minX, x[node]);
+			minY = Math.min(minY, y[node]);
+			maxX = Math.max(maxX, x[node]);
+			maxY = Math.max(maxY, y[node]);
+		}
+		cellCount = 0;
+		newCell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), 1));
+		for (int node = 0; node < nodeCount; node++) {
+			insert(node);
+		}
+	}
+
+	/*
+	 * Adds a node to the quadtree, splitting the leaf it falls in
+	 */
+	private void insert(int node) {
+		int cell = 0;
+		for (int depth = 0; ; depth++) {
+			if (cellCounts[cell] == 0) {
+				cellBodies[cell] = node;
+				cellCounts[cell] = 1;
+				cellSumX[cell] = x[node];
+				cellSumY[cell] = y[node];
+				return;
+			}
+			if (cellChildren[cell] < 0) {
+				if (depth == MAX_DEPTH) {
+					// nodes this close are kept together in one leaf
+					cellCounts[cell]++;
+					cellSumX[cell] += x[node];
+					cellSumY[cell] += y[node];
+					return;
+				}
+				// move the node of the leaf down into a new child
+				split(cell);
+				int other = cellBodies[cell];
+				int child = childAt(cell, x[other], y[other]);
+				cellBodies[child] = other;
+				cellCounts[child] = 1;
+				cellSumX[child] = x[other];
+				cellSumY[child] = y[other];
+				cellBodies[cell] = -1;
+			}
+			cellCounts[cell]++;
+			cellSumX[cell] += x[node];
+			cellSumY[cell] += y[node];
+			cell = childAt(cell, x[node], y[node]);
+		}
+	}
+
+	/*
+	 * Creates the four children of a leaf
+	 */
+	private void split(int cell) {
+		double half = cellWidths[cell] / 2;
+		double left = cellX[cell];
+		double bottom = cellY[cell];
+		int first = newCell(left, bottom, half);
+		newCell(left + half, bottom, half);
+		newCell(left, bottom + half, half);
+		newCell(left + half, bottom + half, half);
+		cellChildren[cell] = first;
+	}
+
+	/*
+	 * Returns the child of a cell that contains a position
+	 */
+	private int childAt(int cell, double px, double py) {
+		double half = cellWidths[cell] / 2;
+		int quadrant = (px >= cellX[cell] + half ? 1 : 0) + (py >= cellY[cell] + half ? 2 : 0);
+		return cellChildren[cell] + quadrant;
+	}
+
+	private int newCell(double left, double bottom, double width) {
+		if (cellCount == cellChildren.length) {
+			int capacity = cellCount * 2;
+			cellChildren = Arrays.copyOf(cellChildren, capacity);
+			cellBodies = Arrays.copyOf(cellBodies, capacity);
+			cellCounts = Arrays.copyOf(cellCounts, capacity);
+			cellSumX = Arrays.copyOf(cellSumX, capacity);
+			cellSumY = Arrays.copyOf(cellSumY, capacity);
+			cellX = Arrays.copyOf(cellX, capacity);
+			cellY = Arrays.copyOf(cellY, capacity);
+			cellWidths = Arrays.copyOf(cellWidths, capacity);
+		}
+		cellChildren[cellCount] = -1;
+		cellBodies[cellCount] = -1;
+		cellCounts[cellCount] = 0;
+		cellSumX[cellCount] = 0;
+		cellSumY[cellCount] = 0;
+		cellX[cellCount] = left;
+		cellY[cellCount] = bottom;
+		cellWidths[cellCount] = width;
+		return cellCount++;
+	}
+
+	/*
+	 * Computes the displacement of one node from the repulsion of all other
+	 * nodes and the attraction of its neighbors
+	 *
+	 * @param stack work array of at least 3 * MAX_DEPTH + 4 cells
+	 */
+	private void computeDisplacement(int node, int[] stack) {
+		double k = EDGE_LENGTH;
+		double nodeX = x[node];
+		double nodeY = y[node];
+		double forceX = 0;
+		double forceY = 0;
+
+		int size = 0;
+		stack[size++] = 0;
+		while (size > 0) {
+			int cell = stack[--size];
+			int count = cellCounts[cell];
+			if (count == 0 || cellBodies[cell] == node && count == 1) {
+				continue;
+			}
+			double dx = nodeX - cellSumX[cell] / count;
+			double dy = nodeY - cellSumY[cell] / count;
+			double distance = Math.sqrt(dx * dx + dy * dy);
+			if (cellChildren[cell] >= 0 && cellWidths[cell] >= THETA * distance) {
+				// too close to be treated as one body
+				int first = cellChildren[cell];
+				for (int child = first; child < first + 4; child++) {
+					stack[size++] = child;
+				}
+				continue;
+			}
+			if (cellBodies[cell] == node) {
+				// leaf of coincident nodes, do not count the node itself
+				count--;
+			}
+			if (distance < 0.01) {
+				// separate nodes at the same place in a fixed direction
+				dx = node < cellBodies[cell] ? 0.01 : -0.01;
+				dy = 0;
+				distance = 0.01;
+			}
+			double force = count * k * k / distance;
+			forceX += dx / distance * force;
+			forceY += dy / distance * force;
+		}
+
+		for (int i = adjacencyStart[node]; i < adjacencyStart[node + 1]; i++) {
+			int neighbor = adjacency[i];
+			double dx = nodeX - x[neighbor];
+			double dy = nodeY - y[neighbor];
+			double distance = Math.sqrt(dx * dx + dy * dy);
+			double force = distance / k;
+			forceX -= dx * force;
+			forceY -= dy * force;
+		}
+		dispX[node] = forceX;
+		dispY[node] = forceY;
+	}
+
+	/*
+	 * Moves every node along its displacement, by at most the temperature
+	 */
+	private void move() {
+		for (int node = 0; node < nodeCount; node++) {
+			double length = Math.sqrt(dispX[node] * dispX[node] + dispY[node] * dispY[node]);
+			if (length > 0) {
+				double step = Math.min(length, temperature) / length;
+				x[node] += dispX[node] * step;
+				y[node] += dispY[node] * step;
+			}
+		}
+	}
+
+	/*
+	 * Computes the displacements of a range of nodes, splitting large
+	 * ranges in two
+	 */
+	private class ForceTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+
+		ForceTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= SPLIT_THRESHOLD) {
+				int[] stack = new int[3 * MAX_DEPTH + 4];
+				for (int node = start; node < end; node++) {
+					computeDisplacement(node, stack);
+				}
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new ForceTask(start, middle), new ForceTask(middle, end));
+		}
+	}
+}
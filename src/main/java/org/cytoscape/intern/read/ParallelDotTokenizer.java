@@ -0,0 +1,439 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.read;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.cytoscape.intern.read.DotLexer.TokenType;
+
+/**
+ * Tokenizes a large UTF-8 DOT input on several threads. The input stream is
+ * read into chunks of about chunkSize bytes that end after a ';' or a
+ * newline outside of quoted strings, HTML strings and comments, so no token
+ * spans two chunks. Each chunk is decoded and scanned by a DotLexer on a
+ * ForkJoinPool while the tokens of earlier chunks are handed out in input
+ * order.
+ *
+ * Finding where a chunk may end depends on whether the previous chunk ended
+ * inside a string or comment, so the chunk boundaries are found one after
+ * the other with a cheap byte level scan that stays a few chunks ahead of
+ * the consumer. Since ';' and newline are ASCII, a boundary never splits a
+ * multi-byte UTF-8 character.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class ParallelDotTokenizer implements DotTokenSource {
+
+	// default number of bytes per chunk
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	// largest number of bytes buffered for a single chunk
+	private static final int MAX_BUFFER_SIZE = 1 << 30;
+
+	// states of the chunk boundary scan
+	private static final int NORMAL = 0;
+	private static final int QUOTED = 1;
+	private static final int HTML = 2;
+	private static final int LINE_COMMENT = 3;
+	private static final int BLOCK_COMMENT = 4;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	// input being tokenized and whether its end was reached
+	private final InputStream input;
+	private boolean inputEnded = false;
+
+	// target number of bytes per chunk
+	private final int chunkSize;
+
+	// pool the chunks are tokenized on, and the number of chunks that may
+	// be waiting to be consumed
+	private final ForkJoinPool pool;
+	private final int maxPending;
+
+	// chunks submitted to the pool in file order
+	private final ArrayDeque<ForkJoinTask<TokenChunk>> pending = new ArrayDeque<ForkJoinTask<TokenChunk>>();
+
+	// bytes read from the input, starting with the next chunk, and their
+	// number
+	private byte[] buffer;
+	private int bufferLength = 0;
+
+	// line and line start flag where the next chunk starts
+	private int chunkLine = 1;
+	private boolean chunkAtLineStart = true;
+
+	// chunk being consumed and the index of the current token in it
+	private TokenChunk chunk;
+	private int index;
+
+	// current token
+	private TokenType type;
+	private String text;
+	private int line = 1;
+
+	/*
+	 * Tokens of one chunk, in the order the DotLexer scanned them
+	 */
+	private static class TokenChunk {
+		TokenType[] types;
+		String[] texts;
+		int[] lines;
+		int size = 0;
+
+		// line the chunk ends on
+		int endLine;
+
+		// error that stopped the DotLexer after the tokens above
+		DotParseException error;
+
+		TokenChunk(int capacity) {
+			types = new TokenType[capacity];
+			texts = new String[capacity];
+			lines = new int[capacity];
+		}
+
+		void add(TokenType tokenType, String tokenText, int tokenLine) {
+			if (size == types.length) {
+				types = Arrays.copyOf(types, size * 2);
+				texts = Arrays.copyOf(texts, size * 2);
+				lines = Arrays.copyOf(lines, size * 2);
+			}
+			types[size] = tokenType;
+			texts[size] = tokenText;
+			lines[size] = tokenLine;
+			size++;
+		}
+	}
+
+	/**
+	 * Constructs a ParallelDotTokenizer reading an InputStream to its end.
+	 * The stream is read on the thread consuming the tokens and is not
+	 * closed.
+	 *
+	 * @param input InputStream of the DOT input
+	 * @param parallelism number of threads tokenizing chunks
+	 * @param chunkSize target number of bytes per chunk
+	 */
+	public ParallelDotTokenizer(InputStream input, int parallelism, int chunkSize) {
+		this.input = input;
+		this.chunkSize = Math.max(chunkSize, 1);
+		this.buffer = new byte[(int) Math.min((long) this.chunkSize * 2, MAX_BUFFER_SIZE)];
+		this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+		this.maxPending = 2 * Math.max(parallelism, 1);
+	}
+
+	/**
+	 * Stops the threads tokenizing chunks. Must be called once the tokens
+	 * are no longer needed.
+	 */
+	public void close() {
+		for (ForkJoinTask<TokenChunk> task : pending) {
+			task.cancel(false);
+		}
+		pending.clear();
+		pool.shutdownNow();
+		buffer = null;
+	}
+
+	@Override
+	public TokenType next() throws IOException, DotParseException {
+		while (chunk == null || index + 1 >= chunk.size) {
+			if (chunk != null && chunk.error != null) {
+				throw chunk.error;
+			}
+			if (chunk != null) {
+				line = chunk.endLine;
+			}
+			chunk = nextChunk();
+			index = -1;
+			if (chunk == null) {
+				text = "";
+				return type = TokenType.EOF;
+			}
+		}
+		index++;
+		type = chunk.types[index];
+		text = chunk.texts[index];
+		line = chunk.lines[index];
+		return type;
+	}
+
+	@Override
+	public TokenType getType() {
+		return type;
+	}
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public int getLine() {
+		return line;
+	}
+
+	/*
+	 * Takes the oldest submitted chunk, keeping the pool supplied with
+	 * chunks, and waits for it to be tokenized. Returns null at the end of
+	 * the file.
+	 */
+	private TokenChunk nextChunk() throws IOException, DotParseException {
+		submitChunks();
+		ForkJoinTask<TokenChunk> task = pending.poll();
+		if (task == null) {
+			return null;
+		}
+		submitChunks();
+		try {
+			return task.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("DOT tokenizer interrupted");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/*
+	 * Finds the boundaries of chunks and submits them until enough chunks
+	 * are waiting or the end of the input is reached
+	 */
+	private void submitChunks() throws IOException, DotParseException {
+		while (pending.size() < maxPending) {
+			if (bufferLength <= chunkSize && !inputEnded) {
+				readInput();
+			}
+			if (bufferLength == 0) {
+				return;
+			}
+			int firstLine = chunkLine;
+			boolean atLineStart = chunkAtLineStart;
+			int end = findChunkEnd();
+			while (end < 0) {
+				// the scan ran off the bytes read so far, read more of the
+				// chunk and scan it again
+				if (bufferLength == MAX_BUFFER_SIZE) {
+					throw new DotParseException("Statement too long to be read", firstLine);
+				}
+				readInput();
+				end = findChunkEnd();
+			}
+			// hand the buffer to the chunk and keep the bytes after it
+			byte[] chunkBytes = buffer;
+			buffer = new byte[chunkBytes.length];
+			bufferLength -= end;
+			System.arraycopy(chunkBytes, end, buffer, 0, bufferLength);
+			pending.add(pool.submit(new ChunkTokenizer(ByteBuffer.wrap(chunkBytes, 0, end), firstLine, atLineStart)));
+		}
+	}
+
+	/*
+	 * Reads the input until the buffer is full or the input ends, growing
+	 * the buffer first if it is already full
+	 */
+	private void readInput() throws IOException {
+		if (bufferLength == buffer.length) {
+			buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length * 2, MAX_BUFFER_SIZE));
+		}
+		while (bufferLength < buffer.length) {
+			int read = input.read(buffer, bufferLength, buffer.length - bufferLength);
+			if (read < 0) {
+				inputEnded = true;
+				return;
+			}
+			bufferLength += read;
+		}
+	}
+
+	/*
+	 * Scans the buffer from the start of the next chunk to the first ';' or
+	 * newline outside of strings and comments that lies at least chunkSize
+	 * bytes further, updating chunkLine and chunkAtLineStart for the chunk
+	 * after it. Returns the offset after that character, the end of the
+	 * input, or -1 if the bytes read so far ended first.
+	 */
+	private int findChunkEnd() {
+		int pos = 0;
+		int target = Math.min(chunkSize, bufferLength);
+		int state = NORMAL;
+		int htmlDepth = 0;
+		int lineCount = chunkLine;
+		boolean atLineStart = chunkAtLineStart;
+
+		while (pos < bufferLength) {
+			byte c = buffer[pos];
+			byte d = pos + 1 < bufferLength ? buffer[pos + 1] : 0;
+			if (c == '\n') {
+				lineCount++;
+			}
+			// a two byte sequence may be cut by the end of the bytes read
+			if (d == 0 && !inputEnded && pos + 1 == bufferLength) {
+				return -1;
+			}
+			switch (state) {
+				case QUOTED:
+					if (c == '\\') {
+						if (d == '\n') {
+							lineCount++;
+						}
+						pos++;
+					}
+					else if (c == '"') {
+						state = NORMAL;
+					}
+					break;
+				case HTML:
+					if (c == '<') {
+						htmlDepth++;
+					}
+					else if (c == '>' && --htmlDepth == 0) {
+						state = NORMAL;
+					}
+					break;
+				case LINE_COMMENT:
+					if (c == '\n') {
+						state = NORMAL;
+						atLineStart = true;
+						if (pos >= target) {
+							return commitChunkEnd(pos + 1, lineCount, true);
+						}
+					}
+					break;
+				case BLOCK_COMMENT:
+					if (c == '*' && d == '/') {
+						state = NORMAL;
+						pos++;
+					}
+					break;
+				default:
+					if (c == '\n') {
+						atLineStart = true;
+						if (pos >= target) {
+							return commitChunkEnd(pos + 1, lineCount, true);
+						}
+					}
+					else if (c == ' ' || c == '\t' || c == '\r' || c == '\f') {
+						// whitespace keeps atLineStart
+					}
+					else if (c == '#' && atLineStart) {
+						state = LINE_COMMENT;
+					}
+					else if (c == '/' && d == '/') {
+						state = LINE_COMMENT;
+					}
+					else if (c == '/' && d == '*') {
+						state = BLOCK_COMMENT;
+						pos++;
+					}
+					else {
+						atLineStart = false;
+						if (c == '"') {
+							state = QUOTED;
+						}
+						else if (c == '<') {
+							state = HTML;
+							htmlDepth = 1;
+						}
+						else if (c == ';' && pos >= target) {
+							return commitChunkEnd(pos + 1, lineCount, false);
+						}
+					}
+					break;
+			}
+			pos++;
+		}
+		if (!inputEnded) {
+			return -1;
+		}
+		return commitChunkEnd(bufferLength, lineCount, atLineStart);
+	}
+
+	/*
+	 * Records where the chunk after the one ending at pos starts
+	 */
+	private int commitChunkEnd(int pos, int nextLine, boolean nextAtLineStart) {
+		chunkLine = nextLine;
+		chunkAtLineStart = nextAtLineStart;
+		return pos;
+	}
+
+	/*
+	 * Decodes the bytes of one chunk and scans all of its tokens
+	 */
+	private static class ChunkTokenizer implements Callable<TokenChunk> {
+
+		private final ByteBuffer bytes;
+		private final int firstLine;
+		private final boolean atLineStart;
+
+		ChunkTokenizer(ByteBuffer bytes, int firstLine, boolean atLineStart) {
+			this.bytes = bytes;
+			this.firstLine = firstLine;
+			this.atLineStart = atLineStart;
+		}
+
+		@Override
+		public TokenChunk call() throws IOException {
+			CharBuffer chars = UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE)
+				.decode(bytes);
+			DotLexer lexer = new DotLexer(
+				chars.array(), chars.arrayOffset() + chars.position(), chars.remaining(), firstLine, atLineStart
+			);
+			TokenChunk tokens = new TokenChunk(Math.max(chars.remaining() / 8, 16));
+			try {
+				while (lexer.next() != TokenType.EOF) {
+					tokens.add(lexer.getType(), lexer.getText(), lexer.getLine());
+				}
+			}
+			catch (DotParseException e) {
+				tokens.error = e;
+			}
+			tokens.endLine = lexer.getLine();
+			return tokens;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read;
+
+import java.util.Arrays;
+
+/**
+ * Table of distinct strings, each identified by the dense index it was
+ * given when first added. Uses an open addressing hash table of int indices,
+ * so each entry costs a String reference and two ints rather than a
+ * HashMap.Entry and a boxed Integer.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class StringTable {
+
+	// strings in the order they were added
+	private String[] strings;
+
+	// number of strings in the table
+	private int size = 0;
+
+	// hash slots holding index + 1 of a string, 0 if empty
+	private int[] slots;
+
+	/**
+	 * Constructs an empty StringTable
+	 */
+	public StringTable() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty StringTable sized for an expected number of strings
+	 *
+	 * @param expectedSize number of strings expected to be added
+	 */
+	public StringTable(int expectedSize) {
+		int capacity = Math.max(expectedSize, 4);
+		strings = new String[capacity];
+		slots = new int[tableSizeFor(capacity)];
+	}
+
+	/**
+	 * Returns the index of a string, adding it to the table if it is not
+	 * already there
+	 *
+	 * @param string string to look up
+	 * @return index of the string
+	 */
+	public int intern(String string) {
+		int mask = slots.length - 1;
+		int slot = hash(string) & mask;
+		while (slots[slot] != 0) {
+			int index = slots[slot] - 1;
+			if (strings[index].equals(string)) {
+				return index;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == strings.length) {
+			strings = Arrays.copyOf(strings, size * 2);
+		}
+		strings[size] = string;
+		slots[slot] = ++size;
+		// keep the load factor at or below one half
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Returns the index of a string without adding it
+	 *
+	 * @param string string to look up
+	 * @return index of the string or -1 if it is not in the table
+	 */
+	public int indexOf(String string) {
+		int mask = slots.length - 1;
+		int slot = hash(string) & mask;
+		while (slots[slot] != 0) {
+			int index = slots[slot] - 1;
+			if (strings[index].equals(string)) {
+				return index;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the string at an index
+	 *
+	 * @param index index of the string, 0 <= index < size()
+	 * @return the string
+	 */
+	public String get(int index) {
+		return strings[index];
+	}
+
+	/**
+	 * Returns the number of strings in the table
+	 *
+	 * @return number of strings
+	 */
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * Rebuilds the hash slots with a new size
+	 */
+	private void rehash(int tableSize) {
+		slots = new int[tableSize];
+		int mask = tableSize - 1;
+		for (int index = 0; index < size; index++) {
+			int slot = hash(strings[index]) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = index + 1;
+		}
+	}
+
+	/*
+	 * Spreads the bits of String.hashCode, which is cached by String
+	 */
+	private static int hash(String string) {
+		int h = string.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * Returns the smallest power of two that is at least twice capacity
+	 */
+	private static int tableSizeFor(int capacity) {
+		int tableSize = 1;
+		while (tableSize < capacity * 2) {
+			tableSize <<= 1;
+		}
+		return tableSize;
+	}
+}
@@ -0,0 +1,170 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read.reader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.cytoscape.model.CyColumn;
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.vizmap.VisualMappingFunction;
+import org.cytoscape.view.vizmap.VisualMappingFunctionFactory;
+import org.cytoscape.view.vizmap.VisualStyle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the VisualProperty values converted from the DOT attributes of
+ * nodes or edges in columns of a CyTable, one "dot::" column per
+ * VisualProperty, instead of locking them on each View. Numeric and boolean
+ * values keep their type, every other value is stored as the serializable
+ * string of its VisualProperty. Once all values are stored the columns are
+ * bound to the VisualStyle with passthrough mappings.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class AttributeColumns {
+
+	// prefix of the names of the columns created for VisualProperties
+	public static final String COLUMN_PREFIX = "dot::";
+
+	// Logger that outputs to Cytoscape standard log file:  .../CytoscapeConfiguration/3/framework-cytoscape.log
+	private static final Logger LOGGER = LoggerFactory.getLogger(AttributeColumns.class);
+
+	// table the columns are created in
+	private CyTable table;
+
+	// column used for each VisualProperty that has been set
+	private Map<VisualProperty<?>, CyColumn> columns = new LinkedHashMap<VisualProperty<?>, CyColumn>();
+
+	// names of the columns created by this object
+	private List<String> createdColumns = new ArrayList<String>();
+
+	/**
+	 * Constructs an AttributeColumns object
+	 *
+	 * @param table CyTable whose rows are the elements being read
+	 */
+	public AttributeColumns(CyTable table) {
+		this.table = table;
+	}
+
+	/**
+	 * Stores the value of a VisualProperty for an element
+	 *
+	 * @param element node or edge the value belongs to
+	 * @param vizProp VisualProperty being set
+	 * @param value value of the VisualProperty
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void set(CyIdentifiable element, VisualProperty vizProp, Object value) {
+		CyColumn column = getColumn(vizProp, value);
+		Object columnValue = value;
+		if (column.getType() == String.class && !(value instanceof String)) {
+			columnValue = vizProp.toSerializableString(value);
+		}
+		table.getRow(element.getSUID()).set(column.getName(), columnValue);
+	}
+
+	/**
+	 * Returns the value of a VisualProperty stored for an element
+	 *
+	 * @param element node or edge the value belongs to
+	 * @param vizProp VisualProperty to retrieve
+	 * @return value of the VisualProperty or null if none was stored
+	 */
+	public Object get(CyIdentifiable element, VisualProperty<?> vizProp) {
+		CyColumn column = columns.get(vizProp);
+		if (column == null) {
+			return null;
+		}
+		CyRow row = table.getRow(element.getSUID());
+		Object value = row.get(column.getName(), column.getType());
+		if (value instanceof String && !vizProp.getRange().getType().equals(String.class)) {
+			return vizProp.parseSerializableString((String) value);
+		}
+		return value;
+	}
+
+	/**
+	 * Adds a passthrough mapping to a VisualStyle for every column that
+	 * values were stored in
+	 *
+	 * @param vizStyle VisualStyle the mappings are added to
+	 * @param passthroughFactory VisualMappingFunctionFactory of passthrough
+	 * mappings
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void addMappings(VisualStyle vizStyle, VisualMappingFunctionFactory passthroughFactory) {
+		for (Entry<VisualProperty<?>, CyColumn> entry : columns.entrySet()) {
+			CyColumn column = entry.getValue();
+			VisualMappingFunction mapping = passthroughFactory.createVisualMappingFunction(
+				column.getName(), column.getType(), (VisualProperty) entry.getKey()
+			);
+			vizStyle.addVisualMappingFunction(mapping);
+		}
+	}
+
+	/**
+	 * Returns the names of the columns that had to be created
+	 *
+	 * @return List of column names
+	 */
+	public List<String> getCreatedColumns() {
+		return createdColumns;
+	}
+
+	public CyTable getTable() {
+		return table;
+	}
+
+	/*
+	 * Returns the column for a VisualProperty, creating it with a type
+	 * suited to the value if it does not exist
+	 */
+	private CyColumn getColumn(VisualProperty<?> vizProp, Object value) {
+		CyColumn column = columns.get(vizProp);
+		if (column != null) {
+			return column;
+		}
+		String name = COLUMN_PREFIX + vizProp.getIdString();
+		column = table.getColumn(name);
+		if (column == null) {
+			Class<?> type = String.class;
+			if (value instanceof Double || value instanceof Integer || value instanceof Boolean) {
+				type = value.getClass();
+			}
+			LOGGER.debug("Creating column {} of type {}", name, type.getSimpleName());
+			table.createColumn(name, type, false);
+			createdColumns.add(name);
+			column = table.getColumn(name);
+		}
+		columns.put(vizProp, column);
+		return column;
+	}
+}
@@ -0,0 +1,250 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read.reader;
+
+import java.awt.Color;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts GraphViz color strings to Java Color objects by scanning them
+ * directly instead of matching regular expressions. Accepted formats are
+ * #RRGGBB, #RRGGBBAA, H S V (components between 0 and 1 separated by commas
+ * and/or whitespace) and color names from the x11 or svg color schemes.
+ * Colors decoded from the numeric formats are kept in a bounded cache, so a
+ * value repeated on many elements is scanned once and shares one Color.
+ *
+ * A ColorCodec is not thread safe.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class ColorCodec {
+
+	// number of decoded color strings kept by default
+	private static final int DEFAULT_CACHE_SIZE = 1024;
+
+	// most recently decoded numeric color strings
+	private final Map<String, Color> cache;
+
+	// position in the string being scanned by scanComponent()
+	private int scanPos;
+
+	/**
+	 * Constructs a ColorCodec with the default cache size
+	 */
+	public ColorCodec() {
+		this(DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructs a ColorCodec
+	 *
+	 * @param cacheSize maximum number of decoded color strings to keep
+	 */
+	public ColorCodec(final int cacheSize) {
+		cache = new LinkedHashMap<String, Color>(Math.min(cacheSize, 64), 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Color> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Converts a GraphViz color string to a Java Color object
+	 *
+	 * @param color Color from dot file-- takes all color formats
+	 * @param colorScheme Scheme from dot. Either "x11" or "svg", null for x11
+	 * @return Color object or null if the string is not a supported color
+	 */
+	public Color decode(String color, String colorScheme) {
+		Color output = cache.get(color);
+		if (output != null) {
+			return output;
+		}
+		int start = trimStart(color, 0, color.length());
+		int end = trimEnd(color, start, color.length());
+		output = decodeNumeric(color, start, end);
+		if (output != null) {
+			cache.put(color, output);
+			return output;
+		}
+		return StringColor.getColor(colorScheme, color, start, end);
+	}
+
+	/**
+	 * Converts part of a string, such as one color of a GraphViz colorlist,
+	 * to a Java Color object. The result is not cached.
+	 *
+	 * @param colors string containing the color
+	 * @param start index of the first character of the color
+	 * @param end index after the last character of the color
+	 * @param colorScheme Scheme from dot. Either "x11" or "svg", null for x11
+	 * @return Color object or null if the range is not a supported color
+	 */
+	public Color decode(String colors, int start, int end, String colorScheme) {
+		start = trimStart(colors, start, end);
+		end = trimEnd(colors, start, end);
+		Color output = decodeNumeric(colors, start, end);
+		if (output != null) {
+			return output;
+		}
+		return StringColor.getColor(colorScheme, colors, start, end);
+	}
+
+	/*
+	 * Decodes #RRGGBB, #RRGGBBAA or H S V, returns null for any other string
+	 */
+	private Color decodeNumeric(String color, int start, int end) {
+		if (start < end && color.charAt(start) == '#') {
+			return decodeHex(color, start + 1, end);
+		}
+		return decodeHsv(color, start, end);
+	}
+
+	/*
+	 * Decodes the RRGGBB or RRGGBBAA digits of a hex color
+	 */
+	private static Color decodeHex(String color, int start, int end) {
+		int length = end - start;
+		if (length != 6 && length != 8) {
+			return null;
+		}
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = hexDigit(color.charAt(i));
+			if (digit < 0) {
+				return null;
+			}
+			value = (value << 4) | digit;
+		}
+		if (length == 6) {
+			return new Color(value);
+		}
+		// move alpha from the low byte to the high byte
+		return new Color((value >>> 8) | (value << 24), true);
+	}
+
+	/*
+	 * Decodes three numbers between 0 and 1 as hue, saturation and value
+	 */
+	private Color decodeHsv(String color, int start, int end) {
+		scanPos = start;
+		float hue = scanComponent(color, end);
+		if (hue < 0 || !skipSeparator(color, end)) {
+			return null;
+		}
+		float saturation = scanComponent(color, end);
+		if (saturation < 0 || !skipSeparator(color, end)) {
+			return null;
+		}
+		float value = scanComponent(color, end);
+		if (value < 0 || scanPos != end) {
+			return null;
+		}
+		return Color.getHSBColor(hue, saturation, value);
+	}
+
+	/*
+	 * Scans a decimal number between 0 and 1 starting at scanPos and moves
+	 * scanPos past it. Returns -1 without moving if there is no such number.
+	 */
+	private float scanComponent(String color, int end) {
+		int pos = scanPos;
+		long mantissa = 0;
+		long scale = 1;
+		boolean hasDigits = false;
+		while (pos < end && isDigit(color.charAt(pos))) {
+			mantissa = mantissa * 10 + (color.charAt(pos) - '0');
+			if (mantissa > 1) {
+				return -1;
+			}
+			hasDigits = true;
+			pos++;
+		}
+		if (pos < end && color.charAt(pos) == '.') {
+			pos++;
+			while (pos < end && isDigit(color.charAt(pos))) {
+				// digits past the precision of a float are ignored
+				if (scale < 1000000000L) {
+					mantissa = mantissa * 10 + (color.charAt(pos) - '0');
+					scale *= 10;
+				}
+				hasDigits = true;
+				pos++;
+			}
+		}
+		if (!hasDigits || mantissa > scale) {
+			return -1;
+		}
+		scanPos = pos;
+		return (float) ((double) mantissa / scale);
+	}
+
+	/*
+	 * Moves scanPos past a run of commas and whitespace, returns false if
+	 * there is none
+	 */
+	private boolean skipSeparator(String color, int end) {
+		int pos = scanPos;
+		while (pos < end && (color.charAt(pos) == ',' || color.charAt(pos) <= ' ')) {
+			pos++;
+		}
+		if (pos == scanPos) {
+			return false;
+		}
+		scanPos = pos;
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int hexDigit(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+
+	private static int trimStart(String string, int start, int end) {
+		while (start < end && string.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String string, int start, int end) {
+		while (end > start && string.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+}
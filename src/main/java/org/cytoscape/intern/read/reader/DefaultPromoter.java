@@ -0,0 +1,240 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read.reader;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.cytoscape.intern.read.DotAttributeTable;
+import org.cytoscape.intern.read.DotGraph;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Analysis pass run on a DotGraph before its NodeReader and EdgeReader.
+ * Graphviz output often repeats an attribute on every element instead of
+ * declaring it with node [...] or edge [...]. For each attribute that maps
+ * to visual properties independently of other attributes, the most frequent
+ * value is moved into the default attributes, which become VisualStyle
+ * defaults, and only the elements with other values keep it as a bypass.
+ *
+ * An attribute is only promoted if every element ends up with the same
+ * effective value as before: elements that relied on the old default get it
+ * as an explicit value.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DefaultPromoter {
+
+	// Logger that outputs to Cytoscape standard log file:  .../CytoscapeConfiguration/3/framework-cytoscape.log
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultPromoter.class);
+
+	// attributes whose node bypass and default are converted the same way
+	private static final String[] NODE_ATTRIBUTES = {"fontname", "fontsize", "penwidth"};
+	private static final String[] NODE_COLOR_ATTRIBUTES = {"color", "fillcolor"};
+	private static final String[] NODE_SIZE_ATTRIBUTES = {"width", "height"};
+
+	// attributes whose edge bypass and default are converted the same way
+	private static final String[] EDGE_ATTRIBUTES = {"fontname", "fontsize", "penwidth"};
+	private static final String[] EDGE_COLOR_ATTRIBUTES = {"color", "fontcolor"};
+	private static final String[] EDGE_ARROW_ATTRIBUTES = {"arrowhead", "arrowtail"};
+
+	// number of elements using each value index, zeroed between attributes
+	private int[] counts = new int[0];
+
+	/**
+	 * Promotes the most frequent node attribute values of a graph to node
+	 * defaults
+	 *
+	 * @param graph DotGraph whose node attributes and defaults are rewritten
+	 */
+	public void promoteNodeDefaults(DotGraph graph) {
+		DotAttributeTable attrs = graph.getNodeAttributes();
+		Map<String, String> defaults = graph.getNodeDefaults();
+		int nodeCount = graph.getNodeCount();
+
+		for (String name : NODE_ATTRIBUTES) {
+			promote(attrs, nodeCount, name, defaults);
+		}
+
+		// colors are converted with the colorscheme of the element for
+		// bypasses but with the default colorscheme for defaults
+		if (!usesColorScheme(attrs, defaults)) {
+			for (String name : NODE_COLOR_ATTRIBUTES) {
+				promote(attrs, nodeCount, name, defaults);
+			}
+			// an explicit fontcolor also changes the gradient angle of the node
+			if (!hasColorList(attrs, nodeCount, defaults, NODE_COLOR_ATTRIBUTES)) {
+				promote(attrs, nodeCount, "fontcolor", defaults);
+			}
+		}
+
+		// rounded styles and regular shapes depend on the shape of each node
+		if (attrs.getColumnIndex("style") < 0 && !defaults.containsKey("style")
+				&& !isRegularShape(defaults.get("shape"))) {
+			promote(attrs, nodeCount, "shape", defaults);
+		}
+		// width and height are only independent when no shape is regular
+		if (!isRegularShape(defaults.get("shape"))) {
+			for (String name : NODE_SIZE_ATTRIBUTES) {
+				promote(attrs, nodeCount, name, defaults);
+			}
+		}
+	}
+
+	/**
+	 * Promotes the most frequent edge attribute values of a graph to edge
+	 * defaults
+	 *
+	 * @param graph DotGraph whose edge attributes and defaults are rewritten
+	 */
+	public void promoteEdgeDefaults(DotGraph graph) {
+		DotAttributeTable attrs = graph.getEdgeAttributes();
+		Map<String, String> defaults = graph.getEdgeDefaults();
+		int edgeCount = graph.getEdgeCount();
+
+		for (String name : EDGE_ATTRIBUTES) {
+			promote(attrs, edgeCount, name, defaults);
+		}
+		if (!usesColorScheme(attrs, defaults)) {
+			for (String name : EDGE_COLOR_ATTRIBUTES) {
+				promote(attrs, edgeCount, name, defaults);
+			}
+		}
+		// a default dir is applied after the default arrow shapes
+		if (attrs.getColumnIndex("dir") < 0 && !defaults.containsKey("dir")) {
+			for (String name : EDGE_ARROW_ATTRIBUTES) {
+				promote(attrs, edgeCount, name, defaults);
+			}
+		}
+	}
+
+	/*
+	 * Moves the most frequent value of one attribute into the defaults if
+	 * that leaves fewer elements with an explicit value
+	 */
+	private void promote(DotAttributeTable attrs, int rowCount, String name, Map<String, String> defaults) {
+		int column = attrs.getColumnIndex(name);
+		if (column < 0 || rowCount == 0) {
+			return;
+		}
+		if (counts.length < attrs.getValueCount()) {
+			counts = new int[Math.max(attrs.getValueCount(), counts.length * 2)];
+		}
+
+		// count the elements using each value
+		int unset = 0;
+		int best = -1;
+		for (int row = 0; row < rowCount; row++) {
+			int value = attrs.getValueIndex(row, column);
+			if (value < 0) {
+				unset++;
+			}
+			else if (++counts[value] > (best < 0 ? 0 : counts[best])) {
+				best = value;
+			}
+		}
+		int bestCount = best < 0 ? 0 : counts[best];
+
+		String defaultValue = defaults.get(name);
+		int defaultIndex = defaultValue == null ? -1 : attrs.indexOfValue(defaultValue);
+		int defaultCount = defaultIndex < 0 ? unset : unset + counts[defaultIndex];
+
+		// without a default the elements that do not set the attribute
+		// have a value that cannot be written as a DOT attribute
+		boolean canPromote = (defaultValue != null || unset == 0)
+				&& best != defaultIndex && bestCount > defaultCount
+				&& isPlainValue(name, attrs.getValue(best))
+				&& (defaultValue == null || isPlainValue(name, defaultValue));
+
+		if (canPromote) {
+			String bestValue = attrs.getValue(best);
+			LOGGER.debug("Promoting {}={} to default, set on {} of {} elements", name, bestValue, bestCount, rowCount);
+			for (int row = 0; row < rowCount; row++) {
+				int value = attrs.getValueIndex(row, column);
+				if (value == best) {
+					attrs.remove(row, column);
+				}
+				else if (value < 0) {
+					attrs.set(row, name, defaultValue);
+				}
+			}
+			defaults.put(name, bestValue);
+		}
+		else if (defaultIndex >= 0) {
+			// explicit values equal to the default are redundant
+			for (int row = 0; row < rowCount; row++) {
+				if (attrs.getValueIndex(row, column) == defaultIndex) {
+					attrs.remove(row, column);
+				}
+			}
+		}
+		Arrays.fill(counts, 0);
+	}
+
+	/*
+	 * Returns false for color lists and regular shapes, which NodeReader and
+	 * EdgeReader do not convert the same way for bypasses and defaults
+	 */
+	private static boolean isPlainValue(String name, String value) {
+		if (name.equals("shape")) {
+			return !isRegularShape(value);
+		}
+		return value.indexOf(':') < 0;
+	}
+
+	/*
+	 * Returns true if the elements or the defaults set a colorscheme
+	 */
+	private static boolean usesColorScheme(DotAttributeTable attrs, Map<String, String> defaults) {
+		return attrs.getColumnIndex("colorscheme") >= 0 || defaults.containsKey("colorscheme");
+	}
+
+	/*
+	 * Returns true if any element or default uses a color list for one of
+	 * the given attributes
+	 */
+	private static boolean hasColorList(DotAttributeTable attrs, int rowCount,
+			Map<String, String> defaults, String[] names) {
+		for (String name : names) {
+			String defaultValue = defaults.get(name);
+			if (defaultValue != null && defaultValue.indexOf(':') >= 0) {
+				return true;
+			}
+			int column = attrs.getColumnIndex(name);
+			for (int row = 0; column >= 0 && row < rowCount; row++) {
+				String value = attrs.get(row, column);
+				if (value != null && value.indexOf(':') >= 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Returns true if NodeReader treats the shape as a regular polygon
+	 */
+	private static boolean isRegularShape(String shape) {
+		return shape != null && (shape.contains("square") || shape.contains("circle"));
+	}
+}
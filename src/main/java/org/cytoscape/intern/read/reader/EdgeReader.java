@@ -18,6 +18,7 @@
 
 package org.cytoscape.intern.read.reader;
 
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_BEND;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_COLOR;
 import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_FONT_FACE;
@@ -38,9 +39,10 @@ import java.awt.Font;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.cytoscape.intern.read.DotAttributeTable;
+import org.cytoscape.intern.read.DotGraph;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
@@ -52,14 +54,16 @@ import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.presentation.RenderingEngineManager;
 import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
 import org.cytoscape.view.presentation.property.values.ArrowShape;
+import org.cytoscape.view.presentation.property.values.Bend;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.Handle;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
 import org.cytoscape.view.presentation.property.values.LineType;
 import org.cytoscape.view.vizmap.VisualStyle;
 
-import com.alexmerz.graphviz.objects.Edge;
-
 /**
  * Class that contains definitions and some implementation for converting a
- * dot graph to a CyNetwork. Data is passed in as a list of JPGD Edge objects
+ * dot graph to a CyNetwork. Data is passed in as a DotGraph holding the edges and their DOT attributes
  * This subclass handles importing of edge properties
  * 
  * @author Massoud Maher
@@ -102,6 +106,16 @@ public class EdgeReader extends Reader{
 	}
 	// reference default CyEdge table for network from networkView
 	CyTable edgeTable;
+
+	// create the bends of edges with a pos attribute, null to ignore pos
+	private BendFactory bendFactory;
+	private HandleFactory handleFactory;
+
+	// largest number of handles in the bend of one edge
+	private int maxBends = 0;
+
+	// converts the spline of a pos attribute into bend handle points
+	private final SplineScanner splineScanner = new SplineScanner();
 	
 	/**
 	 * Constructs an object of type Reader.
@@ -112,19 +126,67 @@ public class EdgeReader extends Reader{
 	 * of this type eg. for NodeReader will be a list of default
 	 * @param rendEngMgr RenderingEngineManager that contains the default
 	 * VisualLexicon needed for gradient support
-	 * @param elementMap Map where keys are JPGD node objects and Values 
-	 * are corresponding Cytoscape CyNodes
+	 * @param graph DotGraph holding the CyEdges and the DOT attributes
+	 * declared for them
 	 */
 	public EdgeReader(CyNetworkView networkView, VisualStyle vizStyle, Map<String, String> defaultAttrs, 
-			RenderingEngineManager rendEngMgr, Map<Edge, CyEdge> elementMap) {
+			RenderingEngineManager rendEngMgr, DotGraph graph) {
 		
 		super(networkView, vizStyle, defaultAttrs, rendEngMgr);
-		this.elementMap = elementMap;
+		this.graph = graph;
 		
 		edgeTable = networkView.getModel().getDefaultEdgeTable();
 
 		LOGGER.trace("EdgeReader constructed");
 	}
+
+	/**
+	 * Enables converting the splines of the pos attribute into edge bends.
+	 * Must be called before setProperties() and after the node locations
+	 * are set, since handles are placed relative to the nodes.
+	 * 
+	 * @param bendFactory BendFactory used to create the bends
+	 * @param handleFactory HandleFactory used to create the bend handles
+	 * @param maxBends largest number of handles per edge, the points of
+	 * longer splines are subsampled
+	 */
+	public void setBendFactories(BendFactory bendFactory, HandleFactory handleFactory, int maxBends) {
+		this.bendFactory = bendFactory;
+		this.handleFactory = handleFactory;
+		this.maxBends = maxBends;
+	}
+
+	/**
+	 * Converts the spline of an edge into an edge bend. Handles are put on
+	 * points of the curve: the middle of each cubic Bezier segment and the
+	 * joints between segments. Straight splines get no bend.
+	 * 
+	 * @param pos value of the pos attribute
+	 * @param elementView View of the edge
+	 */
+	private void setBend(String pos, View<CyEdge> elementView) {
+		if (bendFactory == null || maxBends <= 0) {
+			return;
+		}
+		int handleCount = splineScanner.scanHandles(pos, maxBends);
+		if (handleCount < 0) {
+			LOGGER.warn("Ignoring invalid edge position {}", pos);
+			return;
+		}
+		if (handleCount == 0) {
+			return;
+		}
+
+		Bend bend = bendFactory.createBend();
+		for (int i = 0; i < handleCount; i++) {
+			//Y coordinate is different between GraphViz and Java.
+			Handle handle = handleFactory.createHandle(
+				networkView, elementView, splineScanner.getHandleX(i), -splineScanner.getHandleY(i)
+			);
+			bend.insertHandleAt(i, handle);
+		}
+		setBypass(elementView, EDGE_BEND, bend);
+	}
 	
 	/**
 	 * Converts edge weights by putting into a new column in the table
@@ -137,7 +199,7 @@ public class EdgeReader extends Reader{
 		//get the current row and put the weight into the row
 		LOGGER.trace("Setting weight attribute for edge");
 		CyRow currentRow = edgeTable.getRow(elementView.getModel().getSUID());
-		currentRow.set("weight", new Double(Double.parseDouble(weight)));
+		currentRow.set("weight", numberScanner.parseDouble(weight));
 	}
 
 	/**
@@ -174,7 +236,7 @@ public class EdgeReader extends Reader{
 				break;
 			}
 			case "penwidth": {
-				retrievedVal = Double.parseDouble(val);
+				retrievedVal = numberScanner.parseDouble(val);
 				break;
 			}
 			case "fontname": {
@@ -232,17 +294,21 @@ public class EdgeReader extends Reader{
 	protected void setBypasses() {
 		LOGGER.info("Setting the Bypass values for edge views...");
 	
-		for(Entry<? extends Object, ? extends CyIdentifiable> entry: elementMap.entrySet() ) {
-			// get map of attributes for this edge and the View for this CyEdge
-			Map<String, String> bypassAttrs = getAttrMap(entry.getKey());
-			String colorScheme = bypassAttrs.containsKey("colorscheme") ? bypassAttrs.get("colorscheme") : null;
-			CyEdge element = (CyEdge)entry.getValue();
-			View<CyEdge> elementView = networkView.getEdgeView(element);
+		DotAttributeTable bypassAttrs = graph.getEdgeAttributes();
+		int colorSchemeColumn = bypassAttrs.getColumnIndex("colorscheme");
+	
+		for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+			// get attributes for this edge and the View for this CyEdge
+			String colorScheme = bypassAttrs.get(edge, colorSchemeColumn);
+			View<CyEdge> elementView = graph.getEdgeView(edge);
 			
 			// loop through attribute list for edge
-			for (Entry<String, String> attrEntry : bypassAttrs.entrySet()) {
-				String attrKey = attrEntry.getKey();
-				String attrVal = attrEntry.getValue();
+			for (int column = 0; column < bypassAttrs.getColumnCount(); column++) {
+				String attrVal = bypassAttrs.get(edge, column);
+				if (attrVal == null) {
+					continue;
+				}
+				String attrKey = bypassAttrs.getColumnName(column);
 				LOGGER.debug(
 					String.format("Converting DOT attribute: %s", attrKey)
 				);
@@ -255,6 +321,10 @@ public class EdgeReader extends Reader{
 						setWeight(attrVal, elementView);
 						continue;
 					}
+					case "pos" : {
+						setBend(attrVal, elementView);
+						continue;
+					}
 					case "color" : {
 						setColor(attrVal, elementView, ColorAttribute.COLOR, colorScheme);
 						continue;
@@ -269,22 +339,22 @@ public class EdgeReader extends Reader{
 					case "dir" : {
 						switch (attrVal) {
 							case "forward" : {
-								elementView.setLockedValue(EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
+								setBypass(elementView, EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
 								break;
 							}
 							case "back" : {
-								elementView.setLockedValue(EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
+								setBypass(elementView, EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
 								break;
 							}
 							case "none" : {
-								elementView.setLockedValue(EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
-								elementView.setLockedValue(EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
+								setBypass(elementView, EDGE_SOURCE_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
+								setBypass(elementView, EDGE_TARGET_ARROW_SHAPE, ArrowShapeVisualProperty.NONE);
 								break;
 							}
 						}
 					}
 					default : {
-						Pair<VisualProperty, Object> p = convertAttribute(attrEntry.getKey(), attrEntry.getValue());
+						Pair<VisualProperty, Object> p = getConversion(attrKey, attrVal);
 						if (p == null) {
 							// Abort if conversion not found
 							continue;
@@ -299,7 +369,7 @@ public class EdgeReader extends Reader{
 						}
 						LOGGER.trace("Updating Visual Style...");
 						LOGGER.debug(String.format("Setting Visual Property %S...", vizProp));
-						elementView.setLockedValue(vizProp, val);
+						setBypass(elementView, vizProp, val);
 					}
 				}
 			}
@@ -336,13 +406,13 @@ public class EdgeReader extends Reader{
 
 		switch (attr) {
 			case COLOR: {
-				elementView.setLockedValue(EDGE_UNSELECTED_PAINT, color);
-				elementView.setLockedValue(EDGE_TRANSPARENCY, transparency);
+				setBypass(elementView, EDGE_UNSELECTED_PAINT, color);
+				setBypass(elementView, EDGE_TRANSPARENCY, transparency);
 				break;
 			}
 			case FONTCOLOR: {
-				elementView.setLockedValue(EDGE_LABEL_COLOR, color);
-				elementView.setLockedValue(EDGE_LABEL_TRANSPARENCY, transparency);
+				setBypass(elementView, EDGE_LABEL_COLOR, color);
+				setBypass(elementView, EDGE_LABEL_TRANSPARENCY, transparency);
 				break;
 			}
 			default: {
@@ -436,18 +506,18 @@ public class EdgeReader extends Reader{
 			
 			// set line type if defined
 			if (lineType != null) {
-				elementView.setLockedValue(EDGE_LINE_TYPE, lineType);
+				setBypass(elementView, EDGE_LINE_TYPE, lineType);
 			}
 		}
 		// check if invisible is enabled
 		if( attrVal.contains("invis") ) {
 			if (isVisibleDefault) {
-				elementView.setLockedValue(EDGE_VISIBLE, false);
+				setBypass(elementView, EDGE_VISIBLE, false);
 			}
 		}
 		else {
 			if (!isVisibleDefault) {
-				elementView.setLockedValue(EDGE_VISIBLE, true);
+				setBypass(elementView, EDGE_VISIBLE, true);
 			}
 		}
 	}
@@ -36,11 +36,9 @@ import org.cytoscape.view.model.VisualProperty;
 import org.cytoscape.view.presentation.RenderingEngineManager;
 import org.cytoscape.view.vizmap.VisualStyle;
 
-import com.alexmerz.graphviz.objects.Graph;
-
 /**
  * Class that contains definitions and some implementation for converting a
- * dot graph to a CyNetwork. Data is passed in as a JPGD Graph object.
+ * dot graph to a CyNetwork. Data is passed in as the graph's DOT attributes.
  * This subclass handles importing of network/graph properties
  * 
  * @author Massoud Maher
@@ -49,8 +47,11 @@ import com.alexmerz.graphviz.objects.Graph;
  */
 public class NetworkReader extends Reader {
 
-	// JPGD object that contains visual information for this network view
-	private Graph graph;
+	// attributes declared with ID = ID statements in the graph body
+	private Map<String, String> graphAttrs;
+
+	// true if the graph was declared as a digraph
+	private boolean directed;
 
 	/**
 	 * Constructs an object of type Reader.
@@ -60,12 +61,17 @@ public class NetworkReader extends Reader {
 	 * @param vizStyle VisualStyle that we are applying to the network
 	 * @param defaultAttrs Map that contains default attributes for Reader of this type
 	 * eg. for NodeReader will be a list of default
+	 * @param graphAttrs Map of attributes declared with ID = ID statements
+	 * in the graph body
+	 * @param directed true if the graph was declared as a digraph
 	 * @param rendEngMgr RenderingEngineManager that contains the default
 	 * VisualLexicon needed for gradient support
 	 */
-	public NetworkReader(CyNetworkView networkView, VisualStyle vizStyle, Map<String, String> defaultAttrs, Graph graph, RenderingEngineManager rendEngMgr) {
+	public NetworkReader(CyNetworkView networkView, VisualStyle vizStyle, Map<String, String> defaultAttrs,
+			Map<String, String> graphAttrs, boolean directed, RenderingEngineManager rendEngMgr) {
 		super(networkView, vizStyle, defaultAttrs, rendEngMgr);
-		this.graph = graph;
+		this.graphAttrs = graphAttrs;
+		this.directed = directed;
 	}
 
 	/**
@@ -86,24 +92,19 @@ public class NetworkReader extends Reader {
 	 */
 	protected void setDefaults() {
 		super.setDefaults();
-		int type = graph.getType();
-		switch (type) {
-			case Graph.DIRECTED: {
-				vizStyle.setDefaultValue(EDGE_SOURCE_ARROW_SHAPE, NONE);
-				break;
-			}
-			case Graph.UNDIRECTED: {
-				vizStyle.setDefaultValue(EDGE_SOURCE_ARROW_SHAPE, NONE);
-				vizStyle.setDefaultValue(EDGE_TARGET_ARROW_SHAPE, NONE);
-				break;
-			}
+		if (directed) {
+			vizStyle.setDefaultValue(EDGE_SOURCE_ARROW_SHAPE, NONE);
+		}
+		else {
+			vizStyle.setDefaultValue(EDGE_SOURCE_ARROW_SHAPE, NONE);
+			vizStyle.setDefaultValue(EDGE_TARGET_ARROW_SHAPE, NONE);
 		}
 	}
 	/**
 	 * Overwrites the default VisualProperty values for the Cytoscape VisualStyle
 	 * that came from converting the default attribute list with new values from
-	 * converting the attribute list from the JPGD object that corresponds to
-	 * the network view.
+	 * converting the attribute list of the graph that corresponds to the
+	 * network view.
 	 */
 	@Override
 	protected void setBypasses() {
@@ -111,7 +112,7 @@ public class NetworkReader extends Reader {
 		//overrides the defaults set in setDefault()
 		LOGGER.trace("Setting the Bypass values for Visual Style...");
 
-		Map<String, String> bypassAttrs = graph.getAttributes();
+		Map<String, String> bypassAttrs = graphAttrs;
 		String colorScheme = bypassAttrs.containsKey("colorscheme") ? bypassAttrs.get("colorscheme") : null;
 		for (Entry<String, String> attrEntry : bypassAttrs.entrySet()) {
 			String attrKey = attrEntry.getKey();
@@ -41,13 +41,16 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.cytoscape.intern.GradientListener;
+import org.cytoscape.intern.read.DotAttributeTable;
+import org.cytoscape.intern.read.DotGraph;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.CyNetworkView;
@@ -61,12 +64,10 @@ import org.cytoscape.view.presentation.property.values.LineType;
 import org.cytoscape.view.presentation.property.values.NodeShape;
 import org.cytoscape.view.vizmap.VisualStyle;
 
-import com.alexmerz.graphviz.objects.Node;
-
 
 /**
  * Class that contains definitions and some implementation for converting a
- * dot graph to a CyNetwork. Data is passed in as a list of JPGD Node objects
+ * dot graph to a CyNetwork. Data is passed in as a DotGraph holding the nodes and their DOT attributes
  * This subclass handles importing of node properties
  * 
  * @author Massoud Maher
@@ -120,6 +121,21 @@ public class NodeReader extends Reader{
 	
 	//Used to retrieve CyCustomGraphics2Factories used for gradients;
 	private GradientListener gradientListener;
+
+	// locations read from the pos attribute by node index, allocated for
+	// the first positioned node, and the nodes that had one
+	private double[] xLocations;
+	private double[] yLocations;
+	private BitSet positionedNodes = new BitSet();
+
+	// NODE_CUSTOMGRAPHICS_1 VisualProperty, null if the renderer has none
+	@SuppressWarnings("rawtypes")
+	private VisualProperty<CyCustomGraphics> nodeGradientProp;
+	private boolean gradientPropLookedUp = false;
+
+	// gradients created so far, keyed by color list, linear or radial, and angle
+	@SuppressWarnings("rawtypes")
+	private Map<List<Object>, CyCustomGraphics> gradientCache = new HashMap<List<Object>, CyCustomGraphics>();
 	
 	/**
 	 * Constructs an object of type Reader.
@@ -131,12 +147,12 @@ public class NodeReader extends Reader{
 	 * eg. for NodeReader will be a list of default
 	 * @param rendEngMgr RenderingEngineManager that contains the default
 	 * VisualLexicon needed for gradient support
-	 * @param elementMap Map where keys are JPGD node objects and Values are corresponding Cytoscape CyNodes
+	 * @param graph DotGraph holding the CyNodes and the DOT attributes declared for them
 	 * @param gradientListener ServiceListener used to get Gradient Factories
 	 */
-	public NodeReader(CyNetworkView networkView, VisualStyle vizStyle, Map<String, String> defaultAttrs, RenderingEngineManager rendEngMgr, Map<Node, CyNode> elementMap, GradientListener gradientListener) {
+	public NodeReader(CyNetworkView networkView, VisualStyle vizStyle, Map<String, String> defaultAttrs, RenderingEngineManager rendEngMgr, DotGraph graph, GradientListener gradientListener) {
 		super(networkView, vizStyle, defaultAttrs, rendEngMgr);
-		this.elementMap = elementMap;
+		this.graph = graph;
 		this.gradientListener = gradientListener;
 	}
 	
@@ -158,104 +174,73 @@ public class NodeReader extends Reader{
 		return doublePoint;
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings("rawtypes")
 	private void createGradient(List<Pair<Color, Float>> colorListVals,
 			View<CyNode> elementView, String styleAttr, String gradientAngle) {
-		LOGGER.trace("Creating gradient...");
-
-		LOGGER.debug("Retrieving VisualProperty NODE_CUSTOMGRAPHICS_1");
-		VisualProperty<CyCustomGraphics> nodeGradientProp = 
-				(VisualProperty<CyCustomGraphics>) vizLexicon.lookup(CyNode.class, "NODE_CUSTOMGRAPHICS_1");
-
+		VisualProperty<CyCustomGraphics> nodeGradientProp = getGradientProperty();
 		if (nodeGradientProp == null) {
-			LOGGER.warn("Current Renderer doesn't support CustomGraphics");
 			return;
 		}
+		elementView.setLockedValue(nodeGradientProp, getGradient(colorListVals, styleAttr, gradientAngle));
+	}
 
-		float start = 0;
-		float remain = 1;
-		boolean adjustStart = false;
-		boolean usingLinearFactory = true;
-		/*
-		 * Determine which Gradient graphic factory to get based on style attribute
-		 * if it contains "radial" get the radial factory
-		 * otherwise get the linear
-		 */
-
-		LOGGER.trace("Retrieving Gradient factory...");
-		CyCustomGraphics2Factory<?> factory = gradientListener.getLinearFactory();
-		if (styleAttr.contains("radial")) {
-			factory = gradientListener.getRadialFactory();
-			usingLinearFactory = false;
-			LOGGER.trace("Retrieved Radial Gradient factory.");
-		}
-		List<Color> colors = new ArrayList<Color>(colorListVals.size());
-		List<Float> weights = new ArrayList<Float>(colorListVals.size());
-
-		for (Pair<Color, Float> colorWeightPair : colorListVals) {
-			Color retrievedColor = colorWeightPair.getLeft();
-			Float retrievedWeight = colorWeightPair.getRight();
-			LOGGER.debug(
-				String.format("Retrieved color %s with weight %f",
-					retrievedColor, retrievedWeight)
-			);
-			colors.add(retrievedColor);
-			if (retrievedWeight == null) {
-				adjustStart = true;
-				weights.add(new Float(start));
-				continue;
-			}
-			if (adjustStart) {
-				start = remain - retrievedWeight.floatValue();
-				adjustStart = false;
-			}
-			weights.add(new Float(start));
-			start = start + retrievedWeight.floatValue();
+	@SuppressWarnings("rawtypes")
+	private void createGradient(List<Pair<Color, Float>> colorListVals,
+			VisualStyle vizStyle, String styleAttr, String gradientAngle) {
+		VisualProperty<CyCustomGraphics> nodeGradientProp = getGradientProperty();
+		if (nodeGradientProp == null) {
+			return;
 		}
-		if (start == 0 && remain == 1) {
-			weights = new ArrayList<Float>(colorListVals.size());
-			LOGGER.debug(
-				String.format("Each color will now take up %f of gradient", 
-					1f/colorListVals.size())
-			);
-			for (; start < remain; start += (1f/colorListVals.size())) {
+		LOGGER.debug("Angle of gradient: {}", gradientAngle);
+		vizStyle.setDefaultValue(nodeGradientProp, getGradient(colorListVals, styleAttr, gradientAngle));
+	}
 
-				weights.add(start);
+	/*
+	 * Returns the NODE_CUSTOMGRAPHICS_1 VisualProperty, looked up in the
+	 * VisualLexicon the first time it is needed. Returns null if the
+	 * renderer does not support custom graphics.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private VisualProperty<CyCustomGraphics> getGradientProperty() {
+		if (!gradientPropLookedUp) {
+			LOGGER.debug("Retrieving VisualProperty NODE_CUSTOMGRAPHICS_1");
+			nodeGradientProp = (VisualProperty<CyCustomGraphics>) vizLexicon.lookup(CyNode.class, "NODE_CUSTOMGRAPHICS_1");
+			gradientPropLookedUp = true;
+			if (nodeGradientProp == null) {
+				LOGGER.warn("Current Renderer doesn't support CustomGraphics");
 			}
 		}
-		LOGGER.debug("Number of colors in gradient: " + colors.size());
-		HashMap<String, Object> gradientProps = new HashMap();
-		gradientProps.put("cy_gradientFractions", weights);
-		gradientProps.put("cy_gradientColors", colors);
-		if (usingLinearFactory) {
-			gradientProps.put("cy_angle", Double.parseDouble(gradientAngle));
-		}
-		else {
-			Point2D point = convertAngleToPoint(Double.parseDouble(gradientAngle));
-			gradientProps.put("cy_center", point);
-		}
+		return nodeGradientProp;
+	}
 
-		elementView.setLockedValue(nodeGradientProp, factory.getInstance(gradientProps));
+	/*
+	 * Returns the gradient for a color list, style and angle. Nodes with
+	 * the same gradient share one CyCustomGraphics instance.
+	 */
+	@SuppressWarnings("rawtypes")
+	private CyCustomGraphics getGradient(List<Pair<Color, Float>> colorListVals,
+			String styleAttr, String gradientAngle) {
+		boolean usingLinearFactory = !styleAttr.contains("radial");
+		List<Object> key = Arrays.<Object>asList(colorListVals, usingLinearFactory, gradientAngle);
+		CyCustomGraphics gradient = gradientCache.get(key);
+		if (gradient == null) {
+			gradient = createGradientInstance(colorListVals, usingLinearFactory, gradientAngle);
+			gradientCache.put(key, gradient);
+		}
+		return gradient;
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private void createGradient(List<Pair<Color, Float>> colorListVals,
-			VisualStyle vizStyle, String styleAttr, String gradientAngle) {
+	/*
+	 * Creates a gradient with the linear or radial gradient factory
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private CyCustomGraphics createGradientInstance(List<Pair<Color, Float>> colorListVals,
+			boolean usingLinearFactory, String gradientAngle) {
 		LOGGER.trace("Creating gradient...");
 
-		LOGGER.debug("Retrieving VisualProperty NODE_CUSTOMGRAPHICS_1");
-		VisualProperty<CyCustomGraphics> nodeGradientProp = 
-				(VisualProperty<CyCustomGraphics>) vizLexicon.lookup(CyNode.class, "NODE_CUSTOMGRAPHICS_1");
-
-		if (nodeGradientProp == null) {
-			LOGGER.warn("Current Renderer doesn't support CustomGraphics");
-			return;
-		}
-
 		float start = 0;
 		float remain = 1;
 		boolean adjustStart = false;
-		boolean usingLinearFactory = true;
 		/*
 		 * Determine which Gradient graphic factory to get based on style attribute
 		 * if it contains "radial" get the radial factory
@@ -264,9 +249,8 @@ public class NodeReader extends Reader{
 
 		LOGGER.trace("Retrieving Gradient factory...");
 		CyCustomGraphics2Factory<?> factory = gradientListener.getLinearFactory();
-		if (styleAttr.contains("radial")) {
+		if (!usingLinearFactory) {
 			factory = gradientListener.getRadialFactory();
-			usingLinearFactory = false;
 			LOGGER.trace("Retrieved Radial Gradient factory.");
 		}
 		List<Color> colors = new ArrayList<Color>(colorListVals.size());
@@ -275,10 +259,7 @@ public class NodeReader extends Reader{
 		for (Pair<Color, Float> colorWeightPair : colorListVals) {
 			Color retrievedColor = colorWeightPair.getLeft();
 			Float retrievedWeight = colorWeightPair.getRight();
-			LOGGER.debug(
-				String.format("Retrieved color %s with weight %f",
-					retrievedColor, retrievedWeight)
-			);
+			LOGGER.debug("Retrieved color {} with weight {}", retrievedColor, retrievedWeight);
 			colors.add(retrievedColor);
 			if (retrievedWeight == null) {
 				adjustStart = true;
@@ -294,17 +275,13 @@ public class NodeReader extends Reader{
 		}
 		if (start == 0 && remain == 1) {
 			weights = new ArrayList<Float>(colorListVals.size());
-			LOGGER.debug(
-				String.format("Each color will now take up %f of gradient", 
-					1f/colorListVals.size())
-			);
+			LOGGER.debug("Each color will now take up {} of gradient", 1f/colorListVals.size());
 			for (; start < remain; start += (1f/colorListVals.size())) {
 
 				weights.add(start);
 			}
 		}
 		LOGGER.debug("Number of colors in gradient: {}", colors.size());
-		LOGGER.debug("Angle of gradient: {}", gradientAngle);
 		HashMap<String, Object> gradientProps = new HashMap();
 		gradientProps.put("cy_gradientFractions", weights);
 		gradientProps.put("cy_gradientColors", colors);
@@ -316,27 +293,55 @@ public class NodeReader extends Reader{
 			gradientProps.put("cy_center", point);
 		}
 
-		vizStyle.setDefaultValue(nodeGradientProp, factory.getInstance(gradientProps));
+		return factory.getInstance(gradientProps);
 	}
 
 
 	/**
-	 * Sets VisualProperties for each node related to location of node.
-	 * Here because cannot return 2 VisualProperties from convertAttribute
-	 * and want to make exception clear
-	 * @param attrVal 
-	 * @param elementView 
+	 * Records the location of a node, applied to its View by
+	 * setPositions() once all bypasses are set. Here because cannot return
+	 * 2 VisualProperties from convertAttribute and want to make exception
+	 * clear. The z coordinate of 3D points and the '!' of pinned points are
+	 * ignored.
+	 * @param node index of the node
+	 * @param attrVal value of the pos attribute
 	 */
-	private void setPositions(String attrVal, View<CyNode> elementView) {
-		String[] coords = attrVal.split(",");
-		Double x = Double.parseDouble(coords[0]);
+	private void readPosition(int node, String attrVal) {
+		if (!numberScanner.scanPoint(attrVal)) {
+			LOGGER.warn("Ignoring invalid node position {}", attrVal);
+			return;
+		}
+		if (xLocations == null) {
+			xLocations = new double[graph.getNodeCount()];
+			yLocations = new double[graph.getNodeCount()];
+		}
+		xLocations[node] = numberScanner.getX();
 		
 		//Y coordinate is different between GraphViz and Java.
-		Double y = -1 * Double.parseDouble(coords[1]);
+		yLocations[node] = -numberScanner.getY();
+		positionedNodes.set(node);
+	}
 
-		//Position attributes are not set with bypasses.
-		elementView.setVisualProperty(NODE_X_LOCATION, x);
-		elementView.setVisualProperty(NODE_Y_LOCATION, y);
+	/**
+	 * Sets the location VisualProperties of every node that had a position
+	 */
+	private void setPositions() {
+		LOGGER.trace("Setting node locations...");
+		for (int node = positionedNodes.nextSetBit(0); node >= 0; node = positionedNodes.nextSetBit(node + 1)) {
+			View<CyNode> elementView = graph.getNodeView(node);
+			//Position attributes are not set with bypasses.
+			elementView.setVisualProperty(NODE_X_LOCATION, xLocations[node]);
+			elementView.setVisualProperty(NODE_Y_LOCATION, yLocations[node]);
+		}
+	}
+
+	/*
+	 * Compares a width and a height, parsing each of them once
+	 */
+	private int compareSizes(String width, String height) {
+		double widthValue = numberScanner.parseDouble(width);
+		double heightValue = numberScanner.parseDouble(height);
+		return widthValue > heightValue ? 1 : (widthValue < heightValue ? -1 : 0);
 	}
 
 	/**
@@ -372,14 +377,14 @@ public class NodeReader extends Reader{
 				break;
 			}
 			case "penwidth": {
-				retrievedVal = Double.parseDouble(val);
+				retrievedVal = numberScanner.parseDouble(val);
 				break;
 			}
 			case "width": {
 				//Fall through to height case
 			}
 			case "height": {
-				retrievedVal = Double.parseDouble(val) * PPI;
+				retrievedVal = numberScanner.parseDouble(val) * PPI;
 				break;
 			}
 			case "shape": {
@@ -410,7 +415,7 @@ public class NodeReader extends Reader{
 	
 	/**
 	 * Sets all the default Visual Properties values for Cytoscape View Objects
-	 * corresponding to CyNode objects in the elementMap
+	 * corresponding to CyNode objects in the graph
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
@@ -427,23 +432,24 @@ public class NodeReader extends Reader{
 					String width = defAttrs.get("width");
 					if (defAttrs.containsKey("height")) {
 						String height = defAttrs.get("height");
-						if (Double.parseDouble(width) > Double.parseDouble(height)) {
-							Pair<VisualProperty, Object> p = convertAttribute("height", width);
+						int order = compareSizes(width, height);
+						if (order > 0) {
+							Pair<VisualProperty, Object> p = getConversion("height", width);
 							LOGGER.debug("Fixing node's height to equal node's width");
 							vizStyle.setDefaultValue(p.getLeft(), p.getRight());
-						} else if (Double.parseDouble(width) < Double.parseDouble(height)) {
-							Pair<VisualProperty, Object> p = convertAttribute("width", height);
+						} else if (order < 0) {
+							Pair<VisualProperty, Object> p = getConversion("width", height);
 							LOGGER.debug("Fixing node's width to equal node's height");
 							vizStyle.setDefaultValue(p.getLeft(), p.getRight());
 						}
 					} else {
-						Pair<VisualProperty, Object> p = convertAttribute("height", width);
+						Pair<VisualProperty, Object> p = getConversion("height", width);
 						LOGGER.debug("Fixing node's height to equal node's width");
 						vizStyle.setDefaultValue(p.getLeft(), p.getRight());
 					}
 				} else if (defAttrs.containsKey("height")) {
 					String height = defAttrs.get("height");
-					Pair<VisualProperty, Object> p = convertAttribute("width", height);
+					Pair<VisualProperty, Object> p = getConversion("width", height);
 					LOGGER.debug("Fixing node's width to equal node's height");
 					vizStyle.setDefaultValue(p.getLeft(), p.getRight());
 				} else {
@@ -457,21 +463,24 @@ public class NodeReader extends Reader{
 	}
 	/**
 	 * Sets all the bypass Visual Properties values for Cytoscape View objects
-	 * corresponding to CyNode objects in the elementMap
+	 * corresponding to CyNode objects in the graph
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	@Override
 	protected void setBypasses() {
 		LOGGER.info("Setting the Bypass values for node views...");
 
+		DotAttributeTable bypsAttrs = graph.getNodeAttributes();
+		int colorSchemeColumn = bypsAttrs.getColumnIndex("colorscheme");
+		int widthColumn = bypsAttrs.getColumnIndex("width");
+		int heightColumn = bypsAttrs.getColumnIndex("height");
+
 		// for each element, get bypass attributes
-		for (Entry<? extends Object, ? extends CyIdentifiable> entry : elementMap.entrySet()) {
-			Map<String, String> bypsAttrs = getAttrMap(entry.getKey()); 
-			String colorScheme = (bypsAttrs.containsKey("colorscheme")) ? bypsAttrs.get("colorscheme") : null;
+		for (int node = 0; node < graph.getNodeCount(); node++) {
+			String colorScheme = bypsAttrs.get(node, colorSchemeColumn);
 			
 			//Get the node view
-			CyNode element = (CyNode)entry.getValue();
-			View<CyNode> elementView = networkView.getNodeView(element);
+			View<CyNode> elementView = graph.getNodeView(node);
 
 			//reset the usedFillColor boolean for each node
 			usedFillColor = false;
@@ -484,9 +493,12 @@ public class NodeReader extends Reader{
 			boolean isRegularShape = isDefaultRegularShape;
 			
 
-			for (Entry<String, String> attrEntry : bypsAttrs.entrySet()) {
-				String attrKey = attrEntry.getKey();
-				String attrVal = attrEntry.getValue();
+			for (int column = 0; column < bypsAttrs.getColumnCount(); column++) {
+				String attrVal = bypsAttrs.get(node, column);
+				if (attrVal == null) {
+					continue;
+				}
+				String attrKey = bypsAttrs.getColumnName(column);
 				LOGGER.debug("Converting GraphViz attribute: {}", attrKey);
 
 				switch (attrKey) {
@@ -495,7 +507,7 @@ public class NodeReader extends Reader{
 						continue;
 					}
 					case "pos": {
-						setPositions(attrVal, elementView);
+						readPosition(node, attrVal);
 						continue;
 					}
 					case "color": {
@@ -523,7 +535,7 @@ public class NodeReader extends Reader{
 					}
 					default: {
 						// handle simple attributes
-						Pair<VisualProperty, Object> p = convertAttribute(attrKey, attrVal);
+						Pair<VisualProperty, Object> p = getConversion(attrKey, attrVal);
 						if (p == null) {
 							continue;
 						}
@@ -535,36 +547,36 @@ public class NodeReader extends Reader{
 						}
 						LOGGER.trace("Updating Visual Style...");
 						LOGGER.debug("Setting Visual Property {}", vizProp);
-						elementView.setLockedValue(vizProp, val);
+						setBypass(elementView, vizProp, val);
 					}
 				}
 			}
 			
 			//Handle node height change if shape is regular polygon
 			if (isRegularShape) {
-				if (bypsAttrs.containsKey("width")) {
-					String width = bypsAttrs.get("width");
-					if (bypsAttrs.containsKey("height")) {
-						String height = bypsAttrs.get("height");
-						if (Double.parseDouble(width) > Double.parseDouble(height)) {
-							Pair<VisualProperty, Object> p = convertAttribute("height", width);
+				String width = bypsAttrs.get(node, widthColumn);
+				String height = bypsAttrs.get(node, heightColumn);
+				if (width != null) {
+					if (height != null) {
+						int order = compareSizes(width, height);
+						if (order > 0) {
+							Pair<VisualProperty, Object> p = getConversion("height", width);
 							LOGGER.debug("Fixing node's height to equal node's width");
-							elementView.setLockedValue(p.getLeft(), p.getRight());
-						} else if (Double.parseDouble(width) < Double.parseDouble(height)) {
-							Pair<VisualProperty, Object> p = convertAttribute("width", height);
+							setBypass(elementView, p.getLeft(), p.getRight());
+						} else if (order < 0) {
+							Pair<VisualProperty, Object> p = getConversion("width", height);
 							LOGGER.debug("Fixing node's width to equal node's height");
-							elementView.setLockedValue(p.getLeft(), p.getRight());
+							setBypass(elementView, p.getLeft(), p.getRight());
 						}
 					} else {
-						Pair<VisualProperty, Object> p = convertAttribute("height", width);
+						Pair<VisualProperty, Object> p = getConversion("height", width);
 						LOGGER.debug("Fixing node's height to equal node's width");
-						elementView.setLockedValue(p.getLeft(), p.getRight());
+						setBypass(elementView, p.getLeft(), p.getRight());
 					}
-				} else if (bypsAttrs.containsKey("height")) {
-					String height = bypsAttrs.get("height");
-					Pair<VisualProperty, Object> p = convertAttribute("width", height);
+				} else if (height != null) {
+					Pair<VisualProperty, Object> p = getConversion("width", height);
 					LOGGER.debug("Fixing node's width to equal node's height");
-					elementView.setLockedValue(p.getLeft(), p.getRight());
+					setBypass(elementView, p.getLeft(), p.getRight());
 				}
 			}
 			//Handle gradient creation and color setting now
@@ -645,6 +657,7 @@ public class NodeReader extends Reader{
 				setStyle(styleAttr, elementView);
 			}
 		}
+		setPositions();
 	}
 
 	/**
@@ -674,8 +687,8 @@ public class NodeReader extends Reader{
 
 		switch (attr) {
 			case COLOR: {
-				elementView.setLockedValue(NODE_BORDER_PAINT, color);
-				elementView.setLockedValue(NODE_BORDER_TRANSPARENCY, transparency);
+				setBypass(elementView, NODE_BORDER_PAINT, color);
+				setBypass(elementView, NODE_BORDER_TRANSPARENCY, transparency);
 
 				//fillcolor has already been applied, should not redo
 				//with color attribute
@@ -690,13 +703,13 @@ public class NodeReader extends Reader{
 			 */
 			}
 			case FILLCOLOR: {
-				elementView.setLockedValue(NODE_FILL_COLOR, color);
-				elementView.setLockedValue(NODE_TRANSPARENCY, transparency);
+				setBypass(elementView, NODE_FILL_COLOR, color);
+				setBypass(elementView, NODE_TRANSPARENCY, transparency);
 				break;
 			}
 			case FONTCOLOR: {
-				elementView.setLockedValue(NODE_LABEL_COLOR, color);
-				elementView.setLockedValue(NODE_LABEL_TRANSPARENCY, transparency);
+				setBypass(elementView, NODE_LABEL_COLOR, color);
+				setBypass(elementView, NODE_LABEL_TRANSPARENCY, transparency);
 				break;
 			}
 			default: {
@@ -834,34 +847,34 @@ public class NodeReader extends Reader{
 
 			LineType lineType = LINE_TYPE_MAP.get(styleAttr);
 			if (lineType != null && !lineType.equals(defaultLineType)) {
-				elementView.setLockedValue(NODE_BORDER_LINE_TYPE, lineType);
+				setBypass(elementView, NODE_BORDER_LINE_TYPE, lineType);
 			}
 		}
 		
 		// check if rounded rectangle and set
-		NodeShape elementShape = elementView.getVisualProperty(NODE_SHAPE);
+		NodeShape elementShape = getBypass(elementView, NODE_SHAPE);
 		NodeShape defaultShape = vizStyle.getDefaultValue(NODE_SHAPE);
 		if (attrVal.contains("rounded") && 
 				elementShape.equals(NodeShapeVisualProperty.RECTANGLE)) {
 			if (!elementShape.equals(defaultShape)) {
-				elementView.setLockedValue(NODE_SHAPE, NodeShapeVisualProperty.ROUND_RECTANGLE);
+				setBypass(elementView, NODE_SHAPE, NodeShapeVisualProperty.ROUND_RECTANGLE);
 			}
 		}
 		// check if invisible is enabled
 		if (attrVal.contains("invis")) {
 			if (isVisibleDefault) {
-				elementView.setLockedValue(NODE_VISIBLE, false);
+				setBypass(elementView, NODE_VISIBLE, false);
 			}
 		}
 		else {
 			if (!isVisibleDefault) {
-				elementView.setLockedValue(NODE_VISIBLE, true);
+				setBypass(elementView, NODE_VISIBLE, true);
 			}
 		}
 		// if node is not filled
 		LOGGER.debug("Checking if style string contains filled. {}", attrVal.contains("filled"));
 		if(!attrVal.contains("filled")) {
-			elementView.setLockedValue(NODE_TRANSPARENCY, 0);
+			setBypass(elementView, NODE_TRANSPARENCY, 0);
 			LOGGER.debug("Did transparency get set to 0 for node {}? {}", elementView, elementView.getVisualProperty(NODE_TRANSPARENCY).intValue() == 0);
 		}
 	}
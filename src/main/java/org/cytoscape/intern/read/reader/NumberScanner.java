@@ -0,0 +1,268 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.read.reader;
+
+/**
+ * Parses the numbers and points of DOT attribute values, such as width,
+ * penwidth or pos, by scanning the characters directly. Numbers of up to
+ * 15 significant digits with a small exponent, which covers what GraphViz
+ * writes, are computed exactly without allocating; all other numbers are
+ * handed to Double.parseDouble, so results are always identical to it.
+ *
+ * Points have the form x,y or x,y,z with an optional trailing '!' that
+ * pins the node. The coordinates of the last scanned point are kept in the
+ * scanner, so scanning a point allocates nothing either.
+ *
+ * A NumberScanner is not thread safe.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class NumberScanner {
+
+	// powers of ten that are exact doubles
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	// largest mantissa that is an exact double
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	// position in the string being scanned by scanNumber()
+	private int scanPos;
+
+	// coordinates of the last point scanned
+	private double x;
+	private double y;
+	private double z;
+	private int dimensions;
+	private boolean pinned;
+
+	/**
+	 * Parses a DOT number
+	 *
+	 * @param value number, possibly surrounded by whitespace
+	 * @return value of the number
+	 * @throws NumberFormatException if the value is not a number
+	 */
+	public double parseDouble(String value) {
+		int start = trimStart(value, 0, value.length());
+		int end = trimEnd(value, start, value.length());
+		scanPos = start;
+		double result = scanNumber(value, end);
+		if (Double.isNaN(result) || scanPos != end) {
+			// let Double.parseDouble accept or reject the other forms
+			return Double.parseDouble(value);
+		}
+		return result;
+	}
+
+	/**
+	 * Scans a DOT point of the form x,y or x,y,z, optionally followed by '!'.
+	 * The coordinates are then available from getX(), getY() and getZ().
+	 *
+	 * @param value point to scan
+	 * @return true if the value is a valid point
+	 */
+	public boolean scanPoint(String value) {
+		return scanPoint(value, 0, value.length());
+	}
+
+	/**
+	 * Scans a DOT point held in part of a string, such as one point of a
+	 * spline
+	 *
+	 * @param value string containing the point
+	 * @param start index of the first character of the point
+	 * @param end index after the last character of the point
+	 * @return true if the range is a valid point
+	 */
+	public boolean scanPoint(String value, int start, int end) {
+		start = trimStart(value, start, end);
+		end = trimEnd(value, start, end);
+		pinned = end > start && value.charAt(end - 1) == '!';
+		if (pinned) {
+			end = trimEnd(value, start, end - 1);
+		}
+		dimensions = 0;
+		scanPos = start;
+		x = scanNumber(value, end);
+		if (Double.isNaN(x) || !skipComma(value, end)) {
+			return false;
+		}
+		y = scanNumber(value, end);
+		if (Double.isNaN(y)) {
+			return false;
+		}
+		dimensions = 2;
+		z = 0;
+		if (scanPos < end) {
+			if (!skipComma(value, end)) {
+				return false;
+			}
+			z = scanNumber(value, end);
+			if (Double.isNaN(z)) {
+				return false;
+			}
+			dimensions = 3;
+		}
+		return scanPos == end;
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getZ() {
+		return z;
+	}
+
+	/**
+	 * Returns the number of coordinates of the last point scanned
+	 *
+	 * @return 2 or 3, 0 if the point was invalid
+	 */
+	public int getDimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * Returns whether the last point scanned ended with '!'
+	 *
+	 * @return true if the point is pinned
+	 */
+	public boolean isPinned() {
+		return pinned;
+	}
+
+	/*
+	 * Scans a number of the form [+-]digits[.digits][(e|E)[+-]digits]
+	 * starting at scanPos and moves scanPos past it. Returns NaN without
+	 * moving if there is no such number.
+	 */
+	private double scanNumber(String value, int end) {
+		int pos = scanPos;
+		boolean negative = false;
+		if (pos < end && (value.charAt(pos) == '-' || value.charAt(pos) == '+')) {
+			negative = value.charAt(pos) == '-';
+			pos++;
+		}
+		long mantissa = 0;
+		int exponent = 0;
+		boolean hasDigits = false;
+		boolean exact = true;
+		while (pos < end && isDigit(value.charAt(pos))) {
+			exact &= accumulate(mantissa);
+			mantissa = mantissa * 10 + (value.charAt(pos) - '0');
+			hasDigits = true;
+			pos++;
+		}
+		if (pos < end && value.charAt(pos) == '.') {
+			pos++;
+			while (pos < end && isDigit(value.charAt(pos))) {
+				exact &= accumulate(mantissa);
+				mantissa = mantissa * 10 + (value.charAt(pos) - '0');
+				exponent--;
+				hasDigits = true;
+				pos++;
+			}
+		}
+		if (!hasDigits) {
+			return Double.NaN;
+		}
+		if (pos < end && (value.charAt(pos) == 'e' || value.charAt(pos) == 'E')) {
+			int expPos = pos + 1;
+			boolean negativeExp = false;
+			if (expPos < end && (value.charAt(expPos) == '-' || value.charAt(expPos) == '+')) {
+				negativeExp = value.charAt(expPos) == '-';
+				expPos++;
+			}
+			int expValue = 0;
+			boolean hasExpDigits = false;
+			while (expPos < end && isDigit(value.charAt(expPos))) {
+				expValue = Math.min(expValue * 10 + (value.charAt(expPos) - '0'), 10000);
+				hasExpDigits = true;
+				expPos++;
+			}
+			// an 'e' without digits is not part of the number
+			if (hasExpDigits) {
+				exponent += negativeExp ? -expValue : expValue;
+				pos = expPos;
+			}
+		}
+
+		double result;
+		if (!exact || mantissa >= MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+			result = Double.parseDouble(value.substring(scanPos, pos));
+		}
+		else if (exponent >= 0) {
+			result = mantissa * POWERS_OF_TEN[exponent];
+		}
+		else {
+			result = mantissa / POWERS_OF_TEN[-exponent];
+		}
+		scanPos = pos;
+		return negative ? -result : result;
+	}
+
+	/*
+	 * Returns false if another digit could overflow the mantissa
+	 */
+	private static boolean accumulate(long mantissa) {
+		return mantissa < 100000000000000000L;
+	}
+
+	/*
+	 * Moves scanPos past a comma and the whitespace around it, returns false
+	 * if there is no comma
+	 */
+	private boolean skipComma(String value, int end) {
+		int pos = trimStart(value, scanPos, end);
+		if (pos == end || value.charAt(pos) != ',') {
+			return false;
+		}
+		scanPos = trimStart(value, pos + 1, end);
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int trimStart(String string, int start, int end) {
+		while (start < end && string.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(String string, int start, int end) {
+		while (end > start && string.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+}
@@ -24,14 +24,16 @@ import static org.cytoscape.view.presentation.property.LineTypeVisualProperty.SO
 
 import java.awt.Color;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.cytoscape.intern.read.DotGraph;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.view.model.CyNetworkView;
 import org.cytoscape.view.model.View;
@@ -41,15 +43,12 @@ import org.cytoscape.view.presentation.RenderingEngineManager;
 import org.cytoscape.view.presentation.property.values.LineType;
 import org.cytoscape.view.vizmap.VisualStyle;
 
-import com.alexmerz.graphviz.objects.Edge;
-import com.alexmerz.graphviz.objects.Node;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Abstract class that contains definitions and some implementation for converting a
- * dot graph to a CyNetwork. Data is passed in as JPGD objects
+ * dot graph to a CyNetwork. Data is passed in as a DotGraph
  * 
  * @author Massoud Maher
  * @author Braxton Fitts
@@ -65,17 +64,6 @@ public abstract class Reader {
 		COLOR, FILLCOLOR, FONTCOLOR, BGCOLOR
 	}
 
-	//Regex patterns for DOT color strings
-	private static final String RGB_REGEX = "^#[0-9A-Fa-f]{6}$";
-	private static final String RGBA_REGEX = "^#(?<RED>[0-9A-Fa-f]{2})"
-						   + "(?<GREEN>[0-9A-Fa-f]{2})"
-						   + "(?<BLUE>[0-9A-Fa-f]{2})"
-						   + "(?<ALPHA>[0-9A-Fa-f]{2})$";
-	private static final String HSB_REGEX = "^(?<HUE>1(?:\\.0+)?|0*(?:\\.[0-9]+))(?:,|\\s)+"
-						 + "(?<SAT>1(?:\\.0+)?|0*(?:\\.[0-9]+))(?:,|\\s)+"
-						 + "(?<VAL>1(?:\\.0+)?|0*(?:\\.[0-9]+))$";
-
-
 	// Maps lineStyle attribute values to Cytoscape values
 	protected static final Map<String, LineType> LINE_TYPE_MAP = new HashMap<String, LineType>();
 	static {
@@ -84,8 +72,16 @@ public abstract class Reader {
 		LINE_TYPE_MAP.put("solid", SOLID);
 	}
 	
-	// Maps string color names to Java Color objects
-	protected static StringColor stringColors;
+	// Converts GraphViz color strings to Java Color objects
+	protected final ColorCodec colorCodec = new ColorCodec();
+
+	// Parses the numbers and points of attribute values
+	protected final NumberScanner numberScanner = new NumberScanner();
+
+	// Free text attributes, their values rarely repeat and convert to themselves
+	private static final Set<String> UNCACHED_ATTRIBUTES = new HashSet<String>(
+		Arrays.asList("label", "xlabel", "tooltip")
+	);
 
 	// view of network being created/modified
 	protected CyNetworkView networkView;
@@ -106,10 +102,25 @@ public abstract class Reader {
 	protected VisualLexicon vizLexicon;	
 
 	/*
-	 * Contains elements of Cytoscape graph and their corresponding JPGD elements
-	 * is null for NetworkReader. Is initialized on Node, Edge Reader
+	 * Contains elements of Cytoscape graph, by index, and the attributes
+	 * declared on their DOT statements. Is null for NetworkReader. Is
+	 * initialized on Node, Edge Reader
+	 */
+	protected DotGraph graph;
+
+	/*
+	 * Table columns that bypass values are stored in instead of being locked
+	 * on each View. Is null unless setAttributeColumns is called
 	 */
-	protected Map<? extends Object, ? extends CyIdentifiable> elementMap;
+	protected AttributeColumns attributeColumns = null;
+
+	/*
+	 * Results of convertAttribute for this import, keyed by attribute name
+	 * then attribute value. A null result is cached as well
+	 */
+	@SuppressWarnings("rawtypes")
+	private final Map<String, Map<String, Pair<VisualProperty, Object>>> conversionCache =
+		new HashMap<String, Map<String, Pair<VisualProperty, Object>>>();
 	
 
 	/**
@@ -148,7 +159,7 @@ public abstract class Reader {
 				String.format("Converting DOT attribute: %s", attrKey)
 			);
 
-			Pair<VisualProperty, Object> p = convertAttribute(attrKey, attrVal);
+			Pair<VisualProperty, Object> p = getConversion(attrKey, attrVal);
 			// if attribute cannot be converted, move on to next one
 			if (p == null) {
 				continue;
@@ -188,6 +199,34 @@ public abstract class Reader {
 	@SuppressWarnings("rawtypes")
 	abstract protected Pair<VisualProperty, Object> convertAttribute(String name, String val); 
 
+	/**
+	 * Returns the result of convertAttribute for the specified GraphViz
+	 * attribute and value, only converting a value the first time it is seen
+	 * for that attribute. Free text attributes such as labels are not cached.
+	 * 
+	 * @param name the name of the attribute
+	 * @param val the value of the attribute
+	 * 
+	 * @return Pair returned by convertAttribute for the attribute and value
+	 */
+	@SuppressWarnings("rawtypes")
+	protected Pair<VisualProperty, Object> getConversion(String name, String val) {
+		if (UNCACHED_ATTRIBUTES.contains(name)) {
+			return convertAttribute(name, val);
+		}
+		Map<String, Pair<VisualProperty, Object>> valueCache = conversionCache.get(name);
+		if (valueCache == null) {
+			valueCache = new HashMap<String, Pair<VisualProperty, Object>>();
+			conversionCache.put(name, valueCache);
+		}
+		Pair<VisualProperty, Object> conversion = valueCache.get(val);
+		if (conversion == null && !valueCache.containsKey(val)) {
+			conversion = convertAttribute(name, val);
+			valueCache.put(val, conversion);
+		}
+		return conversion;
+	}
+
 	/**
 	 * Converts a GraphViz color string to a Java Color object
 	 * GraphViz color formats are:
@@ -200,54 +239,11 @@ public abstract class Reader {
 	 * @param colorScheme Scheme from dot. Either "x11" or "svg"
 	 */
 	protected Color convertColor(String color, String colorScheme) {
-
-		LOGGER.info("Converting DOT color string to Java Color...");
-		LOGGER.debug("Color string: " + color);
-
-		// Remove trailing/leading whitespace
-		color = color.trim();
-
-		// Test color string against RGB regex
-		LOGGER.trace("Comparing DOT color string to #RRGGBB format");
-		Matcher matcher = Pattern.compile(RGB_REGEX).matcher(color);
-		if (matcher.matches()) {
-			return Color.decode(color);
-		}
-
-		// Test color string against RGBA regex
-		LOGGER.trace("Comparing DOT color string to #RRGGBBAA format");
-		matcher.usePattern(Pattern.compile(RGBA_REGEX));
-		if (matcher.matches()) {
-			Integer red = Integer.valueOf(matcher.group("RED"), 16);
-			Integer green = Integer.valueOf(matcher.group("GREEN"), 16);
-			Integer blue = Integer.valueOf(matcher.group("BLUE"), 16);
-			Integer alpha = Integer.valueOf(matcher.group("ALPHA"), 16);
-			return new Color(red, green, blue, alpha);
+		Color output = colorCodec.decode(color, colorScheme);
+		if (output == null) {
+			LOGGER.debug("DOT color string not supported: {}", color);
 		}
-
-		// Test color string against HSB regex
-		LOGGER.trace("Comparing DOT color string to H S V format");
-		matcher.usePattern(Pattern.compile(HSB_REGEX));
-		if (matcher.matches()) {
-			Float hue = Float.valueOf(matcher.group("HUE"));
-			Float saturation = Float.valueOf(matcher.group("SAT"));
-			Float value = Float.valueOf(matcher.group("VAL"));
-			return Color.getHSBColor(hue, saturation, value);
-		}
-		
-		// String didn't match the regexes, so test if it is a color name
-		// Read in color name files and find it in there
-		LOGGER.trace("Checking if DOT color string is a valid color name");
-		if (stringColors == null) {
-			stringColors = new StringColor("svg_colors.txt", "x11_colors.txt");
-		}
-		Color output = stringColors.getColor(colorScheme, color);
-		if(output != null) {
-			return output;
-		}
-		// Color was not found
-		LOGGER.info("DOT color string not supported.");
-		return null;
+		return output;
 	}
 	
 	/**
@@ -261,70 +257,94 @@ public abstract class Reader {
 	 * @param colorScheme Color Scheme used to translate color names
 	 */
 	protected List<Pair<Color, Float>> convertColorList(String colorList, String colorScheme) {
-		LOGGER.info("Converting DOT color list to Java aray...");
 		//Split color list into weighted colors
-		if (!colorList.contains(":")) {
+		if (colorList.indexOf(':') < 0) {
 			return null;
 		}
-		String[] weightedColors = colorList.split(":");
-		int numColors = 0;
-		ArrayList<Pair<Color, Float>> colorWeightPairs = new ArrayList<Pair<Color,Float>>(weightedColors.length);
-		for (String weightedColor : weightedColors) {
-			if (numColors == 2) {
-				break;
+		ArrayList<Pair<Color, Float>> colorWeightPairs = new ArrayList<Pair<Color,Float>>(2);
+		int start = 0;
+		while (colorWeightPairs.size() < 2 && start < colorList.length()) {
+			int end = colorList.indexOf(':', start);
+			if (end < 0) {
+				end = colorList.length();
 			}
-			if (weightedColor.contains(";")) {
-				String[] color_weight = weightedColor.split(";", 2);
-				Color color = convertColor(color_weight[0], colorScheme);
+			int weightStart = colorList.indexOf(';', start);
+			if (weightStart >= 0 && weightStart < end) {
+				Color color = colorCodec.decode(colorList, start, weightStart, colorScheme);
 				Float weight = null;
 				try {
-					weight = Float.parseFloat(color_weight[1]);
+					weight = Float.parseFloat(colorList.substring(weightStart + 1, end));
 				}
 				catch (NumberFormatException exception) {
 					LOGGER.error("Error: Color list contains invalid weight");
 				}
-				LOGGER.debug(String.format("Retrieved weighted color from color list. Result: %s;%f", color.toString(), weight));
+				LOGGER.debug("Retrieved weighted color from color list. Result: {};{}", color, weight);
 				colorWeightPairs.add(Pair.of(color, weight));
 			}
 			else {
-				Color color = convertColor(weightedColor, colorScheme);
-				LOGGER.debug(String.format("Retrieved color with no weight from color list. Result: %s", color.toString()));
+				Color color = colorCodec.decode(colorList, start, end, colorScheme);
+				LOGGER.debug("Retrieved color with no weight from color list. Result: {}", color);
 				colorWeightPairs.add(Pair.of(color, (Float)null));
 			}
-			numColors++;
+			start = end + 1;
 		}
 		return colorWeightPairs;
 	}
 
 	/**
-	 * Returns the Map of bypass attributes for a given JPGD object.
-	 * We define bypass attributes as any attributes declared at the individual
-	 * GraphViz element declaration.
+	 * Sets all the bypass Visual Properties values for View objects in
+	 * Cytoscape. Implemented in subclasses to handle different subclasses of
+	 * View objects
+	 */
+	abstract protected void setBypasses();
+
+	/**
+	 * Makes setBypass store values in table columns bound with passthrough
+	 * mappings instead of locking them on each View
 	 * 
-	 * @param element JPGD element for which we are getting list of attributes.
-	 * Should be an instance of Node or Edge.
-	 * @return Map of which keys are attribute names and values are attribute
-	 * values
-	 * @throws IllegalArgumentException thrown if passed-in object is not an
-	 * instance of Node or Edge
+	 * @param attributeColumns AttributeColumns for the table of the elements
+	 * being read
 	 */
-	protected Map<String, String> getAttrMap(Object element) {
-	
-		if (element instanceof Node) {
-			return ((Node) element).getAttributes();
+	public void setAttributeColumns(AttributeColumns attributeColumns) {
+		this.attributeColumns = attributeColumns;
+	}
+
+	/**
+	 * Sets a bypass VisualProperty value for a Cytoscape View object, either
+	 * as a locked value or in the element's table row
+	 * 
+	 * @param elementView View of Cytoscape element the value is set for
+	 * @param vizProp VisualProperty being set
+	 * @param val value of the VisualProperty
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected void setBypass(View<? extends CyIdentifiable> elementView, VisualProperty vizProp, Object val) {
+		if (attributeColumns != null) {
+			attributeColumns.set(elementView.getModel(), vizProp, val);
 		}
-		if (element instanceof Edge) {
-			return ((Edge) element).getAttributes();
+		else {
+			elementView.setLockedValue(vizProp, val);
 		}
-		throw new IllegalArgumentException();
 	}
-	
+
 	/**
-	 * Sets all the bypass Visual Properties values for View objects in
-	 * Cytoscape. Implemented in subclasses to handle different subclasses of
-	 * View objects
+	 * Returns the value of a VisualProperty for a Cytoscape View object,
+	 * including a bypass value set with setBypass
+	 * 
+	 * @param elementView View of Cytoscape element
+	 * @param vizProp VisualProperty being retrieved
+	 * @return value of the VisualProperty
 	 */
-	abstract protected void setBypasses();
+	@SuppressWarnings("unchecked")
+	protected <T> T getBypass(View<? extends CyIdentifiable> elementView, VisualProperty<T> vizProp) {
+		if (attributeColumns != null) {
+			Object val = attributeColumns.get(elementView.getModel(), vizProp);
+			if (val != null) {
+				return (T) val;
+			}
+		}
+		return elementView.getVisualProperty(vizProp);
+	}
 	
 	/**
 	 * Converts a GraphViz color attribute into a VisualProperty bypass value
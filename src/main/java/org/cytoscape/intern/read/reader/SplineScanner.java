@@ -0,0 +1,190 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ * 
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.read.reader;
+
+import java.util.Arrays;
+
+/**
+ * Converts the spline of a DOT pos attribute into the points where the
+ * handles of a Cytoscape edge bend are put. The spline is read as a chain
+ * of cubic Bezier segments, and the handles are put on points of the
+ * curve: the middle of each segment and the joints between segments,
+ * subsampled evenly when there are more of them than handles allowed.
+ *
+ * Only the first spline of the value is read and the s,x,y and e,x,y arrow
+ * end points are skipped. Coordinates are kept in GraphViz's coordinate
+ * system, whose y axis points up.
+ *
+ * A SplineScanner is not thread safe.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class SplineScanner {
+
+	// distance in points under which a spline is considered straight
+	private static final double STRAIGHT_TOLERANCE = 1.0;
+
+	// parses the control points
+	private final NumberScanner numberScanner = new NumberScanner();
+
+	// control points of the spline being read, x and y interleaved
+	private double[] splinePoints = new double[64];
+
+	// handle points of the last spline scanned, x and y interleaved
+	private double[] handlePoints = new double[16];
+
+	/**
+	 * Scans the spline of a pos attribute and computes its handle points
+	 *
+	 * @param pos value of the pos attribute of an edge
+	 * @param maxHandles largest number of handles
+	 * @return number of handle points, 0 if the spline has no curve point
+	 * or is straight, -1 if pos is not a valid spline
+	 */
+	public int scanHandles(String pos, int maxHandles) {
+		int pointCount = readSpline(pos);
+		if (pointCount < 0) {
+			return -1;
+		}
+		if (pointCount < 4 || maxHandles <= 0 || isStraight(pointCount)) {
+			return 0;
+		}
+		int segmentCount = (pointCount - 1) / 3;
+		int curvePointCount = 2 * segmentCount - 1;
+		int handleCount = Math.min(curvePointCount, maxHandles);
+		if (2 * handleCount > handlePoints.length) {
+			handlePoints = new double[2 * handleCount];
+		}
+		for (int i = 0; i < handleCount; i++) {
+			// middle curve point of each of handleCount equal parts
+			int curvePoint = (2 * i + 1) * curvePointCount / (2 * handleCount);
+			int first = 3 * (curvePoint / 2);
+			if (curvePoint % 2 == 0) {
+				// middle of the segment starting at control point first
+				handlePoints[2 * i] = bezierMiddle(2 * first);
+				handlePoints[2 * i + 1] = bezierMiddle(2 * first + 1);
+			}
+			else {
+				// joint at the end of that segment
+				handlePoints[2 * i] = splinePoints[2 * (first + 3)];
+				handlePoints[2 * i + 1] = splinePoints[2 * (first + 3) + 1];
+			}
+		}
+		return handleCount;
+	}
+
+	/**
+	 * Returns the x coordinate of a handle point of the last spline scanned
+	 *
+	 * @param handle index of the handle, less than the count returned by
+	 * scanHandles()
+	 * @return x coordinate in GraphViz's coordinate system
+	 */
+	public double getHandleX(int handle) {
+		return handlePoints[2 * handle];
+	}
+
+	/**
+	 * Returns the y coordinate of a handle point of the last spline scanned
+	 *
+	 * @param handle index of the handle, less than the count returned by
+	 * scanHandles()
+	 * @return y coordinate in GraphViz's coordinate system
+	 */
+	public double getHandleY(int handle) {
+		return handlePoints[2 * handle + 1];
+	}
+
+	/*
+	 * Reads the control points of the first spline of a pos attribute into
+	 * splinePoints, skipping the s,x,y and e,x,y arrow end points. Returns
+	 * the number of points read, -1 if the value is invalid.
+	 */
+	private int readSpline(String pos) {
+		int end = pos.indexOf(';');
+		if (end < 0) {
+			end = pos.length();
+		}
+		int pointCount = 0;
+		int start = 0;
+		while (start < end) {
+			while (start < end && pos.charAt(start) <= ' ') {
+				start++;
+			}
+			int pointEnd = start;
+			while (pointEnd < end && pos.charAt(pointEnd) > ' ') {
+				pointEnd++;
+			}
+			if (pointEnd == start) {
+				break;
+			}
+			char first = pos.charAt(start);
+			boolean arrowPoint = (first == 's' || first == 'e') && start + 1 < pointEnd && pos.charAt(start + 1) == ',';
+			if (!arrowPoint) {
+				if (!numberScanner.scanPoint(pos, start, pointEnd)) {
+					return -1;
+				}
+				if (2 * pointCount + 2 > splinePoints.length) {
+					splinePoints = Arrays.copyOf(splinePoints, splinePoints.length * 2);
+				}
+				splinePoints[2 * pointCount] = numberScanner.getX();
+				splinePoints[2 * pointCount + 1] = numberScanner.getY();
+				pointCount++;
+			}
+			start = pointEnd;
+		}
+		return pointCount;
+	}
+
+	/*
+	 * Returns true if every control point lies on the line between the
+	 * first and last points
+	 */
+	private boolean isStraight(int pointCount) {
+		double x0 = splinePoints[0];
+		double y0 = splinePoints[1];
+		double dx = splinePoints[2 * (pointCount - 1)] - x0;
+		double dy = splinePoints[2 * (pointCount - 1) + 1] - y0;
+		double length = Math.sqrt(dx * dx + dy * dy);
+		if (length < STRAIGHT_TOLERANCE) {
+			// loops start and end at about the same point
+			return false;
+		}
+		for (int point = 1; point < pointCount - 1; point++) {
+			double px = splinePoints[2 * point] - x0;
+			double py = splinePoints[2 * point + 1] - y0;
+			if (Math.abs(px * dy - py * dx) / length > STRAIGHT_TOLERANCE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Returns one coordinate of the point at t = 0.5 of the cubic Bezier
+	 * segment whose first control point coordinate is at index in
+	 * splinePoints
+	 */
+	private double bezierMiddle(int index) {
+		return (splinePoints[index] + 3 * splinePoints[index + 2]
+				+ 3 * splinePoints[index + 4] + splinePoints[index + 6]) / 8;
+	}
+}
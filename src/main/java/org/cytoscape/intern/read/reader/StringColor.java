@@ -19,91 +19,383 @@
 package org.cytoscape.intern.read.reader;
 
 import java.awt.Color;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Scanner;
 
 /**
- * Handles mapping of String colors to Java Color objects
+ * Handles mapping of String colors to Java Color objects. The x11 and svg
+ * color scheme tables are compiled into this class as sorted arrays of
+ * lower case names with their packed ARGB values, so a lookup is a binary
+ * search that needs no file reading, no allocation and no locking.
+ * 
+ * The tables were generated from the x11 and svg color lists distributed
+ * with GraphViz. x11 names that contain spaces are kept as they appear in
+ * that list, eg. "ghost white" as well as "ghostwhite".
  * 
  * @author Braxton Fitts
  * @author Ziran Zhang
  * @author Massoud Maher
  */
-public class StringColor {
+public final class StringColor {
+
+	// svg color names in lower case, sorted, and their ARGB values
+	private static final String[] SVG_NAMES = {
+		"aliceblue", "antiquewhite", "aqua", "aquamarine", "azure", "beige", "bisque", "black",
+		"blanchedalmond", "blue", "blueviolet", "brown", "burlywood", "cadetblue",
+		"chartreuse", "chocolate", "coral", "cornflowerblue", "cornsilk", "crimson", "cyan",
+		"darkblue", "darkcyan", "darkgoldenrod", "darkgray", "darkgreen", "darkgrey",
+		"darkkhaki", "darkmagenta", "darkolivegreen", "darkorange", "darkorchid", "darkred",
+		"darksalmon", "darkseagreen", "darkslateblue", "darkslategray", "darkslategrey",
+		"darkturquoise", "darkviolet", "deeppink", "deepskyblue", "dimgray", "dimgrey",
+		"dodgerblue", "firebrick", "floralwhite", "forestgreen", "fuchsia", "gainsboro",
+		"ghostwhite", "gold", "goldenrod", "gray", "green", "greenyellow", "grey", "honeydew",
+		"hotpink", "indianred", "indigo", "ivory", "khaki", "lavender", "lavenderblush",
+		"lawngreen", "lemonchiffon", "lightblue", "lightcoral", "lightcyan",
+		"lightgoldenrodyellow", "lightgray", "lightgreen", "lightgrey", "lightpink",
+		"lightsalmon", "lightseagreen", "lightskyblue", "lightslategray", "lightslategrey",
+		"lightsteelblue", "lightyellow", "lime", "limegreen", "linen", "magenta", "maroon",
+		"mediumaquamarine", "mediumblue", "mediumorchid", "mediumpurple", "mediumseagreen",
+		"mediumslateblue", "mediumspringgreen", "mediumturquoise", "mediumvioletred",
+		"midnightblue", "mintcream", "mistyrose", "moccasin", "navajowhite", "navy", "oldlace",
+		"olive", "olivedrab", "orange", "orangered", "orchid", "palegoldenrod", "palegreen",
+		"paleturquoise", "palevioletred", "papayawhip", "peachpuff", "peru", "pink", "plum",
+		"powderblue", "purple", "red", "rosybrown", "royalblue", "saddlebrown", "salmon",
+		"sandybrown", "seagreen", "seashell", "sienna", "silver", "skyblue", "slateblue",
+		"slategray", "slategrey", "snow", "springgreen", "steelblue", "tan", "teal", "thistle",
+		"tomato", "turquoise", "violet", "wheat", "white", "whitesmoke", "yellow",
+		"yellowgreen"
+	};
+	private static final int[] SVG_COLORS = {
+		0xFFF0F8FF, 0xFFFAEBD7, 0xFF00FFFF, 0xFF7FFFD4, 0xFFF0FFFF, 0xFFF5F5DC, 0xFFFFE4C4, 0xFF000000,
+		0xFFFFEBCD, 0xFF0000FF, 0xFF8A2BE2, 0xFFA52A2A, 0xFFDEB887, 0xFF5F9EA0, 0xFF7FFF00, 0xFFD2691E,
+		0xFFFF7F50, 0xFF6495ED, 0xFFFFF8DC, 0xFFDC143C, 0xFF00FFFF, 0xFF00008B, 0xFF008B8B, 0xFFB8860B,
+		0xFFA9A9A9, 0xFF006400, 0xFFA9A9A9, 0xFFBDB76B, 0xFF8B008B, 0xFF556B2F, 0xFFFF8C00, 0xFF9932CC,
+		0xFF8B0000, 0xFFE9967A, 0xFF8FBC8F, 0xFF483D8B, 0xFF2F4F4F, 0xFF2F4F4F, 0xFF00CED1, 0xFF9400D3,
+		0xFFFF1493, 0xFF00BFFF, 0xFF696969, 0xFF696969, 0xFF1E90FF, 0xFFB22222, 0xFFFFFAF0, 0xFF228B22,
+		0xFFFF00FF, 0xFFDCDCDC, 0xFFF8F8FF, 0xFFFFD700, 0xFFDAA520, 0xFF808080, 0xFF008000, 0xFFADFF2F,
+		0xFF808080, 0xFFF0FFF0, 0xFFFF69B4, 0xFFCD5C5C, 0xFF4B0082, 0xFFFFFFF0, 0xFFF0E68C, 0xFFE6E6FA,
+		0xFFFFF0F5, 0xFF7CFC00, 0xFFFFFACD, 0xFFADD8E6, 0xFFF08080, 0xFFE0FFFF, 0xFFFAFAD2, 0xFFD3D3D3,
+		0xFF90EE90, 0xFFD3D3D3, 0xFFFFB6C1, 0xFFFFA07A, 0xFF20B2AA, 0xFF87CEFA, 0xFF778899, 0xFF778899,
+		0xFFB0C4DE, 0xFFFFFFE0, 0xFF00FF00, 0xFF32CD32, 0xFFFAF0E6, 0xFFFF00FF, 0xFF800000, 0xFF66CDAA,
+		0xFF0000CD, 0xFFBA55D3, 0xFF9370DB, 0xFF3CB371, 0xFF7B68EE, 0xFF00FA9A, 0xFF48D1CC, 0xFFC71585,
+		0xFF191970, 0xFFF5FFFA, 0xFFFFE4E1, 0xFFFFE4B5, 0xFFFFDEAD, 0xFF000080, 0xFFFDF5E6, 0xFF808000,
+		0xFF6B8E23, 0xFFFFA500, 0xFFFF4500, 0xFFDA70D6, 0xFFEEE8AA, 0xFF98FB98, 0xFFAFEEEE, 0xFFDB7093,
+		0xFFFFEFD5, 0xFFFFDAB9, 0xFFCD853F, 0xFFFFC0CB, 0xFFDDA0DD, 0xFFB0E0E6, 0xFF800080, 0xFFFF0000,
+		0xFFBC8F8F, 0xFF4169E1, 0xFF8B4513, 0xFFFA8072, 0xFFF4A460, 0xFF2E8B57, 0xFFFFF5EE, 0xFFA0522D,
+		0xFFC0C0C0, 0xFF87CEEB, 0xFF6A5ACD, 0xFF708090, 0xFF708090, 0xFFFFFAFA, 0xFF00FF7F, 0xFF4682B4,
+		0xFFD2B48C, 0xFF008080, 0xFFD8BFD8, 0xFFFF6347, 0xFF40E0D0, 0xFFEE82EE, 0xFFF5DEB3, 0xFFFFFFFF,
+		0xFFF5F5F5, 0xFFFFFF00, 0xFF9ACD32
+	};
 
-	private Map<String, Map<String, Color>> colorMap = new HashMap<String, Map<String, Color>>();
+	// x11 color names in lower case, sorted, and their ARGB values
+	private static final String[] X11_NAMES = {
+		"alice blue", "aliceblue", "antique white", "antiquewhite", "antiquewhite1",
+		"antiquewhite2", "antiquewhite3", "antiquewhite4", "aquamarine", "aquamarine1",
+		"aquamarine2", "aquamarine3", "aquamarine4", "azure", "azure1", "azure2", "azure3",
+		"azure4", "beige", "bisque", "bisque1", "bisque2", "bisque3", "bisque4", "black",
+		"blanched almond", "blanchedalmond", "blue", "blue violet", "blue1", "blue2", "blue3",
+		"blue4", "blueviolet", "brown", "brown1", "brown2", "brown3", "brown4", "burlywood",
+		"burlywood1", "burlywood2", "burlywood3", "burlywood4", "cadet blue", "cadetblue",
+		"cadetblue1", "cadetblue2", "cadetblue3", "cadetblue4", "chartreuse", "chartreuse1",
+		"chartreuse2", "chartreuse3", "chartreuse4", "chocolate", "chocolate1", "chocolate2",
+		"chocolate3", "chocolate4", "coral", "coral1", "coral2", "coral3", "coral4",
+		"cornflower blue", "cornflowerblue", "cornsilk", "cornsilk1", "cornsilk2", "cornsilk3",
+		"cornsilk4", "cyan", "cyan1", "cyan2", "cyan3", "cyan4", "dark blue", "dark cyan",
+		"dark goldenrod", "dark gray", "dark green", "dark grey", "dark khaki", "dark magenta",
+		"dark olive green", "dark orange", "dark orchid", "dark red", "dark salmon",
+		"dark sea green", "dark slate blue", "dark slate gray", "dark slate grey",
+		"dark turquoise", "dark violet", "darkblue", "darkcyan", "darkgoldenrod",
+		"darkgoldenrod1", "darkgoldenrod2", "darkgoldenrod3", "darkgoldenrod4", "darkgray",
+		"darkgreen", "darkgrey", "darkkhaki", "darkmagenta", "darkolivegreen",
+		"darkolivegreen1", "darkolivegreen2", "darkolivegreen3", "darkolivegreen4",
+		"darkorange", "darkorange1", "darkorange2", "darkorange3", "darkorange4", "darkorchid",
+		"darkorchid1", "darkorchid2", "darkorchid3", "darkorchid4", "darkred", "darksalmon",
+		"darkseagreen", "darkseagreen1", "darkseagreen2", "darkseagreen3", "darkseagreen4",
+		"darkslateblue", "darkslategray", "darkslategray1", "darkslategray2", "darkslategray3",
+		"darkslategray4", "darkslategrey", "darkturquoise", "darkviolet", "debianred",
+		"deep pink", "deep sky blue", "deeppink", "deeppink1", "deeppink2", "deeppink3",
+		"deeppink4", "deepskyblue", "deepskyblue1", "deepskyblue2", "deepskyblue3",
+		"deepskyblue4", "dim gray", "dim grey", "dimgray", "dimgrey", "dodger blue",
+		"dodgerblue", "dodgerblue1", "dodgerblue2", "dodgerblue3", "dodgerblue4", "firebrick",
+		"firebrick1", "firebrick2", "firebrick3", "firebrick4", "floral white", "floralwhite",
+		"forest green", "forestgreen", "gainsboro", "ghost white", "ghostwhite", "gold",
+		"gold1", "gold2", "gold3", "gold4", "goldenrod", "goldenrod1", "goldenrod2",
+		"goldenrod3", "goldenrod4", "gray", "gray0", "gray1", "gray10", "gray100", "gray11",
+		"gray12", "gray13", "gray14", "gray15", "gray16", "gray17", "gray18", "gray19",
+		"gray2", "gray20", "gray21", "gray22", "gray23", "gray24", "gray25", "gray26",
+		"gray27", "gray28", "gray29", "gray3", "gray30", "gray31", "gray32", "gray33",
+		"gray34", "gray35", "gray36", "gray37", "gray38", "gray39", "gray4", "gray40",
+		"gray41", "gray42", "gray43", "gray44", "gray45", "gray46", "gray47", "gray48",
+		"gray49", "gray5", "gray50", "gray51", "gray52", "gray53", "gray54", "gray55",
+		"gray56", "gray57", "gray58", "gray59", "gray6", "gray60", "gray61", "gray62",
+		"gray63", "gray64", "gray65", "gray66", "gray67", "gray68", "gray69", "gray7",
+		"gray70", "gray71", "gray72", "gray73", "gray74", "gray75", "gray76", "gray77",
+		"gray78", "gray79", "gray8", "gray80", "gray81", "gray82", "gray83", "gray84",
+		"gray85", "gray86", "gray87", "gray88", "gray89", "gray9", "gray90", "gray91",
+		"gray92", "gray93", "gray94", "gray95", "gray96", "gray97", "gray98", "gray99",
+		"green", "green yellow", "green1", "green2", "green3", "green4", "greenyellow", "grey",
+		"grey0", "grey1", "grey10", "grey100", "grey11", "grey12", "grey13", "grey14",
+		"grey15", "grey16", "grey17", "grey18", "grey19", "grey2", "grey20", "grey21",
+		"grey22", "grey23", "grey24", "grey25", "grey26", "grey27", "grey28", "grey29",
+		"grey3", "grey30", "grey31", "grey32", "grey33", "grey34", "grey35", "grey36",
+		"grey37", "grey38", "grey39", "grey4", "grey40", "grey41", "grey42", "grey43",
+		"grey44", "grey45", "grey46", "grey47", "grey48", "grey49", "grey5", "grey50",
+		"grey51", "grey52", "grey53", "grey54", "grey55", "grey56", "grey57", "grey58",
+		"grey59", "grey6", "grey60", "grey61", "grey62", "grey63", "grey64", "grey65",
+		"grey66", "grey67", "grey68", "grey69", "grey7", "grey70", "grey71", "grey72",
+		"grey73", "grey74", "grey75", "grey76", "grey77", "grey78", "grey79", "grey8",
+		"grey80", "grey81", "grey82", "grey83", "grey84", "grey85", "grey86", "grey87",
+		"grey88", "grey89", "grey9", "grey90", "grey91", "grey92", "grey93", "grey94",
+		"grey95", "grey96", "grey97", "grey98", "grey99", "honeydew", "honeydew1", "honeydew2",
+		"honeydew3", "honeydew4", "hot pink", "hotpink", "hotpink1", "hotpink2", "hotpink3",
+		"hotpink4", "indian red", "indianred", "indianred1", "indianred2", "indianred3",
+		"indianred4", "ivory", "ivory1", "ivory2", "ivory3", "ivory4", "khaki", "khaki1",
+		"khaki2", "khaki3", "khaki4", "lavender", "lavender blush", "lavenderblush",
+		"lavenderblush1", "lavenderblush2", "lavenderblush3", "lavenderblush4", "lawn green",
+		"lawngreen", "lemon chiffon", "lemonchiffon", "lemonchiffon1", "lemonchiffon2",
+		"lemonchiffon3", "lemonchiffon4", "light blue", "light coral", "light cyan",
+		"light goldenrod", "light goldenrod yellow", "light gray", "light green", "light grey",
+		"light pink", "light salmon", "light sea green", "light sky blue", "light slate blue",
+		"light slate gray", "light slate grey", "light steel blue", "light yellow",
+		"lightblue", "lightblue1", "lightblue2", "lightblue3", "lightblue4", "lightcoral",
+		"lightcyan", "lightcyan1", "lightcyan2", "lightcyan3", "lightcyan4", "lightgoldenrod",
+		"lightgoldenrod1", "lightgoldenrod2", "lightgoldenrod3", "lightgoldenrod4",
+		"lightgoldenrodyellow", "lightgray", "lightgreen", "lightgrey", "lightpink",
+		"lightpink1", "lightpink2", "lightpink3", "lightpink4", "lightsalmon", "lightsalmon1",
+		"lightsalmon2", "lightsalmon3", "lightsalmon4", "lightseagreen", "lightskyblue",
+		"lightskyblue1", "lightskyblue2", "lightskyblue3", "lightskyblue4", "lightslateblue",
+		"lightslategray", "lightslategrey", "lightsteelblue", "lightsteelblue1",
+		"lightsteelblue2", "lightsteelblue3", "lightsteelblue4", "lightyellow", "lightyellow1",
+		"lightyellow2", "lightyellow3", "lightyellow4", "lime green", "limegreen", "linen",
+		"magenta", "magenta1", "magenta2", "magenta3", "magenta4", "maroon", "maroon1",
+		"maroon2", "maroon3", "maroon4", "medium aquamarine", "medium blue", "medium orchid",
+		"medium purple", "medium sea green", "medium slate blue", "medium spring green",
+		"medium turquoise", "medium violet red", "mediumaquamarine", "mediumblue",
+		"mediumorchid", "mediumorchid1", "mediumorchid2", "mediumorchid3", "mediumorchid4",
+		"mediumpurple", "mediumpurple1", "mediumpurple2", "mediumpurple3", "mediumpurple4",
+		"mediumseagreen", "mediumslateblue", "mediumspringgreen", "mediumturquoise",
+		"mediumvioletred", "midnight blue", "midnightblue", "mint cream", "mintcream",
+		"misty rose", "mistyrose", "mistyrose1", "mistyrose2", "mistyrose3", "mistyrose4",
+		"moccasin", "navajo white", "navajowhite", "navajowhite1", "navajowhite2",
+		"navajowhite3", "navajowhite4", "navy", "navy blue", "navyblue", "old lace", "oldlace",
+		"olive drab", "olivedrab", "olivedrab1", "olivedrab2", "olivedrab3", "olivedrab4",
+		"orange", "orange red", "orange1", "orange2", "orange3", "orange4", "orangered",
+		"orangered1", "orangered2", "orangered3", "orangered4", "orchid", "orchid1", "orchid2",
+		"orchid3", "orchid4", "pale goldenrod", "pale green", "pale turquoise",
+		"pale violet red", "palegoldenrod", "palegreen", "palegreen1", "palegreen2",
+		"palegreen3", "palegreen4", "paleturquoise", "paleturquoise1", "paleturquoise2",
+		"paleturquoise3", "paleturquoise4", "palevioletred", "palevioletred1",
+		"palevioletred2", "palevioletred3", "palevioletred4", "papaya whip", "papayawhip",
+		"peach puff", "peachpuff", "peachpuff1", "peachpuff2", "peachpuff3", "peachpuff4",
+		"peru", "pink", "pink1", "pink2", "pink3", "pink4", "plum", "plum1", "plum2", "plum3",
+		"plum4", "powder blue", "powderblue", "purple", "purple1", "purple2", "purple3",
+		"purple4", "red", "red1", "red2", "red3", "red4", "rosy brown", "rosybrown",
+		"rosybrown1", "rosybrown2", "rosybrown3", "rosybrown4", "royal blue", "royalblue",
+		"royalblue1", "royalblue2", "royalblue3", "royalblue4", "saddle brown", "saddlebrown",
+		"salmon", "salmon1", "salmon2", "salmon3", "salmon4", "sandy brown", "sandybrown",
+		"sea green", "seagreen", "seagreen1", "seagreen2", "seagreen3", "seagreen4",
+		"seashell", "seashell1", "seashell2", "seashell3", "seashell4", "sienna", "sienna1",
+		"sienna2", "sienna3", "sienna4", "sky blue", "skyblue", "skyblue1", "skyblue2",
+		"skyblue3", "skyblue4", "slate blue", "slate gray", "slate grey", "slateblue",
+		"slateblue1", "slateblue2", "slateblue3", "slateblue4", "slategray", "slategray1",
+		"slategray2", "slategray3", "slategray4", "slategrey", "snow", "snow1", "snow2",
+		"snow3", "snow4", "spring green", "springgreen", "springgreen1", "springgreen2",
+		"springgreen3", "springgreen4", "steel blue", "steelblue", "steelblue1", "steelblue2",
+		"steelblue3", "steelblue4", "tan", "tan1", "tan2", "tan3", "tan4", "thistle",
+		"thistle1", "thistle2", "thistle3", "thistle4", "tomato", "tomato1", "tomato2",
+		"tomato3", "tomato4", "turquoise", "turquoise1", "turquoise2", "turquoise3",
+		"turquoise4", "violet", "violet red", "violetred", "violetred1", "violetred2",
+		"violetred3", "violetred4", "wheat", "wheat1", "wheat2", "wheat3", "wheat4", "white",
+		"white smoke", "whitesmoke", "yellow", "yellow green", "yellow1", "yellow2", "yellow3",
+		"yellow4", "yellowgreen"
+	};
+	private static final int[] X11_COLORS = {
+		0xFFF0F8FF, 0xFFF0F8FF, 0xFFFAEBD7, 0xFFFAEBD7, 0xFFFFEFDB, 0xFFEEDFCC, 0xFFCDC0B0, 0xFF8B8378,
+		0xFF7FFFD4, 0xFF7FFFD4, 0xFF76EEC6, 0xFF66CDAA, 0xFF458B74, 0xFFF0FFFF, 0xFFF0FFFF, 0xFFE0EEEE,
+		0xFFC1CDCD, 0xFF838B8B, 0xFFF5F5DC, 0xFFFFE4C4, 0xFFFFE4C4, 0xFFEED5B7, 0xFFCDB79E, 0xFF8B7D6B,
+		0xFF000000, 0xFFFFEBCD, 0xFFFFEBCD, 0xFF0000FF, 0xFF8A2BE2, 0xFF0000FF, 0xFF0000EE, 0xFF0000CD,
+		0xFF00008B, 0xFF8A2BE2, 0xFFA52A2A, 0xFFFF4040, 0xFFEE3B3B, 0xFFCD3333, 0xFF8B2323, 0xFFDEB887,
+		0xFFFFD39B, 0xFFEEC591, 0xFFCDAA7D, 0xFF8B7355, 0xFF5F9EA0, 0xFF5F9EA0, 0xFF98F5FF, 0xFF8EE5EE,
+		0xFF7AC5CD, 0xFF53868B, 0xFF7FFF00, 0xFF7FFF00, 0xFF76EE00, 0xFF66CD00, 0xFF458B00, 0xFFD2691E,
+		0xFFFF7F24, 0xFFEE7621, 0xFFCD661D, 0xFF8B4513, 0xFFFF7F50, 0xFFFF7256, 0xFFEE6A50, 0xFFCD5B45,
+		0xFF8B3E2F, 0xFF6495ED, 0xFF6495ED, 0xFFFFF8DC, 0xFFFFF8DC, 0xFFEEE8CD, 0xFFCDC8B1, 0xFF8B8878,
+		0xFF00FFFF, 0xFF00FFFF, 0xFF00EEEE, 0xFF00CDCD, 0xFF008B8B, 0xFF00008B, 0xFF008B8B, 0xFFB8860B,
+		0xFFA9A9A9, 0xFF006400, 0xFFA9A9A9, 0xFFBDB76B, 0xFF8B008B, 0xFF556B2F, 0xFFFF8C00, 0xFF9932CC,
+		0xFF8B0000, 0xFFE9967A, 0xFF8FBC8F, 0xFF483D8B, 0xFF2F4F4F, 0xFF2F4F4F, 0xFF00CED1, 0xFF9400D3,
+		0xFF00008B, 0xFF008B8B, 0xFFB8860B, 0xFFFFB90F, 0xFFEEAD0E, 0xFFCD950C, 0xFF8B6508, 0xFFA9A9A9,
+		0xFF006400, 0xFFA9A9A9, 0xFFBDB76B, 0xFF8B008B, 0xFF556B2F, 0xFFCAFF70, 0xFFBCEE68, 0xFFA2CD5A,
+		0xFF6E8B3D, 0xFFFF8C00, 0xFFFF7F00, 0xFFEE7600, 0xFFCD6600, 0xFF8B4500, 0xFF9932CC, 0xFFBF3EFF,
+		0xFFB23AEE, 0xFF9A32CD, 0xFF68228B, 0xFF8B0000, 0xFFE9967A, 0xFF8FBC8F, 0xFFC1FFC1, 0xFFB4EEB4,
+		0xFF9BCD9B, 0xFF698B69, 0xFF483D8B, 0xFF2F4F4F, 0xFF97FFFF, 0xFF8DEEEE, 0xFF79CDCD, 0xFF528B8B,
+		0xFF2F4F4F, 0xFF00CED1, 0xFF9400D3, 0xFFD70751, 0xFFFF1493, 0xFF00BFFF, 0xFFFF1493, 0xFFFF1493,
+		0xFFEE1289, 0xFFCD1076, 0xFF8B0A50, 0xFF00BFFF, 0xFF00BFFF, 0xFF00B2EE, 0xFF009ACD, 0xFF00688B,
+		0xFF696969, 0xFF696969, 0xFF696969, 0xFF696969, 0xFF1E90FF, 0xFF1E90FF, 0xFF1E90FF, 0xFF1C86EE,
+		0xFF1874CD, 0xFF104E8B, 0xFFB22222, 0xFFFF3030, 0xFFEE2C2C, 0xFFCD2626, 0xFF8B1A1A, 0xFFFFFAF0,
+		0xFFFFFAF0, 0xFF228B22, 0xFF228B22, 0xFFDCDCDC, 0xFFF8F8FF, 0xFFF8F8FF, 0xFFFFD700, 0xFFFFD700,
+		0xFFEEC900, 0xFFCDAD00, 0xFF8B7500, 0xFFDAA520, 0xFFFFC125, 0xFFEEB422, 0xFFCD9B1D, 0xFF8B6914,
+		0xFFBEBEBE, 0xFF000000, 0xFF030303, 0xFF1A1A1A, 0xFFFFFFFF, 0xFF1C1C1C, 0xFF1F1F1F, 0xFF212121,
+		0xFF242424, 0xFF262626, 0xFF292929, 0xFF2B2B2B, 0xFF2E2E2E, 0xFF303030, 0xFF050505, 0xFF333333,
+		0xFF363636, 0xFF383838, 0xFF3B3B3B, 0xFF3D3D3D, 0xFF404040, 0xFF424242, 0xFF454545, 0xFF474747,
+		0xFF4A4A4A, 0xFF080808, 0xFF4D4D4D, 0xFF4F4F4F, 0xFF525252, 0xFF545454, 0xFF575757, 0xFF595959,
+		0xFF5C5C5C, 0xFF5E5E5E, 0xFF616161, 0xFF636363, 0xFF0A0A0A, 0xFF666666, 0xFF696969, 0xFF6B6B6B,
+		0xFF6E6E6E, 0xFF707070, 0xFF737373, 0xFF757575, 0xFF787878, 0xFF7A7A7A, 0xFF7D7D7D, 0xFF0D0D0D,
+		0xFF7F7F7F, 0xFF828282, 0xFF858585, 0xFF878787, 0xFF8A8A8A, 0xFF8C8C8C, 0xFF8F8F8F, 0xFF919191,
+		0xFF949494, 0xFF969696, 0xFF0F0F0F, 0xFF999999, 0xFF9C9C9C, 0xFF9E9E9E, 0xFFA1A1A1, 0xFFA3A3A3,
+		0xFFA6A6A6, 0xFFA8A8A8, 0xFFABABAB, 0xFFADADAD, 0xFFB0B0B0, 0xFF121212, 0xFFB3B3B3, 0xFFB5B5B5,
+		0xFFB8B8B8, 0xFFBABABA, 0xFFBDBDBD, 0xFFBFBFBF, 0xFFC2C2C2, 0xFFC4C4C4, 0xFFC7C7C7, 0xFFC9C9C9,
+		0xFF141414, 0xFFCCCCCC, 0xFFCFCFCF, 0xFFD1D1D1, 0xFFD4D4D4, 0xFFD6D6D6, 0xFFD9D9D9, 0xFFDBDBDB,
+		0xFFDEDEDE, 0xFFE0E0E0, 0xFFE3E3E3, 0xFF171717, 0xFFE5E5E5, 0xFFE8E8E8, 0xFFEBEBEB, 0xFFEDEDED,
+		0xFFF0F0F0, 0xFFF2F2F2, 0xFFF5F5F5, 0xFFF7F7F7, 0xFFFAFAFA, 0xFFFCFCFC, 0xFF00FF00, 0xFFADFF2F,
+		0xFF00FF00, 0xFF00EE00, 0xFF00CD00, 0xFF008B00, 0xFFADFF2F, 0xFFBEBEBE, 0xFF000000, 0xFF030303,
+		0xFF1A1A1A, 0xFFFFFFFF, 0xFF1C1C1C, 0xFF1F1F1F, 0xFF212121, 0xFF242424, 0xFF262626, 0xFF292929,
+		0xFF2B2B2B, 0xFF2E2E2E, 0xFF303030, 0xFF050505, 0xFF333333, 0xFF363636, 0xFF383838, 0xFF3B3B3B,
+		0xFF3D3D3D, 0xFF404040, 0xFF424242, 0xFF454545, 0xFF474747, 0xFF4A4A4A, 0xFF080808, 0xFF4D4D4D,
+		0xFF4F4F4F, 0xFF525252, 0xFF545454, 0xFF575757, 0xFF595959, 0xFF5C5C5C, 0xFF5E5E5E, 0xFF616161,
+		0xFF636363, 0xFF0A0A0A, 0xFF666666, 0xFF696969, 0xFF6B6B6B, 0xFF6E6E6E, 0xFF707070, 0xFF737373,
+		0xFF757575, 0xFF787878, 0xFF7A7A7A, 0xFF7D7D7D, 0xFF0D0D0D, 0xFF7F7F7F, 0xFF828282, 0xFF858585,
+		0xFF878787, 0xFF8A8A8A, 0xFF8C8C8C, 0xFF8F8F8F, 0xFF919191, 0xFF949494, 0xFF969696, 0xFF0F0F0F,
+		0xFF999999, 0xFF9C9C9C, 0xFF9E9E9E, 0xFFA1A1A1, 0xFFA3A3A3, 0xFFA6A6A6, 0xFFA8A8A8, 0xFFABABAB,
+		0xFFADADAD, 0xFFB0B0B0, 0xFF121212, 0xFFB3B3B3, 0xFFB5B5B5, 0xFFB8B8B8, 0xFFBABABA, 0xFFBDBDBD,
+		0xFFBFBFBF, 0xFFC2C2C2, 0xFFC4C4C4, 0xFFC7C7C7, 0xFFC9C9C9, 0xFF141414, 0xFFCCCCCC, 0xFFCFCFCF,
+		0xFFD1D1D1, 0xFFD4D4D4, 0xFFD6D6D6, 0xFFD9D9D9, 0xFFDBDBDB, 0xFFDEDEDE, 0xFFE0E0E0, 0xFFE3E3E3,
+		0xFF171717, 0xFFE5E5E5, 0xFFE8E8E8, 0xFFEBEBEB, 0xFFEDEDED, 0xFFF0F0F0, 0xFFF2F2F2, 0xFFF5F5F5,
+		0xFFF7F7F7, 0xFFFAFAFA, 0xFFFCFCFC, 0xFFF0FFF0, 0xFFF0FFF0, 0xFFE0EEE0, 0xFFC1CDC1, 0xFF838B83,
+		0xFFFF69B4, 0xFFFF69B4, 0xFFFF6EB4, 0xFFEE6AA7, 0xFFCD6090, 0xFF8B3A62, 0xFFCD5C5C, 0xFFCD5C5C,
+		0xFFFF6A6A, 0xFFEE6363, 0xFFCD5555, 0xFF8B3A3A, 0xFFFFFFF0, 0xFFFFFFF0, 0xFFEEEEE0, 0xFFCDCDC1,
+		0xFF8B8B83, 0xFFF0E68C, 0xFFFFF68F, 0xFFEEE685, 0xFFCDC673, 0xFF8B864E, 0xFFE6E6FA, 0xFFFFF0F5,
+		0xFFFFF0F5, 0xFFFFF0F5, 0xFFEEE0E5, 0xFFCDC1C5, 0xFF8B8386, 0xFF7CFC00, 0xFF7CFC00, 0xFFFFFACD,
+		0xFFFFFACD, 0xFFFFFACD, 0xFFEEE9BF, 0xFFCDC9A5, 0xFF8B8970, 0xFFADD8E6, 0xFFF08080, 0xFFE0FFFF,
+		0xFFEEDD82, 0xFFFAFAD2, 0xFFD3D3D3, 0xFF90EE90, 0xFFD3D3D3, 0xFFFFB6C1, 0xFFFFA07A, 0xFF20B2AA,
+		0xFF87CEFA, 0xFF8470FF, 0xFF778899, 0xFF778899, 0xFFB0C4DE, 0xFFFFFFE0, 0xFFADD8E6, 0xFFBFEFFF,
+		0xFFB2DFEE, 0xFF9AC0CD, 0xFF68838B, 0xFFF08080, 0xFFE0FFFF, 0xFFE0FFFF, 0xFFD1EEEE, 0xFFB4CDCD,
+		0xFF7A8B8B, 0xFFEEDD82, 0xFFFFEC8B, 0xFFEEDC82, 0xFFCDBE70, 0xFF8B814C, 0xFFFAFAD2, 0xFFD3D3D3,
+		0xFF90EE90, 0xFFD3D3D3, 0xFFFFB6C1, 0xFFFFAEB9, 0xFFEEA2AD, 0xFFCD8C95, 0xFF8B5F65, 0xFFFFA07A,
+		0xFFFFA07A, 0xFFEE9572, 0xFFCD8162, 0xFF8B5742, 0xFF20B2AA, 0xFF87CEFA, 0xFFB0E2FF, 0xFFA4D3EE,
+		0xFF8DB6CD, 0xFF607B8B, 0xFF8470FF, 0xFF778899, 0xFF778899, 0xFFB0C4DE, 0xFFCAE1FF, 0xFFBCD2EE,
+		0xFFA2B5CD, 0xFF6E7B8B, 0xFFFFFFE0, 0xFFFFFFE0, 0xFFEEEED1, 0xFFCDCDB4, 0xFF8B8B7A, 0xFF32CD32,
+		0xFF32CD32, 0xFFFAF0E6, 0xFFFF00FF, 0xFFFF00FF, 0xFFEE00EE, 0xFFCD00CD, 0xFF8B008B, 0xFFB03060,
+		0xFFFF34B3, 0xFFEE30A7, 0xFFCD2990, 0xFF8B1C62, 0xFF66CDAA, 0xFF0000CD, 0xFFBA55D3, 0xFF9370DB,
+		0xFF3CB371, 0xFF7B68EE, 0xFF00FA9A, 0xFF48D1CC, 0xFFC71585, 0xFF66CDAA, 0xFF0000CD, 0xFFBA55D3,
+		0xFFE066FF, 0xFFD15FEE, 0xFFB452CD, 0xFF7A378B, 0xFF9370DB, 0xFFAB82FF, 0xFF9F79EE, 0xFF8968CD,
+		0xFF5D478B, 0xFF3CB371, 0xFF7B68EE, 0xFF00FA9A, 0xFF48D1CC, 0xFFC71585, 0xFF191970, 0xFF191970,
+		0xFFF5FFFA, 0xFFF5FFFA, 0xFFFFE4E1, 0xFFFFE4E1, 0xFFFFE4E1, 0xFFEED5D2, 0xFFCDB7B5, 0xFF8B7D7B,
+		0xFFFFE4B5, 0xFFFFDEAD, 0xFFFFDEAD, 0xFFFFDEAD, 0xFFEECFA1, 0xFFCDB38B, 0xFF8B795E, 0xFF000080,
+		0xFF000080, 0xFF000080, 0xFFFDF5E6, 0xFFFDF5E6, 0xFF6B8E23, 0xFF6B8E23, 0xFFC0FF3E, 0xFFB3EE3A,
+		0xFF9ACD32, 0xFF698B22, 0xFFFFA500, 0xFFFF4500, 0xFFFFA500, 0xFFEE9A00, 0xFFCD8500, 0xFF8B5A00,
+		0xFFFF4500, 0xFFFF4500, 0xFFEE4000, 0xFFCD3700, 0xFF8B2500, 0xFFDA70D6, 0xFFFF83FA, 0xFFEE7AE9,
+		0xFFCD69C9, 0xFF8B4789, 0xFFEEE8AA, 0xFF98FB98, 0xFFAFEEEE, 0xFFDB7093, 0xFFEEE8AA, 0xFF98FB98,
+		0xFF9AFF9A, 0xFF90EE90, 0xFF7CCD7C, 0xFF548B54, 0xFFAFEEEE, 0xFFBBFFFF, 0xFFAEEEEE, 0xFF96CDCD,
+		0xFF668B8B, 0xFFDB7093, 0xFFFF82AB, 0xFFEE799F, 0xFFCD6889, 0xFF8B475D, 0xFFFFEFD5, 0xFFFFEFD5,
+		0xFFFFDAB9, 0xFFFFDAB9, 0xFFFFDAB9, 0xFFEECBAD, 0xFFCDAF95, 0xFF8B7765, 0xFFCD853F, 0xFFFFC0CB,
+		0xFFFFB5C5, 0xFFEEA9B8, 0xFFCD919E, 0xFF8B636C, 0xFFDDA0DD, 0xFFFFBBFF, 0xFFEEAEEE, 0xFFCD96CD,
+		0xFF8B668B, 0xFFB0E0E6, 0xFFB0E0E6, 0xFFA020F0, 0xFF9B30FF, 0xFF912CEE, 0xFF7D26CD, 0xFF551A8B,
+		0xFFFF0000, 0xFFFF0000, 0xFFEE0000, 0xFFCD0000, 0xFF8B0000, 0xFFBC8F8F, 0xFFBC8F8F, 0xFFFFC1C1,
+		0xFFEEB4B4, 0xFFCD9B9B, 0xFF8B6969, 0xFF4169E1, 0xFF4169E1, 0xFF4876FF, 0xFF436EEE, 0xFF3A5FCD,
+		0xFF27408B, 0xFF8B4513, 0xFF8B4513, 0xFFFA8072, 0xFFFF8C69, 0xFFEE8262, 0xFFCD7054, 0xFF8B4C39,
+		0xFFF4A460, 0xFFF4A460, 0xFF2E8B57, 0xFF2E8B57, 0xFF54FF9F, 0xFF4EEE94, 0xFF43CD80, 0xFF2E8B57,
+		0xFFFFF5EE, 0xFFFFF5EE, 0xFFEEE5DE, 0xFFCDC5BF, 0xFF8B8682, 0xFFA0522D, 0xFFFF8247, 0xFFEE7942,
+		0xFFCD6839, 0xFF8B4726, 0xFF87CEEB, 0xFF87CEEB, 0xFF87CEFF, 0xFF7EC0EE, 0xFF6CA6CD, 0xFF4A708B,
+		0xFF6A5ACD, 0xFF708090, 0xFF708090, 0xFF6A5ACD, 0xFF836FFF, 0xFF7A67EE, 0xFF6959CD, 0xFF473C8B,
+		0xFF708090, 0xFFC6E2FF, 0xFFB9D3EE, 0xFF9FB6CD, 0xFF6C7B8B, 0xFF708090, 0xFFFFFAFA, 0xFFFFFAFA,
+		0xFFEEE9E9, 0xFFCDC9C9, 0xFF8B8989, 0xFF00FF7F, 0xFF00FF7F, 0xFF00FF7F, 0xFF00EE76, 0xFF00CD66,
+		0xFF008B45, 0xFF4682B4, 0xFF4682B4, 0xFF63B8FF, 0xFF5CACEE, 0xFF4F94CD, 0xFF36648B, 0xFFD2B48C,
+		0xFFFFA54F, 0xFFEE9A49, 0xFFCD853F, 0xFF8B5A2B, 0xFFD8BFD8, 0xFFFFE1FF, 0xFFEED2EE, 0xFFCDB5CD,
+		0xFF8B7B8B, 0xFFFF6347, 0xFFFF6347, 0xFFEE5C42, 0xFFCD4F39, 0xFF8B3626, 0xFF40E0D0, 0xFF00F5FF,
+		0xFF00E5EE, 0xFF00C5CD, 0xFF00868B, 0xFFEE82EE, 0xFFD02090, 0xFFD02090, 0xFFFF3E96, 0xFFEE3A8C,
+		0xFFCD3278, 0xFF8B2252, 0xFFF5DEB3, 0xFFFFE7BA, 0xFFEED8AE, 0xFFCDBA96, 0xFF8B7E66, 0xFFFFFFFF,
+		0xFFF5F5F5, 0xFFF5F5F5, 0xFFFFFF00, 0xFF9ACD32, 0xFFFFFF00, 0xFFEEEE00, 0xFFCDCD00, 0xFF8B8B00,
+		0xFF9ACD32
+	};
+
+	// Color objects for each table entry, shared by all lookups
+	private static final Color[] SVG_COLOR_OBJECTS = createColors(SVG_COLORS);
+	private static final Color[] X11_COLOR_OBJECTS = createColors(X11_COLORS);
+
+	private StringColor() {
+		// not instantiable
+	}
 
 	/**
-	 * Initializes colorMap with all passed in colors by reading in files
-	 * 
-	 * @param files Text files mapping RGB vals to a color string name in this format
-	 * colorscheme
-	 * R	G	B	name
-	 * separated by whitespace
-	 * Files are expected to be stored in resources folder
+	 * Gets the Java color associated with a color name String
+	 *
+	 *  @param colorScheme colorscheme desired. Either "x11" or "svg", any
+	 *  other scheme is treated as "x11"
+	 *  @param name Name of color, in any case
+	 *  @return Color or null if the scheme has no color with that name
 	 */
-	public StringColor(String... files) {
-		
-		for (String fileName : files) {
-			try {
-				URL fileURL = StringColor.class.getClassLoader().getResource(fileName);
-				Scanner scanner = new Scanner( new InputStreamReader(fileURL.openStream()) );
-				Map<String, Color> colors = new HashMap<String, Color>();
+	public static Color getColor(String colorScheme, String name) {
+		return getColor(colorScheme, name, 0, name.length());
+	}
 
-				// First line of file is colorscheme
-				String colorscheme = scanner.next();
-				while(scanner.hasNext()) {
-					// Create map of colors to color strings
-					int red = scanner.nextInt();
-					int green = scanner.nextInt();
-					int blue = scanner.nextInt();
-				
-					String name = "";
-					// While there are more tokens in name and not at EOF
-					while(scanner.hasNextInt() == false && scanner.hasNext()) {
-						// Add all tokens of name (some x11 names have spaces)
-						name += scanner.next() + " ";
-					}
-					name = name.trim();
-					name = name.toLowerCase();
-			
-					colors.put(name, new Color(red, green, blue));
-				}
-				scanner.close();
-			
-				// Add created map with its corresponding scheme
-				colorMap.put(colorscheme, colors);
+	/**
+	 * Gets the Java color associated with part of a String
+	 *
+	 *  @param colorScheme colorscheme desired. Either "x11" or "svg", any
+	 *  other scheme is treated as "x11"
+	 *  @param name String containing the color name, in any case
+	 *  @param start index of the first character of the name
+	 *  @param end index after the last character of the name
+	 *  @return Color or null if the scheme has no color with that name
+	 */
+	public static Color getColor(String colorScheme, CharSequence name, int start, int end) {
+		boolean svg = "svg".equals(colorScheme);
+		String[] names = svg ? SVG_NAMES : X11_NAMES;
+		int index = find(names, name, start, end);
+		if (index < 0) {
+			return null;
+		}
+		return svg ? SVG_COLOR_OBJECTS[index] : X11_COLOR_OBJECTS[index];
+	}
+
+	/*
+	 * Creates a Color object for every ARGB value of a table
+	 */
+	private static Color[] createColors(int[] argbValues) {
+		Color[] colors = new Color[argbValues.length];
+		for (int i = 0; i < argbValues.length; i++) {
+			colors[i] = new Color(argbValues[i], true);
+		}
+		return colors;
+	}
+
+	/*
+	 * Binary search for a name in a sorted table, ignoring the case of the
+	 * name being searched for
+	 */
+	private static int find(String[] names, CharSequence name, int start, int end) {
+		int low = 0;
+		int high = names.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(names[mid], name, start, end);
+			if (cmp < 0) {
+				low = mid + 1;
 			}
-			catch(FileNotFoundException fileEx) {
-				System.out.println(fileEx.toString());
+			else if (cmp > 0) {
+				high = mid - 1;
 			}
-			catch(IOException IOEx) {
-				System.out.println(IOEx.toString());
+			else {
+				return mid;
 			}
-			
 		}
-		
+		return -1;
 	}
-	
-	/**
-	 * Gets the Java color associated with a color name String
-	 *
-	 *  @param colorScheme colorscheme desired. Either "x11" or "svg"
-	 *  @param name Name of color
+
+	/*
+	 * Compares a lower case table entry to a range of characters converted
+	 * to lower case
 	 */
-	public Color getColor(String colorScheme, String name) {
-		// Default to x11
-		if(colorScheme == null) {
-			colorScheme = "x11";
+	private static int compare(String entry, CharSequence name, int start, int end) {
+		int length = end - start;
+		int common = Math.min(entry.length(), length);
+		for (int i = 0; i < common; i++) {
+			char c = name.charAt(start + i);
+			if (c >= 'A' && c <= 'Z') {
+				c += 'a' - 'A';
+			}
+			int diff = entry.charAt(i) - c;
+			if (diff != 0) {
+				return diff;
+			}
 		}
-		
-		Map<String, Color> map = colorMap.get(colorScheme);
-		return map.get(name.toLowerCase());
+		return entry.length() - length;
 	}
-	
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ * 
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package org.cytoscape.intern.write;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output engine of the DOT writer. Characters are appended to a reusable
+ * char buffer, which is encoded to UTF-8 straight into a byte buffer when
+ * it fills up, and the bytes are written in bulk to the FileChannel of a
+ * FileOutputStream or to any other OutputStream. Unlike an unbuffered
+ * OutputStreamWriter, appending a short string does not reach the encoder
+ * or the stream.
+ *
+ * A DotOutput is not thread safe.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class DotOutput implements Appendable, Flushable, Closeable {
+
+	// default number of chars buffered before they are encoded
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	// stream written to, and its channel if it is a file
+	private final OutputStream output;
+	private final FileChannel channel;
+
+	// chars appended since the last encoding, and their UTF-8 bytes
+	private final char[] chars;
+	private final CharBuffer charBuffer;
+	private final ByteBuffer byteBuffer;
+	private final CharsetEncoder encoder;
+
+	// number of chars appended to the buffer
+	private int length = 0;
+
+	/**
+	 * Constructs a DotOutput with the default buffer size
+	 *
+	 * @param output OutputStream the UTF-8 bytes are written to
+	 */
+	public DotOutput(OutputStream output) {
+		this(output, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructs a DotOutput
+	 *
+	 * @param output OutputStream the UTF-8 bytes are written to
+	 * @param bufferSize number of chars buffered before they are encoded
+	 */
+	public DotOutput(OutputStream output, int bufferSize) {
+		this.output = output;
+		this.channel = output instanceof FileOutputStream ? ((FileOutputStream) output).getChannel() : null;
+		chars = new char[Math.max(bufferSize, 2)];
+		charBuffer = CharBuffer.wrap(chars);
+		encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		// a char never takes more than 3 bytes in UTF-8
+		byteBuffer = ByteBuffer.allocate(chars.length * 3);
+	}
+
+	@Override
+	public DotOutput append(CharSequence csq) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	@Override
+	public DotOutput append(CharSequence csq, int start, int end) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+		if (csq instanceof String) {
+			return append((String) csq, start, end);
+		}
+		for (int i = start; i < end; i++) {
+			append(csq.charAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Appends part of a String
+	 *
+	 * @param string String to append
+	 * @param start index of the first char to append
+	 * @param end index after the last char to append
+	 * @return this DotOutput
+	 * @throws IOException if the buffer had to be written and writing failed
+	 */
+	public DotOutput append(String string, int start, int end) throws IOException {
+		while (start < end) {
+			if (length == chars.length) {
+				encode(false);
+			}
+			int count = Math.min(end - start, chars.length - length);
+			string.getChars(start, start + count, chars, length);
+			length += count;
+			start += count;
+		}
+		return this;
+	}
+
+	@Override
+	public DotOutput append(char c) throws IOException {
+		if (length == chars.length) {
+			encode(false);
+		}
+		chars[length++] = c;
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of a long
+	 *
+	 * @param value long to append
+	 * @return this DotOutput
+	 * @throws IOException if the buffer had to be written and writing failed
+	 */
+	public DotOutput append(long value) throws IOException {
+		return append(Long.toString(value));
+	}
+
+	/**
+	 * Encodes the buffered chars and writes all bytes to the stream
+	 *
+	 * @throws IOException if writing fails
+	 */
+	@Override
+	public void flush() throws IOException {
+		encode(false);
+		output.flush();
+	}
+
+	/**
+	 * Encodes the buffered chars, writes all bytes and closes the stream
+	 *
+	 * @throws IOException if writing or closing fails
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			encode(true);
+		}
+		finally {
+			output.close();
+		}
+	}
+
+	/*
+	 * Encodes the buffered chars and writes their bytes. Unless this is the
+	 * end of the input, a high surrogate at the end of the buffer is kept
+	 * until its low surrogate is appended.
+	 */
+	private void encode(boolean endOfInput) throws IOException {
+		charBuffer.limit(length);
+		charBuffer.position(0);
+		CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+		while (result.isOverflow()) {
+			writeBytes();
+			result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+		}
+		if (endOfInput) {
+			while (encoder.flush(byteBuffer).isOverflow()) {
+				writeBytes();
+			}
+			encoder.reset();
+		}
+		writeBytes();
+
+		// move the unencoded chars to the start of the buffer
+		int remaining = charBuffer.remaining();
+		System.arraycopy(chars, charBuffer.position(), chars, 0, remaining);
+		length = remaining;
+	}
+
+	/*
+	 * Writes the encoded bytes to the channel or stream
+	 */
+	private void writeBytes() throws IOException {
+		byteBuffer.flip();
+		if (channel != null) {
+			while (byteBuffer.hasRemaining()) {
+				channel.write(byteBuffer);
+			}
+		}
+		else {
+			output.write(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer.limit());
+		}
+		byteBuffer.clear();
+	}
+}
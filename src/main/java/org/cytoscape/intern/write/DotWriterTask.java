@@ -20,13 +20,12 @@ package org.cytoscape.intern.write;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.cytoscape.intern.Notifier;
 import org.cytoscape.intern.write.mapper.EdgePropertyMapper;
+import org.cytoscape.intern.write.mapper.ExportPlan;
 import org.cytoscape.intern.write.mapper.Mapper;
 import org.cytoscape.intern.write.mapper.NetworkPropertyMapper;
 import org.cytoscape.intern.write.mapper.NodePropertyMapper;
@@ -64,7 +63,7 @@ public class DotWriterTask implements CyWriter {
 	private EdgePropertyMapper edgeMapper;
 
 	// Object used to write the .dot file
-	private OutputStreamWriter outputWriter;
+	private DotOutput output;
 
 	// NetworkView being converted to .dot if view export is selected
 	private CyNetworkView networkView = null;
@@ -117,6 +116,10 @@ public class DotWriterTask implements CyWriter {
 	// VisualStyle applied to network view
 	private VisualStyle vizStyle;
 
+	// defaults and VisualProperties that can differ, compiled from vizStyle
+	// once per export
+	private ExportPlan plan;
+
 	/**
 	 * 
 	 * Constructs a DotWriterTask object for exporting network only
@@ -128,7 +131,7 @@ public class DotWriterTask implements CyWriter {
 	 */
 	public DotWriterTask(OutputStream output, CyNetwork network) {
 		super();
-		outputWriter = new OutputStreamWriter(output, Charset.forName("UTF-8"));
+		this.output = new DotOutput(output);
 		this.network = network;
 
 		LOGGER.info("DotWriterTask constructed");
@@ -146,7 +149,7 @@ public class DotWriterTask implements CyWriter {
 	public DotWriterTask(OutputStream output, CyNetworkView networkView,
 			VisualMappingManager vizMapMgr) {
 
-		outputWriter = new OutputStreamWriter(output, Charset.forName("UTF-8"));
+		this.output = new DotOutput(output);
 		this.networkView = networkView;
 		this.network = networkView.getModel();
 		this.vizStyle = vizMapMgr.getVisualStyle(networkView);
@@ -159,10 +162,10 @@ public class DotWriterTask implements CyWriter {
 		Long nodeSUID = node.getSUID();
 		String nodeID = network.getRow(node).get(CyNetwork.NAME,
 				String.class);
-		nodeID = String.format("%s\247%s", nodeID, nodeSUID);
+		nodeID = nodeID + '\247' + nodeSUID;
 		nodeID = Mapper.modifyElementID(nodeID);
 		if (!nodeID.startsWith("\"") && !nodeID.endsWith("\""))
-			nodeID = String.format("\"%s\"", nodeID);
+			nodeID = '"' + nodeID + '"';
 		return nodeID;
 	}
 
@@ -240,12 +243,12 @@ public class DotWriterTask implements CyWriter {
 			ArrayList<View<CyEdge>> edgeViewList = new ArrayList<View<CyEdge>>(
 					networkView.getEdgeViews());
 			String edgeType = (directed) ? "->" : "--";
+			edgeMapper = new EdgePropertyMapper(plan, networkView);
 
 			// for each edge, write declaration string
 			for (View<CyEdge> edgeView : edgeViewList) {
 				if (!cancelled) {
-					edgeMapper = new EdgePropertyMapper(edgeView, vizStyle,
-							networkView);
+					edgeMapper.setView(edgeView);
 
 					try {
 						// Retrieve source+target node names
@@ -256,12 +259,10 @@ public class DotWriterTask implements CyWriter {
 						String sourceID = buildNodeID(sourceNode);
 						String targetID = buildNodeID(targetNode);
 
-						String edgeName = String.format("%s %s %s", sourceID,
-								edgeType, targetID);
-						String declaration = String.format("%s %s\n", edgeName,
-								edgeMapper.getElementString());
-
-						outputWriter.write(declaration);
+						output.append(sourceID).append(' ').append(edgeType)
+								.append(' ').append(targetID).append(' ');
+						edgeMapper.appendTo(output);
+						output.append('\n');
 					} catch (IOException exception) {
 						LOGGER.error("Write failed @ writeEdges()");
 					}
@@ -285,11 +286,8 @@ public class DotWriterTask implements CyWriter {
 						String sourceID = buildNodeID(sourceNode);
 						String targetID = buildNodeID(targetNode);
 
-						String edgeName = String.format("%s %s %s", sourceID,
-								"--", targetID);
-						String declaration = String.format("%s\n", edgeName);
-
-						outputWriter.write(declaration);
+						output.append(sourceID).append(" -- ").append(targetID)
+								.append('\n');
 					} catch (IOException exception) {
 						LOGGER.error(
 								"Write failed @ writeEdges() (passed in network instead of networkView)");
@@ -313,22 +311,21 @@ public class DotWriterTask implements CyWriter {
 			// create list of all node views
 			ArrayList<View<CyNode>> nodeViewList = new ArrayList<View<CyNode>>(
 					networkView.getNodeViews());
+			nodeMapper = new NodePropertyMapper(plan, nodeLabelLoc);
 
 			// for each node, write declaration string
 			for (View<CyNode> nodeView : nodeViewList) {
 				if (!cancelled) {
-					nodeMapper = new NodePropertyMapper(nodeView, vizStyle,
-							nodeLabelLoc);
+					nodeMapper.setView(nodeView);
 
 					try {
 						// Retrieve node name
 						CyNode nodeModel = nodeView.getModel();
 						String nodeID = buildNodeID(nodeModel);
 
-						String declaration = String.format("%s %s\n", nodeID,
-								nodeMapper.getElementString());
-
-						outputWriter.write(declaration);
+						output.append(nodeID).append(' ');
+						nodeMapper.appendTo(output);
+						output.append('\n');
 					} catch (IOException exception) {
 						LOGGER.error("Write failed @ writeNodes()");
 					}
@@ -345,9 +342,7 @@ public class DotWriterTask implements CyWriter {
 					try {
 						String nodeName = buildNodeID(node);
 
-						String declaration = String.format("%s\n", nodeName);
-
-						outputWriter.write(declaration);
+						output.append(nodeName).append('\n');
 					} catch (IOException exception) {
 						LOGGER.error(
 							"Write failed @ writeNodes() passed in network "
@@ -395,7 +390,7 @@ public class DotWriterTask implements CyWriter {
 				nameModified = true;
 			}
 
-			outputWriter.write(networkProps);
+			output.append(networkProps);
 			LOGGER.info("Finished writing network properties");
 		} catch (IOException exception) {
 			LOGGER.error("Write failed @ writeProps()");
@@ -427,9 +422,10 @@ public class DotWriterTask implements CyWriter {
 		if (networkView != null) {
 			// constructed here because splinesVal is needed, splinesVal can't
 			// be determined until run()
+			this.plan = new ExportPlan(vizStyle, networkView);
 			this.networkMapper = new NetworkPropertyMapper(networkView,
 					directed, splinesVal, networkLabelLoc, nodeLabelLoc,
-					vizStyle);
+					plan);
 		}
 
 		LOGGER.info("Writing .dot file...");
@@ -443,8 +439,8 @@ public class DotWriterTask implements CyWriter {
 		taskMonitor.setStatusMessage("Closing off file...");
 		// Close off file and notify if needed
 		try {
-			outputWriter.write("}");
-			outputWriter.close();
+			output.append('}');
+			output.close();
 			LOGGER.info("Finished writing file");
 			if (nameModified) {
 				Notifier.showMessage(
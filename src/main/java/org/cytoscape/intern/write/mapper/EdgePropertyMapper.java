@@ -35,7 +35,7 @@ import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_V
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.ArrayList;
+import java.io.IOException;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
@@ -65,16 +65,46 @@ public class EdgePropertyMapper extends Mapper {
 	 */
 	public EdgePropertyMapper(View<CyEdge> view, VisualStyle vizStyle, CyNetworkView networkView) {
 		super(view, vizStyle);
-		// initialize data structure
-		simpleVisPropsToDot = new ArrayList<String>();
 		this.networkView = networkView;
-		populateMaps();		
+	}
+	
+	/**
+	 * Constructs an EdgePropertyMapper that is reused for every edge of an
+	 * export. It must be pointed at a View with setView() before writing.
+	 * 
+	 * @param vizStyle VisualStyle applied to the edges
+	 * @param networkView view of the network the edges belong to
+	 */
+	public EdgePropertyMapper(VisualStyle vizStyle, CyNetworkView networkView) {
+		this(null, vizStyle, networkView);
+	}
+	
+	/**
+	 * Constructs an EdgePropertyMapper that is reused for every edge of an
+	 * export and shares its ExportPlan. It must be pointed at a View with
+	 * setView() before writing.
+	 * 
+	 * @param plan ExportPlan compiled for the export
+	 * @param networkView view of the network the edges belong to
+	 */
+	public EdgePropertyMapper(ExportPlan plan, CyNetworkView networkView) {
+		super(null, plan);
+		this.networkView = networkView;
+	}
+	
+	/**
+	 * Points this mapper at the View of the next edge to convert
+	 * 
+	 * @param view View of edge we are converting
+	 */
+	public void setView(View<CyEdge> view) {
+		bindView(view);
 	}
 	
 	@SuppressWarnings("unchecked")
 	private boolean isVisible() {
 		LOGGER.debug("Checking if edge should be visible");
-		boolean visibleByProp = view.getVisualProperty(EDGE_VISIBLE);
+		boolean visibleByProp = getValue(EDGE_VISIBLE);
 		if (!visibleByProp) {
 			LOGGER.trace("Edge not visible due to its own property.");
 			return false;
@@ -84,8 +114,8 @@ public class EdgePropertyMapper extends Mapper {
 		CyNode target = model.getTarget();
 		View<CyNode> sourceView = networkView.getNodeView(source);
 		View<CyNode> targetView = networkView.getNodeView(target);
-		boolean visibleBySource = sourceView.getVisualProperty(NODE_VISIBLE);
-		boolean visibleByTarget = targetView.getVisualProperty(NODE_VISIBLE);
+		boolean visibleBySource = plan.getValue(sourceView, NODE_VISIBLE);
+		boolean visibleByTarget = plan.getValue(targetView, NODE_VISIBLE);
 		if (!visibleBySource || !visibleByTarget) {
 			LOGGER.trace("Edge not visible due to source node or target node's property.");
 			return false;
@@ -95,139 +125,117 @@ public class EdgePropertyMapper extends Mapper {
 	}
 	
 	/**
-	 * Helper method that returns String that contains font face, size, color and transparency
+	 * Helper method that writes the attributes of font face, size, color and transparency
 	 * handles opacity.
 	 * 
-	 * @return String that defines fontname, fontcolor and fontsize attributes. Returns null if font should not be mapped
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapFontHelper() {
+	private void appendFontHelper(Appendable output) throws IOException {
 
 		// Get label font information and append in proper format
-		Color labelColor = (Color) view.getVisualProperty(EDGE_LABEL_COLOR);
+		Color labelColor = (Color) getValue(EDGE_LABEL_COLOR);
 		// Set alpha (opacity) to 0 if node is invisible, translate alpha otherwise
-		Integer labelTransparency = ((Number)view.getVisualProperty(EDGE_LABEL_TRANSPARENCY)).intValue();
-		Font labelFont = view.getVisualProperty(EDGE_LABEL_FONT_FACE);
-		Integer labelSize = ((Number)view.getVisualProperty(EDGE_LABEL_FONT_SIZE)).intValue();
-		String fontString = mapFont(labelFont, labelSize, labelColor, labelTransparency);
-		if (fontString != null) {
-			return fontString;
-		}
-		else {
-			return null;
-		}
+		Integer labelTransparency = ((Number)getValue(EDGE_LABEL_TRANSPARENCY)).intValue();
+		Font labelFont = getValue(EDGE_LABEL_FONT_FACE);
+		Integer labelSize = ((Number)getValue(EDGE_LABEL_FONT_SIZE)).intValue();
+		appendFont(output, labelFont, labelSize, labelColor, labelTransparency);
 	}
 	
 	/**
-	 * Helper method to fill the hashmap instance variable with constants we need
+	 * Helper method that writes the attributes that map directly from one
+	 * VisualProperty
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private void populateMaps() {
-		// Put Simple Props Key/Values
+	private void appendSimpleProps(Appendable output) throws IOException {
 		if (!isEqualToDefault(EDGE_LABEL)) {
-			String edgeLabel = view.getVisualProperty(EDGE_LABEL);
-			edgeLabel = edgeLabel.replace("\\", "\\\\");
-			edgeLabel = edgeLabel.replace("\"", "\\\"");
-			simpleVisPropsToDot.add(String.format("label = \"%s\"", edgeLabel));
+			String edgeLabel = getValue(EDGE_LABEL);
+			appendEscaped(appendName(nextAttribute(output), "label"), edgeLabel);
+			output.append('"');
 		}
 
 		if (!isEqualToDefault(EDGE_WIDTH)) {
-			Double width = view.getVisualProperty(EDGE_WIDTH);
-			simpleVisPropsToDot.add(String.format("penwidth = \"%s\"", decimalFormatter.format(width)));
+			Double width = getValue(EDGE_WIDTH);
+			appendDecimal(appendName(nextAttribute(output), "penwidth"), width);
+			output.append('"');
 		}
 
 		if (!isEqualToDefault(EDGE_TOOLTIP)) {
-			String tooltip = view.getVisualProperty(EDGE_TOOLTIP);
-			simpleVisPropsToDot.add(String.format("tooltip = \"%s\"", tooltip));
+			String tooltip = getValue(EDGE_TOOLTIP);
+			appendAttribute(nextAttribute(output), "tooltip", tooltip);
 		}
 		
 		// block is non-functioning. only works for bypasses due to what we think is source error
 		if (!isEqualToDefault(EDGE_TARGET_ARROW_SHAPE)) {
-			ArrowShape targetArrow = view.getVisualProperty(EDGE_TARGET_ARROW_SHAPE);
+			ArrowShape targetArrow = getValue(EDGE_TARGET_ARROW_SHAPE);
 			LOGGER.debug("Retrieving target/head arrow. CS version is: " + targetArrow);
 			String dotTargetArrow = ARROW_SHAPE_MAP.get(targetArrow);
 			LOGGER.debug("Target/head arrow retrieved. .dot verison is: " + dotTargetArrow);
-			simpleVisPropsToDot.add(String.format("arrowhead = \"%s\"", dotTargetArrow));
+			appendAttribute(nextAttribute(output), "arrowhead", dotTargetArrow);
 		}
 				
 		if (!isEqualToDefault(EDGE_SOURCE_ARROW_SHAPE)) {
-			ArrowShape sourceArrow = view.getVisualProperty(EDGE_SOURCE_ARROW_SHAPE);
+			ArrowShape sourceArrow = getValue(EDGE_SOURCE_ARROW_SHAPE);
 			LOGGER.debug("Retrieving source/tail arrow. CS version is: " + sourceArrow);
 			String dotSourceArrow = ARROW_SHAPE_MAP.get(sourceArrow);
 			LOGGER.debug("Source/tail arrow retrieved. .dot verison is: " + dotSourceArrow);
-			simpleVisPropsToDot.add(String.format("arrowtail = \"%s\"", dotSourceArrow));
+			appendAttribute(nextAttribute(output), "arrowtail", dotSourceArrow);
 		}
 	}
 	
 	@Override
-	protected String mapDotStyle() {
+	protected void appendDotStyle(Appendable output) throws IOException {
 		LOGGER.debug("Building style string for edge view...");
 		LOGGER.trace("Determining need for style attr...");
-		StringBuilder dotStyle = null;
 		boolean isVisible = isVisible();
 		if(!isEqualToDefault(EDGE_LINE_TYPE) || !isEqualToDefault(isVisible, EDGE_VISIBLE)) {
 			LOGGER.trace("Not default style attr, building edge's own...");
-			LineType lineType = view.getVisualProperty(EDGE_LINE_TYPE);
+			LineType lineType = getValue(EDGE_LINE_TYPE);
 			String lineStr = LINE_TYPE_MAP.get(lineType);
-			dotStyle = new StringBuilder();
 			if (lineStr == null) {
 				lineStr = "solid";
 				LOGGER.warn("Cytoscape property doesn't map to a .dot attribute. Setting to default");
 			}
-			String invisString = (!isVisible) ? ",invis" : "";
-			String style = String.format("style = \"%s%s\"", lineStr, invisString);
-			dotStyle.append(style);
-		}
-		if(dotStyle == null) {
-			return null;
+			appendName(nextAttribute(output), "style").append(lineStr);
+			if (!isVisible) {
+				output.append(",invis");
+			}
+			output.append('"');
 		}
-
-		return dotStyle.toString();
 	}
 
 	/*
-	 * Returns a String that contains all relevant attributes for this element 
+	 * Writes all relevant attributes for this element, nothing if every
+	 * attribute has its default value
 	 */
 	@Override
-	public String getElementString() {
+	public void appendTo(Appendable output) throws IOException {
 		
 		LOGGER.debug("Preparing to get .dot declaration for an edge.");
-
-		// Build attribute string
-		StringBuilder elementString = new StringBuilder("[");
-		
-		// Get .dot strings for simple dot attributes. Append to attribute string
-		for (String dotAttribute : simpleVisPropsToDot) {
-		        elementString.append(dotAttribute);
-		        elementString.append(",");
+		if (plan.isDefaultEdge(view)) {
+			// every attribute is set by the edge defaults
+			return;
 		}
+
+		// Build attribute list
+		startAttributes("[");
+		appendSimpleProps(output);
 		
 		// Get the color and fillcolor .dot strings. Append to attribute string
 		if (!isEqualToDefault(EDGE_STROKE_UNSELECTED_PAINT) || !isEqualToDefault(EDGE_TRANSPARENCY)) {
-			Color strokeColor = (Color) view.getVisualProperty(EDGE_STROKE_UNSELECTED_PAINT);
-			Integer strokeTransparency = ((Number)view.getVisualProperty(EDGE_TRANSPARENCY)).intValue();
-			String dotColor = String.format("color = \"%s\"", mapColorToDot(strokeColor, strokeTransparency));
-			elementString.append(dotColor + ",");
+			Color strokeColor = (Color) getValue(EDGE_STROKE_UNSELECTED_PAINT);
+			Integer strokeTransparency = ((Number)getValue(EDGE_TRANSPARENCY)).intValue();
+			appendColor(appendName(nextAttribute(output), "color"), strokeColor, strokeTransparency);
+			output.append('"');
 		}
 		
-		String fontString = mapFontHelper();
-		if(fontString != null) {
-			elementString.append(fontString + ",");
-		}
+		appendFontHelper(output);
 
 		// Style attr
-		String styleString = mapDotStyle();
-		if (styleString != null) {
-			elementString.append(styleString);
-		}
+		appendDotStyle(output);
 		
-		if (elementString.charAt(elementString.length() - 1) == ',') {
-			elementString.deleteCharAt(elementString.length() - 1);
-		}
-		elementString.append("]");
-		String result = elementString.toString();
-		if (result.matches("^\\[\\]$")) {
-			result = "";
-		}
-		LOGGER.debug("Created .dot string. Result: " + result);
-		return result;
+		endAttributes(output);
 	}
 }
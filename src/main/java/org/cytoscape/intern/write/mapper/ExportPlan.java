@@ -0,0 +1,481 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.write.mapper;
+
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_COLOR;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_FONT_FACE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_FONT_SIZE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LABEL_TRANSPARENCY;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_LINE_TYPE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_SOURCE_ARROW_SHAPE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_STROKE_UNSELECTED_PAINT;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_TARGET_ARROW_SHAPE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_TOOLTIP;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_TRANSPARENCY;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_VISIBLE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.EDGE_WIDTH;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_LINE_TYPE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_PAINT;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_TRANSPARENCY;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_BORDER_WIDTH;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_FILL_COLOR;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_HEIGHT;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_COLOR;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_FONT_FACE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_FONT_SIZE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_LABEL_TRANSPARENCY;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_SHAPE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_SIZE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_TOOLTIP;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_TRANSPARENCY;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_VISIBLE;
+import static org.cytoscape.view.presentation.property.BasicVisualLexicon.NODE_WIDTH;
+
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.vizmap.VisualMappingFunction;
+import org.cytoscape.view.vizmap.VisualPropertyDependency;
+import org.cytoscape.view.vizmap.VisualStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What the mappers of one export need to know about its VisualStyle,
+ * compiled once before any element is written: a snapshot of the default
+ * values and of the node size lock, the names of the default fonts, and
+ * which VisualProperties can differ from their default at all. Mapped
+ * VisualProperties are evaluated from the node and edge tables into
+ * MappedColumns, so their values are not read from each View either.
+ *
+ * Once the style has been applied, a View can only hold a value other than
+ * the style default for a VisualProperty that is mapped, that an enabled
+ * dependency sets from its parent, or that the View has a bypass for. Every
+ * other VisualProperty is known to be equal to its default without reading
+ * it, and an element with no bypass, whose VisualProperties are all
+ * unmapped, is written without checking any of them.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class ExportPlan {
+
+	// VisualProperties written by NodePropertyMapper
+	private static final VisualProperty<?>[] NODE_PROPERTIES = {
+		NODE_LABEL, NODE_BORDER_WIDTH, NODE_SIZE, NODE_HEIGHT, NODE_WIDTH, NODE_TOOLTIP,
+		NODE_BORDER_PAINT, NODE_BORDER_TRANSPARENCY, NODE_FILL_COLOR, NODE_TRANSPARENCY,
+		NODE_SHAPE, NODE_BORDER_LINE_TYPE, NODE_VISIBLE, NODE_LABEL_FONT_FACE,
+		NODE_LABEL_FONT_SIZE, NODE_LABEL_COLOR, NODE_LABEL_TRANSPARENCY
+	};
+
+	// VisualProperties written by EdgePropertyMapper
+	private static final VisualProperty<?>[] EDGE_PROPERTIES = {
+		EDGE_LABEL, EDGE_WIDTH, EDGE_TOOLTIP, EDGE_TARGET_ARROW_SHAPE, EDGE_SOURCE_ARROW_SHAPE,
+		EDGE_STROKE_UNSELECTED_PAINT, EDGE_TRANSPARENCY, EDGE_LINE_TYPE, EDGE_VISIBLE,
+		EDGE_LABEL_FONT_FACE, EDGE_LABEL_FONT_SIZE, EDGE_LABEL_COLOR, EDGE_LABEL_TRANSPARENCY
+	};
+
+	// Logger that outputs to Cytoscape standard log file:  .../CytoscapeConfiguration/3/framework-cytoscape.log
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExportPlan.class);
+
+	// VisualStyle the plan is compiled from
+	private final VisualStyle vizStyle;
+
+	// If node width and height are locked
+	private final boolean nodeSizesLocked;
+
+	// default value of each VisualProperty that has been looked up
+	private final Map<VisualProperty<?>, Object> defaults = new HashMap<VisualProperty<?>, Object>();
+
+	// font name and family of the default font of each label font VisualProperty
+	private final Map<VisualProperty<?>, String> defaultFontNames = new HashMap<VisualProperty<?>, String>();
+	private final Map<VisualProperty<?>, String> defaultFontFamilies = new HashMap<VisualProperty<?>, String>();
+
+	// false if the views were not scanned, every VisualProperty may then differ
+	private final boolean scanned;
+
+	// VisualProperties with a mapping, directly or through an enabled
+	// dependency, and those an enabled dependency sets from its parent
+	private final Set<VisualProperty<?>> mapped = new HashSet<VisualProperty<?>>();
+
+	// VisualProperties set by an enabled dependency or setting others through one
+	private final Set<VisualProperty<?>> dependent = new HashSet<VisualProperty<?>>();
+
+	// values of the mapped node and edge VisualProperties, null if none is evaluated
+	private MappedColumns nodeColumns;
+	private MappedColumns edgeColumns;
+
+	// VisualProperties that at least one View has a bypass for
+	private final Set<VisualProperty<?>> bypassed = new HashSet<VisualProperty<?>>();
+
+	// Views that have a bypass for at least one written VisualProperty
+	private final Set<View<?>> bypassedViews = Collections.newSetFromMap(new IdentityHashMap<View<?>, Boolean>());
+
+	// true if nodes and edges without bypasses only have default attributes
+	private final boolean plainNodes;
+	private final boolean plainEdges;
+
+	/**
+	 * Constructs an ExportPlan that does not know which views have bypasses,
+	 * so every VisualProperty of every element is compared to its default
+	 *
+	 * @param vizStyle VisualStyle applied to the exported elements
+	 */
+	public ExportPlan(VisualStyle vizStyle) {
+		this(vizStyle, null);
+	}
+
+	/**
+	 * Constructs an ExportPlan for the export of a network view
+	 *
+	 * @param vizStyle VisualStyle applied to networkView
+	 * @param networkView view being exported, its node and edge views are
+	 * scanned for bypasses. If null every VisualProperty may differ
+	 */
+	public ExportPlan(VisualStyle vizStyle, CyNetworkView networkView) {
+		this.vizStyle = vizStyle;
+		this.nodeSizesLocked = areNodeSizesLocked(vizStyle);
+		this.scanned = networkView != null;
+		for (VisualProperty<?> vizProp : NODE_PROPERTIES) {
+			getDefault(vizProp);
+		}
+		for (VisualProperty<?> vizProp : EDGE_PROPERTIES) {
+			getDefault(vizProp);
+		}
+		putDefaultFont(NODE_LABEL_FONT_FACE);
+		putDefaultFont(EDGE_LABEL_FONT_FACE);
+
+		if (scanned) {
+			findMappings();
+			findBypasses(networkView.getNodeViews(), NODE_PROPERTIES);
+			findBypasses(networkView.getEdgeViews(), EDGE_PROPERTIES);
+			CyNetwork network = networkView.getModel();
+			nodeColumns = evaluateMappings(network.getDefaultNodeTable(), NODE_PROPERTIES);
+			edgeColumns = evaluateMappings(network.getDefaultEdgeTable(), EDGE_PROPERTIES);
+		}
+		plainNodes = scanned && !isAnyMapped(NODE_PROPERTIES);
+
+		// an edge is hidden by a hidden source or target node
+		boolean edgeVisible = getDefault(EDGE_VISIBLE);
+		boolean nodeVisible = getDefault(NODE_VISIBLE);
+		plainEdges = scanned && !isAnyMapped(EDGE_PROPERTIES) && !canDiffer(NODE_VISIBLE)
+				&& (!edgeVisible || nodeVisible);
+		LOGGER.debug("Compiled export plan. Mapped: " + mapped.size() + ", bypassed: " + bypassed.size()
+				+ " in " + bypassedViews.size() + " views");
+	}
+
+	/**
+	 * Checks whether node size is locked,
+	 * "Lock node and width height" checkbox
+	 *
+	 * @param visualStyle VisualStyle being checked if node sizes are locked
+	 * @return true if size is locked, false if not
+	 */
+	private static boolean areNodeSizesLocked(VisualStyle visualStyle) {
+		LOGGER.info("Determining if NODE_HEIGHT/NODE_WIDTH are locked...");
+		Set<VisualPropertyDependency<?>> vizDependencies = visualStyle.getAllVisualPropertyDependencies();
+		boolean output = false;
+
+		// go through all dependencies and find lock height and width one
+		for(VisualPropertyDependency<?> dependency: vizDependencies) {
+			LOGGER.info(dependency.getIdString());
+			if((dependency.getIdString()).equals("nodeSizeLocked")) {
+				output = dependency.isDependencyEnabled();
+			}
+		}
+
+		return output;
+	}
+
+	/*
+	 * Records the VisualProperties that have a mapping. An enabled dependency
+	 * sets its VisualProperties from its parent, so they can differ from
+	 * their own default even when the parent is not mapped, such as the edge
+	 * stroke color taking the default edge color. The node size lock is left
+	 * to NodePropertyMapper, which writes NODE_SIZE in its place
+	 */
+	private void findMappings() {
+		Collection<VisualMappingFunction<?, ?>> mappings = vizStyle.getAllVisualMappingFunctions();
+		if (mappings != null) {
+			for (VisualMappingFunction<?, ?> mapping : mappings) {
+				mapped.add(mapping.getVisualProperty());
+			}
+		}
+		for (VisualPropertyDependency<?> dependency : vizStyle.getAllVisualPropertyDependencies()) {
+			if (!dependency.isDependencyEnabled()) {
+				continue;
+			}
+			dependent.add(dependency.getParentVisualProperty());
+			dependent.addAll(dependency.getVisualProperties());
+			if (mapped.contains(dependency.getParentVisualProperty())
+					|| !dependency.getIdString().equals("nodeSizeLocked")) {
+				mapped.addAll(dependency.getVisualProperties());
+			}
+		}
+	}
+
+	/*
+	 * Evaluates the mappings of VisualProperties that take their value
+	 * straight from a column of the table. VisualProperties tied to others
+	 * by a dependency keep being read from the Views
+	 */
+	private MappedColumns evaluateMappings(CyTable table, VisualProperty<?>[] vizProps) {
+		List<VisualMappingFunction<?, ?>> mappings = new ArrayList<VisualMappingFunction<?, ?>>();
+		for (VisualProperty<?> vizProp : vizProps) {
+			VisualMappingFunction<?, ?> mapping = vizStyle.getVisualMappingFunction(vizProp);
+			if (mapping != null && !dependent.contains(vizProp)
+					&& table.getColumn(mapping.getMappingColumnName()) != null) {
+				mappings.add(mapping);
+			}
+		}
+		if (mappings.isEmpty()) {
+			return null;
+		}
+		LOGGER.debug("Evaluating " + mappings.size() + " mappings over " + table.getRowCount() + " rows");
+		return new MappedColumns(table, mappings, this);
+	}
+
+	/*
+	 * Records the Views that have a bypass for one of the VisualProperties
+	 * and the VisualProperties that are bypassed
+	 */
+	private <S> void findBypasses(Collection<View<S>> views, VisualProperty<?>[] vizProps) {
+		for (View<S> view : views) {
+			for (VisualProperty<?> vizProp : vizProps) {
+				if (view.isValueLocked(vizProp)) {
+					bypassed.add(vizProp);
+					bypassedViews.add(view);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns true if one of the VisualProperties has a mapping
+	 */
+	private boolean isAnyMapped(VisualProperty<?>[] vizProps) {
+		for (VisualProperty<?> vizProp : vizProps) {
+			if (mapped.contains(vizProp)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Stores the font name and family of the default value of a font
+	 * VisualProperty
+	 */
+	private void putDefaultFont(VisualProperty<Font> vizProp) {
+		Font font = getDefault(vizProp);
+		if (font != null) {
+			defaultFontNames.put(vizProp, font.getFontName());
+			defaultFontFamilies.put(vizProp, font.getFamily());
+		}
+	}
+
+	public VisualStyle getVisualStyle() {
+		return vizStyle;
+	}
+
+	public boolean areNodeSizesLocked() {
+		return nodeSizesLocked;
+	}
+
+	/**
+	 * Returns the default value of a VisualProperty in the VisualStyle,
+	 * looking it up once
+	 *
+	 * @param vizProp VisualProperty whose default is returned
+	 * @return default value of vizProp
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getDefault(VisualProperty<T> vizProp) {
+		Object value = defaults.get(vizProp);
+		if (value == null && !defaults.containsKey(vizProp)) {
+			value = vizStyle.getDefaultValue(vizProp);
+			defaults.put(vizProp, value);
+		}
+		return (T) value;
+	}
+
+	/**
+	 * Returns the font name of the default value of a font VisualProperty
+	 *
+	 * @param vizProp NODE_LABEL_FONT_FACE or EDGE_LABEL_FONT_FACE
+	 * @return font name of the default font
+	 */
+	public String getDefaultFontName(VisualProperty<Font> vizProp) {
+		return defaultFontNames.get(vizProp);
+	}
+
+	/**
+	 * Returns the family of the default value of a font VisualProperty
+	 *
+	 * @param vizProp NODE_LABEL_FONT_FACE or EDGE_LABEL_FONT_FACE
+	 * @return family of the default font
+	 */
+	public String getDefaultFontFamily(VisualProperty<Font> vizProp) {
+		return defaultFontFamilies.get(vizProp);
+	}
+
+	/**
+	 * Checks whether any View can have a value other than the default for
+	 * a VisualProperty
+	 *
+	 * @param vizProp VisualProperty being checked
+	 * @return true if vizProp is mapped, set by an enabled dependency or
+	 * bypassed in at least one View
+	 */
+	public boolean canDiffer(VisualProperty<?> vizProp) {
+		return !scanned || mapped.contains(vizProp) || bypassed.contains(vizProp);
+	}
+
+	/**
+	 * Checks whether a View can have a value other than the default for a
+	 * VisualProperty
+	 *
+	 * @param view View being checked
+	 * @param vizProp VisualProperty being checked
+	 * @return true if vizProp is mapped, set by an enabled dependency or
+	 * bypassed in view
+	 */
+	public boolean canDiffer(View<?> view, VisualProperty<?> vizProp) {
+		return !scanned || mapped.contains(vizProp) || isBypassed(view, vizProp);
+	}
+
+	/*
+	 * Returns true if a View has a bypass for a VisualProperty
+	 */
+	private boolean isBypassed(View<?> view, VisualProperty<?> vizProp) {
+		return bypassed.contains(vizProp) && bypassedViews.contains(view) && view.isValueLocked(vizProp);
+	}
+
+	/**
+	 * Returns the row index of the element of a View in the MappedColumns
+	 * of its table
+	 *
+	 * @param view View of a node or edge
+	 * @return row index, -1 if no mapping of the element was evaluated
+	 */
+	public int getRow(View<?> view) {
+		MappedColumns columns = null;
+		Object model = view.getModel();
+		if (model instanceof CyNode) {
+			columns = nodeColumns;
+		}
+		else if (model instanceof CyEdge) {
+			columns = edgeColumns;
+		}
+		if (columns == null) {
+			return -1;
+		}
+		return columns.getRow(((CyIdentifiable) model).getSUID());
+	}
+
+	/**
+	 * Returns the value of a VisualProperty for a View, without reading it
+	 * from the View if it cannot differ from the default
+	 *
+	 * @param view View whose value is returned
+	 * @param vizProp VisualProperty whose value is returned
+	 * @return value of vizProp in view
+	 */
+	public <T> T getValue(View<?> view, VisualProperty<T> vizProp) {
+		if (!canDiffer(view, vizProp)) {
+			return getDefault(vizProp);
+		}
+		return getValue(view, getColumns(vizProp) == null ? -1 : getRow(view), vizProp);
+	}
+
+	/**
+	 * Returns the value of a VisualProperty for a View, taken from the
+	 * evaluated mapping unless the View has a bypass for it, and without
+	 * reading it from the View if it cannot differ from the default
+	 *
+	 * @param view View whose value is returned
+	 * @param row row index of the element of view, as returned by getRow()
+	 * @param vizProp VisualProperty whose value is returned
+	 * @return value of vizProp in view
+	 */
+	public <T> T getValue(View<?> view, int row, VisualProperty<T> vizProp) {
+		if (!canDiffer(view, vizProp)) {
+			return getDefault(vizProp);
+		}
+		MappedColumns columns = getColumns(vizProp);
+		if (row >= 0 && columns != null && !isBypassed(view, vizProp)) {
+			return columns.get(row, vizProp);
+		}
+		return view.getVisualProperty(vizProp);
+	}
+
+	/*
+	 * Returns the MappedColumns a VisualProperty was evaluated in, null if
+	 * its values are read from the Views
+	 */
+	private MappedColumns getColumns(VisualProperty<?> vizProp) {
+		if (nodeColumns != null && nodeColumns.contains(vizProp)) {
+			return nodeColumns;
+		}
+		if (edgeColumns != null && edgeColumns.contains(vizProp)) {
+			return edgeColumns;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether every attribute of a node other than its position has
+	 * its default value
+	 *
+	 * @param view View of the node
+	 * @return true if no attribute but the position has to be written
+	 */
+	public boolean isDefaultNode(View<?> view) {
+		return plainNodes && !bypassedViews.contains(view);
+	}
+
+	/**
+	 * Checks whether every attribute of an edge has its default value
+	 *
+	 * @param view View of the edge
+	 * @return true if no attribute has to be written
+	 */
+	public boolean isDefaultEdge(View<?> view) {
+		return plainEdges && !bypassedViews.contains(view);
+	}
+}
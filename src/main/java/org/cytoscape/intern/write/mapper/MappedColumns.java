@@ -0,0 +1,172 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern.write.mapper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.vizmap.VisualMappingFunction;
+
+/**
+ * Values of the mapped VisualProperties of every node or edge, evaluated
+ * from the columns of a CyTable in one pass over its rows instead of being
+ * read from each View. Each mapping is evaluated once per distinct value of
+ * its column: a row stores the index of its column value, and the mapped
+ * value of each index is kept in a dictionary, with the style default in
+ * place of a null mapped value as when the style is applied.
+ *
+ * @author Massoud Maher
+ * @author Braxton Fitts
+ * @author Ziran Zhang
+ */
+public class MappedColumns {
+
+	// SUID of each slot of the open addressing table and its row index + 1,
+	// 0 if the slot is empty
+	private final long[] slotSuids;
+	private final int[] slotRows;
+
+	// index of the mapped value of each row, one array per VisualProperty
+	private final Map<VisualProperty<?>, int[]> codes = new HashMap<VisualProperty<?>, int[]>();
+
+	// mapped value of each index, one array per VisualProperty
+	private final Map<VisualProperty<?>, Object[]> values = new HashMap<VisualProperty<?>, Object[]>();
+
+	/**
+	 * Evaluates mappings over every row of a table
+	 *
+	 * @param table default node or edge table of the exported network
+	 * @param mappings mappings to evaluate, whose columns are in table
+	 * @param plan ExportPlan supplying the default of each VisualProperty
+	 */
+	public MappedColumns(CyTable table, List<VisualMappingFunction<?, ?>> mappings, ExportPlan plan) {
+		List<CyRow> rows = table.getAllRows();
+		int rowCount = rows.size();
+		int capacity = Integer.highestOneBit(Math.max(rowCount, 8) * 2 - 1) << 1;
+		slotSuids = new long[capacity];
+		slotRows = new int[capacity];
+
+		int mappingCount = mappings.size();
+		int[][] rowCodes = new int[mappingCount][rowCount];
+		Object[][] mappedValues = new Object[mappingCount][16];
+		int[] valueCounts = new int[mappingCount];
+		String[] columnNames = new String[mappingCount];
+		Class<?>[] columnTypes = new Class<?>[mappingCount];
+		Object[] defaults = new Object[mappingCount];
+		@SuppressWarnings("unchecked")
+		Map<Object, Integer>[] dictionaries = new Map[mappingCount];
+		for (int i = 0; i < mappingCount; i++) {
+			VisualMappingFunction<?, ?> mapping = mappings.get(i);
+			columnNames[i] = mapping.getMappingColumnName();
+			columnTypes[i] = mapping.getMappingColumnType();
+			defaults[i] = plan.getDefault(mapping.getVisualProperty());
+			dictionaries[i] = new HashMap<Object, Integer>();
+		}
+
+		for (int row = 0; row < rowCount; row++) {
+			CyRow cyRow = rows.get(row);
+			putRow(cyRow.get(CyIdentifiable.SUID, Long.class), row);
+			for (int i = 0; i < mappingCount; i++) {
+				Object columnValue = cyRow.get(columnNames[i], columnTypes[i]);
+				Integer code = dictionaries[i].get(columnValue);
+				if (code == null) {
+					// first row with this column value, evaluate the mapping
+					code = valueCounts[i]++;
+					dictionaries[i].put(columnValue, code);
+					Object mappedValue = mappings.get(i).getMappedValue(cyRow);
+					if (code == mappedValues[i].length) {
+						mappedValues[i] = Arrays.copyOf(mappedValues[i], code * 2);
+					}
+					mappedValues[i][code] = mappedValue == null ? defaults[i] : mappedValue;
+				}
+				rowCodes[i][row] = code;
+			}
+		}
+		for (int i = 0; i < mappingCount; i++) {
+			VisualProperty<?> vizProp = mappings.get(i).getVisualProperty();
+			codes.put(vizProp, rowCodes[i]);
+			values.put(vizProp, Arrays.copyOf(mappedValues[i], valueCounts[i]));
+		}
+	}
+
+	/**
+	 * Returns the row index of an element
+	 *
+	 * @param suid SUID of the node or edge
+	 * @return row index or -1 if the table has no row for it
+	 */
+	public int getRow(long suid) {
+		int mask = slotSuids.length - 1;
+		for (int slot = hash(suid) & mask; slotRows[slot] != 0; slot = (slot + 1) & mask) {
+			if (slotSuids[slot] == suid) {
+				return slotRows[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns whether the values of a VisualProperty were evaluated
+	 *
+	 * @param vizProp VisualProperty being checked
+	 * @return true if vizProp has a mapping evaluated by this object
+	 */
+	public boolean contains(VisualProperty<?> vizProp) {
+		return codes.containsKey(vizProp);
+	}
+
+	/**
+	 * Returns the mapped value of a VisualProperty for a row
+	 *
+	 * @param row row index returned by getRow()
+	 * @param vizProp VisualProperty contained in this object
+	 * @return mapped value, or the default if the mapping gives none
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(int row, VisualProperty<T> vizProp) {
+		return (T) values.get(vizProp)[codes.get(vizProp)[row]];
+	}
+
+	/*
+	 * Adds the row index of a SUID to the open addressing table
+	 */
+	private void putRow(long suid, int row) {
+		int mask = slotSuids.length - 1;
+		int slot = hash(suid) & mask;
+		while (slotRows[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slotSuids[slot] = suid;
+		slotRows[slot] = row + 1;
+	}
+
+	/*
+	 * Spreads the bits of a SUID, which are mostly consecutive numbers
+	 */
+	private static int hash(long suid) {
+		long h = suid * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -41,11 +41,12 @@ import static org.cytoscape.view.presentation.property.NodeShapeVisualProperty.T
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.Paint;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.util.ArrayList;
+import java.text.FieldPosition;
 import java.util.HashMap;
-import java.util.Set;
 
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
@@ -56,13 +57,13 @@ import org.cytoscape.view.presentation.property.ArrowShapeVisualProperty;
 import org.cytoscape.view.presentation.property.values.ArrowShape;
 import org.cytoscape.view.presentation.property.values.LineType;
 import org.cytoscape.view.presentation.property.values.NodeShape;
-import org.cytoscape.view.vizmap.VisualPropertyDependency;
 import org.cytoscape.view.vizmap.VisualStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Handles mapping of Cytoscape properties to .dot attributes in the form of a String.
+ * Handles mapping of Cytoscape properties to .dot attributes, written to an Appendable
+ * or returned in the form of a String.
  * Contains implementation for properties that are shared by nodes and edges and declarations
  * for unshared properties. Also contains variable definitions needed the subclasses
  * 
@@ -72,18 +73,17 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class Mapper {
 
-	// Maps Cytoscape properties  by their ID Strings to their .dot equivalents if relationship is simple equivalency
-	protected ArrayList<String> simpleVisPropsToDot; 
-	
 	// VisualStyle applied to the view
 	protected VisualStyle vizStyle;
 	
 	// view that this mapper object is mapping
 	protected View<? extends CyIdentifiable> view;
 
-	// If node width and height are locked
-	private static boolean nodeSizesLockedIsSet = false;
-	protected static boolean nodeSizesLocked;
+	// row of the element of view in the MappedColumns of the plan, -1 if none
+	protected int row = -1;
+
+	// defaults and VisualProperties that can differ, shared by the mappers of an export
+	protected ExportPlan plan;
 	
 	// Object that formats all of the numbers. Decimal separator is forced to '.' for GraphViz
 	protected static DecimalFormat decimalFormatter = new DecimalFormat("#0.000000;-#0.000000");
@@ -137,34 +137,24 @@ public abstract class Mapper {
 		ARROW_SHAPE_MAP.put(ArrowShapeVisualProperty.T, "tee");
 	}
 
+	// digits of hexadecimal color components
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	// buffer numbers are formatted into by decimalFormatter before being written
+	private final StringBuffer formatBuffer = new StringBuffer();
+	private final FieldPosition fieldPosition = new FieldPosition(0);
+
+	// text written before the first attribute of the current attribute list,
+	// and whether that attribute has been written
+	private String attributeOpening;
+	private boolean attributesOpened;
+
 	// Pixel per inch scaling factor
 	protected static final double PPI = 72;
 
 	// Logger that outputs to Cytoscape standard log file:  .../CytoscapeConfiguration/3/framework-cytoscape.log
 	protected static final Logger LOGGER = LoggerFactory.getLogger(Mapper.class);
 
-	/**
-	 * Checks whether node size is locked,
-	 * "Lock node and width height" checkbox
-	 * 
-	 * @param visualStyle VisualStyle being checked if node sizes are locked
-	 * @return true if size is locked, false if not
-	 */
-	private static boolean areNodeSizesLocked(VisualStyle visualStyle) {
-		LOGGER.info("Determining if NODE_HEIGHT/NODE_WIDTH are locked...");
-		Set<VisualPropertyDependency<?>> vizDependencies = visualStyle.getAllVisualPropertyDependencies();
-		boolean output = false;
-		
-		// go through all dependencies and find lock height and width one
-		for(VisualPropertyDependency<?> dependency: vizDependencies) {
-			LOGGER.info(dependency.getIdString());
-			if((dependency.getIdString()).equals("nodeSizeLocked")) {
-				output = dependency.isDependencyEnabled();
-			}
-		}
-
-		return output;
-	}
 	/**
 	 * Used to change an id string of a graph element to comply with dot ID requirements
 	 * Dot names must be a string of alphanumeric characters and underscores,
@@ -216,12 +206,29 @@ public abstract class Mapper {
 	 * @param vizStyle Visual Style being applied to the view
 	 */
 	public Mapper(View<? extends CyIdentifiable> view, VisualStyle vizStyle) {
+		this(view, new ExportPlan(vizStyle));
+	}
+	
+	/**
+	 * Constructor for Mapper objects that share the ExportPlan of an export
+	 * 
+	 * @param view View being mapped to dot by this mapper
+	 * @param plan ExportPlan compiled from the Visual Style being applied to the view
+	 */
+	public Mapper(View<? extends CyIdentifiable> view, ExportPlan plan) {
+		this.vizStyle = plan.getVisualStyle();
+		this.plan = plan;
+		bindView(view);
+	}
+	
+	/**
+	 * Points this mapper at the View it maps to dot
+	 * 
+	 * @param view View being mapped, may be null until the first element
+	 */
+	protected void bindView(View<? extends CyIdentifiable> view) {
 		this.view = view;
-		this.vizStyle = vizStyle;
-		if (!nodeSizesLockedIsSet) {
-			nodeSizesLocked = areNodeSizesLocked(vizStyle);
-			nodeSizesLockedIsSet = true;
-		}
+		this.row = (view == null) ? -1 : plan.getRow(view);
 	}
 	
 	/**
@@ -233,7 +240,7 @@ public abstract class Mapper {
 	 * @return boolean. True when value is equal, false if not
 	 */
 	protected <T> boolean isEqualToDefault(T val, VisualProperty<T> vizProp) {
-		return val.equals(vizStyle.getDefaultValue(vizProp));
+		return val.equals(plan.getDefault(vizProp));
 	}
 	
 	/**
@@ -244,148 +251,268 @@ public abstract class Mapper {
 	 * @return boolean. True when value is equal, false if not
 	 */
 	protected boolean isEqualToDefault(VisualProperty<?> vizProp) {
-		return view.getVisualProperty(vizProp).equals(vizStyle.getDefaultValue(vizProp));
+		if (!plan.canDiffer(view, vizProp)) {
+			return true;
+		}
+		return getValue(vizProp).equals(plan.getDefault(vizProp));
+	}
+	
+	/**
+	 * Checks whether the view can have a value other than the default for a
+	 * VisualProperty, because it is mapped or bypassed
+	 * 
+	 * @param vizProp VisualProperty being checked
+	 * @return boolean. False when the value is known to be the default
+	 */
+	protected boolean canDiffer(VisualProperty<?> vizProp) {
+		return plan.canDiffer(view, vizProp);
+	}
+	
+	/**
+	 * Returns the value of a VisualProperty applied to the view, or its
+	 * default if the view cannot have another value
+	 * 
+	 * @param vizProp VisualProperty whose value is returned
+	 * @return value of vizProp
+	 */
+	protected <T> T getValue(VisualProperty<T> vizProp) {
+		return plan.getValue(view, row, vizProp);
 	}
 	
 	/**
-	 * Given a color, returns the color in String format that .dot uses for color.
+	 * Writes a color in the format .dot uses for color.
 	 * Format is "#rrggbbaa" -- red, green, blue, alpha in hexadecimal
 	 * 
+	 * @param output Appendable the color is written to
 	 * @param color color being converted
 	 * @param alpha alpha level of that color-- cytoscape does not use alpha in Paint class
-	 * @return String representation of color in .dot format of rgba
+	 * @throws IOException if output cannot be written to
 	 */
-	protected String mapColorToDot(Color color, Integer alpha) {
-		LOGGER.trace("Creating .dot color attribute string");
-		Integer red = color.getRed();
-		Integer green = color.getGreen();
-		Integer blue = color.getBlue();
-		String result = String.format("#%02X%02X%02X%02X", red, green, blue, alpha);
-		LOGGER.debug("Created .dot color attribute string. Result: " + result);
-		return result;
+	protected void appendColor(Appendable output, Color color, int alpha) throws IOException {
+		output.append('#');
+		appendHex(output, color.getRed());
+		appendHex(output, color.getGreen());
+		appendHex(output, color.getBlue());
+		appendHex(output, alpha);
+	}
+
+	/*
+	 * Writes a color component as at least two upper case hexadecimal digits
+	 */
+	private static void appendHex(Appendable output, int value) throws IOException {
+		if (value >= 0 && value <= 0xFF) {
+			output.append(HEX_DIGITS[value >> 4]).append(HEX_DIGITS[value & 0xF]);
+		}
+		else {
+			String hex = Integer.toHexString(value).toUpperCase();
+			if (hex.length() < 2) {
+				output.append('0');
+			}
+			output.append(hex);
+		}
+	}
+
+	/**
+	 * Writes a number formatted with decimalFormatter
+	 * 
+	 * @param output Appendable the number is written to
+	 * @param value number being written
+	 * @throws IOException if output cannot be written to
+	 */
+	protected void appendDecimal(Appendable output, double value) throws IOException {
+		formatBuffer.setLength(0);
+		decimalFormatter.format(value, formatBuffer, fieldPosition);
+		output.append(formatBuffer);
+	}
+
+	/**
+	 * Writes a String with its backslashes and quotes escaped, so that it can be
+	 * used inside a quoted .dot value
+	 * 
+	 * @param output Appendable the String is written to
+	 * @param value String being written
+	 * @throws IOException if output cannot be written to
+	 */
+	protected static void appendEscaped(Appendable output, String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == '"') {
+				output.append('\\');
+			}
+			output.append(c);
+		}
+	}
+
+	/**
+	 * Writes the start of an attribute, in the form name = "
+	 * 
+	 * @param output Appendable the attribute is written to
+	 * @param name name of the attribute
+	 * @return output
+	 * @throws IOException if output cannot be written to
+	 */
+	protected static Appendable appendName(Appendable output, String name) throws IOException {
+		return output.append(name).append(" = \"");
+	}
+
+	/**
+	 * Writes an attribute whose value does not need escaping,
+	 * in the form name = "value"
+	 * 
+	 * @param output Appendable the attribute is written to
+	 * @param name name of the attribute
+	 * @param value value of the attribute
+	 * @return output
+	 * @throws IOException if output cannot be written to
+	 */
+	protected static Appendable appendAttribute(Appendable output, String name, String value) throws IOException {
+		return appendName(output, name).append(value).append('"');
+	}
+
+	/**
+	 * Starts a new attribute list, which is only opened once its first attribute
+	 * is written
+	 * 
+	 * @param opening text written before the first attribute
+	 */
+	protected void startAttributes(String opening) {
+		attributeOpening = opening;
+		attributesOpened = false;
+	}
+
+	/**
+	 * Writes what comes before the next attribute of the current attribute list:
+	 * the opening of the list for the first attribute, a comma otherwise
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @return output
+	 * @throws IOException if output cannot be written to
+	 */
+	protected Appendable nextAttribute(Appendable output) throws IOException {
+		if (attributesOpened) {
+			return output.append(',');
+		}
+		attributesOpened = true;
+		return output.append(attributeOpening);
+	}
+
+	/**
+	 * Closes the current attribute list if any attribute was written to it
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
+	 */
+	protected void endAttributes(Appendable output) throws IOException {
+		if (attributesOpened) {
+			output.append(']');
+		}
 	}
 	
 	/**
-	 * Returns the .dot equivalent in String form for style attribute. Only handles linestyle
-	 * Does not include "style=" bit
+	 * Writes the .dot style attribute to the current attribute list if it is
+	 * needed. Only handles linestyle
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	abstract protected String mapDotStyle();
+	abstract protected void appendDotStyle(Appendable output) throws IOException;
 	
 	/**
-	 * Given a font, returns the .dot equivalent in String form including the
-	 * font name, size and color
+	 * Given a font, writes the .dot attributes of the font name, size and color
+	 * that differ from the defaults to the current attribute list
 	 * 
+	 * @param output Appendable the attribute list is written to
 	 * @param font font to be converted
 	 * @param size size of font to be converted
 	 * @param color color of font
 	 * @param transparency transparency of font from 0-255
-	 * @return String that is .dot representation of the provided font
+	 * @throws IOException if output cannot be written to
 	 */
-	protected String mapFont(Font font, Integer size, Color color, Integer transparency) {
+	protected void appendFont(Appendable output, Font font, Integer size, Color color, Integer transparency)
+			throws IOException {
 		
 		LOGGER.trace("Label font, size, color, and transparency translation");
-		 
-		StringBuilder returnValue = null;
-		
+
+		VisualProperty<Font> fontFaceProp;
+		VisualProperty<Integer> fontSizeProp;
+		VisualProperty<Paint> fontColorProp;
+		VisualProperty<Integer> fontTransparencyProp;
 		if (view.getModel() instanceof CyNode) {
 			LOGGER.trace("Mapping font attributes for a node view...");
-			LOGGER.trace("Determining need for fontname attr");
-			if (!isEqualToDefault(font, NODE_LABEL_FONT_FACE)) {
-				Font styleFont = vizStyle.getDefaultValue(NODE_LABEL_FONT_FACE);
-				if (!font.getFontName().equals(styleFont.getFontName()) || 
-						!font.getFamily().equals(styleFont.getFamily())) {
-					String fontName = String.format("fontname = \"%s\"", font.getFontName());
-					if (returnValue == null) {
-						returnValue = new StringBuilder(fontName);
-					}
-				}
-			}
-			LOGGER.trace("Determining need for fontsize attr");
-			if (!isEqualToDefault(size, NODE_LABEL_FONT_SIZE)) {
-				String fontSize = String.format("fontsize = \"%d\"", size);
-				if (returnValue == null) {
-					returnValue = new StringBuilder(fontSize);
-				} 
-				else {
-					returnValue.append(","+fontSize);
-				}
-			}
-			LOGGER.trace("Determining need for fontcolor attr");
-			if (!isEqualToDefault(color, NODE_LABEL_COLOR) ||
-					!isEqualToDefault(transparency, NODE_LABEL_TRANSPARENCY)) {
-				String fontColor = String.format("fontcolor = \"%s\"", mapColorToDot(color, transparency));
-				if (returnValue == null) {
-					returnValue = new StringBuilder(fontColor);
-				} 
-				else {
-					returnValue.append(","+fontColor);
-				}
-			}
+			fontFaceProp = NODE_LABEL_FONT_FACE;
+			fontSizeProp = NODE_LABEL_FONT_SIZE;
+			fontColorProp = NODE_LABEL_COLOR;
+			fontTransparencyProp = NODE_LABEL_TRANSPARENCY;
 		} 
-		// had an ugly conflict in this area. note if there are font problems it could be from here
 		else if (view.getModel() instanceof CyEdge) {
 			LOGGER.trace("Mapping font attributes for an edge view...");
-			LOGGER.trace("Determining need for fontname attr");
-			if (!isEqualToDefault(font, EDGE_LABEL_FONT_FACE)) {
-				Font styleFont = vizStyle.getDefaultValue(EDGE_LABEL_FONT_FACE);
-				if (!font.getFontName().equals(styleFont.getFontName()) || 
-						!font.getFamily().equals(styleFont.getFamily())) {
-					String fontName = String.format("fontname = \"%s\"", font.getFontName());
-					if (returnValue == null) {
-						returnValue = new StringBuilder(fontName);
-					}
-				}
-			}
-			LOGGER.trace("Determining need for fontsize attr");
-			if (!isEqualToDefault(size, EDGE_LABEL_FONT_SIZE)) {
-				String fontSize = String.format("fontsize = \"%d\"", size);
-				if (returnValue == null) {
-					returnValue = new StringBuilder(fontSize);
-				} 
-				else {
-					returnValue.append(","+fontSize);
-				}
-			}
-			LOGGER.trace("Determining need for fontcolor attr");
-			if (!isEqualToDefault(color, EDGE_LABEL_COLOR) ||
-					!isEqualToDefault(transparency, EDGE_LABEL_TRANSPARENCY)) {
-				String fontColor = String.format("fontcolor = \"%s\"", mapColorToDot(color, transparency));
-				if (returnValue == null) {
-					returnValue = new StringBuilder(fontColor);
-				} 
-				else {
-					returnValue.append(","+fontColor);
-				}
-			}
+			fontFaceProp = EDGE_LABEL_FONT_FACE;
+			fontSizeProp = EDGE_LABEL_FONT_SIZE;
+			fontColorProp = EDGE_LABEL_COLOR;
+			fontTransparencyProp = EDGE_LABEL_TRANSPARENCY;
+		}
+		else {
+			return;
 		}
 
-		if (returnValue == null) {
-			LOGGER.trace("Font attributes are defaults");
-			return null;
+		LOGGER.trace("Determining need for fontname attr");
+		if (!isEqualToDefault(font, fontFaceProp)) {
+			if (!font.getFontName().equals(plan.getDefaultFontName(fontFaceProp)) || 
+					!font.getFamily().equals(plan.getDefaultFontFamily(fontFaceProp))) {
+				appendAttribute(nextAttribute(output), "fontname", font.getFontName());
+			}
+		}
+		LOGGER.trace("Determining need for fontsize attr");
+		if (!isEqualToDefault(size, fontSizeProp)) {
+			appendName(nextAttribute(output), "fontsize").append(size.toString()).append('"');
+		}
+		LOGGER.trace("Determining need for fontcolor attr");
+		if (!isEqualToDefault((Paint) color, fontColorProp) ||
+				!isEqualToDefault(transparency, fontTransparencyProp)) {
+			appendColor(appendName(nextAttribute(output), "fontcolor"), color, transparency);
+			output.append('"');
 		}
-		LOGGER.debug("Dot attributes associate with font is: " + returnValue.toString());
-		
-		return returnValue.toString();		
-		
 	}
 
 	/**
-	 * Returns the String that denotes a position in .dot format
+	 * Writes a position in .dot format
 	 * Note: Positive in graphviz is up and right, positive in cytoscape
 	 * is down and right. Therefore, we negate the y-values
 	 * 
+	 * @param output Appendable the position is written to
 	 * @param x x coordinate of position
 	 * @param y y coordinate of position
-	 * @return String in form %x,%y
+	 * @throws IOException if output cannot be written to
 	 */
-	protected String mapPosition(Double x, Double y) {
-		/*x /= PPI;
-		y /= PPI;*/
-		return String.format("%s,%s", decimalFormatter.format(x), decimalFormatter.format(-1*y));
-	}	
+	protected void appendPosition(Appendable output, Double x, Double y) throws IOException {
+		appendDecimal(output, x);
+		output.append(',');
+		appendDecimal(output, -1*y);
+	}
+
+	/**
+	 * Writes all relevant attributes for this element to an Appendable
+	 * 
+	 * @param output Appendable the attributes are written to, such as the output
+	 * buffer of a DotWriterTask
+	 * @throws IOException if output cannot be written to
+	 */
+	public abstract void appendTo(Appendable output) throws IOException;
 
 	/**
 	 * Returns a String that contains all relevant attributes for this element 
 	 */
-	public abstract String getElementString();
+	public String getElementString() {
+		StringBuilder elementString = new StringBuilder();
+		try {
+			appendTo(elementString);
+		}
+		catch (IOException e) {
+			// a StringBuilder never throws IOException
+			throw new IllegalStateException(e);
+		}
+		String result = elementString.toString();
+		LOGGER.debug("Created .dot string. Result: " + result);
+		return result;
+	}
 }
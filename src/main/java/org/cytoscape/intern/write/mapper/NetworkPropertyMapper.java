@@ -55,7 +55,7 @@ import static org.cytoscape.view.presentation.property.NodeShapeVisualProperty.R
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
 
 import org.cytoscape.model.CyEdge;
@@ -119,15 +119,25 @@ public class NetworkPropertyMapper extends Mapper {
 	 * 
 	 */
 	public NetworkPropertyMapper(CyNetworkView netView, boolean directed, String splinesVal, String labelLoc, String nodeLabelLoc, VisualStyle vizStyle) {
-		super(netView, vizStyle);
-		simpleVisPropsToDot = new ArrayList<String>();
+		this(netView, directed, splinesVal, labelLoc, nodeLabelLoc, new ExportPlan(vizStyle));
+	}
+	
+	/**
+	 * Constructs NetworkPropertyMapper object that shares the ExportPlan of an export
+	 * @param netView view being mapped
+	 * @param directed records whether network is directed
+	 * @param splinesVal how edges should be drawn by GraphViz programs
+	 * @param labelLoc label location of graph label (if shown)
+	 * @param nodeLabelLoc label location of node labels
+	 * @param plan ExportPlan compiled from the VisualStyle applied to view
+	 * 
+	 */
+	public NetworkPropertyMapper(CyNetworkView netView, boolean directed, String splinesVal, String labelLoc, String nodeLabelLoc, ExportPlan plan) {
+		super(netView, plan);
 		this.directed = directed;
 		this.splinesVal = splinesVal;
 		this.labelLoc = labelLoc;
 		this.nodeLabelLoc = nodeLabelLoc;
-		this.vizStyle = vizStyle;
-		
-		populateMaps();		
 	}
 	
 	/**
@@ -141,31 +151,29 @@ public class NetworkPropertyMapper extends Mapper {
 	}
 
 	/**
-	 * Returns a string that has the edge[attrs] declaration
-	 * defines default attribute values for edges
+	 * Writes the edge[attrs] declaration that defines default attribute
+	 * values for edges
 	 * 
-	 * @return String in form edges[attrs=..] that sets the default
-	 * value for attributes
+	 * @param output Appendable the declaration is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private String getEdgeDefaults() {
+	private void appendEdgeDefaults(Appendable output) throws IOException {
 		LOGGER.info("Building edge default string...");
-		StringBuilder edgeDefaults = new StringBuilder("edge [");
+		output.append("edge [");
 
 		LOGGER.trace("Appending label attr to default string...");
 		String edgeLabel = vizStyle.getDefaultValue(EDGE_LABEL);
-		edgeLabel = edgeLabel.replace("\\", "\\\\");
-		edgeLabel = edgeLabel.replace("\"", "\\\"");
-		edgeDefaults.append(
-			String.format("label = \"%s\"", edgeLabel) + ","
-		);
+		appendEscaped(appendName(output, "label"), edgeLabel);
+		output.append("\",");
 
 		LOGGER.trace("Appending penwidth attr to default string...");
 		Double width = vizStyle.getDefaultValue(EDGE_WIDTH);
-		edgeDefaults.append(String.format("penwidth = \"%s\"", decimalFormatter.format(width)) + ",");
+		appendDecimal(appendName(output, "penwidth"), width);
+		output.append("\",");
 
 		LOGGER.trace("Appending tooltip attr to default string...");
 		String tooltip = vizStyle.getDefaultValue(EDGE_TOOLTIP);
-		edgeDefaults.append(String.format("tooltip = \"%s\"", tooltip) + ",");
+		appendAttribute(output, "tooltip", tooltip).append(',');
 		
 		// block is non-functioning. only works for bypasses due to what we think is source error
 		LOGGER.trace("Appending arrowhead attr to default string...");
@@ -173,20 +181,20 @@ public class NetworkPropertyMapper extends Mapper {
 		LOGGER.trace("CS target/head arrow: " + targetArrow);
 		String dotTargetArrow = ARROW_SHAPE_MAP.get(targetArrow);
 		LOGGER.trace(".dot Target/head arrow: " + dotTargetArrow);
-		edgeDefaults.append(String.format("arrowhead = \"%s\"", dotTargetArrow) + ",");
+		appendAttribute(output, "arrowhead", dotTargetArrow).append(',');
 			
 		LOGGER.trace("Appending arrowtail attr to default string...");
 		ArrowShape sourceArrow = vizStyle.getDefaultValue(EDGE_SOURCE_ARROW_SHAPE);
 		LOGGER.trace("CS source/tail arrow: " + sourceArrow);
 		String dotSourceArrow = ARROW_SHAPE_MAP.get(sourceArrow);
 		LOGGER.trace(".dot source/tail arrow: " + dotSourceArrow);
-		edgeDefaults.append(String.format("arrowtail = \"%s\"", dotSourceArrow) + ",");
+		appendAttribute(output, "arrowtail", dotSourceArrow).append(',');
 		
 		LOGGER.trace("Appending color attr to default string...");
 		Color strokeColor = (Color) vizStyle.getDefaultValue(EDGE_STROKE_UNSELECTED_PAINT);
 		Integer strokeTransparency = ((Number)vizStyle.getDefaultValue(EDGE_TRANSPARENCY)).intValue();
-		String dotColor = String.format("color = \"%s\"", mapColorToDot(strokeColor, strokeTransparency));
-		edgeDefaults.append(dotColor + ",");
+		appendColor(appendName(output, "color"), strokeColor, strokeTransparency);
+		output.append("\",");
 
 		LOGGER.trace("Appending fontname, fontsize, and fontcolor attrs"
 				+ " to default string...");
@@ -196,55 +204,48 @@ public class NetworkPropertyMapper extends Mapper {
 		Integer labelTransparency = ((Number)vizStyle.getDefaultValue(EDGE_LABEL_TRANSPARENCY)).intValue();
 		Font labelFont = vizStyle.getDefaultValue(EDGE_LABEL_FONT_FACE);
 		Integer labelSize = ((Number)vizStyle.getDefaultValue(EDGE_LABEL_FONT_SIZE)).intValue();
-		String fontString = mapDefaultFont(labelFont, labelSize, labelColor, labelTransparency);
-		edgeDefaults.append(fontString + ",");
+		appendDefaultFont(output, labelFont, labelSize, labelColor, labelTransparency);
+		output.append(',');
 		
 		LOGGER.trace("Appending Default style attribute to .dot string");
-		String styleString = mapDefaultEdgeDotStyle();
-		edgeDefaults.append(styleString + ",");
-		edgeDefaults.append("dir = \"both\"]");
-		return edgeDefaults.toString();
+		appendDefaultEdgeDotStyle(output);
+		output.append(",dir = \"both\"]");
 	}
 	
 	/**
-	 * Returns a string that has the node[attrs] declaration
-	 * defines default attribute values for nodes
+	 * Writes the node[attrs] declaration that defines default attribute
+	 * values for nodes
 	 * 
-	 * @return String in form node[attrs=..] that sets the default
-	 * value for attributes
+	 * @param output Appendable the declaration is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private String getNodeDefaults() {
+	private void appendNodeDefaults(Appendable output) throws IOException {
 		LOGGER.info("Building node default string...");
-		StringBuilder nodeDefaults = new StringBuilder("node [");
+		output.append("node [");
 		
 		//Node SimpleVizProps
 		LOGGER.trace("Appending label attr to default string...");
 		String nodeLabel = vizStyle.getDefaultValue(NODE_LABEL);
-		nodeLabel = nodeLabel.replace("\\", "\\\\");
-		nodeLabel = nodeLabel.replace("\"", "\\\"");
 		if(!nodeLabelLoc.equals("ex")) {
-			nodeDefaults.append(
-				String.format("label = \"%s\"", nodeLabel) + ","
-			);
+			appendEscaped(appendName(output, "label"), nodeLabel);
+			output.append("\",");
 		}
 		// if external label
 		else {
-			nodeDefaults.append("label = \"\"");
-			nodeDefaults.append(
-				String.format("xlabel = \"%s\"", nodeLabel)
-			);
+			output.append("label = \"\"");
+			appendEscaped(appendName(output, "xlabel"), nodeLabel);
+			output.append('"');
 		}
 		
 		LOGGER.trace("Appending penwidth attr to default string...");
 		Double borderWidth = vizStyle.getDefaultValue(NODE_BORDER_WIDTH);
-		nodeDefaults.append(
-			String.format("penwidth = \"%s\"", decimalFormatter.format(borderWidth)) + ","
-		);
+		appendDecimal(appendName(output, "penwidth"), borderWidth);
+		output.append("\",");
 	
 		// set width and height, if they are locked, must set to NODE_SIZE prop
 		Double height, width;
-		LOGGER.debug("ISLOCKED: " + nodeSizesLocked);
-		if(nodeSizesLocked) {
+		LOGGER.debug("ISLOCKED: " + plan.areNodeSizesLocked());
+		if(plan.areNodeSizesLocked()) {
 			height = vizStyle.getDefaultValue(NODE_SIZE);
 			width = vizStyle.getDefaultValue(NODE_SIZE);
 		}
@@ -255,32 +256,27 @@ public class NetworkPropertyMapper extends Mapper {
 		height /=PPI;
 		width /=PPI;
 		
-		nodeDefaults.append(
-			String.format("height = \"%s\"", decimalFormatter.format(height)) + ","
-		);
-
-		nodeDefaults.append(
-			String.format("width = \"%s\"", decimalFormatter.format(width)) + ","
-		);
+		appendDecimal(appendName(output, "height"), height);
+		output.append("\",");
+		appendDecimal(appendName(output, "width"), width);
+		output.append("\",");
 
 		// set tooltip
 		String tooltip = vizStyle.getDefaultValue(NODE_TOOLTIP);
-		nodeDefaults.append(
-			String.format("tooltip = \"%s\"", tooltip) + ","
-		);
+		appendAttribute(output, "tooltip", tooltip).append(',');
 
 		// Get the color string (border color). Append to attribute string
 		Color borderColor = (Color) vizStyle.getDefaultValue(NODE_BORDER_PAINT);
 		// Set alpha (opacity) to 0 if node is invisible, translate alpha otherwise
 		Integer borderTransparency = ((Number)vizStyle.getDefaultValue(NODE_BORDER_TRANSPARENCY)).intValue();
-		String dotBorderColor = String.format("color = \"%s\"", mapColorToDot(borderColor, borderTransparency));
-		nodeDefaults.append(dotBorderColor + ",");
+		appendColor(appendName(output, "color"), borderColor, borderTransparency);
+		output.append("\",");
 		
 		// Write node fill color
 		Color fillColor = (Color) vizStyle.getDefaultValue(NODE_FILL_COLOR);
 		Integer nodeTransparency = ((Number)vizStyle.getDefaultValue(NODE_TRANSPARENCY)).intValue();
-		String dotFillColor = String.format("fillcolor = \"%s\"", mapColorToDot(fillColor, nodeTransparency));
-		nodeDefaults.append(dotFillColor + ",");
+		appendColor(appendName(output, "fillcolor"), fillColor, nodeTransparency);
+		output.append("\",");
 
 		// Get the .dot string for the node shape. Append to attribute string
 		NodeShape shape = vizStyle.getDefaultValue(NODE_SHAPE);
@@ -292,13 +288,10 @@ public class NetworkPropertyMapper extends Mapper {
 			LOGGER.warn("Cytoscape property doesn't map to a .dot attribute. Setting to default");
 		}
 		
-		String dotShape = String.format("shape = \"%s\"", shapeStr);
-		nodeDefaults.append(dotShape + ",");
+		appendAttribute(output, "shape", shapeStr).append(',');
 		
-		nodeDefaults.append(
-			mapDefaultNodeDotStyle(shape) +","
-		);
-
+		appendDefaultNodeDotStyle(output, shape);
+		output.append(',');
 
 		Font fontName = vizStyle.getDefaultValue(NODE_LABEL_FONT_FACE);
 		LOGGER.trace("Retrieving font size...");
@@ -306,24 +299,19 @@ public class NetworkPropertyMapper extends Mapper {
 		Color fontColor = (Color)(vizStyle.getDefaultValue(NODE_LABEL_COLOR));
 		Integer fontTransparency = ((Number)vizStyle.getDefaultValue(NODE_LABEL_TRANSPARENCY)).intValue();
 		
-		String fontString = mapDefaultFont(fontName, fontSize, fontColor, fontTransparency);
-		nodeDefaults.append(fontString + ",");
+		appendDefaultFont(output, fontName, fontSize, fontColor, fontTransparency);
+		output.append(',');
 		
-		nodeDefaults.append(
-			"fixedsize = \"true\",labelloc = \"" + nodeLabelLoc + "\"]"
-		);
-		
-		String result = nodeDefaults.toString();
-		LOGGER.debug("Built node default string: " + result);
-		return result;
+		output.append("fixedsize = \"true\",labelloc = \"").append(nodeLabelLoc).append("\"]");
 	}
 	
 	/**
-	 * Returns "style" attribute intended for default edge declaration
+	 * Writes "style" attribute intended for default edge declaration
 	 * 
-	 * @return String in form "style=..."
+	 * @param output Appendable the attribute is written to, in form "style=..."
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapDefaultEdgeDotStyle() {
+	private void appendDefaultEdgeDotStyle(Appendable output) throws IOException {
 		LineType lineType = vizStyle.getDefaultValue(EDGE_LINE_TYPE);
 		Boolean isVisible = vizStyle.getDefaultValue(EDGE_VISIBLE);
 		String lineStr = LINE_TYPE_MAP.get(lineType);
@@ -331,42 +319,44 @@ public class NetworkPropertyMapper extends Mapper {
 			lineStr = "solid";
 			LOGGER.warn("Visual Style default EDGE_LINE_TYPE doesn't map to a .dot attribute. Setting to default");
 		}
-		String invisString = (!isVisible) ? ",invis" : "";
-		String style = String.format("style = \"%s%s\"", lineStr, invisString);
-		return style;
+		appendName(output, "style").append(lineStr);
+		if (!isVisible) {
+			output.append(",invis");
+		}
+		output.append('"');
 	}
 
 	/**
-	 * Returns String for default Fonts
+	 * Writes the attributes for default Fonts
 	 * 
+	 * @param output Appendable the attributes are written to, in form
+	 * "fontname=...,fontsize=...,fontcolor=..."
 	 * @param font font face
 	 * @param size size of font
 	 * @param color color
 	 * @param transparency alpha value. 0-255
-	 * @return String in form "fontname=...,fontsize=...,fontcolor=..."
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapDefaultFont(Font font, Integer size, Color color, Integer transparency) {
+	private void appendDefaultFont(Appendable output, Font font, Integer size, Color color, Integer transparency)
+			throws IOException {
 		
 		LOGGER.trace("Label font, size, color, and transparency translation");
 		 
-		String returnValue = "";
-		
-		returnValue += "fontname = \"" + font.getFontName() + "\",";  
-		returnValue += "fontsize = \"" + size.toString() + "\","; 
-		returnValue += "fontcolor = \"" + mapColorToDot(color, transparency) + "\"";
-
-		LOGGER.debug("Dot attributes associate with font is: " + returnValue);
-			
-		return returnValue;
+		appendAttribute(output, "fontname", font.getFontName()).append(',');
+		appendAttribute(output, "fontsize", size.toString()).append(',');
+		appendColor(appendName(output, "fontcolor"), color, transparency);
+		output.append('"');
 	}
 
 	/**
-	 * Returns "style" attribute intended for default node declaration
+	 * Writes "style" attribute intended for default node declaration
 	 * 
+	 * @param output Appendable the attribute is written to, in form
+	 * "style=...,filled"
 	 * @param shape NodeShape default value
-	 * @return String in form "style=...,filled"
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapDefaultNodeDotStyle(NodeShape shape) {
+	private void appendDefaultNodeDotStyle(Appendable output, NodeShape shape) throws IOException {
 		LineType lineType = vizStyle.getDefaultValue(NODE_BORDER_LINE_TYPE);
 		Boolean isVisible = vizStyle.getDefaultValue(NODE_VISIBLE);
 		// get .dot equivalent of line style
@@ -375,87 +365,81 @@ public class NetworkPropertyMapper extends Mapper {
 			lineStr = "solid";
 			LOGGER.warn("Cytoscape property doesn't map to a .dot attribute. Setting to default");
 		}
-		String shapeString = (shape.equals(ROUND_RECTANGLE)) ? "rounded," : "";
-		String invisString = (!isVisible) ? "invis," : "";
-		String style = String.format("style = \"%s,%s%sfilled\"", lineStr, shapeString, invisString);
-
-		return style;
+		appendName(output, "style").append(lineStr).append(',');
+		if (shape.equals(ROUND_RECTANGLE)) {
+			output.append("rounded,");
+		}
+		if (!isVisible) {
+			output.append("invis,");
+		}
+		output.append("filled\"");
 	}
 
 	/**
-	 * Helper method to fill the hashmap instance variable with constants we need
+	 * Helper method that writes the graph attributes, one per line
+	 * 
+	 * @param output Appendable the attributes are written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private void populateMaps() {
+	private void appendSimpleProps(Appendable output) throws IOException {
 		// if graph label is desired
 		if(labelLoc != null) {
 			// label attribute of graph
 			String label = view.getVisualProperty(NETWORK_TITLE);
-			label = label.replace("\\", "\\\\");
-			label = label.replace("\"", "\\\"");
-			String dotLabel = String.format("label = \"%s\"", label);
-			simpleVisPropsToDot.add(dotLabel);
+			appendEscaped(appendName(output, "label"), label);
+			output.append("\"\n");
 			
 			// desired label location
-			simpleVisPropsToDot.add("labelloc = " + labelLoc);
+			output.append("labelloc = ").append(labelLoc).append('\n');
 		}
 
 		// Background color of graph
 		Color netBgColor = (Color)view.getVisualProperty(NETWORK_BACKGROUND_PAINT);
-		String dotBgColor = String.format("bgcolor = \"%s\"", mapColorToDot(netBgColor, netBgColor.getAlpha()));
-		simpleVisPropsToDot.add(dotBgColor);
+		appendColor(appendName(output, "bgcolor"), netBgColor, netBgColor.getAlpha());
+		output.append("\"\n");
 		
 		// splines value
-		simpleVisPropsToDot.add(String.format("splines = \"%s\"", splinesVal));
+		appendAttribute(output, "splines", splinesVal).append('\n');
 		
 		// output order
-		simpleVisPropsToDot.add("outputorder = \"edgesfirst\"");
+		output.append("outputorder = \"edgesfirst\"\n");
 		
 		// esep=0 so splines can always be routed around nodes
-		simpleVisPropsToDot.add("esep = \"0\"");
+		output.append("esep = \"0\"\n");
 		
 		// pad so (ideally) no labels are cut off
-		simpleVisPropsToDot.add("pad = \"2\"");
+		output.append("pad = \"2\"\n");
 	}
 	
 	@Override
-	protected String mapDotStyle() {
+	protected void appendDotStyle(Appendable output) {
 		// NOT USED
-		return null;
 	}
 
 	/**
-	 * Returns a String that contains all relevant attributes for this element 
+	 * Writes the graph declaration, graph attributes and the node and edge
+	 * defaults of the network
 	 */
 	@Override
-	public String getElementString() {
+	public void appendTo(Appendable output) throws IOException {
 		// Get network name from model. Remove spaces from name
 		CyNetwork network = (CyNetwork)view.getModel();
 		String networkName = network.getRow(network).get(CyNetwork.NAME, String.class);
 		// filter out disallowed chars
 		networkName = Mapper.modifyElementID(networkName);
 
-		// Build the network properties string
-		StringBuilder elementString = new StringBuilder();
-		
 		// Header of the dot file of the form (di)graph [NetworkName] {
-		String graphDeclaration = String.format("%s %s {", getDirectedString(), networkName);
-		elementString.append(graphDeclaration + "\n");
+		output.append(getDirectedString()).append(' ').append(networkName).append(" {\n");
 		
 		//added outputorder = edgesfirst at the beginning of the file to make sure all the nodes 
 		//are on the top of the edges.
+		appendSimpleProps(output);
 		
-		// Get .dot strings for simple dot attributes. Append to attribute string
-		for (String dotAttribute : simpleVisPropsToDot) {
-		        elementString.append(dotAttribute + "\n");
-		}
-		
-		elementString.append(getNodeDefaults() + "\n");
-		elementString.append(getEdgeDefaults() + "\n");
-		
-		LOGGER.debug(
-			String.format("Built graph header: %s", elementString.toString())
-		);
+		appendNodeDefaults(output);
+		output.append('\n');
+		appendEdgeDefaults(output);
+		output.append('\n');
 		
-		return elementString.toString();
+		LOGGER.debug("Built graph header");
 	}
 }
@@ -41,7 +41,7 @@ import static org.cytoscape.view.presentation.property.NodeShapeVisualProperty.R
 
 import java.awt.Color;
 import java.awt.Font;
-import java.util.ArrayList;
+import java.io.IOException;
 
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.View;
@@ -68,77 +68,97 @@ public class NodePropertyMapper extends Mapper {
 	 */
 	public NodePropertyMapper(View<CyNode> view, VisualStyle vizStyle, String labelLoc) {
 		super(view, vizStyle);
-		// initialize data structure
-		simpleVisPropsToDot = new ArrayList<String>();
 		this.labelLoc = labelLoc;
-		
-		populateMaps();
 	}
 	
 	/**
-	 * Helper method that returns String that defines color attribute including "fillcolor=" part
+	 * Constructs a NodePropertyMapper that is reused for every node of an
+	 * export. It must be pointed at a View with setView() before writing.
 	 * 
-	 * @return String in form "color = <color>,fillcolor = <color>"
+	 * @param vizStyle VisualStyle applied to the nodes
+	 * @param labelLoc location of node labels
 	 */
-	private String mapColors() {
-		StringBuilder elementString = null;
-		
+	public NodePropertyMapper(VisualStyle vizStyle, String labelLoc) {
+		this(null, vizStyle, labelLoc);
+	}
+	
+	/**
+	 * Constructs a NodePropertyMapper that is reused for every node of an
+	 * export and shares its ExportPlan. It must be pointed at a View with
+	 * setView() before writing.
+	 * 
+	 * @param plan ExportPlan compiled for the export
+	 * @param labelLoc location of node labels
+	 */
+	public NodePropertyMapper(ExportPlan plan, String labelLoc) {
+		super(null, plan);
+		this.labelLoc = labelLoc;
+	}
+	
+	/**
+	 * Points this mapper at the View of the next node to convert
+	 * 
+	 * @param view View of Node we are converting to .dot
+	 */
+	public void setView(View<CyNode> view) {
+		bindView(view);
+	}
+	
+	/**
+	 * Helper method that writes the color attributes including "fillcolor=" part
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
+	 */
+	private void appendColors(Appendable output) throws IOException {
 		LOGGER.debug("Preparing to get color properties for a node");
 		// Get the color string (border color). Append to attribute string
 		if (!isEqualToDefault(NODE_BORDER_PAINT) || !isEqualToDefault(NODE_BORDER_TRANSPARENCY)) {
-			Color borderColor = (Color) view.getVisualProperty(NODE_BORDER_PAINT);
-			Integer borderTransparency = ((Number)view.getVisualProperty(NODE_BORDER_TRANSPARENCY)).intValue();
-			String dotBorderColor = String.format("color = \"%s\"", mapColorToDot(borderColor, borderTransparency));
-			elementString = new StringBuilder(dotBorderColor);
+			Color borderColor = (Color) getValue(NODE_BORDER_PAINT);
+			Integer borderTransparency = ((Number)getValue(NODE_BORDER_TRANSPARENCY)).intValue();
+			appendColor(appendName(nextAttribute(output), "color"), borderColor, borderTransparency);
+			output.append('"');
 		}
 		
 		// Write node fill color
 		if (!isEqualToDefault(NODE_FILL_COLOR) || !isEqualToDefault(NODE_TRANSPARENCY)) {
-			Color fillColor = (Color) view.getVisualProperty(NODE_FILL_COLOR);
-			Integer transparency = ((Number)view.getVisualProperty(NODE_TRANSPARENCY)).intValue();
-			String dotFillColor = String.format("fillcolor = \"%s\"", mapColorToDot(fillColor, transparency));
-			if (elementString != null) {
-				elementString.append("," + dotFillColor);
-			}
-			else {
-				elementString = new StringBuilder(dotFillColor);
-			}
+			Color fillColor = (Color) getValue(NODE_FILL_COLOR);
+			Integer transparency = ((Number)getValue(NODE_TRANSPARENCY)).intValue();
+			appendColor(appendName(nextAttribute(output), "fillcolor"), fillColor, transparency);
+			output.append('"');
 		}
-		if (elementString == null) {
-			return null;
-		}
-		return elementString.toString();
-		
 	}
 	
 	/**
-	 * Helper method that returns String that contains font face, size, color and transparency
+	 * Helper method that writes the attributes of font face, size, color and transparency
 	 * 
-	 * @return String that defines fontname, fontcolor and fontsize attributes
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapFontHelper() {
+	private void appendFontHelper(Appendable output) throws IOException {
 		LOGGER.debug("Getting the label related attributes for a node");
-		Font fontName = view.getVisualProperty(NODE_LABEL_FONT_FACE);
-		Integer fontSize = ((Number)view.getVisualProperty(NODE_LABEL_FONT_SIZE)).intValue();
-		Color fontColor = (Color)(view.getVisualProperty(NODE_LABEL_COLOR));
-		Integer fontTransparency = ((Number)view.getVisualProperty(NODE_LABEL_TRANSPARENCY)).intValue();
+		Font fontName = getValue(NODE_LABEL_FONT_FACE);
+		Integer fontSize = ((Number)getValue(NODE_LABEL_FONT_SIZE)).intValue();
+		Color fontColor = (Color)(getValue(NODE_LABEL_COLOR));
+		Integer fontTransparency = ((Number)getValue(NODE_LABEL_TRANSPARENCY)).intValue();
 		
-		return mapFont(fontName, fontSize, fontColor, fontTransparency);
+		appendFont(output, fontName, fontSize, fontColor, fontTransparency);
 	}
 	
 	/**
-	 * Helper method that returns String that represents nodeShape 
+	 * Helper method that writes the shape attribute in the form "shape = <shape>"
 	 * 
-	 * @return String in form in form "shape = <shape>"
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private String mapShape() {
+	private void appendShape(Appendable output) throws IOException {
 		LOGGER.debug("Preparing to get shape property");
 		
 		// Get the .dot string for the node shape. Append to attribute string
 		if (isEqualToDefault(NODE_SHAPE)) {
-			return null;
+			return;
 		}
-		NodeShape shape = view.getVisualProperty(NODE_SHAPE);
+		NodeShape shape = getValue(NODE_SHAPE);
 		String shapeStr = NODE_SHAPE_MAP.get(shape);
 		
 		// default if there is no match
@@ -147,164 +167,146 @@ public class NodePropertyMapper extends Mapper {
 			LOGGER.warn("Cytoscape property doesn't map to a .dot attribute. Setting to default");
 		}
 		
-		String dotShape = String.format("shape = \"%s\"", shapeStr);
-		LOGGER.debug("Appended shape attribute to .dot string. Result: " + dotShape);
-		
-		return dotShape;
+		appendAttribute(nextAttribute(output), "shape", shapeStr);
 	}
 	
 	/**
-	 * Helper method to fill the hashmap instance variable with constants we need
+	 * Helper method that writes the attributes that map directly from one
+	 * VisualProperty, and the position
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
 	 */
-	private void populateMaps() {
-		LOGGER.trace("Populating HashMaps with values");
-
-		// Put Simple Props Key/Values
-		
+	private void appendSimpleProps(Appendable output) throws IOException {
 		// determine if using exlabel attribute or not
-		String nodeLabel = view.getVisualProperty(NODE_LABEL);
-		// Replace quotes with escaped quotes if any
-		nodeLabel = nodeLabel.replace("\\", "\\\\");
-		nodeLabel = nodeLabel.replace("\"", "\\\"");
 		// if internal label
 		if (!isEqualToDefault(NODE_LABEL)) {
-			if(!labelLoc.equals("ex")) {
-				simpleVisPropsToDot.add(String.format("label = \"%s\"", nodeLabel));
-			}
-			// if external label
-			else {
-				simpleVisPropsToDot.add(String.format("xlabel = \"%s\"", nodeLabel));
-			}
+			String nodeLabel = getValue(NODE_LABEL);
+			String labelName = labelLoc.equals("ex") ? "xlabel" : "label";
+			// Replace quotes with escaped quotes if any
+			appendEscaped(appendName(nextAttribute(output), labelName), nodeLabel);
+			output.append('"');
 		}
 		
 		if (!isEqualToDefault(NODE_BORDER_WIDTH)) {
-			Double borderWidth = view.getVisualProperty(NODE_BORDER_WIDTH);
-			simpleVisPropsToDot.add(String.format("penwidth = \"%s\"", decimalFormatter.format(borderWidth)));
+			Double borderWidth = getValue(NODE_BORDER_WIDTH);
+			appendDecimal(appendName(nextAttribute(output), "penwidth"), borderWidth);
+			output.append('"');
 		}
 
 		// Get node height and width
-		if(nodeSizesLocked) {
+		if(plan.areNodeSizesLocked()) {
 			/* 
 			 * view.getVisualProperty(NODE_SIZE) does not return the actual
 			 * dimension of the node view when a mapping is applied to
 			 * NODE_SIZE, so getting dimension from NODE_HEIGHT instead
 			 */
 			
-			Double size = view.getVisualProperty(NODE_HEIGHT);
+			// without a mapping or bypass the size is the default NODE_SIZE
+			Double size = (canDiffer(NODE_SIZE) || canDiffer(NODE_HEIGHT))
+					? view.getVisualProperty(NODE_HEIGHT) : plan.getDefault(NODE_SIZE);
 			if(!isEqualToDefault(size, NODE_SIZE)){
-				simpleVisPropsToDot.add(String.format("height = \"%s\"", decimalFormatter.format(size/PPI)));
-				simpleVisPropsToDot.add(String.format("width = \"%s\"", decimalFormatter.format(size/PPI)));
+				appendDecimal(appendName(nextAttribute(output), "height"), size/PPI);
+				output.append('"');
+				appendDecimal(appendName(nextAttribute(output), "width"), size/PPI);
+				output.append('"');
 			}
 		}
 		else {
 			if(!isEqualToDefault(NODE_HEIGHT)) {
-				Double height = view.getVisualProperty(NODE_HEIGHT);
-				simpleVisPropsToDot.add(String.format("height = \"%s\"", decimalFormatter.format(height/PPI)));
+				Double height = getValue(NODE_HEIGHT);
+				appendDecimal(appendName(nextAttribute(output), "height"), height/PPI);
+				output.append('"');
 			}
 			if(!isEqualToDefault(NODE_WIDTH)) {
-				Double width = view.getVisualProperty(NODE_WIDTH);
-				simpleVisPropsToDot.add(String.format("width = \"%s\"", decimalFormatter.format(width/PPI)));
+				Double width = getValue(NODE_WIDTH);
+				appendDecimal(appendName(nextAttribute(output), "width"), width/PPI);
+				output.append('"');
 			}
 		}
 
 		// Get node tooltip
 		if (!isEqualToDefault(NODE_TOOLTIP)) {
-			String tooltip = view.getVisualProperty(NODE_TOOLTIP);
-			simpleVisPropsToDot.add(String.format("tooltip = \"%s\"", tooltip));
+			String tooltip = getValue(NODE_TOOLTIP);
+			appendAttribute(nextAttribute(output), "tooltip", tooltip);
 		}
 		
-        // Get node location and append in proper format
-        Double xLoc = view.getVisualProperty(NODE_X_LOCATION);
-        Double yLoc = view.getVisualProperty(NODE_Y_LOCATION);
-        String dotPosition = String.format("pos = \"%s\"", mapPosition(xLoc, yLoc));
-        simpleVisPropsToDot.add(dotPosition);
-		
-		// Put Node Shape Key/Values
-		LOGGER.trace("HashMaps populated");
+		appendLocation(output);
+	}
+	
+	/**
+	 * Helper method that writes the pos attribute
+	 * 
+	 * @param output Appendable the attribute list is written to
+	 * @throws IOException if output cannot be written to
+	 */
+	private void appendLocation(Appendable output) throws IOException {
+		// Get node location and append in proper format
+		Double xLoc = view.getVisualProperty(NODE_X_LOCATION);
+		Double yLoc = view.getVisualProperty(NODE_Y_LOCATION);
+		appendPosition(appendName(nextAttribute(output), "pos"), xLoc, yLoc);
+		output.append('"');
 	}
 	
 	@Override
-	protected String mapDotStyle() {
+	protected void appendDotStyle(Appendable output) throws IOException {
 		LOGGER.trace("Building style string for node view...");
-		StringBuilder dotStyle = null;
 		if (!isEqualToDefault(NODE_BORDER_LINE_TYPE) || !isEqualToDefault(NODE_SHAPE)
 			|| !isEqualToDefault(NODE_VISIBLE)) {
 			LOGGER.info("Not default style attr, building node's own...");
-			LineType lineType = view.getVisualProperty(NODE_BORDER_LINE_TYPE);
-			NodeShape nodeShape = view.getVisualProperty(NODE_SHAPE);
-			String lineStr = "";
-			dotStyle = new StringBuilder();
+			LineType lineType = getValue(NODE_BORDER_LINE_TYPE);
+			NodeShape nodeShape = getValue(NODE_SHAPE);
 
 			// get .dot equivalent of line style, see if we need rounded
-			lineStr = LINE_TYPE_MAP.get(lineType);
+			String lineStr = LINE_TYPE_MAP.get(lineType);
 			if (lineStr == null) {
 				lineStr = "solid";
 				LOGGER.warn("Cytoscape property doesn't map to a .dot attribute. Setting to default");
 			}
 			boolean rounded = nodeShape.equals(ROUND_RECTANGLE);
-			boolean isVisible = view.getVisualProperty(NODE_VISIBLE);
-			String roundedString = (rounded) ? "rounded," : "";
-			String invisString = (!isVisible) ? "invis," : "";
-           	String style = String.format("style = \"%s,%s%sfilled\"", lineStr, roundedString, invisString);
-           	dotStyle.append(style);
-		}
-		if (dotStyle == null) {
-			return null;
+			boolean isVisible = getValue(NODE_VISIBLE);
+			appendName(nextAttribute(output), "style").append(lineStr).append(',');
+			if (rounded) {
+				output.append("rounded,");
+			}
+			if (!isVisible) {
+				output.append("invis,");
+			}
+			output.append("filled\"");
 		}
-		return dotStyle.toString();
 	}
 
 	/**
-	 * Returns a String that contains all relevant attributes for this element 
+	 * Writes all relevant attributes for this element, nothing if every
+	 * attribute has its default value
 	 */
 	@Override
-	public String getElementString() {
+	public void appendTo(Appendable output) throws IOException {
 		LOGGER.trace("Preparing to get .dot declaration for a node.");
 
-		// Build attribute string
-		StringBuilder elementString = new StringBuilder("[");
-
-		// Get .dot strings for simple dot attributes. Append to attribute string
-		for (String dotAttribute : simpleVisPropsToDot) {
-		        elementString.append(dotAttribute);
-		        elementString.append(",");
+		// Build attribute list
+		startAttributes("[");
+		if (plan.isDefaultNode(view)) {
+			// every other attribute is set by the node defaults
+			appendLocation(output);
+			endAttributes(output);
+			return;
 		}
-		
+		appendSimpleProps(output);
+
 		// Write fillcolor and color attribute
-		String colorsString = mapColors();
-		if (colorsString != null) {
-			elementString.append(colorsString + ",");
-		}
+		appendColors(output);
 
 		// Write nodeShape
-		String shapeString = mapShape();
-		if (shapeString != null) {
-			elementString.append(mapShape() + ",");
-		}
-		
+		appendShape(output);
 
 		// Get the .dot string for the node style. Append to attribute string
-		String styleString = mapDotStyle();
-		if (styleString != null) {
-			elementString.append(styleString + ",");
-		}
+		appendDotStyle(output);
 		
 		// Append font name+size+color attributes
-		String fontString = mapFontHelper();
-		if (fontString != null) {
-			elementString.append(fontString);
-		}
+		appendFontHelper(output);
 
 		// Finish Attribute List
-		if (elementString.charAt(elementString.length() - 1) == ',') {
-			elementString.deleteCharAt(elementString.length() - 1);
-		}
-		elementString.append("]");
-		String result = elementString.toString();
-		if (result.matches("^\\[\\]$")) {
-			result = "";
-		}
-		LOGGER.debug("Created .dot string. Result: " + result);
-		return result;
+		endAttributes(output);
 	}
 }
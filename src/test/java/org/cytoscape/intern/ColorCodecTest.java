@@ -0,0 +1,71 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+
+import org.cytoscape.intern.read.reader.ColorCodec;
+import org.junit.Test;
+
+public class ColorCodecTest {
+
+	@Test
+	public void testHexColors() {
+		ColorCodec codec = new ColorCodec();
+		assertEquals(new Color(0x12, 0xAB, 0xEF), codec.decode("#12abEF", null));
+		assertEquals(new Color(0x12, 0xAB, 0xEF, 0x80), codec.decode(" #12ABEF80 ", null));
+		assertNull(codec.decode("#12ABE", null));
+		assertNull(codec.decode("#12ABEG", null));
+	}
+
+	@Test
+	public void testHsvColors() {
+		ColorCodec codec = new ColorCodec();
+		assertEquals(Color.getHSBColor(0.5f, 0.25f, 1f), codec.decode("0.5 .25,1.0", null));
+		assertEquals(Color.getHSBColor(0f, 0f, 1f), codec.decode("0.000, 0.000, 1", null));
+		assertNull(codec.decode("0.5 1.5 1", null));
+		assertNull(codec.decode("0.5 0.5", null));
+	}
+
+	@Test
+	public void testColorNames() {
+		ColorCodec codec = new ColorCodec();
+		assertEquals(new Color(248, 248, 255), codec.decode("GhostWhite", null));
+		assertEquals(new Color(248, 248, 255), codec.decode("ghost white", "x11"));
+		assertEquals(new Color(0, 255, 255), codec.decode("aqua", "svg"));
+		assertNull(codec.decode("notacolor", null));
+	}
+
+	@Test
+	public void testRangesAndCache() {
+		ColorCodec codec = new ColorCodec(1);
+		String list = "red;0.3:#0000FF";
+		assertEquals(new Color(255, 0, 0), codec.decode(list, 0, 3, null));
+		assertEquals(new Color(0, 0, 255), codec.decode(list, 8, list.length(), null));
+
+		Color first = codec.decode("#102030", null);
+		assertSame(first, codec.decode("#102030", null));
+		codec.decode("#405060", null);
+		assertEquals(first, codec.decode("#102030", null));
+	}
+}
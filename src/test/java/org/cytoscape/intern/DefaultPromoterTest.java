@@ -0,0 +1,86 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.cytoscape.intern.read.DotAttributeTable;
+import org.cytoscape.intern.read.DotGraph;
+import org.cytoscape.intern.read.reader.DefaultPromoter;
+import org.junit.Test;
+
+public class DefaultPromoterTest {
+
+	private DotGraph createGraph(String... fillColors) {
+		DotGraph graph = new DotGraph("G", true);
+		for (int i = 0; i < fillColors.length; i++) {
+			int node = graph.addNode("n" + i, null);
+			if (fillColors[i] != null) {
+				graph.getNodeAttributes().set(node, "fillcolor", fillColors[i]);
+			}
+		}
+		return graph;
+	}
+
+	@Test
+	public void testPromoteMajority() {
+		DotGraph graph = createGraph("red", "red", "blue", "red");
+		new DefaultPromoter().promoteNodeDefaults(graph);
+
+		DotAttributeTable attrs = graph.getNodeAttributes();
+		assertEquals("red", graph.getNodeDefaults().get("fillcolor"));
+		assertNull(attrs.get(0, "fillcolor"));
+		assertEquals("blue", attrs.get(2, "fillcolor"));
+		assertNull(attrs.get(3, "fillcolor"));
+	}
+
+	@Test
+	public void testKeepOldDefaultAsBypass() {
+		DotGraph graph = createGraph("red", null, "red", "red");
+		graph.getNodeDefaults().put("fillcolor", "green");
+		new DefaultPromoter().promoteNodeDefaults(graph);
+
+		assertEquals("red", graph.getNodeDefaults().get("fillcolor"));
+		assertEquals("green", graph.getNodeAttributes().get(1, "fillcolor"));
+		assertNull(graph.getNodeAttributes().get(0, "fillcolor"));
+	}
+
+	@Test
+	public void testNoPromotionWithoutDefault() {
+		// the node without fillcolor has no DOT value to fall back to
+		DotGraph graph = createGraph("red", null, "red", "red");
+		new DefaultPromoter().promoteNodeDefaults(graph);
+
+		assertNull(graph.getNodeDefaults().get("fillcolor"));
+		assertEquals("red", graph.getNodeAttributes().get(0, "fillcolor"));
+	}
+
+	@Test
+	public void testColorSchemeAndListsNotPromoted() {
+		DotGraph graph = createGraph("red:blue", "red:blue", "green");
+		new DefaultPromoter().promoteNodeDefaults(graph);
+		assertNull(graph.getNodeDefaults().get("fillcolor"));
+
+		graph = createGraph("red", "red", "green");
+		graph.getNodeAttributes().set(0, "colorscheme", "svg");
+		new DefaultPromoter().promoteNodeDefaults(graph);
+		assertNull(graph.getNodeDefaults().get("fillcolor"));
+	}
+}
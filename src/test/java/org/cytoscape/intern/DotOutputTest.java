@@ -0,0 +1,69 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.cytoscape.intern.write.DotOutput;
+import org.junit.Test;
+
+public class DotOutputTest {
+
+	// ASCII, Latin-1, a CJK char and a surrogate pair
+	private static final String TEXT = "\"a§b\" -> \"图😀\" [label = \"x\"]\n";
+
+	@Test
+	public void testEncodingAcrossBuffers() throws IOException {
+		StringBuilder expected = new StringBuilder();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		// a 3 char buffer splits the surrogate pair and the strings
+		DotOutput output = new DotOutput(bytes, 3);
+		for (int i = 0; i < 20; i++) {
+			output.append(TEXT).append('#').append(i);
+			expected.append(TEXT).append('#').append(i);
+		}
+		output.close();
+		assertArrayEquals(expected.toString().getBytes(Charset.forName("UTF-8")), bytes.toByteArray());
+	}
+
+	@Test
+	public void testFileChannel() throws IOException {
+		File file = File.createTempFile("dot-output", ".gv");
+		try {
+			DotOutput output = new DotOutput(new FileOutputStream(file), 16);
+			output.append(TEXT, 1, TEXT.length() - 1);
+			output.flush();
+			output.append("}");
+			output.close();
+			String written = new String(Files.readAllBytes(file.toPath()), Charset.forName("UTF-8"));
+			assertEquals(TEXT.substring(1, TEXT.length() - 1) + "}", written);
+		}
+		finally {
+			file.delete();
+		}
+	}
+}
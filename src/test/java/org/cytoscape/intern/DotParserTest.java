@@ -0,0 +1,255 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+
+import org.cytoscape.intern.read.DotAttributeList;
+import org.cytoscape.intern.read.DotEventQueue;
+import org.cytoscape.intern.read.DotGraphHandler;
+import org.cytoscape.intern.read.DotLexer;
+import org.cytoscape.intern.read.DotParseException;
+import org.cytoscape.intern.read.DotParser;
+import org.cytoscape.intern.read.ParallelDotTokenizer;
+import org.junit.Test;
+
+public class DotParserTest {
+
+	/*
+	 * Handler that records every event it receives as one line of text
+	 */
+	private static class RecordingHandler implements DotGraphHandler {
+		StringBuilder events = new StringBuilder();
+		int nodeCount = 0;
+		int edgeCount = 0;
+
+		@Override
+		public void startGraph(String id, boolean directed, boolean strict) {
+			events.append(String.format("graph %s %b %b\n", id, directed, strict));
+		}
+
+		@Override
+		public void graphAttribute(String name, String value) {
+			events.append(String.format("attr %s=%s\n", name, value));
+		}
+
+		@Override
+		public void defaultAttributes(DefaultType type, DotAttributeList attrs) {
+			events.append(String.format("default %s%s\n", type, format(attrs)));
+		}
+
+		@Override
+		public void startSubgraph(String id) {
+			events.append(String.format("subgraph %s\n", id));
+		}
+
+		@Override
+		public void endSubgraph() {
+			events.append("end subgraph\n");
+		}
+
+		@Override
+		public void node(String id, DotAttributeList attrs) {
+			nodeCount++;
+			events.append(String.format("node %s%s\n", id, format(attrs)));
+		}
+
+		@Override
+		public void edge(String sourceId, String targetId, boolean directed, DotAttributeList attrs) {
+			edgeCount++;
+			events.append(String.format("edge %s %s %s%s\n", sourceId, directed ? "->" : "--", targetId, format(attrs)));
+		}
+
+		@Override
+		public void endGraph() {
+			events.append("end graph\n");
+		}
+
+		private String format(DotAttributeList attrs) {
+			StringBuilder output = new StringBuilder();
+			for (int i = 0; i < attrs.size(); i++) {
+				output.append(String.format(" %s=%s", attrs.getName(i), attrs.getValue(i)));
+			}
+			return output.toString();
+		}
+	}
+
+	private RecordingHandler parse(String input) throws IOException, DotParseException {
+		RecordingHandler handler = new RecordingHandler();
+		new DotParser(new DotLexer(new StringReader(input)), handler).parse();
+		return handler;
+	}
+
+	@Test
+	public void testStatements() throws IOException, DotParseException {
+		RecordingHandler handler = parse(
+			"digraph \"G\" {\n"
+			+ "bgcolor=red; node [shape=box, fontsize=12]\n"
+			+ "a; \"b\" [label=\"B\"]\n"
+			+ "a -> b [color=blue]\n"
+			+ "}"
+		);
+		assertEquals(
+			"graph G true false\n"
+			+ "attr bgcolor=red\n"
+			+ "default NODE shape=box fontsize=12\n"
+			+ "node a\n"
+			+ "node b label=B\n"
+			+ "node a\n"
+			+ "node b\n"
+			+ "edge a -> b color=blue\n"
+			+ "end graph\n",
+			handler.events.toString()
+		);
+	}
+
+	@Test
+	public void testEdgeChainsAndSubgraphs() throws IOException, DotParseException {
+		RecordingHandler handler = parse(
+			"strict graph { a -- b -- c; a -- {d e} [w=1]; subgraph s { f } -- g }"
+		);
+		assertEquals(
+			"graph null false true\n"
+			+ "node a\n"
+			+ "node b\n"
+			+ "node c\n"
+			+ "edge a -- b\n"
+			+ "edge b -- c\n"
+			+ "node a\n"
+			+ "subgraph null\n"
+			+ "node d\n"
+			+ "node e\n"
+			+ "end subgraph\n"
+			+ "edge a -- d w=1\n"
+			+ "edge a -- e w=1\n"
+			+ "subgraph s\n"
+			+ "node f\n"
+			+ "end subgraph\n"
+			+ "node g\n"
+			+ "edge f -- g\n"
+			+ "end graph\n",
+			handler.events.toString()
+		);
+	}
+
+	@Test
+	public void testLexicalForms() throws IOException, DotParseException {
+		RecordingHandler handler = parse(
+			"/* comment */ DIGRAPH {\n"
+			+ "# preprocessor line\n"
+			+ "n1:port:n -> -1.5 // comment\n"
+			+ "\"con\" + \"cat\" [label=<<b>x</b>>, tooltip=\"say \\\"hi\\\"\", fixedsize]\n"
+			+ "}"
+		);
+		assertEquals(
+			"graph null true false\n"
+			+ "node n1\n"
+			+ "node -1.5\n"
+			+ "edge n1 -> -1.5\n"
+			+ "node concat label=<b>x</b> tooltip=say \"hi\" fixedsize=true\n"
+			+ "end graph\n",
+			handler.events.toString()
+		);
+	}
+
+	@Test(expected = DotParseException.class)
+	public void testInvalidInput() throws IOException, DotParseException {
+		parse("digraph { a -> }");
+	}
+
+	@Test
+	public void testExpectedFile() throws IOException, DotParseException {
+		RecordingHandler handler = new RecordingHandler();
+		InputStreamReader input = new InputStreamReader(
+			getClass().getResourceAsStream("/expected_dot_files/karate.gv"), "UTF-8"
+		);
+		new DotParser(new DotLexer(input, 64), handler).parse();
+		input.close();
+		assertEquals(78, handler.edgeCount);
+		assertEquals(190, handler.nodeCount);
+	}
+
+	@Test
+	public void testParallelTokenizer() throws IOException, DotParseException {
+		String input = "\uFEFFdigraph G {\n"
+			+ "# preprocessor; line\n"
+			+ "a -> b [label=\"x;\\\ny\\\"\\n\"]; /* c;\n */ c // d;\n"
+			+ "e [label=<<b>;\n</b>>] f -> g; \"h\u00e9\"\n"
+			+ "}\ngraph { i -- j }";
+		RecordingHandler direct = parse(input);
+
+		// one byte chunks put a boundary after every possible character
+		InputStream stream = new BufferedInputStream(new ByteArrayInputStream(input.getBytes("UTF-8")), 3);
+		ParallelDotTokenizer tokenizer = new ParallelDotTokenizer(stream, 2, 1);
+		RecordingHandler parallel = new RecordingHandler();
+		try {
+			new DotParser(tokenizer, parallel).parse();
+		}
+		finally {
+			tokenizer.close();
+		}
+		assertEquals(direct.events.toString(), parallel.events.toString());
+	}
+
+	@Test
+	public void testEventQueue() throws Exception {
+		final String input = "digraph G { node [shape=box]; a -> b -> c [color=red]; "
+				+ "subgraph s { d [label=D] } e; f -> g }";
+		RecordingHandler direct = parse(input);
+
+		// batches of two events force the producer to block on the queue
+		final DotEventQueue queue = new DotEventQueue(1, 2);
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					new DotParser(new DotLexer(new StringReader(input)), queue).parse();
+					queue.finish();
+				}
+				catch (IOException | DotParseException e) {
+					queue.fail(e);
+				}
+			}
+		});
+		producer.start();
+		RecordingHandler queued = new RecordingHandler();
+		queue.drainTo(queued);
+		producer.join();
+		assertEquals(direct.events.toString(), queued.events.toString());
+	}
+
+	@Test(expected = DotParseException.class)
+	public void testEventQueueError() throws Exception {
+		final DotEventQueue queue = new DotEventQueue(4, 16);
+		try {
+			new DotParser(new DotLexer(new StringReader("graph { a -- b; c -- }")), queue).parse();
+		}
+		catch (DotParseException e) {
+			queue.fail(e);
+		}
+		queue.drainTo(new RecordingHandler());
+	}
+}
@@ -0,0 +1,186 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.intern.read.DotReaderTask;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNetworkManager;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.NetworkTestSupport;
+import org.cytoscape.model.subnetwork.CyRootNetwork;
+import org.cytoscape.model.subnetwork.CyRootNetworkManager;
+import org.cytoscape.model.subnetwork.CySubNetwork;
+import org.cytoscape.view.model.CyNetworkViewFactory;
+import org.cytoscape.view.presentation.RenderingEngineManager;
+import org.cytoscape.view.presentation.property.values.BendFactory;
+import org.cytoscape.view.presentation.property.values.HandleFactory;
+import org.cytoscape.view.vizmap.VisualMappingFunctionFactory;
+import org.cytoscape.view.vizmap.VisualMappingManager;
+import org.cytoscape.view.vizmap.VisualStyleFactory;
+import org.cytoscape.work.TaskMonitor;
+import org.junit.Test;
+
+public class DotReaderTaskTest {
+
+	/*
+	 * Returns a DotReaderTask importing only the topology of a DOT input
+	 * read through a BufferedInputStream, as Cytoscape passes it
+	 */
+	private DotReaderTask createTask(String input) throws IOException {
+		return createTask(input, null);
+	}
+
+	/*
+	 * Returns a DotReaderTask importing only the topology of a DOT input
+	 * into the collection of a root network, null for a new collection
+	 */
+	private DotReaderTask createTask(String input, final CyRootNetwork root) throws IOException {
+		DotReaderTask task = new DotReaderTask(
+			new BufferedInputStream(new ByteArrayInputStream(input.getBytes("UTF-8"))),
+			mock(CyNetworkViewFactory.class), new NetworkTestSupport().getNetworkFactory(),
+			mock(CyNetworkManager.class), mock(CyRootNetworkManager.class), mock(VisualMappingManager.class),
+			mock(VisualStyleFactory.class), mock(GradientListener.class), mock(RenderingEngineManager.class),
+			mock(CyEventHelper.class), mock(VisualMappingFunctionFactory.class), mock(BendFactory.class),
+			mock(HandleFactory.class)
+		) {
+			@Override
+			public CyRootNetwork getRootNetwork() {
+				return root;
+			}
+		};
+		task.topologyOnly = true;
+		return task;
+	}
+
+	/*
+	 * Returns one line per node name and per edge of the imported networks
+	 */
+	private String describe(CyNetwork[] networks) {
+		StringBuilder description = new StringBuilder();
+		for (CyNetwork network : networks) {
+			List<String> lines = new ArrayList<String>();
+			for (CyNode node : network.getNodeList()) {
+				lines.add("node " + network.getRow(node).get(CyNetwork.NAME, String.class));
+			}
+			for (CyEdge edge : network.getEdgeList()) {
+				lines.add(String.format("edge %s %s %b",
+					network.getRow(edge.getSource()).get(CyNetwork.NAME, String.class),
+					network.getRow(edge.getTarget()).get(CyNetwork.NAME, String.class),
+					edge.isDirected()));
+			}
+			Collections.sort(lines);
+			description.append(network.getRow(network).get(CyNetwork.NAME, String.class)).append('\n');
+			for (String line : lines) {
+				description.append(line).append('\n');
+			}
+		}
+		return description.toString();
+	}
+
+	@Test
+	public void testParallelTokenizing() throws IOException {
+		StringBuilder input = new StringBuilder("digraph G {\n");
+		for (int i = 0; i < 200; i++) {
+			input.append(String.format("n%d -> n%d [label=\"%d;\\\"\"]; /* n%d; */\n", i, (i * 7) % 200, i, i));
+			input.append(String.format("\"m%dé\" # %d\n", i, i));
+		}
+		input.append("}\ngraph H { a -- b; b -- c }\n");
+
+		// a small input is prescanned and read by a single DotLexer
+		DotReaderTask sequential = createTask(input.toString());
+		sequential.run(mock(TaskMonitor.class));
+
+		// a threshold of 0 tokenizes even this small input in chunks
+		DotReaderTask parallel = createTask(input.toString());
+		parallel.setTokenizing(4, 0, 64);
+		parallel.run(mock(TaskMonitor.class));
+
+		assertEquals(2, parallel.getNetworks().length);
+		assertEquals(400, parallel.getNetworks()[0].getNodeCount());
+		assertEquals(200, parallel.getNetworks()[0].getEdgeCount());
+		assertEquals(describe(sequential.getNetworks()), describe(parallel.getNetworks()));
+	}
+
+	@Test
+	public void testKeptAttributes() throws IOException {
+		DotReaderTask task = createTask(
+			"digraph G { a [name=x, \"shared name\"=y, color=red]; a -> b [interaction=z, color=blue] }"
+		);
+		task.keptAttributes = "name,shared name,interaction,color";
+		task.run(mock(TaskMonitor.class));
+
+		// columns filled by the importer keep their values
+		CyNetwork network = task.getNetworks()[0];
+		CyNode node = network.getNodeList().get(0);
+		CyEdge edge = network.getEdgeList().get(0);
+		String nodeName = network.getRow(node).get(CyNetwork.NAME, String.class);
+		assertTrue(nodeName.equals("a") || nodeName.equals("b"));
+		assertEquals(nodeName.equals("a") ? "red" : null, network.getRow(node).get("color", String.class));
+		assertEquals("interaction", network.getRow(edge).get(CyEdge.INTERACTION, String.class));
+		assertEquals("a (interaction) b", network.getRow(edge).get(CyNetwork.NAME, String.class));
+		assertEquals("blue", network.getRow(edge).get("color", String.class));
+	}
+
+	@Test
+	public void testKeptPositions() throws IOException {
+		DotReaderTask task = createTask("graph G { a [pos=\"1,2\"]; a -- b [pos=\"1,2 3,4\"] }");
+		task.layoutUnpositioned = true;
+		task.run(mock(TaskMonitor.class));
+
+		// positions are kept to lay out the view, but not as columns
+		CyNetwork network = task.getNetworks()[0];
+		assertNull(network.getDefaultNodeTable().getColumn("pos"));
+		assertNull(network.getDefaultEdgeTable().getColumn("pos"));
+	}
+
+	@Test
+	public void testFailedImport() throws IOException {
+		CySubNetwork existing = (CySubNetwork) new NetworkTestSupport().getNetwork();
+		existing.addNode();
+		CyRootNetwork root = existing.getRootNetwork();
+		DotReaderTask task = createTask("digraph G { a -> b } digraph H { c -> d; e -> }", root);
+		try {
+			task.run(mock(TaskMonitor.class));
+			fail();
+		}
+		catch (RuntimeException e) {
+			// the second graph is invalid
+		}
+
+		// neither the complete nor the unfinished graph is left in the collection
+		assertEquals(1, root.getSubNetworkList().size());
+		assertEquals(1, root.getNodeCount());
+		assertEquals(0, root.getEdgeCount());
+	}
+}
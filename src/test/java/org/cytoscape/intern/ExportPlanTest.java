@@ -0,0 +1,231 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ * 
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Paint;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.cytoscape.intern.write.mapper.EdgePropertyMapper;
+import org.cytoscape.intern.write.mapper.ExportPlan;
+import org.cytoscape.intern.write.mapper.MappedColumns;
+import org.cytoscape.intern.write.mapper.NodePropertyMapper;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.model.NetworkTestSupport;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.presentation.property.BasicVisualLexicon;
+import org.cytoscape.view.presentation.property.NullVisualProperty;
+import org.cytoscape.view.vizmap.VisualMappingFunction;
+import org.cytoscape.view.vizmap.VisualPropertyDependency;
+import org.junit.Test;
+
+public class ExportPlanTest {
+
+	/*
+	 * Checks that every element of a network view is written the same with
+	 * an ExportPlan scanned from the view as when each View is read in full
+	 */
+	private void assertSameAsViews(TestVisualStyle vizStyle, CyNetworkView networkView, ExportPlan plan) {
+		NodePropertyMapper nodeMapper = new NodePropertyMapper(plan, "t");
+		for (View<CyNode> nodeView : networkView.getNodeViews()) {
+			nodeMapper.setView(nodeView);
+			assertEquals("Node written from the export plan differs",
+				new NodePropertyMapper(nodeView, vizStyle, "t").getElementString(), nodeMapper.getElementString());
+		}
+		EdgePropertyMapper edgeMapper = new EdgePropertyMapper(plan, networkView);
+		for (View<CyEdge> edgeView : networkView.getEdgeViews()) {
+			edgeMapper.setView(edgeView);
+			assertEquals("Edge written from the export plan differs",
+				new EdgePropertyMapper(edgeView, vizStyle, networkView).getElementString(), edgeMapper.getElementString());
+		}
+	}
+
+	@Test
+	public void testDefaultElements() {
+		NetworkTestSupport nts = new NetworkTestSupport();
+		CyNetwork network = nts.getNetwork();
+		CyNode node = network.addNode();
+		CyNode node2 = network.addNode();
+		CyEdge edge = network.addEdge(node, node2, true);
+		CyEdge edge2 = network.addEdge(node2, node, true);
+		TestVisualStyle vizStyle = new TestVisualStyle();
+		CyNetworkView networkView = new TestNetworkView(network);
+		View<CyNode> nodeView2 = networkView.getNodeView(node2);
+		View<CyEdge> edgeView2 = networkView.getEdgeView(edge2);
+
+		// a bypass equal to the default is still checked
+		nodeView2.setLockedValue(BasicVisualLexicon.NODE_LABEL, "Bypass");
+		edgeView2.setLockedValue(BasicVisualLexicon.EDGE_WIDTH, vizStyle.getDefaultValue(BasicVisualLexicon.EDGE_WIDTH));
+
+		ExportPlan plan = new ExportPlan(vizStyle, networkView);
+		assertTrue(plan.isDefaultNode(networkView.getNodeView(node)));
+		assertFalse(plan.isDefaultNode(nodeView2));
+		assertTrue(plan.isDefaultEdge(networkView.getEdgeView(edge)));
+		assertFalse(plan.isDefaultEdge(edgeView2));
+		assertFalse(plan.canDiffer(BasicVisualLexicon.NODE_FILL_COLOR));
+		assertTrue(plan.canDiffer(nodeView2, BasicVisualLexicon.NODE_LABEL));
+		assertFalse(plan.canDiffer(networkView.getNodeView(node), BasicVisualLexicon.NODE_LABEL));
+		assertSameAsViews(vizStyle, networkView, plan);
+	}
+
+	@Test
+	public void testDependentProperty() {
+		NetworkTestSupport nts = new NetworkTestSupport();
+		CyNetwork network = nts.getNetwork();
+		CyNode node = network.addNode();
+		CyNode node2 = network.addNode();
+		CyEdge edge = network.addEdge(node, node2, true);
+		TestVisualStyle vizStyle = new TestVisualStyle();
+		BasicVisualLexicon bvl = new BasicVisualLexicon(new NullVisualProperty("root", "Root Property"));
+
+		// arrow and stroke colors take the edge color, whose default differs
+		// from the default stroke color
+		Set<VisualProperty<Paint>> edgePaints = new HashSet<VisualProperty<Paint>>();
+		edgePaints.add(BasicVisualLexicon.EDGE_STROKE_UNSELECTED_PAINT);
+		edgePaints.add(BasicVisualLexicon.EDGE_SOURCE_ARROW_UNSELECTED_PAINT);
+		edgePaints.add(BasicVisualLexicon.EDGE_TARGET_ARROW_UNSELECTED_PAINT);
+		VisualPropertyDependency<Paint> vpDep = new VisualPropertyDependency<Paint>(
+			"arrowColorMatchesEdge", "Arrow color matches edge", edgePaints, bvl
+		);
+		vpDep.setDependency(true);
+		vizStyle.addVisualPropertyDependency(vpDep);
+		vizStyle.setDefaultValue(BasicVisualLexicon.EDGE_UNSELECTED_PAINT, new Color(0xAA, 0x11, 0x22));
+
+		CyNetworkView networkView = new TestNetworkView(network);
+		View<CyEdge> edgeView = networkView.getEdgeView(edge);
+		edgeView.setVisualProperty(BasicVisualLexicon.EDGE_STROKE_UNSELECTED_PAINT, new Color(0xAA, 0x11, 0x22));
+
+		ExportPlan plan = new ExportPlan(vizStyle, networkView);
+		assertTrue(plan.canDiffer(BasicVisualLexicon.EDGE_STROKE_UNSELECTED_PAINT));
+		assertFalse(plan.isDefaultEdge(edgeView));
+		assertSameAsViews(vizStyle, networkView, plan);
+	}
+
+	@Test
+	public void testMappedElements() {
+		NetworkTestSupport nts = new NetworkTestSupport();
+		CyNetwork network = nts.getNetwork();
+		CyTable nodeTable = network.getDefaultNodeTable();
+		CyTable edgeTable = network.getDefaultEdgeTable();
+		nodeTable.createColumn("type", String.class, false);
+		edgeTable.createColumn("score", Double.class, false);
+		String[] types = {"a", "b", "a", "c", null};
+		List<CyNode> nodes = new ArrayList<CyNode>();
+		for (String type : types) {
+			CyNode node = network.addNode();
+			network.getRow(node).set(CyNetwork.NAME, "Node" + nodes.size());
+			network.getRow(node).set("type", type);
+			nodes.add(node);
+		}
+		CyEdge edge = network.addEdge(nodes.get(0), nodes.get(1), true);
+		CyEdge edge2 = network.addEdge(nodes.get(1), nodes.get(2), true);
+		network.getRow(edge).set("score", Double.valueOf(1.0));
+		network.getRow(edge2).set("score", Double.valueOf(2.0));
+
+		TestVisualStyle vizStyle = new TestVisualStyle();
+		TestVisualMappingFunction<String, Paint> fillMapping = new TestVisualMappingFunction<String, Paint>(
+			"type", String.class, BasicVisualLexicon.NODE_FILL_COLOR
+		);
+		fillMapping.putMapValue("a", Color.RED);
+		fillMapping.putMapValue("b", Color.BLUE);
+		vizStyle.addVisualMappingFunction(fillMapping);
+		TestVisualMappingFunction<Double, Double> widthMapping = new TestVisualMappingFunction<Double, Double>(
+			"score", Double.class, BasicVisualLexicon.EDGE_WIDTH
+		);
+		widthMapping.putMapValue(Double.valueOf(1.0), Double.valueOf(3.5));
+		vizStyle.addVisualMappingFunction(widthMapping);
+
+		// apply the style, then bypass the mapped fill color of one node and
+		// the label of another
+		CyNetworkView networkView = new TestNetworkView(network);
+		for (View<CyNode> nodeView : networkView.getNodeViews()) {
+			fillMapping.apply(network.getRow(nodeView.getModel()), nodeView);
+		}
+		for (View<CyEdge> edgeView : networkView.getEdgeViews()) {
+			widthMapping.apply(network.getRow(edgeView.getModel()), edgeView);
+		}
+		View<CyNode> bypassedView = networkView.getNodeView(nodes.get(1));
+		bypassedView.setLockedValue(BasicVisualLexicon.NODE_FILL_COLOR, Color.GREEN);
+		networkView.getNodeView(nodes.get(4)).setLockedValue(BasicVisualLexicon.NODE_LABEL, "Bypass");
+		networkView.getEdgeView(edge2).setLockedValue(BasicVisualLexicon.EDGE_LABEL, "Bypass");
+
+		ExportPlan plan = new ExportPlan(vizStyle, networkView);
+		assertFalse(plan.isDefaultNode(networkView.getNodeView(nodes.get(0))));
+		assertFalse(plan.isDefaultEdge(networkView.getEdgeView(edge)));
+		assertEquals(Color.RED, plan.getValue(networkView.getNodeView(nodes.get(0)), BasicVisualLexicon.NODE_FILL_COLOR));
+		assertEquals(Color.GREEN, plan.getValue(bypassedView, BasicVisualLexicon.NODE_FILL_COLOR));
+		assertEquals(vizStyle.getDefaultValue(BasicVisualLexicon.NODE_FILL_COLOR),
+			plan.getValue(networkView.getNodeView(nodes.get(3)), BasicVisualLexicon.NODE_FILL_COLOR));
+		assertEquals(Double.valueOf(3.5), plan.getValue(networkView.getEdgeView(edge), BasicVisualLexicon.EDGE_WIDTH));
+		assertSameAsViews(vizStyle, networkView, plan);
+	}
+
+	@Test
+	public void testMappedColumns() {
+		NetworkTestSupport nts = new NetworkTestSupport();
+		CyNetwork network = nts.getNetwork();
+		CyTable nodeTable = network.getDefaultNodeTable();
+		nodeTable.createColumn("type", String.class, false);
+		String[] types = {"a", "b", "a", "c", null, "b"};
+		List<CyNode> nodes = new ArrayList<CyNode>();
+		for (String type : types) {
+			CyNode node = network.addNode();
+			network.getRow(node).set("type", type);
+			nodes.add(node);
+		}
+		TestVisualStyle vizStyle = new TestVisualStyle();
+		Paint defaultFill = vizStyle.getDefaultValue(BasicVisualLexicon.NODE_FILL_COLOR);
+		TestVisualMappingFunction<String, Paint> fillMapping = new TestVisualMappingFunction<String, Paint>(
+			"type", String.class, BasicVisualLexicon.NODE_FILL_COLOR
+		);
+		fillMapping.putMapValue("a", Color.RED);
+		fillMapping.putMapValue("b", Color.BLUE);
+		List<VisualMappingFunction<?, ?>> mappings = new ArrayList<VisualMappingFunction<?, ?>>();
+		mappings.add(fillMapping);
+
+		MappedColumns columns = new MappedColumns(nodeTable, mappings, new ExportPlan(vizStyle));
+
+		// the mapping is evaluated once per distinct column value
+		assertEquals(4, fillMapping.evaluations);
+		assertTrue(columns.contains(BasicVisualLexicon.NODE_FILL_COLOR));
+		assertFalse(columns.contains(BasicVisualLexicon.NODE_LABEL));
+		Paint[] expected = {Color.RED, Color.BLUE, Color.RED, defaultFill, defaultFill, Color.BLUE};
+		Set<Integer> rows = new HashSet<Integer>();
+		for (int i = 0; i < nodes.size(); i++) {
+			int row = columns.getRow(nodes.get(i).getSUID());
+			assertTrue(row >= 0);
+			rows.add(row);
+			assertEquals(expected[i], columns.get(row, BasicVisualLexicon.NODE_FILL_COLOR));
+		}
+		assertEquals(nodes.size(), rows.size());
+		assertEquals(-1, columns.getRow(-1L));
+	}
+}
@@ -0,0 +1,75 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.cytoscape.intern.read.DotGraph;
+import org.cytoscape.intern.read.ForceDirectedLayout;
+import org.junit.Test;
+
+public class ForceDirectedLayoutTest {
+
+	@Test
+	public void testTwoCliques() {
+		// two 5-cliques joined by a single edge
+		DotGraph graph = new DotGraph("G", false);
+		for (int node = 0; node < 10; node++) {
+			graph.addNode("n" + node, null);
+		}
+		for (int clique = 0; clique < 10; clique += 5) {
+			for (int source = clique; source < clique + 5; source++) {
+				for (int target = source + 1; target < clique + 5; target++) {
+					graph.addEdge(source, target, false, null);
+				}
+			}
+		}
+		graph.addEdge(0, 5, false, null);
+
+		ForceDirectedLayout layout = new ForceDirectedLayout(graph);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		layout.run(pool, 100);
+		pool.shutdown();
+
+		assertEquals(10, layout.getNodeCount());
+		double inside = 0;
+		double between = 0;
+		for (int source = 1; source < 5; source++) {
+			for (int target = 0; target < 5; target++) {
+				if (source != target) {
+					inside += distance(layout, source, target) + distance(layout, source + 5, target + 5);
+				}
+				between += distance(layout, source, target + 5);
+			}
+		}
+		assertFalse(Double.isNaN(inside) || Double.isInfinite(between));
+		// average distance within the cliques is below the one between them
+		assertTrue(inside / 32 < between / 20);
+	}
+
+	private static double distance(ForceDirectedLayout layout, int source, int target) {
+		double dx = layout.getX(source) - layout.getX(target);
+		double dy = layout.getY(source) - layout.getY(target);
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+}
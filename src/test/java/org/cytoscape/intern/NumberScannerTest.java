@@ -0,0 +1,66 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.cytoscape.intern.read.reader.NumberScanner;
+import org.junit.Test;
+
+public class NumberScannerTest {
+
+	@Test
+	public void testNumbers() {
+		NumberScanner scanner = new NumberScanner();
+		String[] numbers = {
+			"0", "-0", "1", "0.75", " 36.5 ", "-.5", "5.", "+2", "1e3", "2.5E-4",
+			"123456789.123456789", "0.1234567890123456789", "1e300", "4.9e-324"
+		};
+		for (String number : numbers) {
+			assertEquals(number, Double.doubleToLongBits(Double.parseDouble(number)),
+				Double.doubleToLongBits(scanner.parseDouble(number)));
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testInvalidNumber() {
+		new NumberScanner().parseDouble("1.5e");
+	}
+
+	@Test
+	public void testPoints() {
+		NumberScanner scanner = new NumberScanner();
+		assertTrue(scanner.scanPoint("27,-18.5"));
+		assertEquals(27.0, scanner.getX(), 0);
+		assertEquals(-18.5, scanner.getY(), 0);
+		assertEquals(2, scanner.getDimensions());
+		assertFalse(scanner.isPinned());
+
+		assertTrue(scanner.scanPoint("1.5,2,3!"));
+		assertEquals(3.0, scanner.getZ(), 0);
+		assertEquals(3, scanner.getDimensions());
+		assertTrue(scanner.isPinned());
+
+		assertFalse(scanner.scanPoint("1.5"));
+		assertFalse(scanner.scanPoint("1,2,"));
+		assertFalse(scanner.scanPoint("a,b"));
+	}
+}
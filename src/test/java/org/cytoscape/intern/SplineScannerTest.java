@@ -0,0 +1,104 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ *
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import static org.junit.Assert.assertEquals;
+
+import org.cytoscape.intern.read.reader.SplineScanner;
+import org.junit.Test;
+
+public class SplineScannerTest {
+
+	@Test
+	public void testSegments() {
+		SplineScanner scanner = new SplineScanner();
+
+		// one segment has its middle as only curve point
+		assertEquals(1, scanner.scanHandles("0,0 10,30 30,30 40,0", 8));
+		assertEquals(20.0, scanner.getHandleX(0), 0);
+		assertEquals(22.5, scanner.getHandleY(0), 0);
+
+		// two segments add the joint between them
+		assertEquals(3, scanner.scanHandles("0,0 0,30 30,30 30,0 30,-30 60,-30 60,0", 8));
+		assertEquals(15.0, scanner.getHandleX(0), 0);
+		assertEquals(22.5, scanner.getHandleY(0), 0);
+		assertEquals(30.0, scanner.getHandleX(1), 0);
+		assertEquals(0.0, scanner.getHandleY(1), 0);
+		assertEquals(45.0, scanner.getHandleX(2), 0);
+		assertEquals(-22.5, scanner.getHandleY(2), 0);
+
+		// four segments have seven curve points
+		String zigzag = "0,0 10,15 20,0 30,15 40,0 50,15 60,0 70,15 80,0 90,15 100,0 110,15 120,0";
+		assertEquals(7, scanner.scanHandles(zigzag, 8));
+		assertEquals(15.0, scanner.getHandleX(0), 0);
+		assertEquals(7.5, scanner.getHandleY(0), 0);
+		assertEquals(30.0, scanner.getHandleX(1), 0);
+		assertEquals(15.0, scanner.getHandleY(1), 0);
+	}
+
+	@Test
+	public void testMaxHandles() {
+		SplineScanner scanner = new SplineScanner();
+		String zigzag = "0,0 10,15 20,0 30,15 40,0 50,15 60,0 70,15 80,0 90,15 100,0 110,15 120,0";
+
+		// seven curve points are subsampled to the middle of three parts
+		assertEquals(3, scanner.scanHandles(zigzag, 3));
+		assertEquals(30.0, scanner.getHandleX(0), 0);
+		assertEquals(15.0, scanner.getHandleY(0), 0);
+		assertEquals(60.0, scanner.getHandleX(1), 0);
+		assertEquals(0.0, scanner.getHandleY(1), 0);
+		assertEquals(90.0, scanner.getHandleX(2), 0);
+		assertEquals(15.0, scanner.getHandleY(2), 0);
+
+		assertEquals(0, scanner.scanHandles(zigzag, 0));
+	}
+
+	@Test
+	public void testSplineValues() {
+		SplineScanner scanner = new SplineScanner();
+
+		// arrow end points are skipped
+		assertEquals(1, scanner.scanHandles("e,40,0 s,0,0 0,0 10,30 30,30 40,0", 8));
+		assertEquals(20.0, scanner.getHandleX(0), 0);
+		assertEquals(22.5, scanner.getHandleY(0), 0);
+
+		// only the first spline is read
+		assertEquals(1, scanner.scanHandles("0,0 10,30 30,30 40,0;100,100 110,130 130,130 140,100", 8));
+		assertEquals(20.0, scanner.getHandleX(0), 0);
+		assertEquals(22.5, scanner.getHandleY(0), 0);
+
+		assertEquals(-1, scanner.scanHandles("0,0 10,x 30,30 40,0", 8));
+		assertEquals(-1, scanner.scanHandles("0,0 10 30,30 40,0", 8));
+		assertEquals(0, scanner.scanHandles("0,0 10,10", 8));
+		assertEquals(0, scanner.scanHandles("", 8));
+	}
+
+	@Test
+	public void testStraightSplines() {
+		SplineScanner scanner = new SplineScanner();
+		assertEquals(0, scanner.scanHandles("0,0 10,0 20,0.5 30,0", 8));
+		assertEquals(0, scanner.scanHandles("0,0 10,10 20,20 30,30 40,40 50,50 60,60", 8));
+		assertEquals(1, scanner.scanHandles("0,0 10,0 20,5 30,0", 8));
+
+		// loops start and end at the same point
+		assertEquals(1, scanner.scanHandles("0,0 10,10 -10,10 0,0", 8));
+		assertEquals(0.0, scanner.getHandleX(0), 0);
+		assertEquals(7.5, scanner.getHandleY(0), 0);
+	}
+}
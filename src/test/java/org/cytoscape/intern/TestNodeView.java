@@ -19,6 +19,7 @@
 package org.cytoscape.intern;
 
 import java.util.HashMap;
+import java.util.HashSet;
 
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.View;
@@ -28,6 +29,7 @@ import org.cytoscape.view.presentation.property.NullVisualProperty;
 
 public class TestNodeView implements View<CyNode> {
 	private HashMap<VisualProperty<Object>, Object> visualProperties;
+	private HashSet<VisualProperty<?>> lockedProperties = new HashSet<VisualProperty<?>>();
 	private CyNode model;
 	private Long SUID;
 	
@@ -43,6 +45,7 @@ public class TestNodeView implements View<CyNode> {
 	}
 	@Override
 	public void clearValueLock(VisualProperty<?> arg0) {
+		lockedProperties.remove(arg0);
 	}
 
 	@Override
@@ -68,7 +71,7 @@ public class TestNodeView implements View<CyNode> {
 
 	@Override
 	public boolean isDirectlyLocked(VisualProperty<?> arg0) {
-		return false;
+		return lockedProperties.contains(arg0);
 	}
 
 	@Override
@@ -78,12 +81,14 @@ public class TestNodeView implements View<CyNode> {
 
 	@Override
 	public boolean isValueLocked(VisualProperty<?> arg0) {
-		return false;
+		return lockedProperties.contains(arg0);
 	}
 
 	@Override
 	public <T, V extends T> void setLockedValue(
 			VisualProperty<? extends T> arg0, V arg1) {
+		setVisualProperty(arg0, arg1);
+		lockedProperties.add(arg0);
 	}
 
 	@SuppressWarnings("unchecked")
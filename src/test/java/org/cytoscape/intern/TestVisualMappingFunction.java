@@ -0,0 +1,78 @@
+/**************************
+ * Copyright © 2015-2020 Braxton Fitts, Ziran Zhang, Massoud Maher
+ * 
+ * This file is part of dot-app.
+ * dot-app is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * dot-app is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with dot-app.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.cytoscape.intern;
+
+import java.util.HashMap;
+
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.view.model.View;
+import org.cytoscape.view.model.VisualProperty;
+import org.cytoscape.view.vizmap.VisualMappingFunction;
+
+public class TestVisualMappingFunction<K, V> implements VisualMappingFunction<K, V> {
+
+	String columnName;
+	Class<K> columnType;
+	VisualProperty<V> vizProp;
+	HashMap<K, V> mappedValues;
+
+	// number of times a mapped value was looked up by getMappedValue()
+	int evaluations = 0;
+
+	public TestVisualMappingFunction(String columnName, Class<K> columnType, VisualProperty<V> vizProp) {
+		this.columnName = columnName;
+		this.columnType = columnType;
+		this.vizProp = vizProp;
+		mappedValues = new HashMap<K, V>();
+	}
+
+	public void putMapValue(K key, V value) {
+		mappedValues.put(key, value);
+	}
+
+	@Override
+	public String getMappingColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public Class<K> getMappingColumnType() {
+		return columnType;
+	}
+
+	@Override
+	public VisualProperty<V> getVisualProperty() {
+		return vizProp;
+	}
+
+	@Override
+	public V getMappedValue(CyRow arg0) {
+		evaluations++;
+		return mappedValues.get(arg0.get(columnName, columnType));
+	}
+
+	@Override
+	public void apply(CyRow arg0, View<? extends CyIdentifiable> arg1) {
+		V value = mappedValues.get(arg0.get(columnName, columnType));
+		if (value != null) {
+			arg1.setVisualProperty(vizProp, value);
+		}
+	}
+}
@@ -38,6 +38,7 @@ public class TestVisualStyle implements VisualStyle {
 
 	HashMap<Object, Object> vizPropDefaults;
 	HashSet<VisualPropertyDependency<?>> vizDependencies;
+	HashMap<VisualProperty<?>, VisualMappingFunction<?, ?>> vizMappings;
 	
 	public TestVisualStyle() {
 		BasicVisualLexicon bvl = new BasicVisualLexicon(new NullVisualProperty("root", "Root Property"));
@@ -47,10 +48,11 @@ public class TestVisualStyle implements VisualStyle {
 			vizPropDefaults.put(vizProp, vizProp.getDefault());
 		}
 		vizDependencies = new HashSet<VisualPropertyDependency<?>>();
+		vizMappings = new HashMap<VisualProperty<?>, VisualMappingFunction<?, ?>>();
 	}
 	@Override
 	public void addVisualMappingFunction(VisualMappingFunction<?, ?> arg0) {
-
+		vizMappings.put(arg0.getVisualProperty(), arg0);
 	}
 
 	@Override
@@ -70,7 +72,7 @@ public class TestVisualStyle implements VisualStyle {
 
 	@Override
 	public Collection<VisualMappingFunction<?, ?>> getAllVisualMappingFunctions() {
-		return null;
+		return vizMappings.values();
 	}
 
 	@Override
@@ -89,15 +91,16 @@ public class TestVisualStyle implements VisualStyle {
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
 	@Override
 	public <V> VisualMappingFunction<?, V> getVisualMappingFunction(
 			VisualProperty<V> arg0) {
-		return null;
+		return (VisualMappingFunction<?, V>) vizMappings.get(arg0);
 	}
 
 	@Override
 	public void removeVisualMappingFunction(VisualProperty<?> arg0) {
-
+		vizMappings.remove(arg0);
 	}
 
 	@Override